@@ -4,7 +4,9 @@ import fluent.bundle.FluentResource;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -21,6 +23,22 @@ public interface AbstractLinter {
                                                       Consumer<Translatable> statusConsumer,
                                                       Consumer<FailureInformation> failureConsumer) throws LinterException, IOException;
 
+    /**
+     * Lints multiple submissions with the same configuration in this process.
+     * <p>
+     * The submissions are linted concurrently. A submission that fails to lint does not affect the others,
+     * its failure is reported through its {@link SubmissionResult}.
+     *
+     * @param submissions the root folders of the submissions to lint
+     * @param version the java version of the submissions
+     * @param checkConfiguration the checks to run on each submission
+     * @param threads the number of submissions to lint at the same time, 0 to choose based on the available processors
+     * @param resultConsumer will be called once for each submission as soon as it has been linted, never concurrently
+     * @return the wall time it took to lint all submissions
+     */
+    Duration checkFiles(Collection<Path> submissions, JavaVersion version, CheckConfiguration checkConfiguration,
+                        int threads, Consumer<? super SubmissionResult> resultConsumer);
+
     String translateMessage(Translatable translatable);
 
     static Builder builder(Locale locale) {
@@ -32,6 +50,8 @@ public interface AbstractLinter {
         private AbstractTempLocation tempLocation;
         private int threads;
         private ClassLoader classLoader;
+        private Path cacheDirectory;
+        private Consumer<? super Metric> metricsConsumer;
         private int maxProblemsPerCheck = -1;
         private List<FluentResource> messageOverrides = new ArrayList<>();
         private Map<AbstractProblemType, List<FluentResource>> conditionalOverrides = new HashMap<>();
@@ -76,6 +96,39 @@ public interface AbstractLinter {
             return classLoader;
         }
 
+        /**
+         * Cache the problems found in submissions in the given directory, so that linting an unchanged submission
+         * again does not have to compile it or run the checks whose results are already known.
+         *
+         * @param cacheDirectory the directory in which the results are stored, null to disable caching
+         * @return this
+         */
+        public Builder cacheDirectory(Path cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        public Path getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        /**
+         * Set a consumer that receives the metrics of every submission that is linted, once the submission is done.
+         * <p>
+         * The consumer is never called concurrently.
+         *
+         * @param metricsConsumer the consumer, null to not collect metrics
+         * @return this
+         */
+        public Builder metricsConsumer(Consumer<? super Metric> metricsConsumer) {
+            this.metricsConsumer = metricsConsumer;
+            return this;
+        }
+
+        public Consumer<? super Metric> getMetricsConsumer() {
+            return metricsConsumer;
+        }
+
         public Locale getLocale() {
             return locale;
         }
@@ -0,0 +1,39 @@
+package de.firemage.autograder.api;
+
+/**
+ * The resources used by a single step of linting a submission.
+ * <p>
+ * The cpu time and the allocated bytes are measured for the thread that executed the step.
+ * Work that the step hands off to other threads or processes is not included in them.
+ *
+ * @param kind the kind of step that has been measured
+ * @param name the name of the step, e.g. the name of the check or linter
+ * @param wallTimeNanos the elapsed real time in nanoseconds
+ * @param cpuTimeNanos the cpu time in nanoseconds, -1 if the JVM does not support measuring it
+ * @param allocatedBytes the number of bytes allocated on the heap, -1 if the JVM does not support measuring it
+ * @param problemCount the number of problems found by the step, 0 for steps that do not report problems
+ */
+public record Metric(Kind kind, String name, long wallTimeNanos, long cpuTimeNanos, long allocatedBytes, int problemCount) {
+    public enum Kind {
+        /**
+         * Compiling the submission with javac.
+         */
+        COMPILATION,
+        /**
+         * Building the spoon model of the submission.
+         */
+        MODEL,
+        /**
+         * Building an index over the model, like the uses or the method hierarchy.
+         */
+        INDEX,
+        /**
+         * Running one linter, like PMD or error-prone, with all of its checks.
+         */
+        LINTER,
+        /**
+         * Running a single check.
+         */
+        CHECK
+    }
+}
@@ -0,0 +1,33 @@
+package de.firemage.autograder.api;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of linting a single submission as part of a batch.
+ *
+ * @param submission the path to the submission that was linted
+ * @param problems the problems found in the submission, null if linting failed
+ * @param exception the exception that caused linting to fail, null if it succeeded
+ * @param wallTime the time it took to lint the submission
+ * @param metrics the metrics of the steps that have been executed to lint the submission
+ */
+public record SubmissionResult(Path submission, List<? extends AbstractProblem> problems, Exception exception, Duration wallTime,
+                               List<Metric> metrics) {
+    public static SubmissionResult forSuccess(Path submission, List<? extends AbstractProblem> problems, Duration wallTime,
+                                              List<Metric> metrics) {
+        Objects.requireNonNull(problems);
+        return new SubmissionResult(submission, problems, null, wallTime, metrics);
+    }
+
+    public static SubmissionResult forFailure(Path submission, Exception exception, Duration wallTime, List<Metric> metrics) {
+        Objects.requireNonNull(exception);
+        return new SubmissionResult(submission, null, exception, wallTime, metrics);
+    }
+
+    public boolean failed() {
+        return this.exception != null;
+    }
+}
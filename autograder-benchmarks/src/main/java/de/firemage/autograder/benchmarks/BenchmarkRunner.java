@@ -0,0 +1,41 @@
+package de.firemage.autograder.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the same command line options as JMH.
+ * <p>
+ * The only difference is that {@link IntegratedCheckBenchmark} is run for every integrated check,
+ * when no checks are selected with {@code -p check=...}.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+            || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getParameter(IntegratedCheckBenchmark.CHECK_PARAMETER).hasValue()) {
+            builder.param(
+                IntegratedCheckBenchmark.CHECK_PARAMETER,
+                IntegratedCheckBenchmark.findIntegratedChecks().keySet().toArray(String[]::new)
+            );
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package de.firemage.autograder.benchmarks;
+
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.MetricsCollector;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.compiler.CompilationResult;
+import de.firemage.autograder.core.compiler.Compiler;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.integrated.IndexRegistry;
+import de.firemage.autograder.core.integrated.ModelIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spoon.reflect.CtModel;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to build the spoon model of a submission and the indexes on top of it.
+ * <p>
+ * The submission is only compiled once. The indexes are built when they are first needed, so they are
+ * not part of {@link #buildModel()} and are measured individually on an already built model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CodeModelBenchmark {
+    @Param({"A1", "Bank", "Test"})
+    private String submission;
+
+    private SourceInfo source;
+    private CompilationResult compilationResult;
+    private CtModel model;
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException {
+        this.source = Submissions.source(this.submission);
+        this.compilationResult = new Compiler(this.source.getVersion()).compileInMemory(this.source)
+            .orElseThrow(() -> new IllegalStateException("The submission %s does not compile".formatted(this.submission)));
+        this.model = this.newCodeModel().getModel();
+    }
+
+    private CodeModel newCodeModel() {
+        return CodeModel.buildFor(this.source, this.compilationResult, null, new MetricsCollector());
+    }
+
+    @Benchmark
+    public CtModel buildModel() {
+        // the model is built lazily, so it has to be requested
+        return this.newCodeModel().getModel();
+    }
+
+    @Benchmark
+    public Object buildElementIndex() {
+        return IndexRegistry.getFor(this.model).build(ModelIndex.ELEMENT_INDEX);
+    }
+
+    @Benchmark
+    public Object buildMethodHierarchy() {
+        return IndexRegistry.getFor(this.model).build(ModelIndex.METHOD_HIERARCHY);
+    }
+
+    @Benchmark
+    public Object buildUsesFinder() {
+        return IndexRegistry.getFor(this.model).build(ModelIndex.USES);
+    }
+
+    @Benchmark
+    public Object buildDuplicateCodeFinder() {
+        // the finder needs the structural hash codes, they would otherwise only be computed in the first iteration
+        IndexRegistry registry = IndexRegistry.getFor(this.model);
+        registry.build(ModelIndex.STRUCTURAL_HASH_CODES);
+        return registry.build(ModelIndex.DUPLICATE_CODE);
+    }
+
+    @Benchmark
+    public IndexRegistry buildScannedIndexes() {
+        // these indexes share a single scan of the model
+        IndexRegistry registry = IndexRegistry.getFor(this.model);
+        registry.build(ModelIndex.STRUCTURAL_HASH_CODES);
+        registry.buildAll(EnumSet.of(
+            ModelIndex.ELEMENT_INDEX,
+            ModelIndex.METHOD_HIERARCHY,
+            ModelIndex.USES,
+            ModelIndex.DUPLICATE_CODE,
+            ModelIndex.ENCLOSING_SCOPES
+        ));
+        return registry;
+    }
+}
@@ -0,0 +1,46 @@
+package de.firemage.autograder.benchmarks;
+
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.compiler.CompilationResult;
+import de.firemage.autograder.core.compiler.Compiler;
+import de.firemage.autograder.core.file.SourceInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CompilerBenchmark {
+    @Param({"A1", "Bank", "Test"})
+    private String submission;
+
+    private SourceInfo source;
+    private Compiler compiler;
+
+    @Setup
+    public void setup() throws IOException {
+        this.source = Submissions.source(this.submission);
+        this.compiler = new Compiler(this.source.getVersion());
+    }
+
+    @Benchmark
+    public Optional<CompilationResult> compileInMemory() throws IOException, CompilationFailureException {
+        return this.compiler.compileInMemory(this.source);
+    }
+}
@@ -0,0 +1,106 @@
+package de.firemage.autograder.benchmarks;
+
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.StaticAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a single integrated check on an already built model.
+ * <p>
+ * By default, only a few checks are benchmarked. The {@link BenchmarkRunner} benchmarks all integrated checks,
+ * unless specific ones are selected with {@code -p check=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntegratedCheckBenchmark {
+    static final String CHECK_PARAMETER = "check";
+
+    @Param({"A1", "Bank", "Test"})
+    private String submission;
+
+    @Param({"DuplicateCode", "CommentLanguageCheck", "UnusedCodeElementCheck"})
+    private String check;
+
+    private UploadedFile file;
+    private StaticAnalysis staticAnalysis;
+    private IntegratedCheck integratedCheck;
+
+    /**
+     * Finds all integrated checks that can be executed by the linter.
+     *
+     * @return the checks by their simple name, sorted by name
+     */
+    static Map<String, Class<? extends IntegratedCheck>> findIntegratedChecks() {
+        Map<String, Class<? extends IntegratedCheck>> result = new TreeMap<>();
+        for (Class<?> type : new Reflections(new ConfigurationBuilder()
+            .forPackage("de.firemage.autograder", IntegratedCheckBenchmark.class.getClassLoader())
+            .addClassLoaders(IntegratedCheckBenchmark.class.getClassLoader())
+            .setScanners(Scanners.TypesAnnotated)
+        ).getTypesAnnotatedWith(ExecutableCheck.class)) {
+            if (!IntegratedCheck.class.isAssignableFrom(type) || Modifier.isAbstract(type.getModifiers())) {
+                continue;
+            }
+
+            Class<? extends IntegratedCheck> previous = result.put(type.getSimpleName(), type.asSubclass(IntegratedCheck.class));
+            if (previous != null) {
+                throw new IllegalStateException("The checks %s and %s have the same name".formatted(previous.getName(), type.getName()));
+            }
+        }
+
+        return result;
+    }
+
+    @Setup
+    public void setup() throws IOException, CompilationFailureException, ReflectiveOperationException {
+        Class<? extends IntegratedCheck> checkType = findIntegratedChecks().get(this.check);
+        if (checkType == null) {
+            throw new IllegalArgumentException("Unknown integrated check: " + this.check);
+        }
+
+        this.integratedCheck = checkType.getConstructor().newInstance();
+        this.file = Submissions.upload(this.submission);
+        // the check is measured on its own, like it would run in a batch
+        this.staticAnalysis = new StaticAnalysis(this.file.getModel(), this.file.getCompilationResult(), 1);
+        // build the model before the measurement starts
+        this.file.getModel().ensureModelBuild();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.file.close();
+    }
+
+    @Benchmark
+    public List<Problem> run() {
+        return this.integratedCheck.run(this.staticAnalysis, this.file.getSource());
+    }
+}
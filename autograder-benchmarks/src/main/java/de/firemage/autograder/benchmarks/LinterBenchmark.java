@@ -0,0 +1,63 @@
+package de.firemage.autograder.benchmarks;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.AbstractProblem;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.ProblemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lints a whole submission with all checks, like the command line would do.
+ * <p>
+ * The results are not cached, but the worker processes of error-prone are reused between the invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class LinterBenchmark {
+    @Param({"A1", "Bank", "Test"})
+    private String submission;
+
+    /**
+     * The number of threads used by the linter, 0 uses all available processors.
+     */
+    @Param({"0", "1"})
+    private int threads;
+
+    private Path path;
+    private Linter linter;
+    private CheckConfiguration checkConfiguration;
+
+    @Setup
+    public void setup() {
+        this.path = Submissions.locate(this.submission);
+        this.linter = new Linter(AbstractLinter.builder(Locale.US).threads(this.threads));
+        this.checkConfiguration = CheckConfiguration.fromProblemTypes(List.of(ProblemType.values()));
+    }
+
+    @Benchmark
+    public List<? extends AbstractProblem> checkFile() throws LinterException, IOException {
+        return this.linter.checkFile(this.path, Submissions.JAVA_VERSION, this.checkConfiguration, status -> {});
+    }
+}
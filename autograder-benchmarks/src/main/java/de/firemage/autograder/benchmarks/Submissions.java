@@ -0,0 +1,52 @@
+package de.firemage.autograder.benchmarks;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.compiler.CompilationFailureException;
+import de.firemage.autograder.core.file.FileSourceInfo;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Locates the submissions in {@code test_submissions} on which the benchmarks are run.
+ * <p>
+ * The directory is resolved relative to the working directory, which should be the root of the project.
+ * It can be changed with the system property {@value #DIRECTORY_PROPERTY}.
+ */
+final class Submissions {
+    static final JavaVersion JAVA_VERSION = JavaVersion.JAVA_17;
+    private static final String DIRECTORY_PROPERTY = "autograder.submissions";
+
+    private Submissions() {
+    }
+
+    static Path locate(String name) {
+        Path path = Path.of(System.getProperty(DIRECTORY_PROPERTY, "test_submissions"), name, "code").toAbsolutePath();
+        if (!Files.isDirectory(path)) {
+            throw new IllegalStateException("Could not find the submission %s at %s, run the benchmarks from the root of the project or set -D%s".formatted(
+                name,
+                path,
+                DIRECTORY_PROPERTY
+            ));
+        }
+
+        return path;
+    }
+
+    static SourceInfo source(String name) throws IOException {
+        return new FileSourceInfo(locate(name), JAVA_VERSION);
+    }
+
+    static UploadedFile upload(String name) throws IOException, CompilationFailureException {
+        UploadedFile file = UploadedFile.build(source(name), TempLocation.random(), status -> {}, null);
+        if (file == null) {
+            throw new IllegalStateException("The submission %s does not compile".formatted(name));
+        }
+
+        return file;
+    }
+}
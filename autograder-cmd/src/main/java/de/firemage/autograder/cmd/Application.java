@@ -8,12 +8,21 @@ import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.api.AbstractLinter;
 import de.firemage.autograder.api.LinterConfigurationException;
 import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.api.Metric;
 import de.firemage.autograder.api.AbstractProblem;
 import de.firemage.autograder.api.AbstractTempLocation;
+import de.firemage.autograder.api.SubmissionResult;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.api.loader.AutograderLoader;
 import de.firemage.autograder.cmd.output.Annotation;
+import de.firemage.autograder.cmd.output.MetricsReport;
+import de.firemage.autograder.cmd.output.SimilarityReport;
+import de.firemage.autograder.cmd.output.SubmissionReport;
+import de.firemage.autograder.core.file.UploadedFile;
 import de.firemage.autograder.core.integrated.CoreUtil;
+import de.firemage.autograder.core.similarity.MethodFingerprint;
+import de.firemage.autograder.core.similarity.SimilarMethodPair;
+import de.firemage.autograder.core.similarity.SimilarityIndex;
 import de.firemage.autograder.span.Formatter;
 import de.firemage.autograder.span.Highlight;
 import de.firemage.autograder.span.Position;
@@ -36,30 +45,43 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Command(mixinStandardHelpOptions = true, version = "codelinter-cmd 1.0",
         description = "Static code analysis for student java code")
 public class Application implements Callable<Integer> {
     private static final int IO_EXIT_CODE = 3;
     private static final int MISC_EXIT_CODE = 10;
+    // the mapper is thread-safe and expensive to create, so it is shared by all reports
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    @Parameters(index = "0", description = "The check configuration.")
+    // The parameters are optional, so that they are not required when the batch subcommand is used.
+    // They are validated in the call method.
+    @Parameters(index = "0", arity = "0..1", description = "The check configuration.")
     private String checkConfig;
 
-    @Parameters(index = "1", description = "The root folder which contains the files to check.")
+    @Parameters(index = "1", arity = "0..1", description = "The root folder which contains the files to check.")
     private Path file;
 
-    @Option(names = {"-j", "--java", "--java-version"}, defaultValue = "21", description = "Set the Java version.")
+    @Option(names = {"-j", "--java", "--java-version"}, defaultValue = "21", description = "Set the Java version.",
+            scope = CommandLine.ScopeType.INHERIT)
     private String javaVersion;
 
     @Option(names = {
-            "--output-json"}, description = "Output the found problems in JSON format instead of more readable plain text")
+            "--output-json"}, description = "Output the found problems in JSON format instead of more readable plain text",
+            scope = CommandLine.ScopeType.INHERIT)
     private boolean outputJson;
 
     // TODO: remove this
@@ -68,22 +90,34 @@ public class Application implements Callable<Integer> {
     private boolean staticOnly;
 
     @Option(names = {
-            "--pass-config"}, description = "Interpret the first parameter not as the path to a config file, but as the contents of the config file")
+            "--pass-config"}, description = "Interpret the first parameter not as the path to a config file, but as the contents of the config file",
+            scope = CommandLine.ScopeType.INHERIT)
     private boolean passConfig;
 
     @Option(names = {"-p", "--output-pretty"}, description = "Pretty print the output", defaultValue = "false")
     private boolean isPrettyOutput;
 
-    @Option(names = {"--max-problems"}, description = "The maximum number of problems to report per check", defaultValue = "10")
+    @Option(names = {"--max-problems"}, description = "The maximum number of problems to report per check", defaultValue = "10",
+            scope = CommandLine.ScopeType.INHERIT)
     private int maxProblemsPerCheck;
 
-    @Option(names = {"--debug"}, description = "Enables debug mode, note that this slows down execution", defaultValue = "false")
+    @Option(names = {"--cache-dir"}, description = "Cache the found problems in this directory, so unchanged submissions are not linted again",
+            scope = CommandLine.ScopeType.INHERIT)
+    private Path cacheDirectory;
+
+    @Option(names = {"--metrics-json"}, description = "Write the time and memory used by each step of the linting to this file as JSON",
+            scope = CommandLine.ScopeType.INHERIT)
+    private Path metricsFile;
+
+    @Option(names = {"--debug"}, description = "Enables debug mode, note that this slows down execution", defaultValue = "false",
+            scope = CommandLine.ScopeType.INHERIT)
     private boolean isInDebugMode;
 
     @Spec
     private CommandSpec spec;
 
     private final AbstractTempLocation tempLocation;
+    private final List<MetricsReport> metricsReports = new ArrayList<>();
 
     public Application(AbstractTempLocation tempLocation) {
         this.tempLocation = tempLocation;
@@ -179,28 +213,72 @@ public class Application implements Callable<Integer> {
         CmdUtil.endSection();
     }
 
-    @Override
-    public Integer call() {
-        if (!JavaVersion.isValidJavaVersion(javaVersion)) {
-            throw new ParameterException(this.spec.commandLine(), "Unknown java version '" + javaVersion + "'");
+    // Depending on the structure of the project, the code might be in a subdirectory.
+    // By default, we support explicitly specifying the folder to the first package (./src/main/java)
+    //
+    // Here we check if the project has a folder `src/<here the first package>` or `assignment/src/<here the first package>`
+    // and if so, we assume that the code is in that folder.
+    private static Path findSourceRoot(Path root) {
+        Path result = root;
+        if (Files.exists(result.resolve("src"))) {
+            result = result.resolve("src");
         }
 
-        // Depending on the structure of the project, the code might be in a subdirectory.
-        // By default, we support explicitly specifying the folder to the first package (./src/main/java)
-        //
-        // Here we check if the project has a folder `src/<here the first package>` or `assignment/src/<here the first package>`
-        // and if so, we assume that the code is in that folder.
-        if (Files.exists(this.file.resolve("src"))) {
-            this.file = this.file.resolve("src");
+        if (Files.exists(result.resolve("assignment/src"))) {
+            result = result.resolve("assignment/src");
         }
 
-        if (Files.exists(this.file.resolve("assignment/src"))) {
-            this.file = this.file.resolve("assignment/src");
+        return result;
+    }
+
+    private void validateCommonOptions() {
+        if (!JavaVersion.isValidJavaVersion(javaVersion)) {
+            throw new ParameterException(this.spec.commandLine(), "Unknown java version '" + javaVersion + "'");
         }
 
         if (this.isInDebugMode) {
             CoreUtil.setDebugMode();
         }
+    }
+
+    private CheckConfiguration loadCheckConfiguration(String config) throws IOException, LinterConfigurationException {
+        if (passConfig) {
+            return CheckConfiguration.fromConfigString(config);
+        } else {
+            return CheckConfiguration.fromConfigFile(Path.of(config));
+        }
+    }
+
+    private AbstractLinter createLinter(Consumer<? super Metric> metricsConsumer) {
+        return this.createLinter(metricsConsumer, 0);
+    }
+
+    private AbstractLinter createLinter(Consumer<? super Metric> metricsConsumer, int threads) {
+        return AutograderLoader.instantiateLinter(AbstractLinter.builder(Locale.GERMANY)
+                .threads(threads)
+                .tempLocation(this.tempLocation)
+                .cacheDirectory(this.cacheDirectory)
+                .metricsConsumer(metricsConsumer)
+                .maxProblemsPerCheck(this.maxProblemsPerCheck));
+    }
+
+    private void writeMetrics() throws IOException {
+        if (this.metricsFile == null) {
+            return;
+        }
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(this.metricsFile.toFile(), this.metricsReports);
+    }
+
+    @Override
+    public Integer call() {
+        if (this.checkConfig == null || this.file == null) {
+            throw new ParameterException(this.spec.commandLine(), "Missing required parameters: '<checkConfig>', '<file>'");
+        }
+
+        this.validateCommonOptions();
+
+        this.file = findSourceRoot(this.file);
 
         if (!outputJson) {
             System.out.println("Student source code directory is " + file);
@@ -209,20 +287,14 @@ public class Application implements Callable<Integer> {
         // Create the check configuration
         CheckConfiguration checkConfiguration;
         try {
-            if (passConfig) {
-                checkConfiguration = CheckConfiguration.fromConfigString(checkConfig);
-            } else {
-                checkConfiguration = CheckConfiguration.fromConfigFile(Path.of(checkConfig));
-            }
+            checkConfiguration = this.loadCheckConfiguration(this.checkConfig);
         } catch (IOException | LinterConfigurationException e) {
             e.printStackTrace();
             return IO_EXIT_CODE;
         }
 
-        AbstractLinter linter = AutograderLoader.instantiateLinter(AbstractLinter.builder(Locale.GERMANY)
-                .threads(0)
-                .tempLocation(this.tempLocation)
-                .maxProblemsPerCheck(this.maxProblemsPerCheck));
+        List<Metric> metrics = new ArrayList<>();
+        AbstractLinter linter = this.createLinter(this.metricsFile != null ? metrics::add : null);
 
         Consumer<Translatable> statusConsumer = status ->
                 System.out.println(linter.translateMessage(status));
@@ -234,6 +306,8 @@ public class Application implements Callable<Integer> {
 
         try {
             this.execute(linter, checkConfiguration, statusConsumer);
+            this.metricsReports.add(new MetricsReport(this.file.toString(), metrics));
+            this.writeMetrics();
         } catch (LinterException e) {
             e.printStackTrace();
             return MISC_EXIT_CODE;
@@ -245,6 +319,225 @@ public class Application implements Callable<Integer> {
         return 0;
     }
 
+    @Command(name = "batch", mixinStandardHelpOptions = true,
+            description = "Checks all submissions in a folder with a single, shared autograder instance")
+    int batch(
+            @Parameters(index = "0", description = "The check configuration.") String batchCheckConfig,
+            @Parameters(index = "1", description = "The folder which contains one folder per submission.") Path submissionsFolder,
+            @Option(names = {"-t", "--threads"}, defaultValue = "0",
+                    description = "The number of submissions to check at the same time, 0 to choose based on the available processors")
+            int threads
+    ) {
+        this.validateCommonOptions();
+
+        if (!Files.isDirectory(submissionsFolder)) {
+            CmdUtil.printlnErr("The path '%s' is not a directory".formatted(submissionsFolder));
+            return IO_EXIT_CODE;
+        }
+
+        CheckConfiguration checkConfiguration;
+        List<Path> submissions;
+        try {
+            checkConfiguration = this.loadCheckConfiguration(batchCheckConfig);
+            try (Stream<Path> children = Files.list(submissionsFolder)) {
+                submissions = children.filter(Files::isDirectory).sorted().toList();
+            }
+        } catch (IOException | LinterConfigurationException e) {
+            e.printStackTrace();
+            return IO_EXIT_CODE;
+        }
+
+        // the submissions are already linted in parallel, each of them gets a single thread
+        AbstractLinter linter = this.createLinter(null, 1);
+
+        if (!outputJson) {
+            CmdUtil.beginSection("Checking %d submission(s)".formatted(submissions.size()));
+        }
+
+        int[] failedSubmissions = {0};
+        Duration wallTime = linter.checkFiles(
+                submissions.stream().map(Application::findSourceRoot).toList(),
+                JavaVersion.fromString(this.javaVersion),
+                checkConfiguration,
+                threads,
+                result -> {
+                    if (result.failed()) {
+                        failedSubmissions[0] += 1;
+                    }
+
+                    this.printSubmissionResult(submissionsFolder, result, linter);
+                }
+        );
+
+        try {
+            this.writeMetrics();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return IO_EXIT_CODE;
+        }
+
+        if (!outputJson) {
+            CmdUtil.println("Checked %d submission(s) in %d ms, %d failed".formatted(
+                    submissions.size(),
+                    wallTime.toMillis(),
+                    failedSubmissions[0]
+            ));
+            CmdUtil.endSection();
+        }
+
+        return failedSubmissions[0] == 0 ? 0 : MISC_EXIT_CODE;
+    }
+
+    @Command(name = "similarity", mixinStandardHelpOptions = true,
+            description = "Finds structurally similar methods in different submissions")
+    int similarity(
+            @Parameters(index = "0", description = "The folder which contains one folder per submission.") Path submissionsFolder,
+            @Option(names = {"--index"}, required = true,
+                    description = "The file in which the methods of all compared submissions are stored, later runs compare their submissions with these too")
+            Path indexFile,
+            @Option(names = {"--threshold"}, defaultValue = "0.8",
+                    description = "The minimum estimated similarity of two methods to report them, between 0 and 1")
+            double threshold,
+            @Option(names = {"-t", "--threads"}, defaultValue = "0",
+                    description = "The number of submissions to compile at the same time, 0 to choose based on the available processors")
+            int threads
+    ) {
+        this.validateCommonOptions();
+
+        if (!Files.isDirectory(submissionsFolder)) {
+            CmdUtil.printlnErr("The path '%s' is not a directory".formatted(submissionsFolder));
+            return IO_EXIT_CODE;
+        }
+
+        List<Path> submissions;
+        SimilarityIndex index;
+        try {
+            try (Stream<Path> children = Files.list(submissionsFolder)) {
+                submissions = children.filter(Files::isDirectory).sorted().toList();
+            }
+            index = SimilarityIndex.load(indexFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return IO_EXIT_CODE;
+        }
+
+        if (!outputJson) {
+            CmdUtil.beginSection("Comparing %d submission(s) with %d indexed method(s)".formatted(submissions.size(), index.size()));
+        }
+
+        JavaVersion version = JavaVersion.fromString(this.javaVersion);
+        int actualThreads = threads > 0 ? threads : Math.max(Runtime.getRuntime().availableProcessors() - 2, 1);
+        List<Future<List<MethodFingerprint>>> fingerprints = new ArrayList<>();
+        // closing the executor waits for all submissions to be compiled
+        try (ExecutorService executor = Executors.newFixedThreadPool(actualThreads)) {
+            for (Path submission : submissions) {
+                fingerprints.add(executor.submit(() -> this.fingerprint(submission, version)));
+            }
+        }
+
+        // the submissions are added in a fixed order, so that the reported pairs do not depend on the threads
+        int failedSubmissions = 0;
+        for (int i = 0; i < submissions.size(); i++) {
+            String name = submissions.get(i).getFileName().toString();
+            List<MethodFingerprint> methods;
+            try {
+                methods = fingerprints.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return MISC_EXIT_CODE;
+            } catch (ExecutionException e) {
+                failedSubmissions += 1;
+                CmdUtil.printlnErr("Failed to check submission '%s'".formatted(name));
+                e.getCause().printStackTrace();
+                continue;
+            }
+
+            for (SimilarMethodPair pair : index.add(name, methods, threshold)) {
+                this.printSimilarMethodPair(pair);
+            }
+        }
+
+        try {
+            index.save(indexFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return IO_EXIT_CODE;
+        }
+
+        if (!outputJson) {
+            CmdUtil.println("Compared %d submission(s), %d failed".formatted(submissions.size(), failedSubmissions));
+            CmdUtil.endSection();
+        }
+
+        return failedSubmissions == 0 ? 0 : MISC_EXIT_CODE;
+    }
+
+    private List<MethodFingerprint> fingerprint(Path submission, JavaVersion version) throws IOException, LinterException {
+        String name = submission.getFileName().toString();
+        try (var uploadedFile = UploadedFile.build(findSourceRoot(submission), version, this.tempLocation, status -> {}, null)) {
+            // the file is null if the submission does not contain source code
+            return uploadedFile == null ? List.of() : SimilarityIndex.fingerprint(name, uploadedFile);
+        }
+    }
+
+    private void printSimilarMethodPair(SimilarMethodPair pair) {
+        if (outputJson) {
+            // one JSON object per line, like the output of the batch command
+            try {
+                System.out.println(OBJECT_MAPPER.writeValueAsString(new SimilarityReport(
+                        toReportMethod(pair.left()),
+                        toReportMethod(pair.right()),
+                        pair.similarity()
+                )));
+            } catch (JsonProcessingException ex) {
+                ex.printStackTrace();
+            }
+            return;
+        }
+
+        CmdUtil.println("%.0f%% %s <-> %s".formatted(pair.similarity() * 100, pair.left(), pair.right()));
+    }
+
+    private static SimilarityReport.Method toReportMethod(MethodFingerprint method) {
+        return new SimilarityReport.Method(
+                method.submission(),
+                method.method(),
+                method.file().toString().replace("\\", "/"),
+                method.line()
+        );
+    }
+
+    private void printSubmissionResult(Path submissionsFolder, SubmissionResult result, AbstractLinter linter) {
+        // the source root might be nested, the name of the submission is the folder directly in the submissions folder
+        Path relativePath = submissionsFolder.relativize(result.submission());
+        String name = relativePath.getNameCount() > 0 ? relativePath.getName(0).toString() : result.submission().toString();
+        this.metricsReports.add(new MetricsReport(name, result.metrics()));
+
+        if (outputJson) {
+            // one JSON object per line, so that the output can be consumed while the batch is still running
+            try {
+                System.out.println(OBJECT_MAPPER.writeValueAsString(new SubmissionReport(
+                        name,
+                        result.wallTime().toMillis(),
+                        result.failed() ? null : this.toAnnotations(result.problems(), linter),
+                        result.failed() ? String.valueOf(result.exception()) : null
+                )));
+            } catch (JsonProcessingException ex) {
+                ex.printStackTrace();
+            }
+            return;
+        }
+
+        CmdUtil.println("%s (%d ms):".formatted(name, result.wallTime().toMillis()));
+        if (result.failed()) {
+            CmdUtil.printlnErr("Failed to check submission '%s'".formatted(name));
+            result.exception().printStackTrace();
+        } else {
+            this.printProblems(result.problems(), linter);
+        }
+        CmdUtil.println();
+    }
+
     private void printProblems(List<? extends AbstractProblem> problems, AbstractLinter linter) {
         if (problems.isEmpty()) {
             CmdUtil.println("No problems found - good job!");
@@ -256,23 +549,26 @@ public class Application implements Callable<Integer> {
 
     private void printProblemsAsJson(Collection<? extends AbstractProblem> problems, AbstractLinter linter) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            String jsonOutput = mapper.writeValueAsString(problems.stream().map(problem -> {
-                AbstractCodePosition position = problem.getPosition();
-                return new Annotation(
-                        problem.getType(),
-                        linter.translateMessage(problem.getExplanation()),
-                        position.path().toString().replace("\\", "/"),
-                        position.startLine(),
-                        position.endLine()
-                );
-            }).toList());
+            String jsonOutput = OBJECT_MAPPER.writeValueAsString(this.toAnnotations(problems, linter));
             System.out.println(jsonOutput);
         } catch (JsonProcessingException ex) {
             ex.printStackTrace();
         }
     }
 
+    private List<Annotation> toAnnotations(Collection<? extends AbstractProblem> problems, AbstractLinter linter) {
+        return problems.stream().map(problem -> {
+            AbstractCodePosition position = problem.getPosition();
+            return new Annotation(
+                    problem.getType(),
+                    linter.translateMessage(problem.getExplanation()),
+                    position.path().toString().replace("\\", "/"),
+                    position.startLine(),
+                    position.endLine()
+            );
+        }).toList();
+    }
+
     private String formatProblem(AbstractProblem problem, AbstractLinter linter) {
         return String.format("%s %s (Source: %s)",
                 problem.getDisplayLocation(),
@@ -0,0 +1,8 @@
+package de.firemage.autograder.cmd.output;
+
+import de.firemage.autograder.api.Metric;
+
+import java.util.List;
+
+public record MetricsReport(String submission, List<Metric> metrics) {
+}
@@ -0,0 +1,6 @@
+package de.firemage.autograder.cmd.output;
+
+public record SimilarityReport(Method left, Method right, double similarity) {
+    public record Method(String submission, String method, String file, int line) {
+    }
+}
@@ -0,0 +1,6 @@
+package de.firemage.autograder.cmd.output;
+
+import java.util.List;
+
+public record SubmissionReport(String submission, long wallTimeMillis, List<Annotation> problems, String error) {
+}
@@ -3,6 +3,7 @@ package de.firemage.autograder.core;
 import de.firemage.autograder.api.FailureInformation;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.Reusable;
 import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.core.file.UploadedFile;
 
@@ -10,7 +11,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.function.Consumer;
 
-public interface CodeLinter<T extends Check> {
+public interface CodeLinter<T extends Check> extends Reusable {
     Class<? super T> supportedCheckType();
 
     /**
@@ -19,6 +20,7 @@ public interface CodeLinter<T extends Check> {
      * @param submission the submission to lint
      * @param tempLocation in this location, temporary files can be stored by the linter
      * @param classLoader some class loader
+     * @param threads the number of threads the linter may use, 0 to choose based on the available processors
      * @param checks the checks to use, they are guaranteed to be supported by this linter
      * @param statusConsumer a consumer that can be used to report the progress of the linting
      * @param failureConsumer will be called for each failure that occurs during linting
@@ -29,6 +31,7 @@ public interface CodeLinter<T extends Check> {
         UploadedFile submission,
         AbstractTempLocation tempLocation,
         ClassLoader classLoader,
+        int threads,
         List<? extends T> checks,
         Consumer<? super Translatable> statusConsumer,
         Consumer<? super FailureInformation> failureConsumer
@@ -1,11 +1,13 @@
 package de.firemage.autograder.core;
 
+import de.firemage.autograder.api.Metric;
+import de.firemage.autograder.core.compiler.CompilationResult;
 import de.firemage.autograder.core.file.SourceInfo;
-import de.firemage.autograder.core.integrated.DuplicateCodeFinder;
+import de.firemage.autograder.core.integrated.ElementIndex;
+import de.firemage.autograder.core.integrated.IndexRegistry;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.ModelBuildException;
-import de.firemage.autograder.core.integrated.UsesFinder;
 import spoon.Launcher;
 import spoon.compiler.Environment;
 import spoon.compiler.ModelBuildingException;
@@ -26,9 +28,6 @@ import spoon.support.DefaultCoreFactory;
 import spoon.support.StandardEnvironment;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.List;
@@ -39,36 +38,26 @@ import java.util.Optional;
  */
 public final class CodeModel implements AutoCloseable {
     private final SourceInfo file;
-    private final Path jar;
-    private final ClassLoader userClassLoader;
-    private final URLClassLoader classLoader;
+    private final ClassLoader classLoader;
+    private final MetricsCollector metrics;
     private Factory factory;
     private CtModel model;
     private CtPackage basePackage;
     private MethodHierarchy methodHierarchy;
     private Optional<CtMethod<Void>> mainMethod;
 
-    private CodeModel(SourceInfo file, Path jar, ClassLoader classLoader) {
+    private CodeModel(SourceInfo file, CompilationResult compilationResult, ClassLoader classLoader, MetricsCollector metrics) {
         this.file = file;
-        this.jar = jar;
+        this.metrics = metrics;
 
-        if (classLoader != null) {
-            this.userClassLoader = classLoader;
-            this.classLoader = null;
-        } else {
-            // Use a custom class loader because spoon won't close its standard URLClassLoader and will leak the handle to the jar file
-            try {
-                this.classLoader =
-                        new URLClassLoader(new URL[]{jar.toUri().toURL()}, Thread.currentThread().getContextClassLoader());
-                this.userClassLoader = null;
-            } catch (MalformedURLException e) {
-                throw new RuntimeException(e);
-            }
-        }
+        // the compiled classes are served from memory, so no jar has to be written to disk
+        ClassLoader parent = classLoader != null ? classLoader : Thread.currentThread().getContextClassLoader();
+        this.classLoader = compilationResult.createClassLoader(parent);
     }
 
-    public static CodeModel buildFor(SourceInfo file, Path jar, ClassLoader classLoader) {
-        return new CodeModel(file, jar, classLoader);
+    public static CodeModel buildFor(SourceInfo file, CompilationResult compilationResult, ClassLoader classLoader,
+                                     MetricsCollector metrics) {
+        return new CodeModel(file, compilationResult, classLoader, metrics);
     }
 
     public void ensureModelBuild() {
@@ -87,7 +76,8 @@ public final class CodeModel implements AutoCloseable {
 
     public <E extends CtElement> void processWith(Processor<E> processor) {
         this.buildModelMaybe();
-        this.model.processWith(processor);
+        // the model is only traversed once for all processors, each processor only looks at the relevant elements
+        ElementIndex.getFor(this.model).processWith(processor);
     }
 
     @SuppressWarnings("unchecked")
@@ -128,9 +118,7 @@ public final class CodeModel implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        if (this.classLoader != null) {
-            this.classLoader.close();
-        }
+        // nothing to release, the classes are only held in memory
     }
 
     @SuppressWarnings({"java:S3599", "java:S1171"}) // ignore some sonarlint warnings
@@ -178,7 +166,6 @@ public final class CodeModel implements AutoCloseable {
             Launcher launcher = new Launcher(baseFactory);
             launcher.addInputResource(file.getSpoonResource());
             launcher.getEnvironment().setShouldCompile(false);
-            launcher.getEnvironment().setSourceClasspath(new String[]{jar.toAbsolutePath().toString()});
             launcher.getEnvironment().setNoClasspath(false);
             launcher.getEnvironment().setCommentEnabled(true);
             launcher.getEnvironment().setComplianceLevel(this.file.getVersion().getVersionNumber());
@@ -214,12 +201,10 @@ public final class CodeModel implements AutoCloseable {
                 }
             });
 
-            if (this.userClassLoader != null) {
-                launcher.getEnvironment().setInputClassLoader(this.userClassLoader);
-            } else {
-                launcher.getEnvironment().setInputClassLoader(this.classLoader);
-            }
+            // the submission is only parsed from source, the compiled classes are needed for reflection
+            launcher.getEnvironment().setInputClassLoader(this.classLoader);
 
+            MetricsCollector.Measurement modelBuild = this.metrics.start(Metric.Kind.MODEL, "spoon");
             CtModel model;
             try {
                 model = launcher.buildModel();
@@ -248,9 +233,10 @@ public final class CodeModel implements AutoCloseable {
                 }
             });
 
-            MethodHierarchy.buildFor(model);
-            UsesFinder.buildFor(model);
-            DuplicateCodeFinder.buildFor(model);
+            modelBuild.finish(0);
+
+            // the indexes are built when a check needs them
+            IndexRegistry.registerFor(model, this.metrics);
 
             // Only set the model at the end when everything has been initialized
             this.model = model;
@@ -3,6 +3,7 @@ package de.firemage.autograder.core;
 import de.firemage.autograder.api.AbstractCodePosition;
 import de.firemage.autograder.core.file.SourceInfo;
 import de.firemage.autograder.core.file.SourcePath;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import spoon.reflect.code.CtAbstractSwitch;
 import spoon.reflect.code.CtLoop;
 import spoon.reflect.cu.SourcePosition;
@@ -40,7 +41,7 @@ public record CodePosition(SourceInfo sourceInfo, SourcePath file, int startLine
         File file = sourcePosition.getFile();
         if (file == null) {
             // Try to find the path in the parent class (if it exists)
-            CtType<?> parent = ctElement.getParent(CtType.class);
+            CtType<?> parent = ElementUtil.getParent(ctElement, CtType.class);
             if (parent != null) {
                 file = parent.getPosition().getFile();
             } else {
@@ -0,0 +1,57 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.core.check.Reusable;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Keeps the reusable checks or linters that are currently not used by a submission.
+ * <p>
+ * The pool can be used by multiple threads at the same time. An instance that has been acquired
+ * is not handed out again until it is released.
+ *
+ * @param <T> the type of the instances
+ */
+final class InstancePool<T extends Reusable> {
+    private final Function<Class<?>, ? extends T> factory;
+    private final Map<Class<?>, Queue<T>> idleInstances;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param factory creates a new instance of a class if there is no idle one
+     */
+    InstancePool(Function<Class<?>, ? extends T> factory) {
+        this.factory = factory;
+        this.idleInstances = new ConcurrentHashMap<>();
+    }
+
+    T acquire(Class<?> type) {
+        Queue<T> idle = this.idleInstances.get(type);
+        T instance = idle == null ? null : idle.poll();
+        if (instance == null) {
+            instance = this.factory.apply(type);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the instance to the pool once the submission it was used for is done.
+     * Instances that are not reusable are dropped.
+     *
+     * @param instance an instance that has been acquired from this pool or created elsewhere
+     */
+    void release(T instance) {
+        if (!instance.isReusable()) {
+            return;
+        }
+
+        instance.reset();
+        this.idleInstances.computeIfAbsent(instance.getClass(), key -> new ConcurrentLinkedQueue<>()).add(instance);
+    }
+}
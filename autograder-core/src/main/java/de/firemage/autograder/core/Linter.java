@@ -6,9 +6,14 @@ import de.firemage.autograder.api.CheckConfiguration;
 import de.firemage.autograder.api.FailureInformation;
 import de.firemage.autograder.api.JavaVersion;
 import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.api.Metric;
+import de.firemage.autograder.api.SubmissionResult;
 import de.firemage.autograder.api.Translatable;
+import de.firemage.autograder.core.cache.ResultCache;
 import de.firemage.autograder.core.check.Check;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.file.FileSourceInfo;
+import de.firemage.autograder.core.file.SourceInfo;
 import de.firemage.autograder.core.file.SourcePath;
 import de.firemage.autograder.core.file.TempLocation;
 import de.firemage.autograder.core.file.UploadedFile;
@@ -18,16 +23,25 @@ import org.reflections.util.ConfigurationBuilder;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -36,7 +50,11 @@ public final class Linter implements AbstractLinter {
     private final TempLocation tempLocation;
     private final ClassLoader classLoader;
     private final int maxProblemsPerCheck;
+    private final ResultCache resultCache;
+    private final Consumer<? super Metric> metricsConsumer;
     private final Translations translations;
+    private final InstancePool<Check> checkPool;
+    private final InstancePool<CodeLinter<?>> linterPool;
 
     public static Linter defaultLinter(Locale locale) {
         return new Linter(AbstractLinter.builder(locale));
@@ -50,6 +68,10 @@ public final class Linter implements AbstractLinter {
         this.threads = builder.getThreads();
         this.classLoader = builder.getClassLoader();
         this.maxProblemsPerCheck = builder.getMaxProblemsPerCheck();
+        this.resultCache = builder.getCacheDirectory() != null ? new ResultCache(builder.getCacheDirectory()) : null;
+        this.metricsConsumer = builder.getMetricsConsumer();
+        this.checkPool = new InstancePool<>(Linter::instantiateCheck);
+        this.linterPool = new InstancePool<>(Linter::instantiateCodeLinter);
     }
 
     public Translations getTranslations() {
@@ -61,19 +83,202 @@ public final class Linter implements AbstractLinter {
                                                              Consumer<Translatable> statusConsumer,
                                                              Consumer<FailureInformation> failureConsumer)
         throws LinterException, IOException {
-        try (var uploadedFile = UploadedFile.build(file, version, this.tempLocation, statusConsumer, this.classLoader)) {
+        MetricsCollector metrics = new MetricsCollector();
+        try {
+            return this.checkFileFallible(file, version, checkConfiguration, statusConsumer, failureConsumer, metrics);
+        } finally {
+            this.reportMetrics(metrics);
+        }
+    }
+
+    private List<Problem> checkFileFallible(
+        Path file,
+        JavaVersion version,
+        CheckConfiguration checkConfiguration,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer,
+        MetricsCollector metrics
+    ) throws LinterException, IOException {
+        SourceInfo source = new FileSourceInfo(file, version);
+        if (this.resultCache != null) {
+            return this.checkFileCached(source, checkConfiguration, statusConsumer, failureConsumer, metrics);
+        }
+
+        try (var uploadedFile = UploadedFile.build(source, this.tempLocation, statusConsumer, this.classLoader, metrics)) {
             return this.checkFileFallible(uploadedFile, checkConfiguration, statusConsumer, failureConsumer);
         }
     }
 
+    private void reportMetrics(MetricsCollector metrics) {
+        if (this.metricsConsumer == null) {
+            return;
+        }
+
+        // submissions of a batch finish concurrently
+        synchronized (this.metricsConsumer) {
+            metrics.getMetrics().forEach(this.metricsConsumer);
+        }
+    }
+
+    private List<Problem> checkFileCached(
+        SourceInfo source,
+        CheckConfiguration checkConfiguration,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer,
+        MetricsCollector metrics
+    ) throws LinterException, IOException {
+        List<Check> checks = this.acquireChecks(checkConfiguration.problemsToReport());
+        try {
+            return this.checkFileCached(source, checkConfiguration, checks, statusConsumer, failureConsumer, metrics);
+        } finally {
+            // the problems do not reference the checks, so they can be used for other submissions
+            checks.forEach(this.checkPool::release);
+        }
+    }
+
+    private List<Problem> checkFileCached(
+        SourceInfo source,
+        CheckConfiguration checkConfiguration,
+        List<Check> checks,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer,
+        MetricsCollector metrics
+    ) throws LinterException, IOException {
+        ResultCache.Entry entry = this.resultCache.load(source);
+
+        List<Check> missingChecks = checks.stream().filter(check -> !entry.contains(check)).toList();
+        List<Problem> newProblems = List.of();
+        // only compile the code if there are checks that have to be executed
+        if (!missingChecks.isEmpty()) {
+            boolean[] hasFailed = { false };
+            try (var uploadedFile = UploadedFile.build(source, this.tempLocation, statusConsumer, this.classLoader, metrics)) {
+                newProblems = this.lint(uploadedFile, missingChecks, statusConsumer, failure -> {
+                    hasFailed[0] = true;
+                    failureConsumer.accept(failure);
+                });
+            }
+
+            // the results of a failed run might be incomplete
+            if (!hasFailed[0]) {
+                this.resultCache.store(entry, missingChecks, newProblems);
+            }
+        }
+
+        List<ResultCache.OrderedProblem> orderedProblems = new ArrayList<>();
+        for (int i = 0; i < newProblems.size(); i++) {
+            orderedProblems.add(new ResultCache.OrderedProblem(newProblems.get(i), i));
+        }
+
+        for (Check check : checks) {
+            if (entry.contains(check)) {
+                orderedProblems.addAll(entry.problemsOf(check, source));
+            }
+        }
+
+        // The problems are put into the order in which a run without the cache reports them: the problems of each
+        // linter in the order in which the linters are run, and the problems of a linter in the order in which they
+        // were found. If the results of the checks of a linter come from different runs, only the order of each check
+        // is kept.
+        Map<Class<?>, Integer> linterOfCheck = new HashMap<>();
+        List<CodeLinter<?>> codeLinters = this.acquireCodeLinters();
+        try {
+            // the linters are run in the order of their first check
+            Map<Integer, Integer> linterPositions = new HashMap<>();
+            for (Check check : checks) {
+                int linter = findLinter(codeLinters, check);
+                if (!linterPositions.containsKey(linter)) {
+                    linterPositions.put(linter, linterPositions.size());
+                }
+                linterOfCheck.put(check.getClass(), linterPositions.get(linter));
+            }
+        } finally {
+            codeLinters.forEach(this.linterPool::release);
+        }
+
+        orderedProblems.sort(Comparator.<ResultCache.OrderedProblem>comparingInt(orderedProblem -> linterOfCheck.get(orderedProblem.problem().getCheckType()))
+            .thenComparingInt(ResultCache.OrderedProblem::order));
+        List<Problem> unreducedProblems = orderedProblems.stream()
+            .map(ResultCache.OrderedProblem::problem)
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        return this.reduceProblems(unreducedProblems, checkConfiguration, checks);
+    }
+
+    private static int findLinter(List<? extends CodeLinter<?>> codeLinters, Check check) {
+        for (int i = 0; i < codeLinters.size(); i++) {
+            if (codeLinters.get(i).supportedCheckType().isInstance(check)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Duration checkFiles(
+        Collection<Path> submissions,
+        JavaVersion version,
+        CheckConfiguration checkConfiguration,
+        int threads,
+        Consumer<? super SubmissionResult> resultConsumer
+    ) {
+        long batchStart = System.nanoTime();
+
+        int actualThreads = threads > 0 ? threads : Math.max(Runtime.getRuntime().availableProcessors() - 2, 1);
+        ThreadFactory threadFactory = Thread.ofPlatform().name("Autograder-Batch-Thread-", 0).factory();
+
+        // closing the executor waits for all submissions to be linted
+        try (ExecutorService executor = Executors.newFixedThreadPool(actualThreads, threadFactory)) {
+            for (Path submission : submissions) {
+                executor.execute(() -> {
+                    if (this.classLoader != null) {
+                        Thread.currentThread().setContextClassLoader(this.classLoader);
+                    }
+
+                    SubmissionResult result = this.checkSubmission(submission, version, checkConfiguration);
+                    synchronized (resultConsumer) {
+                        resultConsumer.accept(result);
+                    }
+                });
+            }
+        }
+
+        return Duration.ofNanos(System.nanoTime() - batchStart);
+    }
+
+    private SubmissionResult checkSubmission(Path submission, JavaVersion version, CheckConfiguration checkConfiguration) {
+        long start = System.nanoTime();
+        MetricsCollector metrics = new MetricsCollector();
+        try {
+            List<Problem> problems = this.checkFileFallible(
+                submission,
+                version,
+                checkConfiguration,
+                status -> {},
+                FailureInformation.failFastConsumer(),
+                metrics
+            );
+
+            return SubmissionResult.forSuccess(submission, problems, Duration.ofNanos(System.nanoTime() - start), metrics.getMetrics());
+        } catch (Exception exception) {
+            return SubmissionResult.forFailure(submission, exception, Duration.ofNanos(System.nanoTime() - start), metrics.getMetrics());
+        } finally {
+            this.reportMetrics(metrics);
+        }
+    }
+
     public List<Problem> checkFileFallible(
         UploadedFile file,
         CheckConfiguration checkConfiguration,
         Consumer<Translatable> statusConsumer,
         Consumer<FailureInformation> failureConsumer
     ) throws LinterException, IOException {
-        var checks = this.findChecksForProblemTypes(checkConfiguration.problemsToReport());
-        return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, failureConsumer);
+        var checks = this.acquireChecks(checkConfiguration.problemsToReport());
+        try {
+            return this.checkFileFallible(file, checkConfiguration, checks, statusConsumer, failureConsumer);
+        } finally {
+            checks.forEach(this.checkPool::release);
+        }
     }
 
     private static List<Problem> filterProblematicAnnotations(Iterable<? extends Problem> problems) {
@@ -147,49 +352,119 @@ public final class Linter implements AbstractLinter {
         Iterable<? extends Check> checks,
         Consumer<Translatable> statusConsumer,
         Consumer<FailureInformation> failureConsumer
+    ) throws IOException {
+        return this.reduceProblems(this.lint(file, checks, statusConsumer, failureConsumer), checkConfiguration, checks);
+    }
+
+    private List<Problem> lint(
+        UploadedFile file,
+        Iterable<? extends Check> checks,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer
     ) throws IOException {
         // the file is null if the student did not upload source code
         if (file == null) {
             return new ArrayList<>();
         }
 
-        Map<CodeLinter<?>, List<Check>> linterChecks = new IdentityHashMap<>();
+        List<CodeLinter<?>> codeLinters = this.acquireCodeLinters();
+        try {
+            return this.lint(file, checks, codeLinters, statusConsumer, failureConsumer);
+        } finally {
+            codeLinters.forEach(this.linterPool::release);
+        }
+    }
 
-        List<? extends CodeLinter<?>> codeLinters = this.findCodeLinter();
+    private List<Problem> lint(
+        UploadedFile file,
+        Iterable<? extends Check> checks,
+        List<CodeLinter<?>> codeLinters,
+        Consumer<Translatable> statusConsumer,
+        Consumer<FailureInformation> failureConsumer
+    ) throws IOException {
+        // the linters are run in the order in which they were found, so that the order of the problems is stable
+        Map<CodeLinter<?>, List<Check>> linterChecks = new LinkedHashMap<>();
         for (Check check : checks) {
-            for (CodeLinter<?> linter : codeLinters) {
-                if (linter.supportedCheckType().isInstance(check)) {
-                    linterChecks.computeIfAbsent(linter, key -> new ArrayList<>()).add(check);
-                    // only add each check to one linter
-                    break;
-                }
+            // only add each check to one linter
+            int linter = findLinter(codeLinters, check);
+            if (linter >= 0) {
+                linterChecks.computeIfAbsent(codeLinters.get(linter), key -> new ArrayList<>()).add(check);
             }
         }
 
+        // the linters might report their status at the same time
+        Consumer<Translatable> sharedStatusConsumer = status -> {
+            synchronized (statusConsumer) {
+                statusConsumer.accept(status);
+            }
+        };
+
+        record LinterRun(Future<List<Problem>> problems, List<FailureInformation> failures) {
+        }
+
         List<Problem> unreducedProblems = new ArrayList<>();
         try (TempLocation tempLinterLocation = this.tempLocation.createTempDirectory("linter")) {
-            for (var entry : linterChecks.entrySet()) {
-                CodeLinter linter = entry.getKey();
-                var targetCheckType = linter.supportedCheckType();
-                var associatedChecks = castUnsafe(entry.getValue(), targetCheckType);
-
-                // skip linting if there are no checks for this linter
-                // some linters take a long time to start, even if there are no checks to run
-                if (associatedChecks.isEmpty()) {
-                    continue;
+            // The linters are independent of each other, so they run at the same time. This way a
+            // submission takes as long as its slowest linter and not as long as all linters together.
+            List<LinterRun> runs = new ArrayList<>();
+            ThreadFactory threadFactory = Thread.ofPlatform().name("Autograder-Linter-Thread-", 0).factory();
+            // closing the executor waits for all linters to finish
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+                for (var entry : linterChecks.entrySet()) {
+                    CodeLinter linter = entry.getKey();
+                    var targetCheckType = linter.supportedCheckType();
+                    var associatedChecks = castUnsafe(entry.getValue(), targetCheckType);
+
+                    // skip linting if there are no checks for this linter
+                    // some linters take a long time to start, even if there are no checks to run
+                    if (associatedChecks.isEmpty()) {
+                        continue;
+                    }
+
+                    // failures are collected and passed to the failureConsumer on this thread once the linter is done
+                    List<FailureInformation> failures = Collections.synchronizedList(new ArrayList<>());
+                    Consumer<FailureInformation> failureCollector = failures::add;
+                    Future<List<Problem>> problems = executor.submit(() -> {
+                        if (this.classLoader != null) {
+                            Thread.currentThread().setContextClassLoader(this.classLoader);
+                        }
+
+                        MetricsCollector.Measurement measurement = file.getMetrics().start(
+                            Metric.Kind.LINTER,
+                            linter.getClass().getSimpleName()
+                        );
+                        List<Problem> linterProblems = linter.lint(
+                            file,
+                            tempLinterLocation,
+                            this.classLoader,
+                            this.threads,
+                            associatedChecks,
+                            sharedStatusConsumer,
+                            failureCollector
+                        );
+                        measurement.finish(linterProblems.size());
+
+                        return linterProblems;
+                    });
+
+                    runs.add(new LinterRun(problems, failures));
                 }
+            }
 
-                unreducedProblems.addAll(linter.lint(
-                    file,
-                    tempLinterLocation,
-                    this.classLoader,
-                    associatedChecks,
-                    statusConsumer,
-                    failureConsumer
-                ));
+            for (LinterRun run : runs) {
+                run.failures().forEach(failureConsumer);
+                unreducedProblems.addAll(awaitLinter(run.problems()));
             }
         }
 
+        return unreducedProblems;
+    }
+
+    private List<Problem> reduceProblems(
+        List<Problem> unreducedProblems,
+        CheckConfiguration checkConfiguration,
+        Iterable<? extends Check> checks
+    ) {
         unreducedProblems = filterProblematicAnnotations(unreducedProblems);
 
         if (!checkConfiguration.problemsToReport().isEmpty()) {
@@ -208,27 +483,49 @@ public final class Linter implements AbstractLinter {
                     .toList();
         }
 
-        return this.mergeProblems(unreducedProblems);
+        return this.mergeProblems(unreducedProblems, checks);
+    }
+
+    private static List<Problem> awaitLinter(Future<List<Problem>> problems) throws IOException {
+        try {
+            return problems.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a linter", exception);
+        } catch (ExecutionException exception) {
+            // rethrow the exception of the linter as if it had been called directly
+            switch (exception.getCause()) {
+                case IOException ioException -> throw ioException;
+                case RuntimeException runtimeException -> throw runtimeException;
+                case Error error -> throw error;
+                default -> throw new IllegalStateException(exception.getCause());
+            }
+        }
     }
 
-    private List<Problem> mergeProblems(Collection<? extends Problem> unreducedProblems) {
+    private List<Problem> mergeProblems(Collection<? extends Problem> unreducedProblems, Iterable<? extends Check> checks) {
         // -1 means no limit (useful for unit tests, where one wants to see all problems)
         if (this.maxProblemsPerCheck == -1) {
             return new ArrayList<>(unreducedProblems);
         }
 
+        Map<Class<?>, Check> checksByType = new HashMap<>();
+        for (Check check : checks) {
+            checksByType.put(check.getClass(), check);
+        }
+
         // first group all problems by the check that created them
-        Map<Check, List<Problem>> problems = unreducedProblems.stream()
-            .collect(Collectors.groupingBy(Problem::getCheck, LinkedHashMap::new, Collectors.toList()));
+        Map<Class<? extends Check>, List<Problem>> problems = unreducedProblems.stream()
+            .collect(Collectors.groupingBy(Problem::getCheckType, LinkedHashMap::new, Collectors.toList()));
 
         List<Problem> result = new ArrayList<>();
-        for (Map.Entry<Check, List<Problem>> entry : problems.entrySet()) {
-            Check check = entry.getKey();
+        for (Map.Entry<Class<? extends Check>, List<Problem>> entry : problems.entrySet()) {
+            Check check = checksByType.get(entry.getKey());
             List<Problem> problemsForCheck = entry.getValue();
 
             int targetNumberOfProblems = Math.min(
                 this.maxProblemsPerCheck,
-                entry.getKey().maximumProblems().orElse(this.maxProblemsPerCheck)
+                check.maximumProblems().orElse(this.maxProblemsPerCheck)
             );
 
             // then go through each check and merge the problems if they exceed the maxProblemsPerCheck
@@ -263,22 +560,73 @@ public final class Linter implements AbstractLinter {
             ).getTypesAnnotatedWith(ExecutableCheck.class)
     );
 
+    // the enabled checks and for each problem type the positions of the checks in this list that report it
+    private static final List<Class<?>> ENABLED_CHECKS = CHECKS.stream()
+        .filter(check -> check.getAnnotation(ExecutableCheck.class).enabled())
+        .toList();
+    private static final Map<ProblemType, BitSet> CHECKS_BY_PROBLEM_TYPE = indexChecksByProblemType(ENABLED_CHECKS);
+
+    private static Map<ProblemType, BitSet> indexChecksByProblemType(List<Class<?>> checks) {
+        Map<ProblemType, BitSet> result = new EnumMap<>(ProblemType.class);
+        for (int i = 0; i < checks.size(); i++) {
+            for (ProblemType problemType : checks.get(i).getAnnotation(ExecutableCheck.class).reportedProblems()) {
+                result.computeIfAbsent(problemType, key -> new BitSet()).set(i);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the enabled checks that report at least one of the given problems, in a stable order.
+     * <p>
+     * The checks are created for the caller, they are not taken from the checks that are reused for submissions.
+     *
+     * @param problems the problems that should be reported
+     * @return the checks
+     */
     public List<Check> findChecksForProblemTypes(Collection<? extends AbstractProblemType> problems) {
-        return CHECKS
-            .stream()
-            .filter(check -> isRequiredCheck(check.getAnnotation(ExecutableCheck.class), problems))
-            .map(check -> {
-                try {
-                    return (Check) check.getConstructor().newInstance();
-                } catch (ReflectiveOperationException e) {
-                    throw new IllegalStateException("Failed to instantiate check " + check.getName(), e);
-                } catch (ClassCastException e) {
-                    throw new IllegalStateException(check.getName() + " does not inherit from Check");
-                }
-            })
+        return checkTypesFor(problems).stream()
+            .map(Linter::instantiateCheck)
             .toList();
     }
 
+    /**
+     * Takes the checks for a submission from the pool, they must be released once the submission is done.
+     *
+     * @param problems the problems that should be reported
+     * @return the checks in the same order as {@link #findChecksForProblemTypes(Collection)}
+     */
+    private List<Check> acquireChecks(Collection<? extends AbstractProblemType> problems) {
+        return checkTypesFor(problems).stream()
+            .map(this.checkPool::acquire)
+            .toList();
+    }
+
+    private static List<Class<?>> checkTypesFor(Collection<? extends AbstractProblemType> problems) {
+        BitSet requiredChecks = new BitSet(ENABLED_CHECKS.size());
+        for (AbstractProblemType problem : problems) {
+            BitSet checks = CHECKS_BY_PROBLEM_TYPE.get(problem);
+            if (checks != null) {
+                requiredChecks.or(checks);
+            }
+        }
+
+        return requiredChecks.stream()
+            .mapToObj(ENABLED_CHECKS::get)
+            .toList();
+    }
+
+    private static Check instantiateCheck(Class<?> check) {
+        try {
+            return (Check) check.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate check " + check.getName(), e);
+        } catch (ClassCastException e) {
+            throw new IllegalStateException(check.getName() + " does not inherit from Check");
+        }
+    }
+
     private static final Collection<Class<?>> CODE_LINTER = new LinkedHashSet<>(
             new Reflections(new ConfigurationBuilder()
                     .forPackage("de.firemage.autograder", Linter.class.getClassLoader())
@@ -287,24 +635,33 @@ public final class Linter implements AbstractLinter {
             ).getSubTypesOf(CodeLinter.class)
     );
 
+    /**
+     * Returns a new instance of each code linter, the instances are not shared with the submissions.
+     *
+     * @return the code linters
+     */
     public List<? extends CodeLinter<?>> findCodeLinter() {
         return CODE_LINTER
             .stream()
-            .map(linter -> {
-                try {
-                    return (CodeLinter<?>) linter.getConstructor().newInstance();
-                } catch (ReflectiveOperationException e) {
-                    throw new IllegalStateException("Failed to instantiate check " + linter.getName(), e);
-                } catch (ClassCastException e) {
-                    throw new IllegalStateException(linter.getName() + " does not inherit from Check");
-                }
-            })
+            .map(Linter::instantiateCodeLinter)
             .toList();
     }
 
+    private List<CodeLinter<?>> acquireCodeLinters() {
+        return CODE_LINTER
+            .stream()
+            .<CodeLinter<?>>map(this.linterPool::acquire)
+            .toList();
+    }
 
-    private boolean isRequiredCheck(ExecutableCheck check, Collection<? extends AbstractProblemType> problems) {
-        return check.enabled() && problems.stream().anyMatch(p -> List.of(check.reportedProblems()).contains(p));
+    private static CodeLinter<?> instantiateCodeLinter(Class<?> linter) {
+        try {
+            return (CodeLinter<?>) linter.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate check " + linter.getName(), e);
+        } catch (ClassCastException e) {
+            throw new IllegalStateException(linter.getName() + " does not inherit from Check");
+        }
     }
 
     private static <T> List<T> castUnsafe(Iterable<?> list, Class<? extends T> clazz) {
@@ -0,0 +1,110 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.Metric;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the {@link Metric}s of the steps that are executed while linting a single submission.
+ * <p>
+ * Steps may be measured concurrently on different threads, but each step must be started and finished on the same thread.
+ */
+public final class MetricsCollector {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final List<Metric> metrics;
+
+    public MetricsCollector() {
+        this.metrics = new ArrayList<>();
+    }
+
+    /**
+     * Starts measuring a step on the current thread.
+     *
+     * @param kind the kind of the step
+     * @param name the name of the step
+     * @return the running measurement, which has to be finished on the current thread
+     */
+    public Measurement start(Metric.Kind kind, String name) {
+        return new Measurement(kind, name, System.nanoTime(), currentThreadCpuTime(), currentThreadAllocatedBytes());
+    }
+
+    /**
+     * Returns the metrics of all steps that have been finished so far, in the order in which they finished.
+     *
+     * @return the metrics
+     */
+    public List<Metric> getMetrics() {
+        synchronized (this.metrics) {
+            return List.copyOf(this.metrics);
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            return -1;
+        }
+
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        // the allocated bytes can only be measured through the extension of the HotSpot JVM
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean threadMXBean)
+            || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+
+        return threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long difference(long start, long end) {
+        if (start == -1 || end == -1) {
+            return -1;
+        }
+
+        return end - start;
+    }
+
+    public final class Measurement {
+        private final Metric.Kind kind;
+        private final String name;
+        private final long startTime;
+        private final long startCpuTime;
+        private final long startAllocatedBytes;
+
+        private Measurement(Metric.Kind kind, String name, long startTime, long startCpuTime, long startAllocatedBytes) {
+            this.kind = kind;
+            this.name = name;
+            this.startTime = startTime;
+            this.startCpuTime = startCpuTime;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        /**
+         * Stops the measurement and records the metric of the step.
+         *
+         * @param problemCount the number of problems found by the step
+         * @return the recorded metric
+         */
+        public Metric finish(int problemCount) {
+            Metric metric = new Metric(
+                this.kind,
+                this.name,
+                System.nanoTime() - this.startTime,
+                difference(this.startCpuTime, currentThreadCpuTime()),
+                difference(this.startAllocatedBytes, currentThreadAllocatedBytes()),
+                problemCount
+            );
+
+            synchronized (metrics) {
+                metrics.add(metric);
+            }
+
+            return metric;
+        }
+    }
+}
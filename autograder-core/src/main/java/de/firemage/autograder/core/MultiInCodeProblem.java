@@ -18,12 +18,7 @@ public class MultiInCodeProblem extends Problem {
         Problem firstProblem,
         Collection<? extends Problem> otherProblems
     ) {
-        super(
-            firstProblem.getCheck(),
-            firstProblem.getPosition(),
-            makeExplanation(firstProblem, otherProblems),
-            firstProblem.getProblemType()
-        );
+        super(firstProblem, makeExplanation(firstProblem, otherProblems));
     }
 
     private static Translatable makeExplanation(Problem first, Collection<? extends Problem> problems) {
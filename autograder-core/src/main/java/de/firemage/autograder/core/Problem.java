@@ -8,10 +8,18 @@ import java.util.Optional;
 
 /**
  * Contains the default implementation of most {@link AbstractProblem} methods.
+ * <p>
+ * A problem does not keep the check that reported it, only what it needs to know about the check.
+ * The checks are reused for later submissions (see {@link de.firemage.autograder.core.check.Reusable}),
+ * while the problems of a submission might be kept for much longer.
  */
 public abstract class Problem implements AbstractProblem {
 
-    private final Check check;
+    private final Class<? extends Check> checkType;
+
+    private final Translatable linterName;
+
+    private final Optional<Integer> maximumProblemsForCheck;
 
     private final CodePosition position;
 
@@ -20,7 +28,30 @@ public abstract class Problem implements AbstractProblem {
     private final ProblemType problemType;
 
     protected Problem(Check check, CodePosition position, Translatable explanation, ProblemType problemType) {
-        this.check = check;
+        this(check.getClass(), check.getLinter(), check.maximumProblems(), position, explanation, problemType);
+    }
+
+    /**
+     * Creates a problem that was reported by the same check as the given problem.
+     *
+     * @param problem the problem whose check is used
+     * @param explanation the explanation of the new problem
+     */
+    protected Problem(Problem problem, Translatable explanation) {
+        this(problem.checkType, problem.linterName, problem.maximumProblemsForCheck, problem.position, explanation, problem.problemType);
+    }
+
+    private Problem(
+        Class<? extends Check> checkType,
+        Translatable linterName,
+        Optional<Integer> maximumProblemsForCheck,
+        CodePosition position,
+        Translatable explanation,
+        ProblemType problemType
+    ) {
+        this.checkType = checkType;
+        this.linterName = linterName;
+        this.maximumProblemsForCheck = maximumProblemsForCheck;
         this.position = position;
         this.explanation = explanation;
         this.problemType = problemType;
@@ -36,8 +67,8 @@ public abstract class Problem implements AbstractProblem {
         }
     }
 
-    public Check getCheck() {
-        return check;
+    public Class<? extends Check> getCheckType() {
+        return this.checkType;
     }
 
     @Override
@@ -52,12 +83,12 @@ public abstract class Problem implements AbstractProblem {
 
     @Override
     public String getCheckName() {
-        return this.check.getClass().getSimpleName();
+        return this.checkType.getSimpleName();
     }
 
     @Override
     public Translatable getLinterName() {
-        return this.check.getLinter();
+        return this.linterName;
     }
 
     @Override
@@ -67,7 +98,7 @@ public abstract class Problem implements AbstractProblem {
 
     @Override
     public Optional<Integer> getMaximumProblemsForCheck() {
-        return this.getCheck().maximumProblems();
+        return this.maximumProblemsForCheck;
     }
 
     public ProblemType getProblemType() {
@@ -0,0 +1,115 @@
+package de.firemage.autograder.core.cache;
+
+import de.firemage.autograder.core.CodePosition;
+import de.firemage.autograder.core.LocalizedMessage;
+import de.firemage.autograder.core.LocalizedMessageForProblem;
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.SourcePath;
+import fluent.types.FluentValue;
+
+import java.io.Serializable;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A problem in a form that can be written to the {@link ResultCache}.
+ * <p>
+ * Only the message key and its parameters are stored, so the message is translated with the
+ * translations of the linter that reads the problem from the cache.
+ *
+ * @param order the position of the problem in the results of the run that found it
+ */
+public record CachedProblem(
+    int order,
+    ProblemType problemType,
+    SourcePath file,
+    int startLine,
+    int endLine,
+    int startColumn,
+    int endColumn,
+    String messageKey,
+    HashMap<String, Serializable> messageParameters
+) implements Serializable {
+    /**
+     * A parameter that is formatted through its string representation, like a code element.
+     * <p>
+     * The text is wrapped instead of being stored as a string, because fluent treats strings differently from other
+     * objects (for example when selecting a variant), so the message would not be the same.
+     *
+     * @param text the string representation of the parameter when the problem was reported
+     */
+    record FormattedParameter(String text) implements Serializable {
+        @Override
+        public String toString() {
+            return this.text;
+        }
+    }
+
+    /**
+     * Converts the given problem into a form that can be cached.
+     *
+     * @param problem the problem to convert
+     * @param order the position of the problem in the results of the run
+     * @return the converted problem or an empty optional if the explanation of the problem can not be cached
+     */
+    static Optional<CachedProblem> from(Problem problem, int order) {
+        if (!(problem.getExplanation() instanceof LocalizedMessageForProblem(LocalizedMessage message, ProblemType problemType))
+            || problemType != problem.getProblemType()) {
+            return Optional.empty();
+        }
+
+        HashMap<String, Serializable> parameters = new HashMap<>();
+        for (Map.Entry<String, ?> entry : message.parameters().entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String || value instanceof Number || value instanceof TemporalAccessor) {
+                if (!(value instanceof Serializable serializable)) {
+                    return Optional.empty();
+                }
+
+                parameters.put(entry.getKey(), serializable);
+            } else if (value == null || value instanceof Collection<?> || value instanceof FluentValue<?>) {
+                // these are formatted in a special way, which would be lost in the cache
+                return Optional.empty();
+            } else {
+                // other objects are formatted through their toString method (e.g. code elements)
+                parameters.put(entry.getKey(), new FormattedParameter(value.toString()));
+            }
+        }
+
+        CodePosition position = problem.getPosition();
+        return Optional.of(new CachedProblem(
+            order,
+            problem.getProblemType(),
+            position.file(),
+            position.startLine(),
+            position.endLine(),
+            position.startColumn(),
+            position.endColumn(),
+            message.key(),
+            parameters
+        ));
+    }
+
+    /**
+     * Creates the problem that has been cached.
+     *
+     * @param check the check that reported the problem
+     * @param sourceInfo the submission in which the problem has been found
+     * @return the problem
+     */
+    Problem toProblem(Check check, SourceInfo sourceInfo) {
+        return new Problem(
+            check,
+            new CodePosition(sourceInfo, this.file, this.startLine, this.endLine, this.startColumn, this.endColumn),
+            new LocalizedMessageForProblem(new LocalizedMessage(this.messageKey, Map.copyOf(this.messageParameters)), this.problemType),
+            this.problemType
+        ) {
+        };
+    }
+}
@@ -0,0 +1,263 @@
+package de.firemage.autograder.core.cache;
+
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.file.CompilationUnit;
+import de.firemage.autograder.core.file.SourceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores the problems found in a submission on disk, so that they do not have to be computed again
+ * when the same submission is linted another time.
+ * <p>
+ * An entry is identified by the hash of the code of the submission, its java version and the version
+ * of the autograder. The problems are stored separately for each check, so that a run with more checks
+ * can reuse the results of the previous runs and only has to execute the checks that are missing.
+ * <p>
+ * The problems are stored before they are filtered by the reported problem types, excluded classes or
+ * merged, so the entries do not depend on the check configuration. Each problem remembers its position in
+ * the results of the run that found it, so the results can be put back into the same order.
+ * <p>
+ * Multiple threads may store the results of the same submission at the same time, the entry contains
+ * the results of all of them afterward.
+ */
+public final class ResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ResultCache.class);
+    private static final String ENTRY_EXTENSION = ".bin";
+    private static final String AUTOGRADER_VERSION = autograderVersion();
+
+    // the entries are locked while they are updated, so that concurrent updates of an entry are not lost
+    private static final Object[] ENTRY_LOCKS = createLocks(64);
+
+    private final Path directory;
+
+    public ResultCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * A problem read from the cache.
+     *
+     * @param problem the problem
+     * @param order the position of the problem in the results of the run that found it
+     */
+    public record OrderedProblem(Problem problem, int order) {
+    }
+
+    /**
+     * The problems of a submission, as read from the cache.
+     *
+     * @param key the key under which the entry is stored
+     * @param problemsByCheck the problems by the class name of the check that reported them
+     */
+    public record Entry(String key, Map<String, List<CachedProblem>> problemsByCheck) {
+        /**
+         * Checks if the results of the given check are cached.
+         *
+         * @param check the check
+         * @return true if it does not have to be executed again
+         */
+        public boolean contains(Check check) {
+            return this.problemsByCheck.containsKey(check.getClass().getName());
+        }
+
+        /**
+         * Returns the cached problems of the given check.
+         *
+         * @param check the check, its results must be cached
+         * @param sourceInfo the submission the entry belongs to
+         * @return the problems reported by the check, in the order in which they were reported
+         */
+        public List<OrderedProblem> problemsOf(Check check, SourceInfo sourceInfo) {
+            return this.problemsByCheck.get(check.getClass().getName())
+                .stream()
+                .map(cachedProblem -> new OrderedProblem(cachedProblem.toProblem(check, sourceInfo), cachedProblem.order()))
+                .toList();
+        }
+    }
+
+    /**
+     * Reads the entry of the given submission. If there is none, an empty entry is returned.
+     *
+     * @param sourceInfo the submission
+     * @return the entry, never null
+     * @throws IOException if the submission could not be read
+     */
+    public Entry load(SourceInfo sourceInfo) throws IOException {
+        return this.read(keyFor(sourceInfo));
+    }
+
+    private Entry read(String key) {
+        Path path = this.pathOf(key);
+
+        if (!Files.isRegularFile(path)) {
+            return new Entry(key, Map.of());
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return new Entry(key, readProblems(input.readObject()));
+        } catch (IOException | ClassNotFoundException | ClassCastException exception) {
+            // a broken entry is not a reason to fail, it will be overwritten with the new results
+            LOG.warn("Ignoring unreadable cache entry '{}'", path, exception);
+            return new Entry(key, Map.of());
+        }
+    }
+
+    /**
+     * Adds the problems of the given checks to the entry.
+     * <p>
+     * Checks that reported a problem which can not be cached are skipped, they will be executed again next time.
+     *
+     * @param entry the entry that has been loaded before running the checks
+     * @param checks the checks that have been executed
+     * @param problems all problems reported by the executed checks, in the order in which they were reported
+     * @throws IOException if the entry could not be written
+     */
+    public void store(Entry entry, Iterable<? extends Check> checks, List<? extends Problem> problems) throws IOException {
+        Map<String, ArrayList<CachedProblem>> newProblems = new HashMap<>();
+        for (Check check : checks) {
+            newProblems.put(check.getClass().getName(), new ArrayList<>());
+        }
+
+        for (int i = 0; i < problems.size(); i++) {
+            Problem problem = problems.get(i);
+            String checkName = problem.getCheckType().getName();
+            List<CachedProblem> problemsOfCheck = newProblems.get(checkName);
+            if (problemsOfCheck == null) {
+                continue;
+            }
+
+            Optional<CachedProblem> cachedProblem = CachedProblem.from(problem, i);
+            if (cachedProblem.isEmpty()) {
+                LOG.debug("Not caching the results of {}, because a problem can not be cached", checkName);
+                newProblems.remove(checkName);
+                continue;
+            }
+
+            problemsOfCheck.add(cachedProblem.get());
+        }
+
+        synchronized (ENTRY_LOCKS[Math.floorMod(entry.key().hashCode(), ENTRY_LOCKS.length)]) {
+            // another thread might have updated the entry since it has been loaded
+            HashMap<String, ArrayList<CachedProblem>> problemsByCheck = new HashMap<>();
+            this.read(entry.key()).problemsByCheck()
+                .forEach((checkName, cachedProblems) -> problemsByCheck.put(checkName, new ArrayList<>(cachedProblems)));
+            problemsByCheck.putAll(newProblems);
+
+            this.write(entry.key(), problemsByCheck);
+        }
+    }
+
+    private void write(String key, HashMap<String, ArrayList<CachedProblem>> problemsByCheck) throws IOException {
+        Files.createDirectories(this.directory);
+        // write to a temporary file first, so a concurrent reader never sees a partially written entry
+        Path temporaryFile = Files.createTempFile(this.directory, key, ".tmp");
+        try {
+            try (ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeObject(problemsByCheck);
+            }
+
+            Files.move(temporaryFile, this.pathOf(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static Object[] createLocks(int count) {
+        Object[] result = new Object[count];
+        Arrays.setAll(result, i -> new Object());
+        return result;
+    }
+
+    private Path pathOf(String key) {
+        return this.directory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<CachedProblem>> readProblems(Object object) {
+        Map<String, List<CachedProblem>> result = new HashMap<>();
+        for (Map.Entry<String, ? extends List<?>> entry : ((Map<String, ? extends List<?>>) object).entrySet()) {
+            List<CachedProblem> problems = new ArrayList<>();
+            for (Object problem : entry.getValue()) {
+                problems.add((CachedProblem) problem);
+            }
+            result.put(entry.getKey(), problems);
+        }
+
+        return result;
+    }
+
+    private static String keyFor(SourceInfo sourceInfo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", exception);
+        }
+
+        update(digest, AUTOGRADER_VERSION);
+        update(digest, sourceInfo.getVersion().getVersionString());
+
+        List<CompilationUnit> compilationUnits = new ArrayList<>(sourceInfo.compilationUnits());
+        compilationUnits.sort(Comparator.comparing(CompilationUnit::path));
+        for (CompilationUnit compilationUnit : compilationUnits) {
+            update(digest, compilationUnit.path().toString());
+            update(digest, compilationUnit.charset().name());
+            update(digest, compilationUnit.readString());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // prefix with the length, so that the boundaries of the values are part of the hash
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static String autograderVersion() {
+        String version = Optional.ofNullable(Linter.class.getPackage().getImplementationVersion()).orElse("development");
+        if (!version.equals("development") && !version.endsWith("-SNAPSHOT")) {
+            return version;
+        }
+
+        // Development builds share the same version, so the time at which the
+        // autograder has been built is used to tell them apart.
+        CodeSource codeSource = Linter.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            return version;
+        }
+
+        try {
+            return version + "@" + Files.getLastModifiedTime(Path.of(codeSource.getLocation().toURI())).toMillis();
+        } catch (IOException | URISyntaxException | IllegalArgumentException exception) {
+            return version;
+        }
+    }
+}
@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-public interface Check {
+public interface Check extends Reusable {
     Translatable getLinter();
 
     default List<Problem> merge(List<Problem> problems, int limit) {
@@ -0,0 +1,30 @@
+package de.firemage.autograder.core.check;
+
+/**
+ * The lifecycle of checks and linters that the {@link de.firemage.autograder.core.Linter} keeps for later submissions.
+ * <p>
+ * Creating a check or linter can be expensive, for example when it sets up its rules. If an instance is reusable,
+ * it is returned to a pool once a submission is done and then used for a later submission. An instance is only
+ * ever used for one submission at a time, but a later submission might run on a different thread.
+ * <p>
+ * Instances that are not reusable are created for each submission.
+ */
+public interface Reusable {
+    /**
+     * Returns whether this instance may be used for multiple submissions, one after another.
+     * <p>
+     * This should only return true if all state that the instance keeps for a submission is cleared by {@link #reset()}.
+     *
+     * @return true if the instance can be reused
+     */
+    default boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Clears all state that was kept for the last submission. This is called before the instance is returned to the pool,
+     * so that it does not keep the submission alive until it is used again.
+     */
+    default void reset() {
+    }
+}
@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.api;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.ForLoopRange;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StatementUtil;
@@ -13,6 +14,7 @@ import spoon.reflect.code.CtExpression;
 import spoon.reflect.code.CtFor;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtStatement;
+import spoon.reflect.code.CtVariableAccess;
 import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.visitor.filter.VariableAccessFilter;
 
@@ -45,7 +47,8 @@ public class CollectionsNCopies extends IntegratedCheck {
                 }
 
                 // return if the for loop uses the loop variable (would not be a simple repetition)
-                if (!ctFor.getBody().getElements(new VariableAccessFilter<>(forLoopRange.loopVariable())).isEmpty()) {
+                VariableAccessFilter<CtVariableAccess<?>> loopVariableAccess = new VariableAccessFilter<>(forLoopRange.loopVariable());
+                if (ElementUtil.<CtVariableAccess<?>>getElements(ctFor.getBody(), CtVariableAccess.class).stream().anyMatch(loopVariableAccess::matches)) {
                     return;
                 }
 
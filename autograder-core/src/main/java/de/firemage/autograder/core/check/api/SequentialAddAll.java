@@ -4,6 +4,7 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.check.api.UseEnumValues.CtEnumFieldRead;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodUtil;
@@ -91,7 +92,7 @@ public class SequentialAddAll extends IntegratedCheck {
 
         if (ctEnum != null && UseEnumValues.checkEnumValues(ctEnum, TypeUtil.isOrderedCollection(ctVariable.getType()), fieldReads)) {
             addLocalProblem(
-                values.getFirst().getParent(CtStatement.class),
+                ElementUtil.getParent(values.getFirst(), CtStatement.class),
                 new LocalizedMessage(
                     "common-reimplementation",
                     Map.of(
@@ -132,13 +133,13 @@ public class SequentialAddAll extends IntegratedCheck {
         // Therefore, we only suggest to use `addAll` if the values can be refactored into a constant.
 
         for (CtExpression<?> value: values) {
-            if (!ExpressionUtil.isConstantExpressionOr(value, e -> false)) {
+            if (!ExpressionUtil.isConstantExpression(value)) {
                 return;
             }
         }
 
         addLocalProblem(
-            values.getFirst().getParent(CtStatement.class),
+            ElementUtil.getParent(values.getFirst(), CtStatement.class),
             new LocalizedMessage(
                 "common-reimplementation",
                 Map.of(
@@ -4,6 +4,7 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.ForLoopRange;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -17,6 +18,8 @@ import spoon.reflect.code.CtFor;
 import spoon.reflect.code.CtOperatorAssignment;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.code.CtVariableAccess;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.reference.CtVariableReference;
 import spoon.reflect.visitor.filter.VariableAccessFilter;
 
 import java.util.List;
@@ -24,6 +27,11 @@ import java.util.Map;
 
 @ExecutableCheck(reportedProblems = { ProblemType.COMMON_REIMPLEMENTATION_STRING_REPEAT })
 public class StringRepeat extends IntegratedCheck {
+    private static boolean isAccessed(CtElement ctElement, CtVariableReference<?> ctVariableReference) {
+        VariableAccessFilter<CtVariableAccess<?>> filter = new VariableAccessFilter<>(ctVariableReference);
+        return ElementUtil.<CtVariableAccess<?>>getElements(ctElement, CtVariableAccess.class).stream().anyMatch(filter::matches);
+    }
+
     private void checkStringRepeat(CtFor ctFor) {
         ForLoopRange forLoopRange = ForLoopRange.fromCtFor(ctFor).orElse(null);
 
@@ -42,12 +50,12 @@ public class StringRepeat extends IntegratedCheck {
 
             CtExpression<?> rhs = ExpressionUtil.resolveCtExpression(ctAssignment.getAssignment());
             // return if the for loop uses the loop variable (would not be a simple repetition)
-            if (!ctAssignment.getElements(new VariableAccessFilter<>(forLoopRange.loopVariable())).isEmpty()) {
+            if (isAccessed(ctAssignment, forLoopRange.loopVariable())) {
                 return;
             }
 
             // return if the rhs uses the lhs: lhs += rhs + lhs
-            if (lhs instanceof CtVariableAccess<?> ctVariableAccess && !rhs.getElements(new VariableAccessFilter<>(ctVariableAccess.getVariable())).isEmpty()) {
+            if (lhs instanceof CtVariableAccess<?> ctVariableAccess && isAccessed(rhs, ctVariableAccess.getVariable())) {
                 return;
             }
 
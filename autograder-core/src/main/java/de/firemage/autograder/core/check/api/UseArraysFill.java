@@ -6,6 +6,7 @@ import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.ForLoopRange;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.VariableUtil;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
@@ -24,12 +25,13 @@ import spoon.reflect.declaration.CtVariable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = {ProblemType.COMMON_REIMPLEMENTATION_ARRAYS_FILL})
 public class UseArraysFill extends IntegratedCheck {
     private static boolean canBeAssigned(CtExpression<?> ctExpression) {
         // This could be expanded to allow more expressions if needed
-        return ExpressionUtil.isConstantExpressionOr(ctExpression, e -> false);
+        return ExpressionUtil.isConstantExpression(ctExpression);
     }
 
     private void checkArraysFill(CtFor ctFor) {
@@ -101,4 +103,9 @@ public class UseArraysFill extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
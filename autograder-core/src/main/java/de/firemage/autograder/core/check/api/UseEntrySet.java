@@ -3,7 +3,10 @@ package de.firemage.autograder.core.check.api;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.InvocationIndex;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.TypeUtil;
 import spoon.processing.AbstractProcessor;
@@ -16,6 +19,7 @@ import spoon.reflect.visitor.filter.InvocationFilter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = {ProblemType.USE_ENTRY_SET})
 public class UseEntrySet extends IntegratedCheck {
@@ -59,9 +63,14 @@ public class UseEntrySet extends IntegratedCheck {
                     .getMethod("get", ctInvocation.getFactory().createCtTypeReference(Object.class))
                     .getReference();
 
-                List<CtInvocation<?>> invocations = ctForEach.getBody()
-                    .getElements(new InvocationFilter(ctExecutableReference))
+                InvocationFilter isMapGet = new InvocationFilter(ctExecutableReference);
+                List<CtInvocation<?>> invocations = InvocationIndex.getFor(staticAnalysis.getModel())
+                    .getInvocations("get", Object.class)
                     .stream()
+                    .filter(element -> element instanceof CtInvocation<?> invocation
+                        && ElementUtil.isNestedOrSame(invocation, ctForEach.getBody())
+                        && isMapGet.matches(invocation))
+                    .<CtInvocation<?>>map(CtInvocation.class::cast)
                     .filter(invocation -> invocation.getTarget() != null
                         && invocation.getTarget().equals(ctInvocation.getTarget())
                         && invocation.getArguments().size() == 1
@@ -84,4 +93,9 @@ public class UseEntrySet extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.INVOCATIONS);
+    }
 }
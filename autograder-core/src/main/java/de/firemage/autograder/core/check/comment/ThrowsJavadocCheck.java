@@ -37,8 +37,7 @@ public class ThrowsJavadocCheck extends IntegratedCheck {
                 .map(CtJavaDocTag::getParam)
                 .collect(Collectors.toSet());
 
-        List<CtThrow> ctThrows = ctExecutable.filterChildren(CtThrow.class::isInstance)
-                .map(CtThrow.class::cast).list();
+        List<CtThrow> ctThrows = ElementUtil.getElements(ctExecutable, CtThrow.class);
         for (CtThrow ctThrow : ctThrows) {
             CtCase<?> ctParentCase = ctThrow.getParent(CtCase.class);
             // skip default cases in switch statements
@@ -42,6 +42,12 @@ public class UnnecessaryComment extends IntegratedCheck {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.visitedComments.clear();
+    }
+
     private static boolean isStandaloneComment(CtComment ctComment) {
         return ctComment.getParent() instanceof CtElement ctElement && !ctElement.getComments().contains(ctComment);
     }
@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.complexity;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import spoon.processing.AbstractProcessor;
@@ -11,7 +12,6 @@ import spoon.reflect.code.CtFor;
 import spoon.reflect.code.CtLocalVariable;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.declaration.CtElement;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -43,8 +43,7 @@ public class MultipleInlineStatements extends IntegratedCheck {
                     && !(ctLocalVariable.getParent() instanceof CtFor)) {
                     Collection<CtLocalVariable<?>> others = new LinkedHashSet<>();
 
-                    List<CtLocalVariable<?>> variables = ctLocalVariable.getParent()
-                        .getElements(new TypeFilter<>(CtLocalVariable.class));
+                    List<CtLocalVariable<?>> variables = ElementUtil.getElements(ctLocalVariable.getParent(), CtLocalVariable.class);
 
                     for (CtLocalVariable<?> ctVariable : variables) {
                         if (!ctLocalVariable.equals(ctVariable)
@@ -4,23 +4,23 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.check.unnecessary.UnusedCodeElementCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
-import de.firemage.autograder.core.integrated.StatementUtil;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
-import de.firemage.autograder.core.integrated.UsesFinder;
+import de.firemage.autograder.core.integrated.dataflow.ControlFlowGraph;
+import de.firemage.autograder.core.integrated.dataflow.Dataflow;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.CtAssignment;
 import spoon.reflect.code.CtLocalVariable;
-import spoon.reflect.code.CtStatement;
 import spoon.reflect.code.CtStatementList;
-import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.code.CtVariableWrite;
-import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.reference.CtLocalVariableReference;
 
 
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = { ProblemType.REDUNDANT_ASSIGNMENT })
 public class RedundantAssignment extends IntegratedCheck {
@@ -36,23 +36,30 @@ public class RedundantAssignment extends IntegratedCheck {
                     return;
                 }
 
+                CtExecutable<?> ctExecutable = ElementUtil.getParent(ctAssignment, CtExecutable.class);
                 if (!(ctAssignment.getParent() instanceof CtStatementList)
                     || ctLocalVariableReference.getDeclaration() == null
-                    || !(ctAssignment.getParent().getParent() instanceof CtMethod<?>)) {
+                    || ctExecutable == null) {
                     return;
                 }
 
-                List<CtStatement> followingStatements = StatementUtil.getNextStatements(ctAssignment);
-
                 CtLocalVariable<?> ctLocalVariable = ctLocalVariableReference.getDeclaration();
 
                 if (UnusedCodeElementCheck.isConsideredUnused(ctLocalVariable, staticAnalysis.getCodeModel())) {
                     return;
                 }
 
-                if (followingStatements.stream().noneMatch(statement ->
-                        UsesFinder.variableUses(ctLocalVariable).ofType(CtVariableRead.class).nestedIn(statement).hasAny())
-                ) {
+                Dataflow dataflow = Dataflow.of(ctExecutable);
+                // Statements in an expression (like the block of a case in a switch expression) are part of the node
+                // of the statement that contains the expression, so it is not known what is executed after them.
+                ControlFlowGraph graph = dataflow.getControlFlowGraph();
+                int node = graph.getNode(ctAssignment);
+                if (node < 0 || graph.getElement(node) != ctAssignment) {
+                    return;
+                }
+
+                // the assigned value is never read if the variable is not live after the assignment
+                if (!dataflow.isLiveAfter(ctAssignment, ctLocalVariable)) {
                     addLocalProblem(
                         ctAssignment,
                         new LocalizedMessage(
@@ -65,4 +72,9 @@ public class RedundantAssignment extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
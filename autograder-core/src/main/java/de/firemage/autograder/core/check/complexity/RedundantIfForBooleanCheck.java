@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.complexity;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.FactoryUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
@@ -113,7 +114,7 @@ public class RedundantIfForBooleanCheck extends IntegratedCheck {
         staticAnalysis.processWith(new AbstractProcessor<CtBlock<?>>() {
             @Override
             public void process(CtBlock<?> block) {
-                CtMethod<?> parentMethod = block.getParent(CtMethod.class);
+                CtMethod<?> parentMethod = ElementUtil.getParent(block, CtMethod.class);
                 if (parentMethod != null && METHODS_TO_IGNORE.contains(parentMethod.getSimpleName())) {
                     return;
                 }
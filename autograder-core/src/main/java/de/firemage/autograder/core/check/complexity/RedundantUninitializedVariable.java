@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.complexity;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
@@ -44,14 +45,15 @@ public class RedundantUninitializedVariable extends IntegratedCheck {
                 }
 
                 // query all assignments to this variable
-                List<CtAssignment<? extends CtVariableWrite<?>, ?>> ctAssignments = ctLocalVariable.getParent()
-                    .getElements((CtAssignment<? extends CtVariableWrite<?>, ?> ctAssignment) ->
-                        ctAssignment.getAssigned() instanceof CtVariableWrite<?> ctVariableWrite
-                        && ctVariableWrite.getVariable().equals(ctLocalVariable.getReference()));
+                List<CtAssignment<?, ?>> ctAssignments = ElementUtil.<CtAssignment<?, ?>>getElements(ctLocalVariable.getParent(), CtAssignment.class)
+                    .stream()
+                    .filter(ctAssignment -> ctAssignment.getAssigned() instanceof CtVariableWrite<?> ctVariableWrite
+                        && ctVariableWrite.getVariable().equals(ctLocalVariable.getReference()))
+                    .toList();
 
                 if (ctAssignments.isEmpty()) return;
 
-                boolean isConditional = !StatementUtil.getEffectiveStatements(ctLocalVariable.getParent(CtBlock.class))
+                boolean isConditional = !StatementUtil.getEffectiveStatements(ElementUtil.getParent(ctLocalVariable, CtBlock.class))
                     .contains(ctAssignments.get(0));
 
                 if (isConditional) {
@@ -5,6 +5,7 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.UsesFinder;
@@ -19,6 +20,7 @@ import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.visitor.CtScanner;
 
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = {ProblemType.REDUNDANT_VARIABLE})
 public class RedundantVariable extends IntegratedCheck {
@@ -113,4 +115,9 @@ public class RedundantVariable extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
@@ -70,7 +70,7 @@ public class SelfAssignmentCheck extends IntegratedCheck {
     }
 
     private static boolean isSelfAssignment(CtVariableWrite<?> lhs, CtVariableRead<?> rhs) {
-        if (lhs instanceof CtFieldWrite<?> left && rhs instanceof CtFieldRead<?> right) {
+        if (lhs instanceof CtFieldWrite<?> fieldWrite && rhs instanceof CtFieldRead<?> fieldRead) {
             // Special case for assignment to fields (or super fields)
             //
             // For the code:
@@ -82,7 +82,10 @@ public class SelfAssignmentCheck extends IntegratedCheck {
             // => they are considered equal even though they are not
             //
             // in order to check for equality, one has to check the target as well
-
+            //
+            // the targets are adjusted on copies, so the model is not changed
+            CtFieldWrite<?> left = fieldWrite.clone();
+            CtFieldRead<?> right = fieldRead.clone();
             adjustTarget(left);
             adjustTarget(right);
 
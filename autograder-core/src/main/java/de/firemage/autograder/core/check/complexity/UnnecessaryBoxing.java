@@ -6,6 +6,7 @@ import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.UsesFinder;
 import spoon.processing.AbstractProcessor;
@@ -16,6 +17,7 @@ import spoon.reflect.declaration.CtVariable;
 import spoon.reflect.reference.CtTypeReference;
 
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = { ProblemType.UNNECESSARY_BOXING })
 public class UnnecessaryBoxing extends IntegratedCheck {
@@ -72,4 +74,9 @@ public class UnnecessaryBoxing extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
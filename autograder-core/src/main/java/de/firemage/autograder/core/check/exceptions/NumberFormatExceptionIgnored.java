@@ -3,18 +3,23 @@ package de.firemage.autograder.core.check.exceptions;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementIndex;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.InvocationIndex;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
-import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.TypeUtil;
-import spoon.processing.AbstractProcessor;
+import spoon.processing.TraversalStrategy;
 import spoon.reflect.code.CtCatch;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtTry;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.visitor.filter.CompositeFilter;
 import spoon.reflect.visitor.filter.FilteringOperator;
 import spoon.reflect.visitor.filter.TypeFilter;
 
+import java.util.Set;
+
 @ExecutableCheck(reportedProblems = { ProblemType.NUMBER_FORMAT_EXCEPTION_IGNORED })
 public class NumberFormatExceptionIgnored extends IntegratedCheck {
     @SuppressWarnings("unchecked")
@@ -27,27 +32,33 @@ public class NumberFormatExceptionIgnored extends IntegratedCheck {
     }
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
-        boolean hasCaughtAnyException = staticAnalysis.getModel().filterChildren(CtCatch.class::isInstance).first() != null;
+        boolean hasCaughtAnyException = !ElementIndex.getFor(staticAnalysis.getModel())
+            .getElements(Set.of(CtCatch.class), TraversalStrategy.PRE_ORDER)
+            .isEmpty();
         // if exception handling is not present, we don't need to check for ignored exceptions
         if (!hasCaughtAnyException) {
             return;
         }
 
-        staticAnalysis.processWith(new AbstractProcessor<CtInvocation<?>>() {
-            @Override
-            public void process(CtInvocation<?> ctInvocation) {
-                if (ctInvocation.isImplicit() || !ctInvocation.getPosition().isValidPosition()) {
-                    return;
-                }
+        for (CtElement ctElement : InvocationIndex.getFor(staticAnalysis.getModel()).getInvocations("parseInt", String.class)) {
+            if (!(ctElement instanceof CtInvocation<?> ctInvocation)
+                || ctInvocation.isImplicit()
+                || !ctInvocation.getPosition().isValidPosition()) {
+                continue;
+            }
 
-                if (MethodUtil.isSignatureEqualTo(ctInvocation.getExecutable(), int.class, "parseInt", String.class) && !isNFECaught(ctInvocation)) {
-                    addLocalProblem(
-                        ctInvocation,
-                        new LocalizedMessage("number-format-exception-ignored"),
-                        ProblemType.NUMBER_FORMAT_EXCEPTION_IGNORED
-                    );
-                }
+            if (TypeUtil.isTypeEqualTo(ctInvocation.getExecutable().getType(), int.class) && !isNFECaught(ctInvocation)) {
+                addLocalProblem(
+                    ctInvocation,
+                    new LocalizedMessage("number-format-exception-ignored"),
+                    ProblemType.NUMBER_FORMAT_EXCEPTION_IGNORED
+                );
             }
-        });
+        }
+    }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.INVOCATIONS);
     }
 }
@@ -3,7 +3,9 @@ package de.firemage.autograder.core.check.general;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.TypeUtil;
@@ -22,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 @ExecutableCheck(reportedProblems = {ProblemType.AVOID_SHADOWING})
@@ -66,12 +69,12 @@ public class AvoidShadowing extends IntegratedCheck {
                 }
 
                 // skip variables inside static methods
-                CtMethod<?> ctMethod = ctVariable.getParent(CtMethod.class);
+                CtMethod<?> ctMethod = ElementUtil.getParent(ctVariable, CtMethod.class);
                 if (ctMethod != null && ctMethod.isStatic()) {
                     return;
                 }
 
-                CtType<?> parent = ctVariable.getParent(CtType.class);
+                CtType<?> parent = ElementUtil.getParent(ctVariable, CtType.class);
                 if (parent == null || ctVariable.getReference() == null) {
                     return;
                 }
@@ -121,4 +124,9 @@ public class AvoidShadowing extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
@@ -3,13 +3,13 @@ package de.firemage.autograder.core.check.general;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.TypeUtil;
 import spoon.processing.AbstractProcessor;
 import spoon.reflect.code.BinaryOperatorKind;
 import spoon.reflect.code.CtBinaryOperator;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.Set;
 
@@ -35,7 +35,7 @@ public class BinaryOperator extends IntegratedCheck {
                     && TypeUtil.isTypeEqualTo(ctBinaryOperator.getType(), boolean.class, Boolean.class);
 
                 if (!hasBinaryOperator) {
-                    hasBinaryOperator = ctBinaryOperator.getElements(new TypeFilter<>(CtBinaryOperator.class)).stream()
+                    hasBinaryOperator = ElementUtil.<CtBinaryOperator<?>>getElements(ctBinaryOperator, CtBinaryOperator.class).stream()
                         .anyMatch(operator -> TypeUtil.isTypeEqualTo(operator.getType(), boolean.class, Boolean.class)
                             && BINARY_OPERATORS.contains(operator.getKind()));
                 }
@@ -4,6 +4,7 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.TypeUtil;
@@ -17,6 +18,7 @@ import spoon.reflect.declaration.CtField;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = {ProblemType.FIELD_SHOULD_BE_FINAL})
 public class FieldShouldBeFinal extends IntegratedCheck {
@@ -145,4 +147,9 @@ public class FieldShouldBeFinal extends IntegratedCheck {
     public Optional<Integer> maximumProblems() {
         return Optional.of(4);
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.general;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
@@ -29,7 +30,7 @@ public class MagicLiteral extends IntegratedCheck {
     private static final Set<Double> DEFAULT_IGNORED_NUMBERS = Set.of(-1.0, 0.0, 1.0, 2.0);
 
     private <T> void visitLiteral(String magicType, CtLiteral<T> ctLiteral) {
-        CtMethod<?> parentMethod = ctLiteral.getParent(CtMethod.class);
+        CtMethod<?> parentMethod = ElementUtil.getParent(ctLiteral, CtMethod.class);
         // allow magic literals in hashCode methods (some implementations use prime numbers)
         if (parentMethod != null && TypeUtil.isTypeEqualTo(parentMethod.getType(), int.class) && parentMethod.getSimpleName().equals("hashCode")
             && MethodUtil.isOverridingMethod(parentMethod)) {
@@ -6,6 +6,7 @@ import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.UsesFinder;
@@ -24,6 +25,7 @@ import spoon.reflect.declaration.CtTypeMember;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 @ExecutableCheck(reportedProblems = {
@@ -205,4 +207,9 @@ public class UseDifferentVisibility extends IntegratedCheck {
     public Optional<Integer> maximumProblems() {
         return Optional.of(6);
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.METHOD_HIERARCHY, ModelIndex.USES);
+    }
 }
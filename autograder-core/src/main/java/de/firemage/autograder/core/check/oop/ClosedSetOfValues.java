@@ -3,6 +3,7 @@ package de.firemage.autograder.core.check.oop;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.VariableUtil;
@@ -24,7 +25,6 @@ import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -165,7 +165,7 @@ public class ClosedSetOfValues extends IntegratedCheck {
             return;
         }
 
-        List<CtReturn<?>> ctReturns = ctMethod.getElements(new TypeFilter<>(CtReturn.class));
+        List<CtReturn<?>> ctReturns = ElementUtil.getElements(ctMethod, CtReturn.class);
 
         List<CtLiteral<?>> literals = getFiniteSet(ctReturns
             .stream()
@@ -4,11 +4,13 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.CoreUtil;
+import de.firemage.autograder.core.integrated.ElementIndex;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.TypeUtil;
+import spoon.processing.TraversalStrategy;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtFieldRead;
 import spoon.reflect.code.CtInvocation;
@@ -17,12 +19,10 @@ import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
-import spoon.reflect.visitor.filter.CompositeFilter;
-import spoon.reflect.visitor.filter.FilteringOperator;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = { ProblemType.UI_INPUT_SEPARATION, ProblemType.UI_OUTPUT_SEPARATION })
 public class IOUISeparation extends IntegratedCheck {
@@ -120,6 +120,17 @@ public class IOUISeparation extends IntegratedCheck {
         return type == null || type.getMethods().stream().noneMatch(MethodUtil::isMainMethod);
     }
 
+    private boolean isInTypeWithoutMain(CtElement ctElement) {
+        // it is enough if any of the (nested) types the element is in is not the main class
+        for (CtType<?> ctType = ElementUtil.getParent(ctElement, CtType.class); ctType != null; ctType = ElementUtil.getParent(ctType, CtType.class)) {
+            if (this.notInMainClass(ctType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
         CtModel ctModel = staticAnalysis.getModel();
@@ -139,27 +150,19 @@ public class IOUISeparation extends IntegratedCheck {
             }
         }
 
-        List<CtInvocation> scannerUses = ctModel.filterChildren(new CompositeFilter<>(
-                FilteringOperator.INTERSECTION,
-                new TypeFilter<>(CtType.class),
-                this::notInMainClass
-            )).filterChildren(new CompositeFilter<>(
-                FilteringOperator.INTERSECTION,
-                new TypeFilter<>(CtInvocation.class),
-                this::hasAccessedScanner
-            ))
-            .list(CtInvocation.class);
-
-        List<CtInvocation> printUses = ctModel.filterChildren(new CompositeFilter<>(
-                FilteringOperator.INTERSECTION,
-                new TypeFilter<>(CtType.class),
-                this::notInMainClass
-            )).filterChildren(new CompositeFilter<>(
-                FilteringOperator.INTERSECTION,
-                new TypeFilter<>(CtInvocation.class),
-                this::hasAccessedSystem
-            ))
-            .list(CtInvocation.class);
+        List<CtInvocation> invocations = ElementIndex.getFor(ctModel)
+            .getElements(Set.of(CtInvocation.class), TraversalStrategy.PRE_ORDER)
+            .stream()
+            .map(CtInvocation.class::cast)
+            .toList();
+
+        List<CtInvocation> scannerUses = invocations.stream()
+            .filter(ctInvocation -> this.hasAccessedScanner(ctInvocation) && this.isInTypeWithoutMain(ctInvocation))
+            .toList();
+
+        List<CtInvocation> printUses = invocations.stream()
+            .filter(ctInvocation -> this.hasAccessedSystem(ctInvocation) && this.isInTypeWithoutMain(ctInvocation))
+            .toList();
 
 
         if (!isAllowedLocation(requireSameClass, scannerUses)) {
@@ -3,8 +3,10 @@ package de.firemage.autograder.core.check.oop;
 import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
+import de.firemage.autograder.core.integrated.ElementUtil;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodHierarchy;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import de.firemage.autograder.core.integrated.TypeUtil;
 import spoon.reflect.code.BinaryOperatorKind;
@@ -33,7 +35,7 @@ public class Instanceof extends IntegratedCheck {
     );
 
     private static boolean isInAllowedContext(CtElement ctElement) {
-        CtMethod<?> ctMethod = ctElement.getParent(CtMethod.class);
+        CtMethod<?> ctMethod = ElementUtil.getParent(ctElement, CtMethod.class);
         return ctMethod != null && MethodHierarchy.isOverridingMethod(ctMethod);
     }
 
@@ -114,4 +116,9 @@ public class Instanceof extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.METHOD_HIERARCHY);
+    }
 }
@@ -5,6 +5,7 @@ import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.check.utils.Option;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.VariableUtil;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
@@ -40,7 +41,6 @@ import spoon.reflect.declaration.CtVariable;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -141,7 +141,7 @@ public class LeakedCollectionCheck extends IntegratedCheck {
                 return true;
             }
 
-            CtExecutable<?> ctExecutable = ctExpression.getParent(CtExecutable.class);
+            CtExecutable<?> ctExecutable = ElementUtil.getParent(ctExpression, CtExecutable.class);
 
             // Sometimes we have this
             //
@@ -238,10 +238,10 @@ public class LeakedCollectionCheck extends IntegratedCheck {
 
     private static List<CtExpression<?>> findPreviousAssignee(CtVariableRead<?> ctVariableRead) {
         List<CtExpression<?>> result = new ArrayList<>();
-        CtExecutable<?> ctExecutable = ctVariableRead.getParent(CtExecutable.class);
+        CtExecutable<?> ctExecutable = ElementUtil.getParent(ctVariableRead, CtExecutable.class);
 
         boolean foundPreviousAssignment = false;
-        CtStatement currentStatement = ctVariableRead.getParent(CtStatement.class);
+        CtStatement currentStatement = ElementUtil.getParent(ctVariableRead, CtStatement.class);
         for (CtStatement ctStatement : StatementUtil.getEffectiveStatements(ctExecutable.getBody()).reversed()) {
             if (!foundPreviousAssignment) {
                 if (ctStatement == currentStatement) {
@@ -314,7 +314,7 @@ public class LeakedCollectionCheck extends IntegratedCheck {
                 return Stream.of(ctReturn);
             }
 
-            return ctStatement.filterChildren(new TypeFilter<>(CtReturn.class)).list(CtReturn.class).stream();
+            return ElementUtil.<CtReturn>getElements(ctStatement, CtReturn.class).stream();
         }).toList();
 
         for (CtReturn<?> ctReturn : returns) {
@@ -486,4 +486,9 @@ public class LeakedCollectionCheck extends IntegratedCheck {
     public Optional<Integer> maximumProblems() {
         return Optional.of(4);
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES);
+    }
 }
@@ -7,6 +7,7 @@ import de.firemage.autograder.core.integrated.CoreUtil;
 import de.firemage.autograder.core.integrated.DuplicateCodeFinder;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
 import de.firemage.autograder.core.integrated.MethodUtil;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.StatementUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
 import spoon.reflect.code.CtStatement;
@@ -15,6 +16,7 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.visitor.CtScanner;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -57,6 +59,11 @@ public class DuplicateCode extends IntegratedCheck {
 
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
+        Map<CtStatement, List<DuplicateCodeFinder.DuplicateCode>> duplicatesByStart = new IdentityHashMap<>();
+        for (var duplicate : DuplicateCodeFinder.findDuplicates(staticAnalysis.getModel(), MINIMUM_DUPLICATE_STATEMENT_SIZE)) {
+            duplicatesByStart.computeIfAbsent(duplicate.left().get(0), key -> new ArrayList<>()).add(duplicate);
+        }
+
         Set<CtElement> reported = Collections.newSetFromMap(new IdentityHashMap<>());
         staticAnalysis.getModel().getRootPackage().accept(new CtScanner() {
             private void checkCtStatement(CtStatement ctStatement) {
@@ -64,7 +71,7 @@ public class DuplicateCode extends IntegratedCheck {
                     return;
                 }
 
-                for (var duplicate : DuplicateCodeFinder.findDuplicates(ctStatement)) {
+                for (var duplicate : duplicatesByStart.getOrDefault(ctStatement, List.of())) {
                     if (isAnyStatementIn(duplicate, reported) || !isConsideredDuplicateCode(duplicate.left(), duplicate.right())) {
                         continue;
                     }
@@ -104,4 +111,9 @@ public class DuplicateCode extends IntegratedCheck {
             }
         });
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.DUPLICATE_CODE);
+    }
 }
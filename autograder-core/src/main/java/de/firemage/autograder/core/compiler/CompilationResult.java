@@ -1,8 +1,22 @@
 package de.firemage.autograder.core.compiler;
 
-import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
-public record CompilationResult(Path jar, List<CompilationDiagnostic> diagnostics) {
-
+/**
+ * The result of compiling a submission.
+ *
+ * @param classes the bytecode of the compiled classes by their binary name
+ * @param diagnostics the diagnostics the compiler emitted
+ */
+public record CompilationResult(Map<String, byte[]> classes, List<CompilationDiagnostic> diagnostics) {
+    /**
+     * Creates a class loader that can load the compiled classes.
+     *
+     * @param parent the parent of the new class loader
+     * @return the class loader
+     */
+    public ClassLoader createClassLoader(ClassLoader parent) {
+        return new InMemoryClassLoader(this.classes, parent);
+    }
 }
@@ -0,0 +1,57 @@
+package de.firemage.autograder.core.compiler;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A file manager that keeps the class files emitted by the compiler in memory instead of writing them to disk.
+ */
+class InMemoryBinaryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    private final Map<String, byte[]> classes;
+
+    InMemoryBinaryFileManager(StandardJavaFileManager fileManager) {
+        super(fileManager);
+        this.classes = new LinkedHashMap<>();
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+        return new ClassFileObject(className, kind);
+    }
+
+    /**
+     * Returns the bytecode of all classes that have been compiled so far.
+     *
+     * @return a map from the binary name of each class to its bytecode
+     */
+    Map<String, byte[]> getClasses() {
+        return Map.copyOf(this.classes);
+    }
+
+    private final class ClassFileObject extends SimpleJavaFileObject {
+        private final String className;
+
+        private ClassFileObject(String className, Kind kind) {
+            super(URI.create("memory:///" + className.replace('.', '/') + kind.extension), kind);
+            this.className = className;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    classes.put(className, this.toByteArray());
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.firemage.autograder.core.compiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Loads the classes of a {@link CompilationResult} directly from their bytecode in memory.
+ * <p>
+ * Like every other class loader, it asks its parent first, so classes of the parent take precedence.
+ */
+public final class InMemoryClassLoader extends ClassLoader {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    private final Map<String, byte[]> classes;
+
+    public InMemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+        super(parent);
+        this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytecode = this.classes.get(name);
+        if (bytecode == null) {
+            throw new ClassNotFoundException(name);
+        }
+
+        return this.defineClass(name, bytecode, 0, bytecode.length);
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String name) {
+        InputStream parentResource = super.getResourceAsStream(name);
+        if (parentResource != null || !name.endsWith(CLASS_FILE_EXTENSION)) {
+            return parentResource;
+        }
+
+        String className = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+        byte[] bytecode = this.classes.get(className);
+        if (bytecode == null) {
+            return null;
+        }
+
+        return new ByteArrayInputStream(bytecode);
+    }
+}
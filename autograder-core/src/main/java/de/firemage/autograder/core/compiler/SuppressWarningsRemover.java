@@ -0,0 +1,175 @@
+package de.firemage.autograder.core.compiler;
+
+/**
+ * Replaces the arguments of all {@code @SuppressWarnings} annotations in the source code with an empty array.
+ * <p>
+ * The code is scanned like the compiler would, so annotations in comments, string literals or text blocks are
+ * not touched. The replacement has the same length as the arguments and keeps their line breaks,
+ * so the positions in the code do not change.
+ */
+final class SuppressWarningsRemover {
+    private static final String SIMPLE_NAME = "SuppressWarnings";
+    private static final String QUALIFIED_NAME = "java.lang.SuppressWarnings";
+
+    private final String code;
+    private final StringBuilder result;
+    private int position;
+
+    private SuppressWarningsRemover(String code) {
+        this.code = code;
+        this.result = new StringBuilder(code);
+        this.position = 0;
+    }
+
+    static String removeFrom(String code) {
+        SuppressWarningsRemover remover = new SuppressWarningsRemover(code);
+        remover.scan();
+        return remover.result.toString();
+    }
+
+    private boolean startsWith(String prefix) {
+        return this.code.startsWith(prefix, this.position);
+    }
+
+    private void scan() {
+        while (this.position < this.code.length()) {
+            if (this.skipCommentOrLiteral()) {
+                continue;
+            }
+
+            if (this.code.charAt(this.position) == '@') {
+                this.position++;
+                this.scanAnnotation();
+            } else {
+                this.position++;
+            }
+        }
+    }
+
+    /**
+     * Skips the comment or literal that starts at the current position.
+     *
+     * @return true if something has been skipped
+     */
+    private boolean skipCommentOrLiteral() {
+        if (this.startsWith("//")) {
+            int end = this.code.indexOf('\n', this.position);
+            this.position = end < 0 ? this.code.length() : end + 1;
+        } else if (this.startsWith("/*")) {
+            int end = this.code.indexOf("*/", this.position + 2);
+            this.position = end < 0 ? this.code.length() : end + 2;
+        } else if (this.startsWith("\"\"\"")) {
+            this.position = this.skipQuoted(this.position + 3, "\"\"\"");
+        } else if (this.startsWith("\"")) {
+            this.position = this.skipQuoted(this.position + 1, "\"");
+        } else if (this.startsWith("'")) {
+            this.position = this.skipQuoted(this.position + 1, "'");
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    private int skipQuoted(int start, String quote) {
+        int i = start;
+        while (i < this.code.length() && !this.code.startsWith(quote, i)) {
+            // an escaped character can not end the literal
+            i += this.code.charAt(i) == '\\' ? 2 : 1;
+        }
+
+        return Math.min(i + quote.length(), this.code.length());
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.code.length() && Character.isWhitespace(this.code.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private void scanAnnotation() {
+        this.skipWhitespace();
+
+        // the name might be qualified, there can be whitespace around the dots
+        StringBuilder name = new StringBuilder();
+        while (this.position < this.code.length()) {
+            char c = this.code.charAt(this.position);
+            if (Character.isJavaIdentifierPart(c) || c == '.') {
+                name.append(c);
+            } else if (!Character.isWhitespace(c)) {
+                break;
+            }
+            this.position++;
+        }
+
+        String annotation = name.toString();
+        if (!annotation.equals(SIMPLE_NAME) && !annotation.equals(QUALIFIED_NAME)) {
+            return;
+        }
+
+        if (this.position >= this.code.length() || this.code.charAt(this.position) != '(') {
+            return;
+        }
+
+        int start = this.position;
+        int end = this.findClosingParenthesis();
+        if (end < 0) {
+            return;
+        }
+
+        // the braces of the empty array replace the first and the last character that is not a line break
+        int first = start + 1;
+        while (first < end && isLineBreak(this.code.charAt(first))) {
+            first++;
+        }
+
+        int last = end - 1;
+        while (last > first && isLineBreak(this.code.charAt(last))) {
+            last--;
+        }
+
+        // shorter arguments are left as they are
+        if (last <= first) {
+            return;
+        }
+
+        for (int i = first; i <= last; i++) {
+            if (!isLineBreak(this.code.charAt(i))) {
+                this.result.setCharAt(i, ' ');
+            }
+        }
+        this.result.setCharAt(first, '{');
+        this.result.setCharAt(last, '}');
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\r' || c == '\n';
+    }
+
+    /**
+     * Finds the parenthesis that closes the one at the current position and moves behind it.
+     *
+     * @return the position of the closing parenthesis or -1 if there is none
+     */
+    private int findClosingParenthesis() {
+        int depth = 0;
+        while (this.position < this.code.length()) {
+            if (this.skipCommentOrLiteral()) {
+                continue;
+            }
+
+            char c = this.code.charAt(this.position);
+            this.position++;
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return this.position - 1;
+                }
+            }
+        }
+
+        return -1;
+    }
+}
@@ -4,10 +4,12 @@ import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.core.CodeModel;
 import de.firemage.autograder.core.LinterStatus;
+import de.firemage.autograder.core.MetricsCollector;
 import de.firemage.autograder.core.compiler.CompilationFailureException;
 import de.firemage.autograder.core.compiler.CompilationResult;
 import de.firemage.autograder.core.compiler.Compiler;
 import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.Metric;
 import de.firemage.autograder.core.integrated.ModelBuildException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,13 +27,16 @@ public final class UploadedFile implements AutoCloseable {
     private final CompilationResult compilationResult;
     private final ClassLoader classLoader;
     private final AbstractTempLocation tempLocation;
+    private final MetricsCollector metrics;
 
-    private UploadedFile(CodeModel model, SourceInfo source, CompilationResult compilationResult, ClassLoader classLoader, AbstractTempLocation tempLocation) {
+    private UploadedFile(CodeModel model, SourceInfo source, CompilationResult compilationResult, ClassLoader classLoader,
+                         AbstractTempLocation tempLocation, MetricsCollector metrics) {
         this.model = model;
         this.source = source;
         this.compilationResult = compilationResult;
         this.classLoader = classLoader;
         this.tempLocation = tempLocation;
+        this.metrics = metrics;
     }
 
     public UploadedFile copy() {
@@ -58,16 +63,28 @@ public final class UploadedFile implements AutoCloseable {
         Consumer<Translatable> statusConsumer,
         ClassLoader classLoader
     ) throws IOException, CompilationFailureException {
-        Compiler compiler = new Compiler(tmpLocation, source.getVersion());
+        return UploadedFile.build(source, tmpLocation, statusConsumer, classLoader, new MetricsCollector());
+    }
+
+    public static UploadedFile build(
+        SourceInfo source,
+        AbstractTempLocation tmpLocation,
+        Consumer<Translatable> statusConsumer,
+        ClassLoader classLoader,
+        MetricsCollector metrics
+    ) throws IOException, CompilationFailureException {
+        Compiler compiler = new Compiler(source.getVersion());
         statusConsumer.accept(LinterStatus.COMPILING.getMessage());
-        Optional<CompilationResult> compilationResult = compiler.compileToJar(source);
+        MetricsCollector.Measurement compilation = metrics.start(Metric.Kind.COMPILATION, "javac");
+        Optional<CompilationResult> compilationResult = compiler.compileInMemory(source);
+        compilation.finish(0);
         if (compilationResult.isEmpty()) {
             return null;
         }
 
-        var model = CodeModel.buildFor(source, compilationResult.get().jar(), classLoader);
+        var model = CodeModel.buildFor(source, compilationResult.get(), classLoader, metrics);
 
-        return new UploadedFile(model, source, compilationResult.get(), classLoader, tmpLocation);
+        return new UploadedFile(model, source, compilationResult.get(), classLoader, tmpLocation, metrics);
     }
 
     public SourceInfo getSource() {
@@ -82,9 +99,17 @@ public final class UploadedFile implements AutoCloseable {
         return model;
     }
 
+    /**
+     * Returns the collector in which the linters record the metrics for this submission.
+     *
+     * @return the collector
+     */
+    public MetricsCollector getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void close() throws IOException {
         this.model.close();
-        this.compilationResult.jar().toFile().delete();
     }
 }
@@ -0,0 +1,118 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.processing.FactoryAccessor;
+import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtVariable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers which variables are effectively final and which expressions are constant.
+ * <p>
+ * Checking if a variable is effectively final has to look up all uses of the variable, and resolving the constant
+ * value of an expression has to evaluate it. Both are asked for the same variables and expressions by many checks,
+ * so the results are computed only once per model. The entries are added when they are first needed and the table
+ * can be used by multiple threads at the same time.
+ * <p>
+ * Only the results for elements of the model are kept, the results for copies of elements
+ * (for example the results of the {@link de.firemage.autograder.core.integrated.evaluator.Evaluator})
+ * are computed every time, because the copies might be modified.
+ */
+final class ConstantTable {
+    private final Map<CtVariable<?>, ConstantVariable> variables;
+    private final Map<CtExpression<?>, CtExpression<?>> resolvedConstants;
+    private final Map<CtExpression<?>, Boolean> constantExpressions;
+
+    ConstantTable() {
+        this.variables = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.resolvedConstants = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.constantExpressions = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Whether a variable is effectively final and its value, if it is known.
+     *
+     * @param isEffectivelyFinal whether the variable is never assigned after its declaration
+     * @param value the literal the variable is initialized with or null if it is not effectively final
+     *              or not initialized with a literal
+     */
+    record ConstantVariable(boolean isEffectivelyFinal, CtLiteral<?> value) {
+    }
+
+    /**
+     * Returns the table of the model the element belongs to.
+     *
+     * @param element an element of the model
+     * @return the table, if the model does not have one, a new table is returned that is not shared
+     */
+    static ConstantTable getFor(FactoryAccessor element) {
+        IndexRegistry registry = IndexRegistry.findFor(element);
+        return registry == null ? new ConstantTable() : registry.get(ModelIndex.CONSTANTS);
+    }
+
+    ConstantVariable getVariable(CtVariable<?> ctVariable, Function<? super CtVariable<?>, ConstantVariable> compute) {
+        return lookup(this.variables, ctVariable, compute);
+    }
+
+    /**
+     * Returns the result of resolving the constants in the expression with the given function.
+     *
+     * @param ctExpression the expression to resolve
+     * @param compute resolves the expression if it is not in the table, the result must be detached from the model
+     * @return a copy of the resolved expression that can be modified
+     */
+    CtExpression<?> getResolvedConstant(CtExpression<?> ctExpression, Function<? super CtExpression<?>, ? extends CtExpression<?>> compute) {
+        CtExpression<?> result = this.resolvedConstants.get(ctExpression);
+        if (result == null) {
+            result = compute.apply(ctExpression);
+            // a result that is not kept in the table does not have to be copied
+            if (!isInModel(ctExpression)) {
+                return result;
+            }
+
+            CtExpression<?> previous = this.resolvedConstants.putIfAbsent(ctExpression, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+
+        return result.clone();
+    }
+
+    boolean isConstantExpression(CtExpression<?> ctExpression, Function<? super CtExpression<?>, Boolean> compute) {
+        return lookup(this.constantExpressions, ctExpression, compute);
+    }
+
+    private static <K extends CtElement, V> V lookup(Map<K, V> table, K key, Function<? super K, ? extends V> compute) {
+        V result = table.get(key);
+        if (result == null) {
+            // the value is computed outside the lock, if two threads compute it at the same time, the first result is kept
+            result = compute.apply(key);
+            if (isInModel(key)) {
+                V previous = table.putIfAbsent(key, result);
+                if (previous != null) {
+                    result = previous;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isInModel(CtElement ctElement) {
+        CtPackage rootPackage = ElementUtil.getRootPackage(ctElement);
+        for (CtElement parent : ElementUtil.parents(ctElement)) {
+            if (parent == rootPackage) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -168,7 +168,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @return
      */
     public CtElementStream<T> nestedIn(Class<? extends CtElement> parentType) {
-        return this.filter(e -> parentType.isInstance(e) || e.getParent(parentType) != null);
+        return this.filter(e -> parentType.isInstance(e) || ElementUtil.getParent(e, parentType) != null);
     }
 
     /**
@@ -177,7 +177,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @return
      */
     public CtElementStream<T> notNestedIn(Class<? extends CtElement> parentType) {
-        return this.filter(e -> !parentType.isInstance(e) && e.getParent(parentType) == null);
+        return this.filter(e -> !parentType.isInstance(e) && ElementUtil.getParent(e, parentType) == null);
     }
 
     /**
@@ -242,7 +242,7 @@ public class CtElementStream<T extends CtElement> implements Stream<T> {
      * @param <P>
      */
     public <P extends CtElement> CtElementStream<T> filterIndirectParent(Class<P> parentType, Predicate<? super CtElement> filter) {
-        return new CtElementStream<>(baseStream.filter(e -> filter.test(e.getParent(parentType))));
+        return new CtElementStream<>(baseStream.filter(e -> filter.test(ElementUtil.getParent(e, parentType))));
     }
 
     /**
@@ -1,79 +1,159 @@
 package de.firemage.autograder.core.integrated;
 
-import de.firemage.autograder.core.integrated.structure.StructuralElement;
 import de.firemage.autograder.core.integrated.structure.StructuralEqualsVisitor;
-import spoon.processing.AbstractProcessor;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
 import spoon.processing.FactoryAccessor;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtComment;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.code.CtStatementList;
+import spoon.reflect.declaration.CtElement;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.StreamSupport;
 
 public final class DuplicateCodeFinder {
-    private static final String METADATA_KEY = "autograder_duplicate_code_uses";
-    private final Map<StructuralElement<CtStatement>, List<CtStatement>> occurrences;
+    // the statements that can start duplicate code, numbered in the order in which they are in the model
+    private final Map<CtStatement, Integer> statementOrder;
+    // the position of each statement in the tokens of the suffix array
+    private final Map<CtStatement, Integer> positions;
+    // the statement of each token, null for the separators
+    private final List<CtStatement> tokenStatements;
+    // sizes[i] is the size of the statements before token i, like DuplicateCode#size would count them
+    private final int[] sizes;
+    private final SuffixArray suffixArray;
+    // the number of statements in each statement, like DuplicateCode#countStatements would count them
+    private final Map<CtStatement, Integer> statementCounts;
 
-    private DuplicateCodeFinder(CtModel model) {
-        this.occurrences = new HashMap<>();
-        model.processWith(new AbstractProcessor<CtStatement>() {
-            @Override
-            public void process(CtStatement ctStatement) {
-                if (ctStatement.isImplicit() || !ctStatement.getPosition().isValidPosition()) {
-                    return;
+    private DuplicateCodeFinder(Builder builder) {
+        this.statementOrder = new IdentityHashMap<>();
+        this.positions = new IdentityHashMap<>();
+        this.tokenStatements = new ArrayList<>();
+        this.statementCounts = builder.statementCounts;
+
+        for (CtStatement ctStatement : builder.statements) {
+            this.statementOrder.put(ctStatement, this.statementOrder.size());
+        }
+
+        this.suffixArray = new SuffixArray(this.tokenize(builder.statementLists));
+
+        this.sizes = new int[this.tokenStatements.size() + 1];
+        for (int i = 0; i < this.tokenStatements.size(); i++) {
+            CtStatement ctStatement = this.tokenStatements.get(i);
+            this.sizes[i + 1] = this.sizes[i] + (ctStatement == null ? 0 : countStatements(this.statementCounts, ctStatement));
+        }
+    }
+
+    /**
+     * Converts the statement lists into a sequence of tokens, where each statement is represented by its structural
+     * hash code and each list is terminated by a separator that is unique in the sequence.
+     * <p>
+     * Statements that follow each other in the same list and have the same hash codes are then a common prefix of
+     * two suffixes of the sequence.
+     *
+     * @param statementLists the statement lists of the model
+     * @return the tokens, numbered from 0
+     */
+    private int[] tokenize(List<CtStatementList> statementLists) {
+        Map<Integer, Integer> tokenIds = new HashMap<>();
+        List<Integer> tokens = new ArrayList<>();
+        for (CtStatementList ctStatementList : statementLists) {
+            for (CtStatement ctStatement : ctStatementList.getStatements()) {
+                // only statements whose next statements are the following ones in this list
+                if (ctStatement.getParent() == ctStatementList) {
+                    this.positions.putIfAbsent(ctStatement, tokens.size());
                 }
 
-                DuplicateCodeFinder.this.occurrences.computeIfAbsent(
-                    new StructuralElement<>(ctStatement),
-                    key -> new ArrayList<>()
-                ).add(ctStatement);
+                int hashCode = StructuralHashCodeVisitor.computeHashCode(ctStatement);
+                tokens.add(tokenIds.computeIfAbsent(hashCode, key -> tokenIds.size()));
+                this.tokenStatements.add(ctStatement);
+            }
+
+            // the separators are negative for now, because the number of different statements is not known yet
+            tokens.add(-1);
+            this.tokenStatements.add(null);
+        }
+
+        int[] result = new int[tokens.size()];
+        int separator = tokenIds.size();
+        for (int i = 0; i < result.length; i++) {
+            int token = tokens.get(i);
+            result[i] = token < 0 ? separator++ : token;
+        }
+
+        return result;
+    }
+
+    static final class Builder extends IndexBuilder {
+        private final List<CtStatement> statements = new ArrayList<>();
+        private final List<CtStatementList> statementLists = new ArrayList<>();
+        private final Map<CtStatement, Integer> statementCounts = new IdentityHashMap<>();
+        // the number of counted statements in the element that is currently scanned
+        private final Deque<int[]> counts = new ArrayDeque<>();
+
+        @Override
+        void enter(CtElement element) {
+            if (element instanceof CtStatement ctStatement && !ctStatement.isImplicit() && ctStatement.getPosition().isValidPosition()) {
+                this.statements.add(ctStatement);
             }
-        });
 
-        /*
-        if (CoreUtil.isInDebugMode()) {
-            Map<Integer, List<Object>> collisions = new HashMap<>();
-            for (var key : this.occurrences.keySet()) {
-                collisions.computeIfAbsent(key.hashCode(), k -> new ArrayList<>()).add(key);
+            if (element instanceof CtStatementList ctStatementList) {
+                this.statementLists.add(ctStatementList);
             }
 
-            var mostCommonCollisions = collisions.values()
-                .stream()
-                .filter(list -> list.size() > 1)
-                .sorted((a, b) -> Integer.compare(b.size(), a.size()))
-                .limit(10)
-                .toList();
+            this.counts.push(new int[1]);
+        }
+
+        @Override
+        void exit(CtElement element) {
+            int count = this.counts.pop()[0] + (isCountedStatement(element) ? 1 : 0);
 
-            int numberOfDuplicateHashCodes = this.occurrences.size() - collisions.size();
+            if (element instanceof CtStatement ctStatement) {
+                this.statementCounts.put(ctStatement, count);
+            }
 
-            if (numberOfDuplicateHashCodes > 20) {
-                throw new IllegalStateException("Too many hash collisions %d of %d elements.".formatted(numberOfDuplicateHashCodes, this.occurrences.size()));
+            if (!this.counts.isEmpty()) {
+                this.counts.peek()[0] += count;
             }
-        }*/
+        }
+
+        @Override
+        DuplicateCodeFinder build(CtModel model) {
+            // the hash codes of all statements are needed, computing them bottom-up for the whole model is
+            // much faster than hashing each statement (and its nested statements) separately
+            IndexRegistry.getFor(model).get(ModelIndex.STRUCTURAL_HASH_CODES);
+            return new DuplicateCodeFinder(this);
+        }
     }
 
-    public static void buildFor(CtModel model) {
-        DuplicateCodeFinder uses = new DuplicateCodeFinder(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, uses);
+    private static DuplicateCodeFinder findFor(FactoryAccessor factoryAccessor) {
+        IndexRegistry registry = IndexRegistry.findFor(factoryAccessor);
+        return registry == null ? null : registry.find(ModelIndex.DUPLICATE_CODE);
     }
 
-    private static DuplicateCodeFinder getFor(FactoryAccessor factoryAccessor) {
-        var uses = (DuplicateCodeFinder) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
-        if (uses == null) {
-            throw new IllegalArgumentException("No duplicate code uses information available for this model");
+    private static int countStatements(Map<CtStatement, Integer> statementCounts, CtStatement ctStatement) {
+        Integer count = statementCounts == null ? null : statementCounts.get(ctStatement);
+        if (count == null) {
+            count = ctStatement.getElements(DuplicateCodeFinder::isCountedStatement).size();
         }
-        return uses;
+
+        return Math.max(count, 1);
     }
 
-    private List<CtStatement> findDuplicateStatements(CtStatement statement) {
-        return Collections.unmodifiableList(this.occurrences.get(new StructuralElement<>(statement)));
+    private static boolean isCountedStatement(CtElement ctElement) {
+        return ctElement instanceof CtStatement
+            && !(ctElement instanceof CtComment)
+            && !(ctElement instanceof CtStatementList)
+            && ctElement.getPosition().isValidPosition()
+            && !ctElement.isImplicit();
     }
 
     private static <K, V> Iterable<Map.Entry<K, V>> zip(Iterable<K> keys, Iterable<V> values) {
@@ -99,14 +179,8 @@ public final class DuplicateCodeFinder {
         }
 
         private static int countStatements(CtStatement ctStatement) {
-            int count = ctStatement.getElements(ctElement -> ctElement instanceof CtStatement
-                && !(ctElement instanceof CtComment)
-                && !(ctElement instanceof CtStatementList)
-                && ctElement.getPosition().isValidPosition()
-                && !ctElement.isImplicit()
-            ).size();
-
-            return Math.max(count, 1);
+            DuplicateCodeFinder finder = DuplicateCodeFinder.findFor(ctStatement);
+            return DuplicateCodeFinder.countStatements(finder == null ? null : finder.statementCounts, ctStatement);
         }
 
         public boolean isMoreThanOrEqualTo(int threshold) {
@@ -130,36 +204,93 @@ public final class DuplicateCodeFinder {
     }
 
     /**
-     * Finds all duplicate code blocks with the given statement.
-     * @param start the first statement of the code block
-     * @return a list of all duplicate code blocks, the left will always contain the start statement and the right will be the duplicate
+     * Finds the duplicate code in the model that is at least as large as the given size.
+     * <p>
+     * The statement lists are compared by the structural hash codes of their statements: the suffix array finds the
+     * runs of statements that are repeated and can not be extended, without looking at the statements that are not
+     * repeated. Every duplicate starts somewhere in such a run and ends where the run ends or where the statements are
+     * no longer structurally equal, so only the runs that are large enough have to be compared statement by statement.
+     * <p>
+     * Each duplicate is returned twice, once for each side.
+     *
+     * @param model the model to search
+     * @param minimumSize the minimum size of the duplicate code, see {@link DuplicateCode#isMoreThanOrEqualTo(int)}
+     * @return the duplicates, ordered by the first statement of the left and then of the right code
      */
-    public static List<DuplicateCode> findDuplicates(CtStatement start) {
-        DuplicateCodeFinder finder = DuplicateCodeFinder.getFor(start);
+    public static List<DuplicateCode> findDuplicates(CtModel model, int minimumSize) {
+        DuplicateCodeFinder finder = IndexRegistry.getFor(model).get(ModelIndex.DUPLICATE_CODE);
 
         List<DuplicateCode> result = new ArrayList<>();
+        for (SuffixArray.MaximalPair pair : finder.suffixArray.findMaximalPairs()) {
+            finder.addDuplicates(pair, minimumSize, result);
+        }
 
-        // we start searching for duplicates from the given statement
-        for (CtStatement duplicate : finder.findDuplicateStatements(start)) {
-            if (duplicate == start) {
-                continue;
-            }
+        result.sort(Comparator.comparing((DuplicateCode duplicate) -> finder.statementOrder.get(duplicate.left().get(0)))
+            .thenComparing(duplicate -> finder.statementOrder.get(duplicate.right().get(0))));
+        return result;
+    }
+
+    private int sizeOf(int position, int length) {
+        return this.sizes[position + length] - this.sizes[position];
+    }
+
+    private boolean isStartOfDuplicate(int position) {
+        CtStatement ctStatement = this.tokenStatements.get(position);
+        Integer statementPosition = this.positions.get(ctStatement);
+        // the next statements of a statement are only the following tokens, if this is the list it is in
+        return this.statementOrder.containsKey(ctStatement) && statementPosition != null && statementPosition == position;
+    }
+
+    /**
+     * Adds the duplicates that start in the repeated run of statements of the pair.
+     *
+     * @param pair the repeated run of statements
+     * @param minimumSize the minimum size of the duplicates
+     * @param result the list to add the duplicates to
+     */
+    private void addDuplicates(SuffixArray.MaximalPair pair, int minimumSize, List<DuplicateCode> result) {
+        int length = pair.length();
+        if (this.sizeOf(pair.left(), length) < minimumSize && this.sizeOf(pair.right(), length) < minimumSize) {
+            return;
+        }
+
+        // whether the statements at an offset in the run are structurally equal, computed when first needed
+        Boolean[] isEqual = new Boolean[length];
+        for (int[] sides : new int[][] { { pair.left(), pair.right() }, { pair.right(), pair.left() } }) {
+            int left = sides[0];
+            int right = sides[1];
 
-            List<CtStatement> leftCode = new ArrayList<>(List.of(start));
-            List<CtStatement> rightCode = new ArrayList<>(List.of(duplicate));
+            // the later a duplicate starts in the run, the smaller it is
+            for (int start = 0; start < length && this.sizeOf(left + start, length - start) >= minimumSize; start++) {
+                if (!this.isStartOfDuplicate(left + start) || !this.isStartOfDuplicate(right + start)) {
+                    continue;
+                }
+
+                int end = start;
+                while (end < length && this.isEqual(isEqual, left, right, end)) {
+                    end++;
+                }
 
-            for (var entry : zip(StatementUtil.getNextStatements(start), StatementUtil.getNextStatements(duplicate))) {
-                if (!StructuralEqualsVisitor.equals(entry.getKey(), entry.getValue())) {
-                    break;
+                if (end == start || this.sizeOf(left + start, end - start) < minimumSize) {
+                    continue;
                 }
 
-                leftCode.add(entry.getKey());
-                rightCode.add(entry.getValue());
+                result.add(new DuplicateCode(
+                    List.copyOf(this.tokenStatements.subList(left + start, left + end)),
+                    List.copyOf(this.tokenStatements.subList(right + start, right + end))
+                ));
             }
+        }
+    }
 
-            result.add(new DuplicateCode(leftCode, rightCode));
+    private boolean isEqual(Boolean[] isEqual, int left, int right, int offset) {
+        if (isEqual[offset] == null) {
+            isEqual[offset] = StructuralEqualsVisitor.equals(
+                this.tokenStatements.get(left + offset),
+                this.tokenStatements.get(right + offset)
+            );
         }
 
-        return result;
+        return isEqual[offset];
     }
 }
@@ -0,0 +1,233 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.processing.ProcessInterruption;
+import spoon.processing.Processor;
+import spoon.processing.TraversalStrategy;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides all elements of the code model grouped by their type.
+ * <p>
+ * Most checks process the model with a processor that is only interested in a few element types.
+ * Instead of traversing the whole model for each of these processors, the model is traversed once
+ * and the processors are only passed the elements they are interested in, in the same order in which
+ * spoon would have visited them.
+ * <p>
+ * Each element is numbered in the order in which it is entered. The descendants of an element are entered
+ * after it and before the next element that is not one of its descendants, so the elements of a subtree
+ * have consecutive numbers. This is used to find the elements of a type in a subtree with a binary search.
+ * <p>
+ * The index is dropped by the {@link IndexRegistry} when elements are added to or removed from the model.
+ */
+public final class ElementIndex {
+    private final Factory factory;
+    private final CtElement[] preOrder;
+    private final CtElement[] postOrder;
+    // the positions of the elements in preOrder/postOrder, grouped by the runtime class of the elements
+    private final Map<Class<?>, BitSet> preOrderPositions;
+    private final Map<Class<?>, BitSet> postOrderPositions;
+    // the position of each element in preOrder and the position after the last element of its subtree
+    private final Map<CtElement, Integer> preOrderNumbers;
+    private final int[] subtreeEnds;
+    private final Map<ElementQuery, QueryResult> queryCache;
+
+    private ElementIndex(Builder builder, Factory factory) {
+        this.factory = factory;
+        this.preOrder = builder.preOrderElements.toArray(CtElement[]::new);
+        this.postOrder = builder.postOrderElements.toArray(CtElement[]::new);
+        this.preOrderPositions = builder.preOrderPositions;
+        this.postOrderPositions = builder.postOrderPositions;
+        this.preOrderNumbers = builder.preOrderNumbers;
+        this.subtreeEnds = Arrays.copyOf(builder.subtreeEnds, this.preOrder.length);
+        this.queryCache = new ConcurrentHashMap<>();
+    }
+
+    public static ElementIndex getFor(CtModel model) {
+        return IndexRegistry.getFor(model).get(ModelIndex.ELEMENT_INDEX);
+    }
+
+    /**
+     * Returns the index of the model the element belongs to, if it has already been built.
+     *
+     * @param element an element of the model
+     * @return the index or null if it has not been built
+     */
+    static ElementIndex findFor(CtElement element) {
+        if (element.getFactory() == null) {
+            return null;
+        }
+
+        IndexRegistry registry = IndexRegistry.findFor(element);
+        return registry == null ? null : registry.find(ModelIndex.ELEMENT_INDEX);
+    }
+
+    /**
+     * Returns all elements that are an instance of all the given types.
+     *
+     * @param types the types the elements must have, if empty, no elements are returned
+     * @param strategy whether the elements should be in pre-order or post-order
+     * @return the elements in the order in which a {@link CtScanner} would visit them
+     */
+    public List<CtElement> getElements(Set<? extends Class<?>> types, TraversalStrategy strategy) {
+        return this.query(types, strategy).elements();
+    }
+
+    /**
+     * Returns the elements in the subtree of the given element that are an instance of the given type, like
+     * {@code root.getElements(new TypeFilter<>(type))} would.
+     *
+     * @param root the root of the subtree, which is included in the result if it has the type
+     * @param type the type the elements must have
+     * @return the elements in pre-order or null if the root is not part of the index
+     * @param <T> the type of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends CtElement> List<T> getElements(CtElement root, Class<? super T> type) {
+        Integer start = this.preOrderNumbers.get(root);
+        if (start == null) {
+            // an element of the model that is not in the index means that the index is outdated
+            if (CoreUtil.isInDebugMode() && IndexRegistry.getFor(root).isInModel(root)) {
+                throw new IllegalStateException("The element %s is not in the ElementIndex of its model".formatted(root));
+            }
+
+            return null;
+        }
+
+        QueryResult result = this.query(Set.of(type), TraversalStrategy.PRE_ORDER);
+        int from = insertionPoint(result.positions(), start);
+        int to = insertionPoint(result.positions(), this.subtreeEnds[start]);
+
+        return (List<T>) result.elements().subList(from, to);
+    }
+
+    private static int insertionPoint(int[] positions, int position) {
+        int index = Arrays.binarySearch(positions, position);
+        return index < 0 ? -(index + 1) : index;
+    }
+
+    private QueryResult query(Set<? extends Class<?>> types, TraversalStrategy strategy) {
+        return this.queryCache.computeIfAbsent(new ElementQuery(Set.copyOf(types), strategy), this::findElements);
+    }
+
+    private QueryResult findElements(ElementQuery query) {
+        if (query.types().isEmpty()) {
+            return new QueryResult(new int[0], List.of());
+        }
+
+        boolean isPreOrder = query.strategy() == TraversalStrategy.PRE_ORDER;
+        CtElement[] elements = isPreOrder ? this.preOrder : this.postOrder;
+
+        BitSet positions = new BitSet(elements.length);
+        for (Map.Entry<Class<?>, BitSet> entry : (isPreOrder ? this.preOrderPositions : this.postOrderPositions).entrySet()) {
+            if (query.types().stream().allMatch(type -> type.isAssignableFrom(entry.getKey()))) {
+                positions.or(entry.getValue());
+            }
+        }
+
+        int[] resultPositions = positions.stream().toArray();
+        List<CtElement> result = new ArrayList<>(resultPositions.length);
+        for (int position : resultPositions) {
+            result.add(elements[position]);
+        }
+
+        return new QueryResult(resultPositions, List.copyOf(result));
+    }
+
+    /**
+     * Processes the model with the given processor, like {@link CtModel#processWith(Processor)} would.
+     * <p>
+     * The processor is only passed the elements it can process, without traversing the whole model.
+     *
+     * @param processor the processor to run
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends CtElement> void processWith(Processor<E> processor) {
+        processor.setFactory(this.factory);
+        processor.init();
+        processor.process();
+
+        Set<Class<? extends CtElement>> types = processor.getProcessedElementTypes();
+        if (types != null) {
+            try {
+                for (CtElement element : this.getElements(types, processor.getTraversalStrategy())) {
+                    if (this.factory.getEnvironment().isProcessingStopped()) {
+                        break;
+                    }
+
+                    if (processor.isToBeProcessed((E) element)) {
+                        processor.process((E) element);
+                    }
+                }
+            } catch (ProcessInterruption ignored) {
+                // the processor does not want to process any more elements
+            }
+        }
+
+        processor.processingDone();
+    }
+
+    static final class Builder extends IndexBuilder {
+        private final List<CtElement> preOrderElements = new ArrayList<>();
+        private final List<CtElement> postOrderElements = new ArrayList<>();
+        private final Map<Class<?>, BitSet> preOrderPositions = new HashMap<>();
+        private final Map<Class<?>, BitSet> postOrderPositions = new HashMap<>();
+        private final Map<CtElement, Integer> preOrderNumbers = new IdentityHashMap<>();
+        private int[] subtreeEnds = new int[1024];
+        // the pre-order positions of the elements that are currently scanned
+        private final Deque<Integer> enteredPositions = new ArrayDeque<>();
+
+        @Override
+        void enter(CtElement element) {
+            int position = this.preOrderElements.size();
+            this.preOrderPositions.computeIfAbsent(element.getClass(), key -> new BitSet()).set(position);
+            this.preOrderElements.add(element);
+            // an element that is scanned more than once has the same subtree every time, so the first one is used
+            this.preOrderNumbers.putIfAbsent(element, position);
+            this.enteredPositions.push(position);
+        }
+
+        @Override
+        void exit(CtElement element) {
+            int position = this.enteredPositions.pop();
+            if (position >= this.subtreeEnds.length) {
+                this.subtreeEnds = Arrays.copyOf(this.subtreeEnds, Math.max(position + 1, this.subtreeEnds.length * 2));
+            }
+            this.subtreeEnds[position] = this.preOrderElements.size();
+
+            this.postOrderPositions.computeIfAbsent(element.getClass(), key -> new BitSet()).set(this.postOrderElements.size());
+            this.postOrderElements.add(element);
+        }
+
+        @Override
+        ElementIndex build(CtModel model) {
+            return new ElementIndex(this, model.getUnnamedModule().getFactory());
+        }
+    }
+
+    private record ElementQuery(Set<? extends Class<?>> types, TraversalStrategy strategy) {
+    }
+
+    /**
+     * The result of a query.
+     *
+     * @param positions the positions of the elements in preOrder or postOrder, in ascending order
+     * @param elements the elements at these positions
+     */
+    private record QueryResult(int[] positions, List<CtElement> elements) {
+    }
+}
@@ -7,12 +7,14 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtParameter;
+import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -80,12 +82,68 @@ public final class ElementUtil {
         };
     }
 
+    /**
+     * Returns the closest parent of the element with the given type, like {@link CtElement#getParent(Class)}.
+     * <p>
+     * The enclosing types, executables, methods, statements and blocks of the elements in the model are looked up in
+     * the {@link EnclosingScopes}, without walking up the parents of the element.
+     *
+     * @param element the element to get the parent of
+     * @param parentType the type of the parent
+     * @return the parent or null if there is no parent of the given type
+     * @param <P> the type of the parent
+     */
+    public static <P extends CtElement> P getParent(CtElement element, Class<P> parentType) {
+        return EnclosingScopes.getParent(element, parentType);
+    }
+
+    /**
+     * Returns the elements in the subtree of the element that have the given type, like
+     * {@code element.getElements(new TypeFilter<>(type))}.
+     * <p>
+     * If the {@link ElementIndex} of the model has been built, the elements are looked up in the index
+     * instead of scanning the subtree.
+     *
+     * @param element the root of the subtree, it is included in the result if it has the type
+     * @param type the type of the elements
+     * @return an unmodifiable list of the elements, in the order in which they appear in the subtree
+     * @param <T> the type of the elements
+     */
+    public static <T extends CtElement> List<T> getElements(CtElement element, Class<? super T> type) {
+        ElementIndex index = ElementIndex.findFor(element);
+        List<T> result = index == null ? null : index.getElements(element, type);
+        if (result == null) {
+            return Collections.unmodifiableList(element.getElements(new TypeFilter<>(type)));
+        }
+
+        // this is just a sanity check to ensure that our implementation is correct
+        if (CoreUtil.isInDebugMode() && !isSameElements(result, element.getElements(new TypeFilter<>(type)))) {
+            throw new IllegalStateException("Inconsistent %s elements in %s".formatted(type.getSimpleName(), element));
+        }
+
+        return result;
+    }
+
+    private static boolean isSameElements(List<? extends CtElement> left, List<? extends CtElement> right) {
+        if (left.size() != right.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static <P extends CtElement> P getParentOrSelf(CtElement element, Class<P> parentType) {
         Objects.requireNonNull(element);
         if (parentType.isAssignableFrom(element.getClass())) {
             return (P) element;
         }
-        return element.getParent(parentType);
+        return ElementUtil.getParent(element, parentType);
     }
 
     public static int getParameterIndex(CtParameter<?> parameter, CtExecutable<?> executable) {
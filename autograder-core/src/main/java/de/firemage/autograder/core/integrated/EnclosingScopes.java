@@ -0,0 +1,152 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtBlock;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides the closest enclosing type, executable, method, statement and block of the elements in the model.
+ * <p>
+ * Finding them with {@link CtElement#getParent(Class)} walks up the parents of the element every time.
+ * This index records them for all elements while the model is scanned, so they can be looked up in constant time.
+ * <p>
+ * The index is dropped by the {@link IndexRegistry} when elements are added to or removed from the model.
+ * Elements that are not part of the model, like copies of elements, are looked up by walking up their parents.
+ */
+public final class EnclosingScopes {
+    private static final List<Class<?>> SCOPE_TYPES = List.of(
+        CtType.class,
+        CtExecutable.class,
+        CtMethod.class,
+        CtStatement.class,
+        CtBlock.class
+    );
+    private static final CtElement[] NO_SCOPES = new CtElement[SCOPE_TYPES.size()];
+    private static final CtElement[] UNKNOWN_SCOPES = new CtElement[0];
+
+    // the enclosing elements of each element, in the order of SCOPE_TYPES, these arrays are shared between elements
+    private final Map<CtElement, CtElement[]> scopes;
+    // the elements that have been scanned as part of an element that is not their parent
+    private final Set<CtElement> unknownElements;
+
+    private EnclosingScopes(Map<CtElement, CtElement[]> scopes, Set<CtElement> unknownElements) {
+        this.scopes = scopes;
+        this.unknownElements = unknownElements;
+    }
+
+    /**
+     * Returns the closest parent of the element with the given type, like {@link CtElement#getParent(Class)}.
+     * <p>
+     * If the type is one of the recorded scopes and the index has already been built for the model of the element,
+     * the parent is looked up in the index.
+     *
+     * @param element the element to get the parent of
+     * @param parentType the type of the parent
+     * @return the parent or null if the element does not have a parent of that type
+     * @param <P> the type of the parent
+     */
+    @SuppressWarnings("unchecked")
+    static <P extends CtElement> P getParent(CtElement element, Class<P> parentType) {
+        int scope = SCOPE_TYPES.indexOf(parentType);
+        IndexRegistry registry = scope < 0 ? null : findRegistry(element);
+        // building the index would scan the whole model, so it is only used if it has already been built
+        EnclosingScopes enclosingScopes = registry == null ? null : registry.find(ModelIndex.ENCLOSING_SCOPES);
+        CtElement[] elementScopes = enclosingScopes == null ? null : enclosingScopes.scopes.get(element);
+        if (elementScopes == null) {
+            // an element of the model that is not in the index means that the index is outdated
+            if (enclosingScopes != null
+                && CoreUtil.isInDebugMode()
+                && !enclosingScopes.unknownElements.contains(element)
+                && registry.isInModel(element)) {
+                throw new IllegalStateException("The element %s is not in the EnclosingScopes of its model".formatted(element));
+            }
+
+            return element.getParent(parentType);
+        }
+
+        P result = (P) elementScopes[scope];
+
+        // this is just a sanity check to ensure that our implementation is correct
+        if (CoreUtil.isInDebugMode() && result != element.getParent(parentType)) {
+            throw new IllegalStateException("Inconsistent %s for %s".formatted(parentType.getSimpleName(), element));
+        }
+
+        return result;
+    }
+
+    private static IndexRegistry findRegistry(CtElement element) {
+        if (element.getFactory() == null) {
+            return null;
+        }
+
+        return IndexRegistry.findFor(element);
+    }
+
+    static final class Builder extends IndexBuilder {
+        private final Map<CtElement, CtElement[]> scopes = new IdentityHashMap<>();
+        private final Set<CtElement> unknownElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        // the elements that are currently scanned and the scopes of their children
+        private final Deque<CtElement> elements = new ArrayDeque<>();
+        private final Deque<CtElement[]> childScopes = new ArrayDeque<>();
+
+        @Override
+        void enter(CtElement element) {
+            CtElement[] elementScopes;
+            if (this.elements.isEmpty()) {
+                elementScopes = NO_SCOPES;
+            } else if (element.isParentInitialized() && element.getParent() == this.elements.peek()) {
+                elementScopes = this.childScopes.peek();
+            } else {
+                // the element is scanned as part of an element that is not its parent,
+                // so its actual parents might be different from the scanned ones
+                elementScopes = UNKNOWN_SCOPES;
+            }
+
+            if (elementScopes != UNKNOWN_SCOPES) {
+                this.scopes.put(element, elementScopes);
+            } else {
+                this.unknownElements.add(element);
+            }
+
+            this.elements.push(element);
+            this.childScopes.push(elementScopes == UNKNOWN_SCOPES ? UNKNOWN_SCOPES : withScope(elementScopes, element));
+        }
+
+        @Override
+        void exit(CtElement element) {
+            this.elements.pop();
+            this.childScopes.pop();
+        }
+
+        private static CtElement[] withScope(CtElement[] scopes, CtElement element) {
+            CtElement[] result = scopes;
+            for (int i = 0; i < SCOPE_TYPES.size(); i++) {
+                if (SCOPE_TYPES.get(i).isInstance(element)) {
+                    if (result == scopes) {
+                        result = scopes.clone();
+                    }
+                    result[i] = element;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        EnclosingScopes build(CtModel model) {
+            return new EnclosingScopes(this.scopes, this.unknownElements);
+        }
+    }
+}
@@ -279,12 +279,15 @@ public final class ExpressionUtil {
      * @return the resolved expression. It will be cloned and detached from the {@link CtModel}
      * @param <T> the type of the expression
      */
+    @SuppressWarnings("unchecked")
     public static <T> CtExpression<T> resolveConstant(CtExpression<T> ctExpression) {
         if (ctExpression == null) return null;
 
-        Evaluator evaluator = new Evaluator(InlineVariableRead.create(true));
-
-        return evaluator.evaluate(ctExpression);
+        // the expressions of the model are only evaluated once, the table returns a copy of the result
+        return (CtExpression<T>) ConstantTable.getFor(ctExpression).getResolvedConstant(
+            ctExpression,
+            expression -> new Evaluator(InlineVariableRead.create(true)).evaluate(expression)
+        );
     }
 
     /**
@@ -574,6 +577,23 @@ public final class ExpressionUtil {
      * @param <T> the type of the expression
      */
     public static <T> boolean isConstantExpressionOr(CtExpression<T> expr, Predicate<? super CtExpression<?>> isAllowedExpression) {
+        // if the expression is constant on its own, the predicate does not matter
+        return isConstantExpression(expr) || scanConstantExpression(expr, isAllowedExpression);
+    }
+
+    /**
+     * Checks if the given expression is a constant expression.
+     * <p>
+     * The result is computed only once for each expression of the model.
+     *
+     * @param expr the expression to check
+     * @return true if the expression is a constant expression, false otherwise
+     */
+    public static boolean isConstantExpression(CtExpression<?> expr) {
+        return ConstantTable.getFor(expr).isConstantExpression(expr, expression -> scanConstantExpression(expression, e -> false));
+    }
+
+    private static <T> boolean scanConstantExpression(CtExpression<T> expr, Predicate<? super CtExpression<?>> isAllowedExpression) {
         var visitor = new CtScanner() {
             private boolean isConstant;
             private boolean isDone;
@@ -588,7 +608,7 @@ public final class ExpressionUtil {
                     return false;
                 }
 
-                return VariableUtil.getEffectivelyFinalExpression(ctVariable).orElse(null) instanceof CtLiteral<?>;
+                return VariableUtil.getConstantValue(ctVariable).isPresent();
             }
 
             // use the exit instead of the enter method, so it checks the deepest nodes first.
@@ -0,0 +1,82 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtAbstractVisitor;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the data of an index while the model is scanned.
+ * <p>
+ * Most indexes need a full pass over the model. Instead of each index scanning the model on its own,
+ * the builders of all indexes that are needed are passed the elements of a single scan, see
+ * {@link #buildAll(CtModel, List)}.
+ * <p>
+ * The visit methods of a builder are called for each element before its children are scanned.
+ */
+abstract class IndexBuilder extends CtAbstractVisitor {
+    /**
+     * Called for each element before its children are scanned.
+     *
+     * @param element the element that is scanned
+     */
+    void enter(CtElement element) {
+        element.accept(this);
+    }
+
+    /**
+     * Called for each element after its children have been scanned.
+     *
+     * @param element the element that has been scanned
+     */
+    void exit(CtElement element) {
+    }
+
+    /**
+     * Creates the index from the collected data, after the whole model has been scanned.
+     *
+     * @param model the model that has been scanned
+     * @return the index
+     */
+    abstract Object build(CtModel model);
+
+    /**
+     * Scans the model once and builds the indexes of all builders.
+     *
+     * @param model the model to scan
+     * @param builders the builders of the indexes
+     * @return the built indexes, in the order of the builders
+     */
+    static List<Object> buildAll(CtModel model, List<? extends IndexBuilder> builders) {
+        // this visits the same elements as spoon does in CtModel#processWith
+        CtScanner scanner = new CtScanner() {
+            @Override
+            protected void enter(CtElement element) {
+                for (IndexBuilder builder : builders) {
+                    builder.enter(element);
+                }
+            }
+
+            @Override
+            protected void exit(CtElement element) {
+                for (IndexBuilder builder : builders) {
+                    builder.exit(element);
+                }
+            }
+        };
+
+        for (CtElement module : model.getAllModules()) {
+            scanner.scan(module);
+        }
+
+        List<Object> result = new ArrayList<>(builders.size());
+        for (IndexBuilder builder : builders) {
+            result.add(builder.build(model));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,251 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.Metric;
+import de.firemage.autograder.core.MetricsCollector;
+import spoon.processing.FactoryAccessor;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.support.modelobs.ActionBasedChangeListenerImpl;
+import spoon.support.modelobs.action.Action;
+import spoon.support.modelobs.action.UpdateAction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the indexes of a code model, which are built the first time they are needed.
+ * <p>
+ * Building an index like the {@link UsesFinder} takes a full pass over the model. If none of the enabled checks
+ * asks for an index, it is never built. The indexes that are known to be needed are built together with
+ * {@link #require(Collection)}, which scans the model only once for all of them.
+ * <p>
+ * The registry can be used by multiple threads at the same time, each index is only built once.
+ * <p>
+ * Every index describes the model at the time it was built, even the ones that are filled while the checks
+ * run, like the {@link ModelIndex#CONSTANTS} or the subtypes in the {@link ModelIndex#TYPE_TABLE}, which rely
+ * on the uses of the model. When elements are added to or removed from the model afterward, all indexes are
+ * dropped, so they are built again the next time they are needed.
+ */
+public final class IndexRegistry {
+    private static final String METADATA_KEY = "autograder_index_registry";
+
+    private final CtModel model;
+    private final MetricsCollector metrics;
+    private final Map<ModelIndex, Object> indexes;
+
+    private IndexRegistry(CtModel model, MetricsCollector metrics) {
+        this.model = model;
+        this.metrics = metrics;
+        this.indexes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an empty registry for the model. This must be done before the model is shared with other threads.
+     *
+     * @param model the model
+     * @param metrics the collector in which the time it takes to build each index is recorded
+     */
+    public static void registerFor(CtModel model, MetricsCollector metrics) {
+        IndexRegistry registry = new IndexRegistry(model, metrics);
+        model.getRootPackage().putMetadata(METADATA_KEY, registry);
+        model.getRootPackage().getFactory().getEnvironment().setModelChangeListener(registry.new ModelChangeListener());
+    }
+
+    public static IndexRegistry getFor(CtModel model) {
+        return getFor(model.getRootPackage());
+    }
+
+    static IndexRegistry getFor(FactoryAccessor element) {
+        IndexRegistry registry = findFor(element);
+        if (registry == null) {
+            throw new IllegalStateException("No indexes available for this model");
+        }
+        return registry;
+    }
+
+    /**
+     * Returns the registry of the model the element belongs to.
+     *
+     * @param element an element of the model
+     * @return the registry or null if the model does not have one
+     */
+    public static IndexRegistry findFor(FactoryAccessor element) {
+        CtPackage rootPackage = ElementUtil.getRootPackage(element);
+        return (IndexRegistry) rootPackage.getMetadata(METADATA_KEY);
+    }
+
+    /**
+     * Returns the index, building it if it has not been built yet.
+     *
+     * @param index the index to return
+     * @return the index
+     * @param <T> the type of the index, like {@link UsesFinder} for {@link ModelIndex#USES}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ModelIndex index) {
+        Object result = this.indexes.get(index);
+        if (result == null) {
+            // an index might need another index while it is built, so a single (reentrant) lock is used for all of them
+            synchronized (this) {
+                result = this.indexes.get(index);
+                if (result == null) {
+                    result = this.build(index);
+                }
+            }
+        }
+
+        return (T) result;
+    }
+
+    /**
+     * Returns the index if it has already been built.
+     *
+     * @param index the index to return
+     * @return the index or null if it has not been built
+     * @param <T> the type of the index
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T find(ModelIndex index) {
+        return (T) this.indexes.get(index);
+    }
+
+    /**
+     * Builds all the given indexes that have not been built yet.
+     *
+     * @param indexes the indexes that will be needed
+     */
+    public synchronized void require(Collection<ModelIndex> indexes) {
+        Set<ModelIndex> missing = EnumSet.noneOf(ModelIndex.class);
+        for (ModelIndex index : indexes) {
+            if (!this.indexes.containsKey(index)) {
+                missing.add(index);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            this.buildAll(missing);
+        }
+    }
+
+    /**
+     * Builds the index again, even if it has already been built.
+     *
+     * @param index the index to build
+     * @return the new index
+     */
+    public synchronized Object build(ModelIndex index) {
+        this.buildAll(Set.of(index));
+        return this.indexes.get(index);
+    }
+
+    /**
+     * Builds the given indexes again, even if they have already been built.
+     * <p>
+     * All indexes that are built by scanning the model are built with a single scan.
+     *
+     * @param indexes the indexes to build
+     */
+    public synchronized void buildAll(Collection<ModelIndex> indexes) {
+        List<ModelIndex> scannedIndexes = new ArrayList<>();
+        for (ModelIndex index : indexes) {
+            if (index.isScanned()) {
+                scannedIndexes.add(index);
+            } else {
+                MetricsCollector.Measurement measurement = this.metrics.start(Metric.Kind.INDEX, index.getDisplayName());
+                this.indexes.put(index, index.build(this.model));
+                measurement.finish(0);
+            }
+        }
+
+        if (scannedIndexes.isEmpty()) {
+            return;
+        }
+
+        // the time of the scan can not be split up, so it is recorded for all indexes together
+        MetricsCollector.Measurement measurement = this.metrics.start(
+            Metric.Kind.INDEX,
+            scannedIndexes.stream().map(ModelIndex::getDisplayName).collect(Collectors.joining(", "))
+        );
+        List<Object> results = IndexBuilder.buildAll(
+            this.model,
+            scannedIndexes.stream().map(ModelIndex::newScanner).toList()
+        );
+        measurement.finish(0);
+
+        for (int i = 0; i < scannedIndexes.size(); i++) {
+            this.indexes.put(scannedIndexes.get(i), results.get(i));
+        }
+    }
+
+    /**
+     * Checks whether the element is part of the model, that is, it would be visited by a scan of the model.
+     * <p>
+     * Copies of elements and elements that spoon creates on demand, like the implicit methods of an enum,
+     * might have a parent in the model, but they are not one of its children.
+     *
+     * @param element the element to check
+     * @return true if the element is part of the model
+     */
+    boolean isInModel(CtElement element) {
+        CtPackage rootPackage = this.model.getRootPackage();
+        if (element == rootPackage) {
+            return true;
+        }
+
+        // most elements that are not in the model are copies, which do not reach the root package at all
+        boolean isBelowRootPackage = false;
+        for (CtElement parent : ElementUtil.parents(element)) {
+            if (parent == rootPackage) {
+                isBelowRootPackage = true;
+                break;
+            }
+        }
+
+        if (!isBelowRootPackage) {
+            return false;
+        }
+
+        // finding the role of an element in its parent scans the children of the parent, so this is only done at the end
+        for (CtElement current = element; current != rootPackage; current = current.getParent()) {
+            if (current.getRoleInParent() == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final class ModelChangeListener extends ActionBasedChangeListenerImpl {
+        @Override
+        public void onAction(Action action) {
+            if (isStructuralChange(action) && IndexRegistry.this.isInModel(action.getContext().getElementWhereChangeHappens())) {
+                IndexRegistry.this.indexes.clear();
+            }
+        }
+
+        private static boolean isStructuralChange(Action action) {
+            // changes of names, modifiers or other properties do not add or remove elements
+            if (action instanceof UpdateAction<?> update) {
+                return update.getNewValue() instanceof CtElement || update.getOldValue() instanceof CtElement;
+            }
+
+            Object value = action.getChangedValue();
+            if (value instanceof Collection<?> values) {
+                return values.stream().anyMatch(CtElement.class::isInstance);
+            }
+
+            if (value instanceof Map<?, ?> values) {
+                return values.values().stream().anyMatch(CtElement.class::isInstance);
+            }
+
+            return value instanceof CtElement;
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package de.firemage.autograder.core.integrated;
 
 import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.Metric;
 import de.firemage.autograder.api.Translatable;
 import de.firemage.autograder.core.CodeLinter;
 import de.firemage.autograder.core.LinterStatus;
+import de.firemage.autograder.core.MetricsCollector;
 import de.firemage.autograder.api.AbstractTempLocation;
 import de.firemage.autograder.core.Problem;
 import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.parallel.AnalysisResult;
+import de.firemage.autograder.core.parallel.AnalysisScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import spoon.SpoonException;
+import spoon.processing.TraversalStrategy;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtLiteral;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
@@ -22,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -39,8 +47,10 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
     private UploadedFile file;
     private CtModel originalModel;
     private StaticAnalysis staticAnalysis;
+    // sometimes spoon creates invalid elements, which are not the fault of this project or any check
+    private final Set<CtElement> alreadyInvalidElements = Collections.newSetFromMap(new IdentityHashMap<>());
 
-    private void init(UploadedFile file) {
+    private void init(UploadedFile file, int threads) {
         this.file = file;
 
         // create a copy of the model to later check if a check changed the model
@@ -50,7 +60,7 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
             this.originalModel = null;
         }
 
-        this.staticAnalysis = new StaticAnalysis(file.getModel(), file.getCompilationResult());
+        this.staticAnalysis = new StaticAnalysis(file.getModel(), file.getCompilationResult(), threads);
         if (IS_IN_DEBUG_MODE && this.originalModel == this.staticAnalysis.getModel()) {
             throw new IllegalStateException("The model was not cloned");
         }
@@ -58,6 +68,19 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
         this.assertModelIntegrity(INITIAL_INTEGRITY_CHECK_NAME);
     }
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        this.file = null;
+        this.originalModel = null;
+        this.staticAnalysis = null;
+        this.alreadyInvalidElements.clear();
+    }
+
     @Override
     public Class<IntegratedCheck> supportedCheckType() {
         return IntegratedCheck.class;
@@ -68,41 +91,116 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
         UploadedFile submission,
         AbstractTempLocation tempLocation,
         ClassLoader classLoader,
+        int threads,
         List<? extends IntegratedCheck> checks,
         Consumer<? super Translatable> statusConsumer,
         Consumer<? super FailureInformation> failureConsumer
     ) {
-        this.init(submission);
+        this.init(submission, threads);
 
         statusConsumer.accept(LinterStatus.BUILDING_CODE_MODEL.getMessage());
         this.staticAnalysis.getCodeModel().ensureModelBuild();
 
+        // build the indexes the checks need up front, so the checks running in parallel do not wait for them
+        Set<ModelIndex> requiredIndexes = EnumSet.noneOf(ModelIndex.class);
+        if (!checks.isEmpty()) {
+            // most checks process the model, which is done with the element index,
+            // and look up the enclosing methods or types of elements
+            requiredIndexes.add(ModelIndex.ELEMENT_INDEX);
+            requiredIndexes.add(ModelIndex.ENCLOSING_SCOPES);
+        }
+        checks.forEach(check -> requiredIndexes.addAll(check.requiredIndexes()));
+        IndexRegistry.getFor(this.staticAnalysis.getModel()).require(requiredIndexes);
+
+        if (threads != 1) {
+            resolveTypeDeclarations(this.staticAnalysis.getModel());
+        }
+
         statusConsumer.accept(LinterStatus.RUNNING_INTEGRATED_CHECKS.getMessage());
 
-        List<Problem> result = new ArrayList<>();
-        for (IntegratedCheck check : checks) {
-            long beforeTime = System.nanoTime();
-            try {
-                result.addAll(check.run(
-                    this.staticAnalysis,
-                    this.file.getSource()
-                ));
-            } catch (Exception exception) {
-                failureConsumer.accept(new FailureInformation(
-                    check.getClass().getSimpleName(),
-                    exception
-                ));
+        // The checks only read the model, so they run in parallel on the same model.
+        // Each check reports into its own slot, so the order of the problems and failures
+        // is the order of the checks, regardless of how many threads are used.
+        AnalysisScheduler scheduler = new AnalysisScheduler(threads, classLoader);
+        FailureInformation[] failures = new FailureInformation[checks.size()];
+        for (int i = 0; i < checks.size(); i++) {
+            IntegratedCheck check = checks.get(i);
+            int checkIndex = i;
+            scheduler.submitTask((unused, reporter) -> {
+                MetricsCollector.Measurement measurement = this.file.getMetrics().start(Metric.Kind.CHECK, check.getClass().getSimpleName());
+                int problemCount = 0;
+                try {
+                    List<Problem> problems = check.run(
+                        this.staticAnalysis,
+                        this.file.getSource()
+                    );
+                    problemCount = problems.size();
+                    reporter.reportProblems(problems);
+                } catch (Exception exception) {
+                    failures[checkIndex] = new FailureInformation(
+                        check.getClass().getSimpleName(),
+                        exception
+                    );
+                }
+                Metric metric = measurement.finish(problemCount);
+                logger.info("Completed check " + check.getClass().getSimpleName() + " in " + (metric.wallTimeNanos() / 1_000_000 + "ms"));
+                this.assertModelIntegrity(check.getClass().getSimpleName());
+            });
+        }
+
+        AnalysisResult result = scheduler.collectProblems();
+        if (result.failed()) {
+            switch (result.thrownException()) {
+                case RuntimeException runtimeException -> throw runtimeException;
+                case Error error -> throw error;
+                default -> throw new IllegalStateException(result.thrownException());
             }
-            long afterTime = System.nanoTime();
-            logger.info("Completed check " + check.getClass().getSimpleName() + " in " + ((afterTime - beforeTime) / 1_000_000 + "ms"));
-            this.assertModelIntegrity(check.getClass().getSimpleName());
         }
 
-        return result;
+        for (FailureInformation failure : failures) {
+            if (failure != null) {
+                failureConsumer.accept(failure);
+            }
+        }
+
+        return result.problems();
+    }
+
+    /**
+     * Resolves the declarations of all types that are referenced in the model.
+     * <p>
+     * Spoon builds the types that are not part of the model (like {@code String}) and the class loader
+     * it loads them with when they are first needed, which is not safe to do from multiple threads at the same time.
+     * Doing it once before the checks run means that the checks only look up the types that already exist.
+     *
+     * @param model the model to resolve the types of
+     */
+    private static void resolveTypeDeclarations(CtModel model) {
+        Deque<CtTypeReference<?>> references = new ArrayDeque<>();
+        for (CtElement element : ElementIndex.getFor(model).getElements(Set.of(CtTypeReference.class), TraversalStrategy.PRE_ORDER)) {
+            references.add((CtTypeReference<?>) element);
+        }
+
+        // the supertypes of a type outside the model are not part of the model either
+        Set<CtType<?>> shadowTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!references.isEmpty()) {
+            CtType<?> ctType;
+            try {
+                ctType = references.pop().getTypeDeclaration();
+            } catch (SpoonException exception) {
+                // types that can not be resolved are not resolved by the checks either
+                continue;
+            }
+
+            if (ctType != null && ctType.isShadow() && shadowTypes.add(ctType)) {
+                if (ctType.getSuperclass() != null) {
+                    references.add(ctType.getSuperclass());
+                }
+                references.addAll(ctType.getSuperInterfaces());
+            }
+        }
     }
 
-    // sometimes spoon creates invalid elements, which are not the fault of this project or any check
-    private static final Set<CtElement> alreadyInvalidElements = Collections.newSetFromMap(new IdentityHashMap<>());
     /**
      * This method checks that a check did not change the model in a way that would influence other checks.
      *
@@ -115,10 +213,10 @@ public class IntegratedAnalysis implements CodeLinter<IntegratedCheck> {
             Collection<ParentChecker.InvalidElement> invalidElements = ParentChecker.checkConsistency(linterModel.getUnnamedModule());
 
             if (checkName.equals(INITIAL_INTEGRITY_CHECK_NAME)) {
-                invalidElements.stream().map(ParentChecker.InvalidElement::element).forEach(alreadyInvalidElements::add);
+                invalidElements.stream().map(ParentChecker.InvalidElement::element).forEach(this.alreadyInvalidElements::add);
             }
 
-            invalidElements.removeIf(elem -> alreadyInvalidElements.contains(elem.element()));
+            invalidElements.removeIf(elem -> this.alreadyInvalidElements.contains(elem.element()));
             if (!invalidElements.isEmpty()) {
                 throw new IllegalStateException("The model was modified by %s, %d elements have invalid parents:%n%s".formatted(
                     checkName,
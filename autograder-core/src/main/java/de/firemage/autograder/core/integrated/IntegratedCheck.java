@@ -12,6 +12,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public abstract class IntegratedCheck implements Check {
     private final List<Problem> problems = new ArrayList<>();
@@ -41,6 +42,31 @@ public abstract class IntegratedCheck implements Check {
         return new LocalizedMessage("linter-integrated");
     }
 
+    /**
+     * Returns the indexes of the model that the check uses. They are built before the checks run,
+     * other indexes are built the first time they are used.
+     *
+     * @return the indexes used by the check
+     */
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of();
+    }
+
+    /**
+     * Integrated checks are reusable by default. Checks that keep state in their fields while they run
+     * have to clear it in {@link #reset()} and call the super method.
+     */
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        this.problems.clear();
+        this.sourceInfo = null;
+    }
+
     protected SourceInfo getRoot() {
         return this.sourceInfo;
     }
@@ -0,0 +1,136 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtExecutableReferenceExpression;
+import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the invocations and method references of the code model grouped by the executable they refer to.
+ * <p>
+ * An executable is identified by its name and the erasure of its parameter types, and optionally by the type
+ * that declares it. Instead of checking the signature of every invocation in the model, a check can look up
+ * all calls to for example {@code String#split(String)} directly.
+ */
+public final class InvocationIndex {
+    // the invocations by the signature of their executable, with and without the declaring type
+    private final Map<String, List<CtElement>> bySignature;
+    private final Map<String, List<CtElement>> byDeclaration;
+
+    private InvocationIndex(Builder builder) {
+        this.bySignature = copyOf(builder.bySignature);
+        this.byDeclaration = copyOf(builder.byDeclaration);
+    }
+
+    private static Map<String, List<CtElement>> copyOf(Map<String, List<CtElement>> invocations) {
+        Map<String, List<CtElement>> result = new HashMap<>(invocations);
+        result.replaceAll((key, value) -> List.copyOf(value));
+        return result;
+    }
+
+    public static InvocationIndex getFor(CtModel model) {
+        return IndexRegistry.getFor(model).get(ModelIndex.INVOCATIONS);
+    }
+
+    /**
+     * Returns the invocations and method references of the executables with the given name and parameter types,
+     * regardless of the type that declares them.
+     *
+     * @param methodName the name of the executable
+     * @param parameterTypes the erasure of the parameter types
+     * @return the {@link CtInvocation}s and {@link CtExecutableReferenceExpression}s in the order in which they appear in the model
+     */
+    public List<CtElement> getInvocations(String methodName, Class<?>... parameterTypes) {
+        return this.bySignature.getOrDefault(signature(methodName, parameterTypes), List.of());
+    }
+
+    /**
+     * Returns the invocations and method references of the executable with the given declaring type,
+     * name and parameter types.
+     *
+     * @param declaringType the type that declares the executable, calls to executables that override it are not included
+     * @param methodName the name of the executable
+     * @param parameterTypes the erasure of the parameter types
+     * @return the {@link CtInvocation}s and {@link CtExecutableReferenceExpression}s in the order in which they appear in the model
+     */
+    public List<CtElement> getInvocations(Class<?> declaringType, String methodName, Class<?>... parameterTypes) {
+        return this.byDeclaration.getOrDefault(
+            declaration(declaringType.getTypeName(), signature(methodName, parameterTypes)),
+            List.of()
+        );
+    }
+
+    private static String signature(String methodName, Class<?>... parameterTypes) {
+        return Arrays.stream(parameterTypes)
+            .map(Class::getTypeName)
+            .collect(Collectors.joining(",", methodName + "(", ")"));
+    }
+
+    private static String signature(CtExecutableReference<?> ctExecutableReference) {
+        return ctExecutableReference.getParameters()
+            .stream()
+            .map(InvocationIndex::erasedName)
+            .collect(Collectors.joining(",", ctExecutableReference.getSimpleName() + "(", ")"));
+    }
+
+    private static String erasedName(CtTypeReference<?> ctTypeReference) {
+        // the qualified name does not include type arguments, only type parameters have to be erased
+        if (ctTypeReference instanceof CtTypeParameterReference) {
+            return ctTypeReference.getTypeErasure().getQualifiedName();
+        }
+
+        return ctTypeReference.getQualifiedName();
+    }
+
+    private static String declaration(String declaringType, String signature) {
+        return declaringType + "#" + signature;
+    }
+
+    static final class Builder extends IndexBuilder {
+        private final Map<String, List<CtElement>> bySignature = new HashMap<>();
+        private final Map<String, List<CtElement>> byDeclaration = new HashMap<>();
+
+        @Override
+        public <T> void visitCtInvocation(CtInvocation<T> invocation) {
+            this.add(invocation, invocation.getExecutable());
+        }
+
+        @Override
+        public <T, E extends CtExpression<?>> void visitCtExecutableReferenceExpression(CtExecutableReferenceExpression<T, E> expression) {
+            this.add(expression, expression.getExecutable());
+        }
+
+        private void add(CtElement element, CtExecutableReference<?> ctExecutableReference) {
+            if (ctExecutableReference == null) {
+                return;
+            }
+
+            String signature = signature(ctExecutableReference);
+            this.bySignature.computeIfAbsent(signature, key -> new ArrayList<>()).add(element);
+
+            CtTypeReference<?> declaringType = ctExecutableReference.getDeclaringType();
+            if (declaringType != null) {
+                this.byDeclaration.computeIfAbsent(
+                    declaration(declaringType.getQualifiedName(), signature),
+                    key -> new ArrayList<>()
+                ).add(element);
+            }
+        }
+
+        @Override
+        InvocationIndex build(CtModel model) {
+            return new InvocationIndex(this);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtType;
-import spoon.reflect.visitor.CtScanner;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -17,49 +16,17 @@ import java.util.stream.Stream;
 
 /**
  * Provides a hierarchy of overwritten methods within the code model.
- * The hierarchy is built once at construction time for all methods, so that all subsequent queries are fast.
+ * The hierarchy is built once for all methods while the model is scanned, so that all subsequent queries are fast.
  */
 public final class MethodHierarchy {
-    private static final String METADATA_KEY = "autograder_method_hierarchy";
-
     private final IdentityHashMap<CtMethod<?>, SurroundingMethods> methodHierarchy;
 
-    private MethodHierarchy(CtModel model) {
-        this.methodHierarchy = new IdentityHashMap<>();
-
-        // Using a scanner instead of queries/filters so that we traverse the model only once
-        model.getRootPackage().accept(new CtScanner() {
-            @Override
-            public <T> void visitCtMethod(CtMethod<T> method) {
-                if (!method.isStatic() && !method.isPrivate()) {
-                    methodHierarchy.computeIfAbsent(method, m -> SurroundingMethods.empty());
-                    searchSuperTypesForSuperMethod(method.getDeclaringType(), method, Collections.newSetFromMap(new IdentityHashMap<>()));
-                }
-                super.visitCtMethod(method);
-            }
-
-            @Override
-            public <T> void visitCtLambda(CtLambda<T> lambda) {
-                var overriddenMethod = lambda.getOverriddenMethod();
-                if (overriddenMethod != null) {
-                    methodHierarchy.computeIfAbsent(overriddenMethod, m -> SurroundingMethods.empty()).overridingMethods.add(new MethodOrLambda<>(lambda));
-                }
-                super.visitCtLambda(lambda);
-            }
-        });
-    }
-
-    public static void buildFor(CtModel model) {
-        MethodHierarchy methodHierarchy = new MethodHierarchy(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, methodHierarchy);
+    private MethodHierarchy(IdentityHashMap<CtMethod<?>, SurroundingMethods> methodHierarchy) {
+        this.methodHierarchy = methodHierarchy;
     }
 
     public static MethodHierarchy getFor(CtElement element) {
-        var methodHierarchy = (MethodHierarchy) element.getFactory().getModel().getRootPackage().getMetadata(METADATA_KEY);
-        if (methodHierarchy == null) {
-            throw new IllegalStateException("MethodHierarchy not built for this model");
-        }
-        return methodHierarchy;
+        return IndexRegistry.getFor(element).get(ModelIndex.METHOD_HIERARCHY);
     }
 
     /**
@@ -164,41 +131,66 @@ public final class MethodHierarchy {
         return surroundingMethods != null && !surroundingMethods.overridingMethods.isEmpty();
     }
 
-    private void searchSuperTypesForSuperMethod(CtType<?> currentType, CtMethod<?> subMethod, Set<CtType<?>> visitedTypes) {
-        if (currentType == null || visitedTypes.contains(currentType)) {
-            return;
+    static final class Builder extends IndexBuilder {
+        private final IdentityHashMap<CtMethod<?>, SurroundingMethods> methodHierarchy = new IdentityHashMap<>();
+
+        @Override
+        public <T> void visitCtMethod(CtMethod<T> method) {
+            if (!method.isStatic() && !method.isPrivate()) {
+                this.methodHierarchy.computeIfAbsent(method, m -> SurroundingMethods.empty());
+                this.searchSuperTypesForSuperMethod(method.getDeclaringType(), method, Collections.newSetFromMap(new IdentityHashMap<>()));
+            }
         }
-        visitedTypes.add(currentType);
 
-        var superType = currentType.getSuperclass();
-        if (currentType.getSuperclass() == null) {
-            // Finally visit Object
-            superType = currentType.getFactory().Type().objectType();
+        @Override
+        public <T> void visitCtLambda(CtLambda<T> lambda) {
+            var overriddenMethod = lambda.getOverriddenMethod();
+            if (overriddenMethod != null) {
+                this.methodHierarchy.computeIfAbsent(overriddenMethod, m -> SurroundingMethods.empty()).overridingMethods.add(new MethodOrLambda<>(lambda));
+            }
         }
-        this.searchSuperMethodInType(superType.getTypeDeclaration(), subMethod, visitedTypes);
 
-        for (var superInterface : currentType.getSuperInterfaces()) {
-            this.searchSuperMethodInType(superInterface.getTypeDeclaration(), subMethod, visitedTypes);
+        @Override
+        MethodHierarchy build(CtModel model) {
+            return new MethodHierarchy(this.methodHierarchy);
         }
-    }
 
-    private void searchSuperMethodInType(CtType<?> currentType, CtMethod<?> subMethod, Set<CtType<?>> visitedTypes) {
-        for (CtMethod<?> method : currentType.getMethods()) {
-            if (method.isStatic() || method.isPrivate()) {
-                continue;
+        private void searchSuperTypesForSuperMethod(CtType<?> currentType, CtMethod<?> subMethod, Set<CtType<?>> visitedTypes) {
+            if (currentType == null || visitedTypes.contains(currentType)) {
+                return;
             }
+            visitedTypes.add(currentType);
 
-            if (subMethod.isOverriding(method)) {
-                this.methodHierarchy.computeIfAbsent(method, k -> SurroundingMethods.empty()).overridingMethods.add(new MethodOrLambda(subMethod));
-                this.methodHierarchy.get(subMethod).superMethods.add(new MethodOrLambda(method)); // the entry is already present in the map
+            var superType = currentType.getSuperclass();
+            if (currentType.getSuperclass() == null) {
+                // Finally visit Object
+                superType = currentType.getFactory().Type().objectType();
+            }
+            this.searchSuperMethodInType(superType.getTypeDeclaration(), subMethod, visitedTypes);
 
-                // We only want direct super methods
-                return;
+            for (var superInterface : currentType.getSuperInterfaces()) {
+                this.searchSuperMethodInType(superInterface.getTypeDeclaration(), subMethod, visitedTypes);
             }
         }
 
-        // No super method, continue search in parents
-        this.searchSuperTypesForSuperMethod(currentType, subMethod, visitedTypes);
+        private void searchSuperMethodInType(CtType<?> currentType, CtMethod<?> subMethod, Set<CtType<?>> visitedTypes) {
+            for (CtMethod<?> method : currentType.getMethods()) {
+                if (method.isStatic() || method.isPrivate()) {
+                    continue;
+                }
+
+                if (subMethod.isOverriding(method)) {
+                    this.methodHierarchy.computeIfAbsent(method, k -> SurroundingMethods.empty()).overridingMethods.add(new MethodOrLambda(subMethod));
+                    this.methodHierarchy.get(subMethod).superMethods.add(new MethodOrLambda(method)); // the entry is already present in the map
+
+                    // We only want direct super methods
+                    return;
+                }
+            }
+
+            // No super method, continue search in parents
+            this.searchSuperTypesForSuperMethod(currentType, subMethod, visitedTypes);
+        }
     }
 
     private record SurroundingMethods(Set<MethodOrLambda<?>> superMethods, Set<MethodOrLambda<?>> overridingMethods) {
@@ -16,7 +16,6 @@ import spoon.reflect.declaration.CtVariable;
 import spoon.reflect.factory.TypeFactory;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -101,7 +100,7 @@ public final class MethodUtil {
     }
 
     public static boolean isInOverridingMethod(CtElement ctElement) {
-        CtMethod<?> ctMethod = ctElement.getParent(CtMethod.class);
+        CtMethod<?> ctMethod = ElementUtil.getParent(ctElement, CtMethod.class);
         if (ctMethod == null) {
             return false;
         }
@@ -139,7 +138,7 @@ public final class MethodUtil {
     }
 
     public static boolean isInMainMethod(CtElement ctElement) {
-        CtMethod<?> ctMethod = ctElement.getParent(CtMethod.class);
+        CtMethod<?> ctMethod = ElementUtil.getParent(ctElement, CtMethod.class);
         if (ctMethod == null) {
             return false;
         }
@@ -172,7 +171,7 @@ public final class MethodUtil {
     }
 
     public static boolean isInSetter(CtElement ctElement) {
-        CtMethod<?> parent = ctElement.getParent(CtMethod.class);
+        CtMethod<?> parent = ElementUtil.getParent(ctElement, CtMethod.class);
         return parent != null && isSetter(parent);
     }
 
@@ -185,14 +184,14 @@ public final class MethodUtil {
      */
     public static UnnamedMethod createMethodFrom(CtType<?> targetType, List<? extends CtStatement> statements) {
         if (targetType == null) {
-            targetType = statements.get(0).getParent(CtType.class);
+            targetType = ElementUtil.getParent(statements.get(0), CtType.class);
         }
         CtType<?> finalTargetType = targetType;
         Map<CtVariable<?>, List<CtVariableAccess<?>>> args = dependencies(
             statements,
             // filter out all variable accesses that are of the target type (those variables do not have to be passed as arguments)
             ctVariable -> finalTargetType == null
-                || !(ctVariable instanceof CtField<?> && ctVariable.getParent(CtType.class) == finalTargetType)
+                || !(ctVariable instanceof CtField<?> && ElementUtil.getParent(ctVariable, CtType.class) == finalTargetType)
                 || !ctVariable.isStatic(),
             ctVariableAccess -> true
         );
@@ -327,11 +326,11 @@ public final class MethodUtil {
 
         // all variables declared in the code segment (including nested ones)
         Set<CtVariable<?>> codeSegmentVariables = statements.stream()
-            .flatMap(ctStatement -> ctStatement.getElements(new TypeFilter<CtVariable<?>>(CtVariable.class)).stream())
+            .flatMap(ctStatement -> ElementUtil.<CtVariable<?>>getElements(ctStatement, CtVariable.class).stream())
             .collect(Collectors.toCollection(MethodUtil::identitySet));
 
         return statements.stream()
-            .flatMap(ctStatement -> ctStatement.getElements(new TypeFilter<CtVariableAccess<?>>(CtVariableAccess.class)).stream())
+            .flatMap(ctStatement -> ElementUtil.<CtVariableAccess<?>>getElements(ctStatement, CtVariableAccess.class).stream())
             .filter(isDependencyAccess)
             .filter(ctVariableAccess -> UsesFinder.getDeclaredVariable(ctVariableAccess) != null)
             .map(ctVariableAccess -> Map.entry(UsesFinder.getDeclaredVariable(ctVariableAccess), ctVariableAccess))
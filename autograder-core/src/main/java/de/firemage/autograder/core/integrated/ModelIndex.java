@@ -0,0 +1,64 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.core.integrated.dataflow.DataflowCache;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
+import spoon.reflect.CtModel;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The indexes that can be built for a code model.
+ * <p>
+ * An index is built by the {@link IndexRegistry} of the model when it is first needed. Indexes that are
+ * built by scanning the model with an {@link IndexBuilder} can share a single scan with each other.
+ */
+public enum ModelIndex {
+    ELEMENT_INDEX("ElementIndex", ElementIndex.Builder::new),
+    TYPE_TABLE("TypeTable", model -> new TypeTable()),
+    STRUCTURAL_HASH_CODES("StructuralHashCodes", StructuralHashCodeVisitor::computeAll),
+    METHOD_HIERARCHY("MethodHierarchy", MethodHierarchy.Builder::new),
+    USES("UsesFinder", UsesFinder.UsesScanner::new),
+    DUPLICATE_CODE("DuplicateCodeFinder", DuplicateCodeFinder.Builder::new),
+    ENCLOSING_SCOPES("EnclosingScopes", EnclosingScopes.Builder::new),
+    INVOCATIONS("InvocationIndex", InvocationIndex.Builder::new),
+    DATAFLOW("Dataflow", model -> new DataflowCache()),
+    CONSTANTS("ConstantTable", model -> new ConstantTable());
+
+    private final String displayName;
+    private final Function<CtModel, ?> builder;
+    private final Supplier<? extends IndexBuilder> scanner;
+
+    ModelIndex(String displayName, Function<CtModel, ?> builder) {
+        this.displayName = displayName;
+        this.builder = builder;
+        this.scanner = null;
+    }
+
+    ModelIndex(String displayName, Supplier<? extends IndexBuilder> scanner) {
+        this.displayName = displayName;
+        this.builder = null;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Returns the name under which the time it took to build the index is recorded.
+     *
+     * @return the name of the index
+     */
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    boolean isScanned() {
+        return this.scanner != null;
+    }
+
+    IndexBuilder newScanner() {
+        return this.scanner.get();
+    }
+
+    Object build(CtModel model) {
+        return this.builder.apply(model);
+    }
+}
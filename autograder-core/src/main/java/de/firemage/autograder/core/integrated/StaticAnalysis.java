@@ -15,10 +15,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class StaticAnalysis {
     private final CodeModel model;
     private final CompilationResult compilationResult;
+    private final int threads;
 
-    public StaticAnalysis(CodeModel model, CompilationResult compilationResult) {
+    public StaticAnalysis(CodeModel model, CompilationResult compilationResult, int threads) {
         this.model = model;
         this.compilationResult = compilationResult;
+        this.threads = threads;
     }
 
     public Factory getFactory() {
@@ -37,6 +39,15 @@ public class StaticAnalysis {
         return this.compilationResult;
     }
 
+    /**
+     * Returns the number of threads the linter may use for the analysis.
+     *
+     * @return the number of threads, 0 if it is chosen based on the available processors
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
     public <E extends CtElement> void processWith(Processor<E> processor) {
         this.model.processWith(processor);
     }
@@ -0,0 +1,281 @@
+package de.firemage.autograder.core.integrated;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A suffix array over a sequence of tokens, which can find the repeated parts of the sequence.
+ * <p>
+ * The suffix array is built by prefix doubling with a counting sort in {@code O(n log n)} and the longest common
+ * prefixes of neighbouring suffixes with Kasai's algorithm in {@code O(n)}. The repeats are found by traversing the
+ * lcp intervals bottom-up, which are the inner nodes of the suffix tree.
+ */
+final class SuffixArray {
+    private final int[] tokens;
+    private final int length;
+    // suffixes[r] is the start of the suffix at position r in the sorted suffixes
+    private final int[] suffixes;
+    // lcp[r] is the length of the longest common prefix of the sorted suffixes r - 1 and r
+    private final int[] lcp;
+
+    /**
+     * Creates a suffix array for the given tokens.
+     *
+     * @param tokens the tokens
+     */
+    SuffixArray(int[] tokens) {
+        this.tokens = tokens;
+        this.length = tokens.length;
+        this.suffixes = sortSuffixes(tokens);
+
+        int[] rank = new int[this.length];
+        for (int i = 0; i < this.length; i++) {
+            rank[this.suffixes[i]] = i;
+        }
+
+        this.lcp = computeLcp(tokens, this.suffixes, rank);
+    }
+
+    /**
+     * Two occurrences of the same tokens in the sequence that can neither be extended to the left nor to the right.
+     *
+     * @param left the start of the first occurrence
+     * @param right the start of the second occurrence, which is after the first one
+     * @param length the number of tokens in each occurrence
+     */
+    record MaximalPair(int left, int right, int length) {
+    }
+
+    private static int[] sortSuffixes(int[] tokens) {
+        int n = tokens.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // the tokens are replaced by their position in the distinct tokens, so they can be used as counting sort keys
+        int[] distinct = Arrays.stream(tokens).sorted().distinct().toArray();
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = Arrays.binarySearch(distinct, tokens[i]);
+        }
+
+        int[] suffixes = new int[n];
+        int[] bySecondKey = new int[n];
+        int[] nextRank = new int[n];
+        int[] counts = new int[n];
+        int ranks = distinct.length;
+
+        for (int i = 0; i < n; i++) {
+            bySecondKey[i] = i;
+        }
+        countingSort(bySecondKey, rank, ranks, suffixes, counts);
+
+        // after sorting by the first 2 * step tokens, the suffixes with the same rank share those tokens
+        for (int step = 1; ranks < n; step *= 2) {
+            // the suffixes ordered by their tokens from step on, suffixes that are shorter than step come first
+            int position = 0;
+            for (int i = Math.max(n - step, 0); i < n; i++) {
+                bySecondKey[position++] = i;
+            }
+            for (int suffix : suffixes) {
+                if (suffix >= step) {
+                    bySecondKey[position++] = suffix - step;
+                }
+            }
+
+            // the counting sort is stable, so the suffixes are ordered by their first 2 * step tokens
+            countingSort(bySecondKey, rank, ranks, suffixes, counts);
+
+            nextRank[suffixes[0]] = 0;
+            for (int i = 1; i < n; i++) {
+                int previous = suffixes[i - 1];
+                int current = suffixes[i];
+                boolean isEqual = rank[previous] == rank[current]
+                    && secondRank(rank, previous, step) == secondRank(rank, current, step);
+                nextRank[current] = nextRank[previous] + (isEqual ? 0 : 1);
+            }
+
+            int[] swap = rank;
+            rank = nextRank;
+            nextRank = swap;
+            ranks = rank[suffixes[n - 1]] + 1;
+        }
+
+        return suffixes;
+    }
+
+    private static int secondRank(int[] rank, int suffix, int step) {
+        // -1 marks the end of the sequence
+        return suffix + step < rank.length ? rank[suffix + step] : -1;
+    }
+
+    private static void countingSort(int[] suffixes, int[] keys, int keyCount, int[] result, int[] counts) {
+        Arrays.fill(counts, 0, keyCount, 0);
+        for (int suffix : suffixes) {
+            counts[keys[suffix]]++;
+        }
+
+        int sum = 0;
+        for (int key = 0; key < keyCount; key++) {
+            int count = counts[key];
+            counts[key] = sum;
+            sum += count;
+        }
+
+        for (int suffix : suffixes) {
+            result[counts[keys[suffix]]++] = suffix;
+        }
+    }
+
+    private static int[] computeLcp(int[] tokens, int[] suffixes, int[] rank) {
+        int n = tokens.length;
+        int[] lcp = new int[n];
+        int common = 0;
+        for (int i = 0; i < n; i++) {
+            if (rank[i] == 0) {
+                common = 0;
+                continue;
+            }
+
+            int j = suffixes[rank[i] - 1];
+            while (i + common < n && j + common < n && tokens[i + common] == tokens[j + common]) {
+                common++;
+            }
+
+            lcp[rank[i]] = common;
+            if (common > 0) {
+                common--;
+            }
+        }
+
+        return lcp;
+    }
+
+    /**
+     * Finds all maximal pairs in the sequence.
+     * <p>
+     * Every two positions that start with the same token are part of exactly one maximal pair: the one that is found
+     * by extending both positions to the left as long as their tokens are equal.
+     * The pairs are found in {@code O(n log n + p)} for {@code p} pairs, the positions that are not part of a repeat
+     * are never compared with each other.
+     *
+     * @return the maximal pairs in no particular order
+     */
+    List<MaximalPair> findMaximalPairs() {
+        List<MaximalPair> result = new ArrayList<>();
+
+        // the lcp intervals that contain the current suffix, the root interval with lcp 0 is never closed
+        Deque<LcpInterval> intervals = new ArrayDeque<>();
+        intervals.push(new LcpInterval(0));
+        for (int r = 0; r < this.length; r++) {
+            // the last suffix closes all intervals
+            int nextLcp = r + 1 < this.length ? this.lcp[r + 1] : 0;
+
+            // the suffix is in the deepest interval that contains it and one of its neighbours
+            if (nextLcp > intervals.peek().lcp) {
+                intervals.push(new LcpInterval(nextLcp));
+            }
+            intervals.peek().add(this.leaf(this.suffixes[r]), result);
+
+            while (nextLcp < intervals.peek().lcp) {
+                LcpInterval closed = intervals.pop();
+                if (nextLcp > intervals.peek().lcp) {
+                    intervals.push(new LcpInterval(nextLcp));
+                }
+                intervals.peek().add(closed, result);
+            }
+        }
+
+        return result;
+    }
+
+    private LcpInterval leaf(int suffix) {
+        LcpInterval leaf = new LcpInterval(this.length - suffix);
+        // the first suffix has no previous token, it is grouped under null
+        Integer previousToken = suffix == 0 ? null : this.tokens[suffix - 1];
+        leaf.suffixesByPreviousToken.put(previousToken, new ArrayList<>(List.of(suffix)));
+        return leaf;
+    }
+
+    /**
+     * The suffixes that share a prefix of a certain length, grouped by the token before them.
+     */
+    private static final class LcpInterval {
+        private final int lcp;
+        private Map<Integer, List<Integer>> suffixesByPreviousToken;
+
+        private LcpInterval(int lcp) {
+            this.lcp = lcp;
+            this.suffixesByPreviousToken = new HashMap<>();
+        }
+
+        /**
+         * Adds a child interval to this interval and reports the maximal pairs of the child with the suffixes
+         * that have already been added.
+         * <p>
+         * The suffixes of different children differ in the token after the common prefix,
+         * so their pairs can not be extended to the right and only have to be checked on the left.
+         *
+         * @param child the interval to add
+         * @param result the list to add the maximal pairs to
+         */
+        private void add(LcpInterval child, List<MaximalPair> result) {
+            // suffixes that do not share a prefix are not repeated, so the root interval does not need them
+            if (this.lcp == 0) {
+                return;
+            }
+
+            for (Map.Entry<Integer, List<Integer>> childEntry : child.suffixesByPreviousToken.entrySet()) {
+                for (Map.Entry<Integer, List<Integer>> entry : this.suffixesByPreviousToken.entrySet()) {
+                    // only the first suffix has no previous token, so null is never equal to another group
+                    if (childEntry.getKey() != null && childEntry.getKey().equals(entry.getKey())) {
+                        continue;
+                    }
+
+                    for (int left : entry.getValue()) {
+                        for (int right : childEntry.getValue()) {
+                            result.add(new MaximalPair(Math.min(left, right), Math.max(left, right), this.lcp));
+                        }
+                    }
+                }
+            }
+
+            // the smaller groups are merged into the larger ones, so each suffix is only moved O(log n) times
+            Map<Integer, List<Integer>> merged = this.suffixesByPreviousToken;
+            Map<Integer, List<Integer>> other = child.suffixesByPreviousToken;
+            if (merged.size() < other.size()) {
+                merged = child.suffixesByPreviousToken;
+                other = this.suffixesByPreviousToken;
+            }
+
+            for (Map.Entry<Integer, List<Integer>> entry : other.entrySet()) {
+                List<Integer> target = merged.get(entry.getKey());
+                if (target == null) {
+                    merged.put(entry.getKey(), entry.getValue());
+                } else if (target.size() < entry.getValue().size()) {
+                    entry.getValue().addAll(target);
+                    merged.put(entry.getKey(), entry.getValue());
+                } else {
+                    target.addAll(entry.getValue());
+                }
+            }
+
+            this.suffixesByPreviousToken = merged;
+        }
+    }
+
+    /**
+     * Returns the start of the suffix at the given position in the sorted suffixes.
+     *
+     * @param position the position in the sorted suffixes
+     * @return the index of the first token of the suffix
+     */
+    int getSuffix(int position) {
+        return this.suffixes[position];
+    }
+}
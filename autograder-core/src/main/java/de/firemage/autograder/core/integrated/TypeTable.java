@@ -0,0 +1,81 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.processing.FactoryAccessor;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the types that the checks compare the code with, like {@code String} or {@code java.util.List}.
+ * <p>
+ * Resolving a {@link Class} in the model has to look up the type by its name every time and creates a new
+ * reference for it. The table resolves each class only once per model and remembers which types of the model
+ * are subtypes of it. The entries are added when they are first needed and the table can be used by multiple
+ * threads at the same time.
+ */
+final class TypeTable {
+    private final Map<Class<?>, InternedType> types;
+    // for each class, whether a type declaration is a subtype of it (including shadow types)
+    private final Map<Class<?>, Map<CtType<?>, Boolean>> subtypes;
+
+    TypeTable() {
+        this.types = new ConcurrentHashMap<>();
+        this.subtypes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * A class as it appears in the model.
+     *
+     * @param type the type of the class, might be a shadow type
+     * @param reference a reference to the type, this must not be modified or added to the model
+     * @param qualifiedName the qualified name of the reference
+     */
+    record InternedType(CtType<?> type, CtTypeReference<?> reference, String qualifiedName) {
+    }
+
+    /**
+     * Returns the table of the model the element belongs to.
+     *
+     * @param element an element of the model
+     * @return the table, if the model does not have one, a new table is returned that is not shared
+     */
+    static TypeTable getFor(FactoryAccessor element) {
+        IndexRegistry registry = IndexRegistry.findFor(element);
+        return registry == null ? new TypeTable() : registry.get(ModelIndex.TYPE_TABLE);
+    }
+
+    InternedType get(FactoryAccessor element, Class<?> type) {
+        InternedType result = this.types.get(type);
+        if (result == null) {
+            CtType<?> ctType = element.getFactory().Type().get(type);
+            CtTypeReference<?> reference = ctType.getReference();
+            result = new InternedType(ctType, reference, reference.getQualifiedName());
+            // another thread might have resolved the type in the meantime, then its result is used
+            InternedType previous = this.types.putIfAbsent(type, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+
+        return result;
+    }
+
+    boolean isSubtypeOf(CtType<?> potentialSubtype, Class<?> expected) {
+        Map<CtType<?>, Boolean> knownSubtypes = this.subtypes.computeIfAbsent(
+            expected,
+            key -> Collections.synchronizedMap(new IdentityHashMap<>())
+        );
+
+        Boolean result = knownSubtypes.get(potentialSubtype);
+        if (result == null) {
+            result = UsesFinder.isSubtypeOf(potentialSubtype, this.get(potentialSubtype, expected).type());
+            knownSubtypes.put(potentialSubtype, result);
+        }
+
+        return result;
+    }
+}
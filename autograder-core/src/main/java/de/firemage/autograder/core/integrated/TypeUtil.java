@@ -3,7 +3,6 @@ package de.firemage.autograder.core.integrated;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtTypeInformation;
 import spoon.reflect.declaration.CtTypeMember;
-import spoon.reflect.factory.TypeFactory;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeParameterReference;
 import spoon.reflect.reference.CtTypeReference;
@@ -113,14 +112,21 @@ public final class TypeUtil {
     }
 
     public static boolean isTypeEqualTo(CtTypeReference<?> ctType, Collection<Class<?>> expected) {
-        TypeFactory factory = ctType.getFactory().Type();
-        return TypeUtil.isTypeEqualTo(
-            ctType,
-            expected.stream()
-                .map(factory::get)
-                .map(CtType::getReference)
-                .toArray(CtTypeReference[]::new)
-        );
+        TypeTable typeTable = TypeTable.getFor(ctType);
+        String qualifiedName = null;
+        for (Class<?> expectedClass : expected) {
+            TypeTable.InternedType expectedType = typeTable.get(ctType, expectedClass);
+            if (qualifiedName == null) {
+                qualifiedName = ctType.getQualifiedName();
+            }
+
+            // equal references have the same name, comparing the names first is a lot cheaper than equals
+            if (qualifiedName.equals(expectedType.qualifiedName()) && ctType.equals(expectedType.reference())) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
@@ -135,13 +141,14 @@ public final class TypeUtil {
     }
 
     public static boolean isSubtypeOf(CtTypeReference<?> ctTypeReference, Class<?> expected) {
-        CtType<?> expectedType = ctTypeReference.getFactory().Type().get(expected);
+        TypeTable typeTable = TypeTable.getFor(ctTypeReference);
 
-        if (ctTypeReference.getTypeDeclaration() == null || ctTypeReference instanceof CtTypeParameterReference) {
-            return ctTypeReference.isSubtypeOf(expectedType.getReference());
+        CtType<?> ctType = ctTypeReference.getTypeDeclaration();
+        if (ctType == null || ctTypeReference instanceof CtTypeParameterReference) {
+            return ctTypeReference.isSubtypeOf(typeTable.get(ctTypeReference, expected).reference());
         }
 
-        return UsesFinder.isSubtypeOf(ctTypeReference.getTypeDeclaration(), expectedType);
+        return typeTable.isSubtypeOf(ctType, expected);
     }
 
     /**
@@ -0,0 +1,89 @@
+package de.firemage.autograder.core.integrated;
+
+import spoon.reflect.declaration.CtElement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps declarations to the elements that use them.
+ * <p>
+ * Each declaration is assigned a dense number in the order in which it was first used. The uses of all declarations
+ * are stored in a single array, sorted by the number of their declaration (compressed sparse rows), so there is
+ * no collection for each declaration. The uses of a declaration are in the order in which they were added.
+ */
+final class UseTable {
+    private final Map<CtElement, Integer> rows;
+    // the uses of row i are uses[offsets[i]] to uses[offsets[i + 1] - 1]
+    private final int[] offsets;
+    private final CtElement[] uses;
+
+    private UseTable(Map<CtElement, Integer> rows, int[] offsets, CtElement[] uses) {
+        this.rows = rows;
+        this.offsets = offsets;
+        this.uses = uses;
+    }
+
+    /**
+     * Returns the uses of the declaration.
+     *
+     * @param declaration the declaration
+     * @return an unmodifiable list of the uses, empty if the declaration is not used
+     */
+    List<CtElement> get(CtElement declaration) {
+        Integer row = this.rows.get(declaration);
+        if (row == null) {
+            return List.of();
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(this.uses).subList(this.offsets[row], this.offsets[row + 1]));
+    }
+
+    static final class Builder {
+        private final Map<CtElement, Integer> rows = new IdentityHashMap<>();
+        // the row and the use of each added use, in the order in which they were added
+        private int[] addedRows = new int[64];
+        private CtElement[] addedUses = new CtElement[64];
+        private int size = 0;
+
+        void add(CtElement declaration, CtElement use) {
+            if (this.size == this.addedRows.length) {
+                this.addedRows = Arrays.copyOf(this.addedRows, this.size * 2);
+                this.addedUses = Arrays.copyOf(this.addedUses, this.size * 2);
+            }
+
+            Integer row = this.rows.get(declaration);
+            if (row == null) {
+                row = this.rows.size();
+                this.rows.put(declaration, row);
+            }
+
+            this.addedRows[this.size] = row;
+            this.addedUses[this.size] = use;
+            this.size++;
+        }
+
+        UseTable build() {
+            // counting sort of the uses by their row, which keeps the order of the uses within a row
+            int[] offsets = new int[this.rows.size() + 1];
+            for (int i = 0; i < this.size; i++) {
+                offsets[this.addedRows[i] + 1]++;
+            }
+
+            for (int row = 0; row < this.rows.size(); row++) {
+                offsets[row + 1] += offsets[row];
+            }
+
+            int[] next = Arrays.copyOf(offsets, this.rows.size());
+            CtElement[] uses = new CtElement[this.size];
+            for (int i = 0; i < this.size; i++) {
+                uses[next[this.addedRows[i]]++] = this.addedUses[i];
+            }
+
+            return new UseTable(this.rows, offsets, uses);
+        }
+    }
+}
@@ -27,16 +27,13 @@ import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtLocalVariableReference;
 import spoon.reflect.reference.CtTypeParameterReference;
 import spoon.reflect.reference.CtTypeReference;
-import spoon.reflect.visitor.CtScanner;
 
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.SequencedSet;
 import java.util.Set;
@@ -45,30 +42,26 @@ import java.util.stream.Stream;
 /**
  * Provides usage-relationships between code elements in the code model.
  * Uses are tracked for variables of all kinds, type parameters, executables, and types.
- * The graph is built once at construction time with a single pass over the model for all elements,
+ * The graph is built once for all elements while the model is scanned,
  * so that all subsequent queries are fast.
  */
 public class UsesFinder {
-    private static final String METADATA_KEY = "autograder_uses";
-
     private final UsesScanner scanner;
-
-    private UsesFinder(CtModel model) {
-        this.scanner = new UsesScanner();
-        model.getRootPackage().accept(this.scanner);
-    }
-
-    public static void buildFor(CtModel model) {
-        UsesFinder uses = new UsesFinder(model);
-        model.getRootPackage().putMetadata(METADATA_KEY, uses);
+    private final UseTable variableUses;
+    private final UseTable typeParameterUses;
+    private final UseTable executableUses;
+    private final UseTable typeUses;
+
+    private UsesFinder(UsesScanner scanner) {
+        this.scanner = scanner;
+        this.variableUses = scanner.variableUses.build();
+        this.typeParameterUses = scanner.typeParameterUses.build();
+        this.executableUses = scanner.executableUses.build();
+        this.typeUses = scanner.typeUses.build();
     }
 
     private static UsesFinder getFor(FactoryAccessor factoryAccessor) {
-        var uses = (UsesFinder) ElementUtil.getRootPackage(factoryAccessor).getMetadata(METADATA_KEY);
-        if (uses == null) {
-            throw new IllegalArgumentException("No uses information available for this model");
-        }
-        return uses;
+        return IndexRegistry.getFor(factoryAccessor).get(ModelIndex.USES);
     }
 
     /**
@@ -89,29 +82,29 @@ public class UsesFinder {
     }
 
     public static CtElementStream<CtVariableAccess<?>> variableUses(CtVariable<?> variable) {
-        return CtElementStream.of(UsesFinder.getFor(variable).scanner.variableUses.getOrDefault(variable, Set.of())).assumeElementType();
+        return CtElementStream.of(UsesFinder.getFor(variable).variableUses.get(variable)).assumeElementType();
     }
 
     @SuppressWarnings("unchecked")
     public static CtElementStream<CtVariableWrite<?>> variableWrites(CtVariable<?> variable) {
-        return (CtElementStream<CtVariableWrite<?>>) (Object) CtElementStream.of(UsesFinder.getFor(variable).scanner.variableUses.getOrDefault(variable, Set.of())).assumeElementType().ofType(CtVariableWrite.class);
+        return (CtElementStream<CtVariableWrite<?>>) (Object) CtElementStream.of(UsesFinder.getFor(variable).variableUses.get(variable)).assumeElementType().ofType(CtVariableWrite.class);
     }
 
     @SuppressWarnings("unchecked")
     public static CtElementStream<CtVariableRead<?>> variableReads(CtVariable<?> variable) {
-        return (CtElementStream<CtVariableRead<?>>) (Object) CtElementStream.of(UsesFinder.getFor(variable).scanner.variableUses.getOrDefault(variable, Set.of())).assumeElementType().ofType(CtVariableRead.class);
+        return (CtElementStream<CtVariableRead<?>>) (Object) CtElementStream.of(UsesFinder.getFor(variable).variableUses.get(variable)).assumeElementType().ofType(CtVariableRead.class);
     }
 
     public static CtElementStream<CtTypeParameterReference> typeParameterUses(CtTypeParameter typeParameter) {
-        return CtElementStream.of(UsesFinder.getFor(typeParameter).scanner.typeParameterUses.getOrDefault(typeParameter, List.of()));
+        return CtElementStream.of(UsesFinder.getFor(typeParameter).typeParameterUses.get(typeParameter)).assumeElementType();
     }
 
     public static CtElementStream<CtElement> executableUses(CtExecutable<?> executable) {
-        return CtElementStream.of(UsesFinder.getFor(executable).scanner.executableUses.getOrDefault(executable, List.of()));
+        return CtElementStream.of(UsesFinder.getFor(executable).executableUses.get(executable));
     }
 
     public static CtElementStream<CtTypeReference<?>> typeUses(CtType<?> type) {
-        return CtElementStream.of(UsesFinder.getFor(type).scanner.typeUses.getOrDefault(type, List.of())).assumeElementType();
+        return CtElementStream.of(UsesFinder.getFor(type).typeUses.get(type)).assumeElementType();
     }
 
     public static boolean isSubtypeOf(CtType<?> potentialSubtype, CtType<?> parentType) {
@@ -121,7 +114,8 @@ public class UsesFinder {
             return true;
         }
 
-        Set<CtType> knownSubtypes = UsesFinder.getFor(potentialSubtype).scanner.subtypes.getOrDefault(parentType, new LinkedHashSet<>());
+        UsesScanner scanner = UsesFinder.getFor(potentialSubtype).scanner;
+        Set<CtType> knownSubtypes = scanner.subtypes.getOrDefault(parentType, new LinkedHashSet<>());
 
         // all types that are not shadow types, should be present
         // in the source code and therefore in the set of known subtypes
@@ -137,6 +131,14 @@ public class UsesFinder {
             return true;
         }
 
+        // the checks might run in parallel, so the cache for shadow types must be synchronized
+        synchronized (scanner.shadowSubtypes) {
+            Set<CtType> knownShadowSubtypes = scanner.shadowSubtypes.get(parentType);
+            if (knownShadowSubtypes != null && knownShadowSubtypes.contains(potentialSubtype)) {
+                return true;
+            }
+        }
+
         boolean result = TypeUtil.streamAllSuperTypes(potentialSubtype).anyMatch(type -> parentType == type);
 
         // this is just a sanity check to ensure that our implementation is correct
@@ -149,7 +151,9 @@ public class UsesFinder {
 
         // keep track of the result for future queries
         if (result) {
-            knownSubtypes.add(potentialSubtype);
+            synchronized (scanner.shadowSubtypes) {
+                scanner.shadowSubtypes.computeIfAbsent(parentType, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(potentialSubtype);
+            }
         }
 
         return result;
@@ -185,7 +189,10 @@ public class UsesFinder {
     }
 
     static CtExecutable<?> getExecutableDeclaration(CtExecutableReference<?> ctExecutableReference) {
-        return UsesFinder.getFor(ctExecutableReference).scanner.executableDeclarations.computeIfAbsent(ctExecutableReference, CtExecutableReference::getExecutableDeclaration);
+        Map<CtExecutableReference, CtExecutable> executableDeclarations = UsesFinder.getFor(ctExecutableReference).scanner.executableDeclarations;
+        synchronized (executableDeclarations) {
+            return executableDeclarations.computeIfAbsent(ctExecutableReference, CtExecutableReference::getExecutableDeclaration);
+        }
     }
 
     /**
@@ -193,16 +200,20 @@ public class UsesFinder {
      * Since inserting into the hash map requires (amortized) constant time, usage search runs in O(n) time.
      */
     @SuppressWarnings("rawtypes")
-    private static class UsesScanner extends CtScanner {
+    static final class UsesScanner extends IndexBuilder {
         // The IdentityHashMaps are very important here, since
         // E.g. CtVariable's equals method considers locals with the same name to be equal
-        private final Map<CtVariable, Set<CtVariableAccess>> variableUses = new IdentityHashMap<>();
+        //
+        // The uses are stored in UseTables, which do not need a collection for each declaration
+        private final UseTable.Builder variableUses = new UseTable.Builder();
         private final Map<CtVariableAccess, CtVariable> variableAccessDeclarations = new IdentityHashMap<>();
-        private final Map<CtTypeParameter, List<CtTypeParameterReference>> typeParameterUses = new IdentityHashMap<>();
-        private final Map<CtExecutable, List<CtElement>> executableUses = new IdentityHashMap<>();
-        private final Map<CtType, List<CtTypeReference>> typeUses = new IdentityHashMap<>();
+        private final UseTable.Builder typeParameterUses = new UseTable.Builder();
+        private final UseTable.Builder executableUses = new UseTable.Builder();
+        private final UseTable.Builder typeUses = new UseTable.Builder();
         private final Map<CtType, SequencedSet<CtType>> subtypes = new IdentityHashMap<>();
         private final Map<CtExecutableReference, CtExecutable> executableDeclarations = new IdentityHashMap<>();
+        // Shadow types that were found to be subtypes after the model has been scanned, guarded by itself
+        private final Map<CtType, Set<CtType>> shadowSubtypes = new IdentityHashMap<>();
 
         // Caches the current instanceof pattern variables, since Spoon doesn't track them yet
         // We are conservative: A pattern introduces a variable until the end of the current block
@@ -212,25 +223,21 @@ public class UsesFinder {
         @Override
         public <T> void visitCtVariableRead(CtVariableRead<T> variableRead) {
             this.recordVariableAccess(variableRead);
-            super.visitCtVariableRead(variableRead);
         }
 
         @Override
         public <T> void visitCtVariableWrite(CtVariableWrite<T> variableWrite) {
             this.recordVariableAccess(variableWrite);
-            super.visitCtVariableWrite(variableWrite);
         }
 
         @Override
         public <T> void visitCtFieldRead(CtFieldRead<T> fieldRead) {
             this.recordVariableAccess(fieldRead);
-            super.visitCtFieldRead(fieldRead);
         }
 
         @Override
         public <T> void visitCtFieldWrite(CtFieldWrite<T> fieldWrite) {
             this.recordVariableAccess(fieldWrite);
-            super.visitCtFieldWrite(fieldWrite);
         }
 
         @Override
@@ -239,45 +246,49 @@ public class UsesFinder {
                 this.recordVariableAccess(reference);
             }
             this.recordExecutableReference(invocation.getExecutable(), invocation);
-            super.visitCtInvocation(invocation);
         }
 
         @Override
         public void visitCtTypePattern(CtTypePattern pattern) {
             var variable = pattern.getVariable();
             this.instanceofPatternVariables.peek().put(variable.getSimpleName(), variable);
-            super.visitCtTypePattern(pattern);
         }
 
         @Override
         public void visitCtTypeParameterReference(CtTypeParameterReference reference) {
             this.recordTypeParameterReference(reference);
-            super.visitCtTypeParameterReference(reference);
         }
 
         @Override
         public <T, E extends CtExpression<?>> void visitCtExecutableReferenceExpression(CtExecutableReferenceExpression<T, E> expression) {
             this.recordExecutableReference(expression.getExecutable(), expression);
-            super.visitCtExecutableReferenceExpression(expression);
         }
 
         @Override
         public <T> void visitCtConstructorCall(CtConstructorCall<T> ctConstructorCall) {
             this.recordExecutableReference(ctConstructorCall.getExecutable(), ctConstructorCall);
-            super.visitCtConstructorCall(ctConstructorCall);
         }
 
         @Override
         public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
             this.recordTypeReference(reference);
-            super.visitCtTypeReference(reference);
         }
 
         @Override
         public <R> void visitCtBlock(CtBlock<R> block) {
             this.instanceofPatternVariables.push(new HashMap<>());
-            super.visitCtBlock(block);
-            this.instanceofPatternVariables.pop();
+        }
+
+        @Override
+        void exit(CtElement element) {
+            if (element instanceof CtBlock<?>) {
+                this.instanceofPatternVariables.pop();
+            }
+        }
+
+        @Override
+        UsesFinder build(CtModel model) {
+            return new UsesFinder(this);
         }
 
         @Override
@@ -293,13 +304,11 @@ public class UsesFinder {
             // - CtEnum
             // - CtRecord
             this.recordCtType(ctClass);
-            super.visitCtClass(ctClass);
         }
 
         @Override
         public <T> void visitCtInterface(CtInterface<T> ctInterface) {
             this.recordCtType(ctInterface);
-            super.visitCtInterface(ctInterface);
         }
 
         private void recordVariableAccess(CtVariableAccess<?> variableAccess) {
@@ -321,18 +330,16 @@ public class UsesFinder {
                 }
             }
 
-            if (variable != null) {
-                var accesses = this.variableUses.computeIfAbsent(variable, k -> Collections.newSetFromMap(new IdentityHashMap<>()));
-                accesses.add(variableAccess);
-                this.variableAccessDeclarations.put(variableAccess, variable);
+            // the target of an invocation is recorded twice, but it should only be a single use
+            if (variable != null && this.variableAccessDeclarations.put(variableAccess, variable) == null) {
+                this.variableUses.add(variable, variableAccess);
             }
         }
 
         private void recordTypeParameterReference(CtTypeParameterReference reference) {
             CtTypeParameter parameter = reference.getDeclaration();
             if (parameter != null) {
-                var uses = this.typeParameterUses.computeIfAbsent(parameter, k -> new ArrayList<>());
-                uses.add(reference);
+                this.typeParameterUses.add(parameter, reference);
             }
         }
 
@@ -340,8 +347,7 @@ public class UsesFinder {
             var executable = reference.getExecutableDeclaration();
             if (executable != null) {
                 this.executableDeclarations.put(reference, executable);
-                var uses = this.executableUses.computeIfAbsent(executable, k -> new ArrayList<>());
-                uses.add(referencingElement);
+                this.executableUses.add(executable, referencingElement);
             }
         }
 
@@ -352,8 +358,7 @@ public class UsesFinder {
 
             var type = reference.getTypeDeclaration();
             if (type != null) {
-                var uses = this.typeUses.computeIfAbsent(type, k -> new ArrayList<>());
-                uses.add(reference);
+                this.typeUses.add(type, reference);
             }
         }
 
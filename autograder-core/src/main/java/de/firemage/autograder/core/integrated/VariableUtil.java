@@ -1,6 +1,7 @@
 package de.firemage.autograder.core.integrated;
 
 import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtLiteral;
 import spoon.reflect.code.CtVariableWrite;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtVariable;
@@ -18,11 +19,7 @@ public final class VariableUtil {
     }
 
     public static boolean isEffectivelyFinal(CtVariable<?> ctVariable) {
-        if (ctVariable.getModifiers().contains(ModifierKind.FINAL)) {
-            return true;
-        }
-
-        return UsesFinder.variableUses(ctVariable).ofType(CtVariableWrite.class).hasNone();
+        return getConstantVariable(ctVariable).isEffectivelyFinal();
     }
 
     public static <T> Optional<CtExpression<T>> getEffectivelyFinalExpression(CtVariable<T> ctVariable) {
@@ -33,6 +30,31 @@ public final class VariableUtil {
         return Optional.ofNullable(ctVariable.getDefaultExpression());
     }
 
+    /**
+     * Returns the literal the variable is initialized with, if the variable is effectively final.
+     *
+     * @param ctVariable the variable
+     * @return the literal, it is part of the model and must not be modified
+     * @param <T> the type of the variable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<CtLiteral<T>> getConstantValue(CtVariable<T> ctVariable) {
+        return Optional.ofNullable((CtLiteral<T>) getConstantVariable(ctVariable).value());
+    }
+
+    private static ConstantTable.ConstantVariable getConstantVariable(CtVariable<?> ctVariable) {
+        return ConstantTable.getFor(ctVariable).getVariable(ctVariable, variable -> {
+            boolean isEffectivelyFinal = variable.getModifiers().contains(ModifierKind.FINAL)
+                || UsesFinder.variableUses(variable).ofType(CtVariableWrite.class).hasNone();
+
+            if (isEffectivelyFinal && variable.getDefaultExpression() instanceof CtLiteral<?> ctLiteral) {
+                return new ConstantTable.ConstantVariable(true, ctLiteral);
+            }
+
+            return new ConstantTable.ConstantVariable(isEffectivelyFinal, null);
+        });
+    }
+
     public static CtElement getReferenceDeclaration(CtReference ctReference) {
         // this might be null if the reference is not in the source path
         // for example, when the reference points to a java.lang type
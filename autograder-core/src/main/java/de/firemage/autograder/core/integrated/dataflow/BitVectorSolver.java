@@ -0,0 +1,103 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Solves gen/kill dataflow problems over a {@link ControlFlowGraph} with a worklist.
+ * <p>
+ * The facts are the bits of a {@link BitSet}, for example the variables that are live or the definitions that
+ * reach a node. The transfer function of a node is {@code gen ∪ (in \ kill)}.
+ */
+final class BitVectorSolver {
+    private BitVectorSolver() {
+    }
+
+    /**
+     * The facts at each node.
+     *
+     * @param before the facts before the node is executed
+     * @param after the facts after the node is executed
+     */
+    record Solution(BitSet[] before, BitSet[] after) {
+    }
+
+    /**
+     * Solves the problem.
+     *
+     * @param graph the graph
+     * @param isForward whether the facts flow from the entry to the exit or the other way around
+     * @param isUnion whether the facts of multiple paths are combined with a union (may) or an intersection (must)
+     * @param gen the facts that each node generates
+     * @param kill the facts that each node removes
+     * @param universe the number of facts, used as the initial value of must problems
+     * @return the facts before and after each node, in the order of execution
+     */
+    static Solution solve(ControlFlowGraph graph, boolean isForward, boolean isUnion, BitSet[] gen, BitSet[] kill, int universe) {
+        int size = graph.size();
+        // the facts flowing into and out of each node in the direction of the analysis
+        BitSet[] in = new BitSet[size];
+        BitSet[] out = new BitSet[size];
+
+        int boundary = isForward ? ControlFlowGraph.ENTRY : ControlFlowGraph.EXIT;
+        for (int node = 0; node < size; node++) {
+            in[node] = new BitSet(universe);
+            out[node] = new BitSet(universe);
+            if (!isUnion && node != boundary) {
+                // a must problem starts with all facts and removes the ones that do not hold on some path
+                out[node].set(0, universe);
+            }
+        }
+
+        // the nodes are numbered in the order of the code, so a forward problem starts at the front
+        Deque<Integer> worklist = new ArrayDeque<>(size);
+        boolean[] isQueued = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int node = isForward ? i : size - 1 - i;
+            worklist.add(node);
+            isQueued[node] = true;
+        }
+
+        while (!worklist.isEmpty()) {
+            int node = worklist.poll();
+            isQueued[node] = false;
+
+            int[] sources = isForward ? graph.predecessors(node) : graph.successors(node);
+            BitSet nodeIn = in[node];
+            if (sources.length == 0) {
+                nodeIn.clear();
+                if (!isUnion && node != boundary) {
+                    // the node is unreachable, so everything holds
+                    nodeIn.set(0, universe);
+                }
+            } else {
+                nodeIn.clear();
+                nodeIn.or(out[sources[0]]);
+                for (int i = 1; i < sources.length; i++) {
+                    if (isUnion) {
+                        nodeIn.or(out[sources[i]]);
+                    } else {
+                        nodeIn.and(out[sources[i]]);
+                    }
+                }
+            }
+
+            BitSet nodeOut = (BitSet) nodeIn.clone();
+            nodeOut.andNot(kill[node]);
+            nodeOut.or(gen[node]);
+
+            if (!nodeOut.equals(out[node])) {
+                out[node] = nodeOut;
+                for (int target : isForward ? graph.successors(node) : graph.predecessors(node)) {
+                    if (!isQueued[target]) {
+                        worklist.add(target);
+                        isQueued[target] = true;
+                    }
+                }
+            }
+        }
+
+        return isForward ? new Solution(in, out) : new Solution(out, in);
+    }
+}
@@ -0,0 +1,508 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import spoon.reflect.code.CtBreak;
+import spoon.reflect.code.CtCase;
+import spoon.reflect.code.CtCatch;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtContinue;
+import spoon.reflect.code.CtDo;
+import spoon.reflect.code.CtFor;
+import spoon.reflect.code.CtForEach;
+import spoon.reflect.code.CtIf;
+import spoon.reflect.code.CtLabelledFlowBreak;
+import spoon.reflect.code.CtLambda;
+import spoon.reflect.code.CtLoop;
+import spoon.reflect.code.CtResource;
+import spoon.reflect.code.CtReturn;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.code.CtStatementList;
+import spoon.reflect.code.CtSwitch;
+import spoon.reflect.code.CtSynchronized;
+import spoon.reflect.code.CtThrow;
+import spoon.reflect.code.CtTry;
+import spoon.reflect.code.CtTryWithResource;
+import spoon.reflect.code.CtWhile;
+import spoon.reflect.code.CaseKind;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The intraprocedural control flow graph of an executable.
+ * <p>
+ * Each node is a statement that does not contain other statements, like an assignment or a return, or an expression
+ * that decides where the execution continues, like the condition of an if. Compound statements like loops are split
+ * up into these nodes. Lambdas, anonymous and local classes are part of the node they are declared in, they have their
+ * own graph.
+ * <p>
+ * The graph over-approximates the possible executions: an exception can be thrown before and after each node in a
+ * try block. A break or continue that leaves a try block with a finally block continues in the finally block, which
+ * then continues at the target of the break or continue (and at the targets of all other ways to leave the try block).
+ */
+public final class ControlFlowGraph {
+    /**
+     * The node at which the execution starts, it declares the parameters of the executable.
+     */
+    public static final int ENTRY = 0;
+    /**
+     * The node that all returns, throws and the end of the body lead to. It has no element.
+     */
+    public static final int EXIT = 1;
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final CtExecutable<?> executable;
+    private final List<CtElement> elements;
+    // for nodes that consist of multiple elements (like the label of a case), the elements that are evaluated
+    private final List<List<CtElement>> evaluatedElements;
+    private final Map<CtElement, Integer> nodes;
+    private final int[][] successors;
+    private final int[][] predecessors;
+
+    private ControlFlowGraph(Builder builder) {
+        this.executable = builder.executable;
+        this.elements = builder.elements;
+        this.evaluatedElements = builder.evaluatedElements;
+        this.nodes = builder.nodes;
+
+        int size = this.elements.size();
+        this.successors = new int[size][];
+        this.predecessors = new int[size][];
+
+        int[] successorCounts = new int[size];
+        int[] predecessorCounts = new int[size];
+        for (long edge : builder.edges) {
+            successorCounts[(int) (edge >>> 32)]++;
+            predecessorCounts[(int) edge]++;
+        }
+
+        for (int node = 0; node < size; node++) {
+            this.successors[node] = successorCounts[node] == 0 ? NO_NODES : new int[successorCounts[node]];
+            this.predecessors[node] = predecessorCounts[node] == 0 ? NO_NODES : new int[predecessorCounts[node]];
+        }
+
+        for (long edge : builder.edges) {
+            int from = (int) (edge >>> 32);
+            int to = (int) edge;
+            this.successors[from][--successorCounts[from]] = to;
+            this.predecessors[to][--predecessorCounts[to]] = from;
+        }
+    }
+
+    /**
+     * Builds the graph of the executable.
+     *
+     * @param executable a method, constructor, lambda or initializer
+     * @return the graph, which is empty except for the entry and exit if the executable has no body
+     */
+    public static ControlFlowGraph of(CtExecutable<?> executable) {
+        Builder builder = new Builder(executable);
+        builder.build();
+        return new ControlFlowGraph(builder);
+    }
+
+    public CtExecutable<?> getExecutable() {
+        return this.executable;
+    }
+
+    /**
+     * Returns the number of nodes, the nodes are numbered from 0 to size - 1 in the order in which they appear in the code.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return this.elements.size();
+    }
+
+    /**
+     * Returns the element that the node represents.
+     *
+     * @param node the node
+     * @return the statement or expression, the executable for the {@link #ENTRY} and null for the {@link #EXIT}
+     */
+    public CtElement getElement(int node) {
+        return this.elements.get(node);
+    }
+
+    List<CtElement> getEvaluatedElements(int node) {
+        return this.evaluatedElements.get(node);
+    }
+
+    public int[] getSuccessors(int node) {
+        return this.successors[node].clone();
+    }
+
+    public int[] getPredecessors(int node) {
+        return this.predecessors[node].clone();
+    }
+
+    int[] successors(int node) {
+        return this.successors[node];
+    }
+
+    int[] predecessors(int node) {
+        return this.predecessors[node];
+    }
+
+    /**
+     * Returns the node that contains the element.
+     *
+     * @param element an element in the executable
+     * @return the node of the element or of the closest parent that is a node, -1 if the element is not in a node
+     */
+    public int getNode(CtElement element) {
+        CtElement current = element;
+        while (current != null && current != this.executable) {
+            Integer node = this.nodes.get(current);
+            if (node != null) {
+                return node;
+            }
+
+            current = current.isParentInitialized() ? current.getParent() : null;
+        }
+
+        return -1;
+    }
+
+    private static final class Builder {
+        private final CtExecutable<?> executable;
+        private final List<CtElement> elements = new ArrayList<>();
+        private final List<List<CtElement>> evaluatedElements = new ArrayList<>();
+        private final Map<CtElement, Integer> nodes = new IdentityHashMap<>();
+        // each edge is stored as (from << 32) | to
+        private final List<Long> edges = new ArrayList<>();
+        // the statements that a break or continue might jump to, the innermost is first
+        private final Deque<JumpTarget> jumpTargets = new ArrayDeque<>();
+
+        private Builder(CtExecutable<?> executable) {
+            this.executable = executable;
+        }
+
+        /**
+         * A statement that can be left with a break or continued with a continue.
+         *
+         * @param statement the statement
+         * @param breaks the nodes that break out of the statement
+         * @param continues the nodes that continue the loop, null if the statement is not a loop
+         */
+        private record JumpTarget(CtStatement statement, List<Integer> breaks, List<Integer> continues) {
+        }
+
+        private void build() {
+            this.addNode(this.executable, List.of());
+            this.addNode(null, List.of());
+
+            List<Integer> exits;
+            if (this.executable instanceof CtLambda<?> ctLambda && ctLambda.getExpression() != null) {
+                exits = List.of(this.node(ctLambda.getExpression(), List.of(ENTRY)));
+            } else {
+                exits = this.statement(this.executable.getBody(), List.of(ENTRY));
+            }
+
+            this.connect(exits, EXIT);
+        }
+
+        private int addNode(CtElement element, List<CtElement> evaluated) {
+            int node = this.elements.size();
+            this.elements.add(element);
+            this.evaluatedElements.add(evaluated);
+            if (element != null) {
+                this.nodes.put(element, node);
+            }
+            return node;
+        }
+
+        private int node(CtElement element, List<Integer> predecessors) {
+            return this.node(element, List.of(element), predecessors);
+        }
+
+        private int node(CtElement element, List<CtElement> evaluated, List<Integer> predecessors) {
+            int node = this.addNode(element, evaluated);
+            this.connect(predecessors, node);
+            return node;
+        }
+
+        private void connect(List<Integer> from, int to) {
+            for (int node : from) {
+                this.edges.add(((long) node << 32) | to);
+            }
+        }
+
+        private List<Integer> nodesFrom(int start) {
+            return IntStream.range(start, this.elements.size()).boxed().toList();
+        }
+
+        private static List<Integer> union(List<Integer> first, List<Integer> second) {
+            List<Integer> result = new ArrayList<>(first);
+            result.addAll(second);
+            return result;
+        }
+
+        /**
+         * Adds the nodes of the statement.
+         *
+         * @param ctStatement the statement, might be null
+         * @param predecessors the nodes after which the statement is executed
+         * @return the nodes after which the execution continues with the next statement
+         */
+        private List<Integer> statement(CtStatement ctStatement, List<Integer> predecessors) {
+            if (ctStatement == null || ctStatement instanceof CtComment) {
+                return predecessors;
+            }
+
+            if (ctStatement.getLabel() != null && !(ctStatement instanceof CtLoop) && !(ctStatement instanceof CtSwitch<?>)) {
+                // a labelled block or if can be left with a break
+                JumpTarget target = this.pushTarget(ctStatement, false);
+                List<Integer> exits = this.unlabelledStatement(ctStatement, predecessors);
+                this.jumpTargets.pop();
+                return union(exits, target.breaks());
+            }
+
+            return this.unlabelledStatement(ctStatement, predecessors);
+        }
+
+        private List<Integer> unlabelledStatement(CtStatement ctStatement, List<Integer> predecessors) {
+            return switch (ctStatement) {
+                // the label of a case is added by the switch
+                case CtCase<?> ctCase -> this.statements(ctCase.getStatements(), predecessors);
+                case CtStatementList ctStatementList -> this.statements(ctStatementList.getStatements(), predecessors);
+                case CtIf ctIf -> {
+                    int condition = this.node(ctIf.getCondition(), predecessors);
+                    List<Integer> exits = this.statement(ctIf.getThenStatement(), List.of(condition));
+                    yield union(exits, this.statement(ctIf.getElseStatement(), List.of(condition)));
+                }
+                case CtWhile ctWhile -> {
+                    JumpTarget target = this.pushTarget(ctWhile, true);
+                    int condition = this.node(ctWhile.getLoopingExpression(), predecessors);
+                    this.connect(this.statement(ctWhile.getBody(), List.of(condition)), condition);
+                    this.connect(target.continues(), condition);
+                    this.jumpTargets.pop();
+                    yield union(List.of(condition), target.breaks());
+                }
+                case CtDo ctDo -> {
+                    JumpTarget target = this.pushTarget(ctDo, true);
+                    int start = this.elements.size();
+                    List<Integer> bodyExits = this.statement(ctDo.getBody(), predecessors);
+                    int condition = this.node(ctDo.getLoopingExpression(), union(bodyExits, target.continues()));
+                    // the condition leads back to the start of the body
+                    this.connect(List.of(condition), start < condition ? start : condition);
+                    this.jumpTargets.pop();
+                    yield union(List.of(condition), target.breaks());
+                }
+                case CtFor ctFor -> this.forLoop(ctFor, predecessors);
+                case CtForEach ctForEach -> {
+                    int expression = this.node(ctForEach.getExpression(), predecessors);
+                    JumpTarget target = this.pushTarget(ctForEach, true);
+                    // the header assigns the next element to the variable or leaves the loop
+                    int header = this.node(ctForEach.getVariable(), List.of(expression));
+                    this.connect(this.statement(ctForEach.getBody(), List.of(header)), header);
+                    this.connect(target.continues(), header);
+                    this.jumpTargets.pop();
+                    yield union(List.of(header), target.breaks());
+                }
+                case CtSwitch<?> ctSwitch -> this.switchStatement(ctSwitch, predecessors);
+                case CtTry ctTry -> this.tryStatement(ctTry, predecessors);
+                case CtSynchronized ctSynchronized -> {
+                    int expression = this.node(ctSynchronized.getExpression(), predecessors);
+                    yield this.statement(ctSynchronized.getBlock(), List.of(expression));
+                }
+                case CtReturn<?> ctReturn -> {
+                    this.connect(List.of(this.node(ctReturn, predecessors)), EXIT);
+                    yield List.of();
+                }
+                case CtThrow ctThrow -> {
+                    // if the exception is caught, the edges to the catch are added by the try
+                    this.connect(List.of(this.node(ctThrow, predecessors)), EXIT);
+                    yield List.of();
+                }
+                case CtBreak ctBreak -> {
+                    int node = this.node(ctBreak, predecessors);
+                    JumpTarget target = this.findTarget(ctBreak, false);
+                    if (target == null) {
+                        this.connect(List.of(node), EXIT);
+                    } else {
+                        target.breaks().add(node);
+                    }
+                    yield List.of();
+                }
+                case CtContinue ctContinue -> {
+                    int node = this.node(ctContinue, predecessors);
+                    JumpTarget target = this.findTarget(ctContinue, true);
+                    if (target == null) {
+                        this.connect(List.of(node), EXIT);
+                    } else {
+                        target.continues().add(node);
+                    }
+                    yield List.of();
+                }
+                default -> List.of(this.node(ctStatement, predecessors));
+            };
+        }
+
+        private List<Integer> statements(List<? extends CtStatement> statements, List<Integer> predecessors) {
+            List<Integer> exits = predecessors;
+            for (CtStatement ctStatement : statements) {
+                exits = this.statement(ctStatement, exits);
+            }
+            return exits;
+        }
+
+        private List<Integer> forLoop(CtFor ctFor, List<Integer> predecessors) {
+            List<Integer> initExits = this.statements(ctFor.getForInit(), predecessors);
+
+            JumpTarget target = this.pushTarget(ctFor, true);
+            List<Integer> exits = new ArrayList<>();
+            List<Integer> bodyPredecessors;
+            int loopStart;
+            if (ctFor.getExpression() == null) {
+                // without a condition the loop can only be left with a break (or a return or throw)
+                loopStart = this.elements.size();
+                bodyPredecessors = initExits;
+            } else {
+                int condition = this.node(ctFor.getExpression(), initExits);
+                loopStart = condition;
+                bodyPredecessors = List.of(condition);
+                exits.add(condition);
+            }
+
+            int bodyStart = this.elements.size();
+            List<Integer> bodyExits = this.statement(ctFor.getBody(), bodyPredecessors);
+            if (ctFor.getExpression() == null && bodyStart == this.elements.size()) {
+                // an empty body, the loop runs forever
+                this.jumpTargets.pop();
+                return target.breaks();
+            }
+
+            List<Integer> updateExits = this.statements(ctFor.getForUpdate(), union(bodyExits, target.continues()));
+            this.connect(updateExits, loopStart);
+            this.jumpTargets.pop();
+
+            // the breaks are only known once the body has been added
+            exits.addAll(target.breaks());
+            return exits;
+        }
+
+        private List<Integer> switchStatement(CtSwitch<?> ctSwitch, List<Integer> predecessors) {
+            int selector = this.node(ctSwitch.getSelector(), predecessors);
+            JumpTarget target = this.pushTarget(ctSwitch, false);
+
+            List<Integer> exits = new ArrayList<>();
+            List<Integer> fallthrough = List.of();
+            boolean hasDefault = false;
+            for (CtCase<?> ctCase : ctSwitch.getCases()) {
+                hasDefault |= ctCase.getCaseExpressions().isEmpty() || ctCase.getIncludesDefault();
+
+                List<CtElement> evaluated = new ArrayList<>(ctCase.getCaseExpressions());
+                if (ctCase.getGuard() != null) {
+                    evaluated.add(ctCase.getGuard());
+                }
+
+                int label = this.node(ctCase, evaluated, union(List.of(selector), fallthrough));
+                List<Integer> caseExits = this.statements(ctCase.getStatements(), List.of(label));
+                if (ctCase.getCaseKind() == CaseKind.ARROW) {
+                    exits.addAll(caseExits);
+                    fallthrough = List.of();
+                } else {
+                    fallthrough = caseExits;
+                }
+            }
+
+            exits.addAll(fallthrough);
+            if (!hasDefault) {
+                // no case might match the selector
+                exits.add(selector);
+            }
+
+            this.jumpTargets.pop();
+            exits.addAll(target.breaks());
+            return exits;
+        }
+
+        private List<Integer> tryStatement(CtTry ctTry, List<Integer> predecessors) {
+            int start = this.elements.size();
+
+            // the breaks and continues that leave the try are added to the targets that are outside the try
+            Map<List<Integer>, Integer> outerJumpCounts = new IdentityHashMap<>();
+            for (JumpTarget target : this.jumpTargets) {
+                outerJumpCounts.put(target.breaks(), target.breaks().size());
+                if (target.continues() != null) {
+                    outerJumpCounts.put(target.continues(), target.continues().size());
+                }
+            }
+
+            List<Integer> bodyExits = predecessors;
+            if (ctTry instanceof CtTryWithResource ctTryWithResource) {
+                for (CtResource<?> ctResource : ctTryWithResource.getResources()) {
+                    bodyExits = List.of(this.node(ctResource, bodyExits));
+                }
+            }
+            bodyExits = this.statement(ctTry.getBody(), bodyExits);
+
+            // an exception might be thrown before or after any node in the body
+            List<Integer> thrownFrom = union(predecessors, this.nodesFrom(start));
+
+            List<Integer> exits = new ArrayList<>(bodyExits);
+            for (CtCatch ctCatch : ctTry.getCatchers()) {
+                int parameter = this.node(ctCatch.getParameter(), thrownFrom);
+                exits.addAll(this.statement(ctCatch.getBody(), List.of(parameter)));
+            }
+
+            if (ctTry.getFinalizer() == null) {
+                return exits;
+            }
+
+            // The finally block is executed after each node in the try and catch blocks, because each of them might
+            // throw an exception, return or jump somewhere else. Returns and throws have an edge to the exit as well.
+            List<Integer> finallyPredecessors = union(union(predecessors, this.nodesFrom(start)), exits);
+
+            // A break or continue that leaves the try does not jump to its target directly, it jumps to the finally
+            // block, which then continues at the target. The jumps are already predecessors of the finally block,
+            // because they are nodes in the try.
+            List<List<Integer>> leftJumps = new ArrayList<>();
+            for (var entry : outerJumpCounts.entrySet()) {
+                List<Integer> jumps = entry.getKey();
+                int count = entry.getValue();
+                if (jumps.size() > count) {
+                    jumps.subList(count, jumps.size()).clear();
+                    leftJumps.add(jumps);
+                }
+            }
+
+            List<Integer> finallyExits = this.statement(ctTry.getFinalizer(), finallyPredecessors);
+            leftJumps.forEach(jumps -> jumps.addAll(finallyExits));
+
+            // after the finally block, the exception is thrown again or the return is completed
+            this.connect(finallyExits, EXIT);
+            return finallyExits;
+        }
+
+        private JumpTarget pushTarget(CtStatement ctStatement, boolean isLoop) {
+            JumpTarget target = new JumpTarget(ctStatement, new ArrayList<>(), isLoop ? new ArrayList<>() : null);
+            this.jumpTargets.push(target);
+            return target;
+        }
+
+        private JumpTarget findTarget(CtLabelledFlowBreak ctFlowBreak, boolean isContinue) {
+            String label = ctFlowBreak.getTargetLabel();
+            for (JumpTarget target : this.jumpTargets) {
+                boolean isLoop = target.continues() != null;
+                if (label != null) {
+                    if (label.equals(target.statement().getLabel()) && (!isContinue || isLoop)) {
+                        return target;
+                    }
+                } else if (isLoop || (!isContinue && target.statement() instanceof CtSwitch<?>)) {
+                    return target;
+                }
+            }
+
+            return null;
+        }
+    }
+}
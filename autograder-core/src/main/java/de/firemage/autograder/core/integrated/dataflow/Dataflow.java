@@ -0,0 +1,196 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import de.firemage.autograder.core.integrated.IndexRegistry;
+import de.firemage.autograder.core.integrated.ModelIndex;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtVariable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The results of the dataflow analyses of an executable: live variables, reaching definitions and definite assignment.
+ * <p>
+ * The control flow graph is built when the results are first requested and each analysis is only solved
+ * when it is first queried. Use {@link #of(CtExecutable)} to get the results that are shared by all checks.
+ * <p>
+ * All analyses are conservative: a variable might be reported as live or a definition as reaching even though
+ * this can not happen at runtime, but never the other way around.
+ */
+public final class Dataflow {
+    private final ControlFlowGraph graph;
+    private final VariableAccesses accesses;
+
+    private BitVectorSolver.Solution liveVariables;
+    private BitVectorSolver.Solution reachingDefinitions;
+    private BitVectorSolver.Solution definiteAssignment;
+    // the node and variable of each definition, in the order of the nodes
+    private int[] definitionNodes;
+    private int[] definitionVariables;
+
+    Dataflow(CtExecutable<?> executable) {
+        this.graph = ControlFlowGraph.of(executable);
+        this.accesses = VariableAccesses.of(this.graph);
+    }
+
+    /**
+     * Returns the dataflow of the executable.
+     * <p>
+     * The results are cached per model, so the graph is only built once no matter how many checks query it.
+     *
+     * @param executable a method, constructor, lambda or initializer
+     * @return the dataflow of the executable
+     */
+    public static Dataflow of(CtExecutable<?> executable) {
+        IndexRegistry registry = executable.getFactory() == null ? null : IndexRegistry.findFor(executable);
+        if (registry == null) {
+            return new Dataflow(executable);
+        }
+
+        return registry.<DataflowCache>get(ModelIndex.DATAFLOW).get(executable);
+    }
+
+    public ControlFlowGraph getControlFlowGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Checks whether the value of the variable might be read after the element has been executed,
+     * before it is assigned again.
+     *
+     * @param element a statement or expression of the executable
+     * @param ctVariable a local variable or parameter that is declared in the executable
+     * @return true if the variable is live after the element or if the element is not part of the executable
+     */
+    public boolean isLiveAfter(CtElement element, CtVariable<?> ctVariable) {
+        int node = this.graph.getNode(element);
+        int variable = this.accesses.indexOf(ctVariable);
+        if (node < 0) {
+            return true;
+        }
+
+        return variable >= 0 && this.liveVariables().after()[node].get(variable);
+    }
+
+    /**
+     * Checks whether the variable has been assigned on all paths to the element.
+     *
+     * @param element a statement or expression of the executable
+     * @param ctVariable a local variable or parameter
+     * @return true if the variable is always assigned before the element is executed, false if not or if this is not known
+     */
+    public boolean isDefinitelyAssignedBefore(CtElement element, CtVariable<?> ctVariable) {
+        int node = this.graph.getNode(element);
+        int variable = this.accesses.indexOf(ctVariable);
+        if (node < 0 || variable < 0) {
+            return false;
+        }
+
+        return this.definiteAssignment().before()[node].get(variable);
+    }
+
+    /**
+     * Returns the assignments of the variable whose value might be seen by the element.
+     *
+     * @param element a statement or expression of the executable
+     * @param ctVariable a local variable or parameter
+     * @return the assignments, unary operators, variable declarations and parameters that define the value in the
+     * order in which they appear in the code. If the element is not part of the executable, the list is empty.
+     */
+    public List<CtElement> getReachingDefinitions(CtElement element, CtVariable<?> ctVariable) {
+        int node = this.graph.getNode(element);
+        int variable = this.accesses.indexOf(ctVariable);
+        if (node < 0 || variable < 0) {
+            return List.of();
+        }
+
+        BitSet reaching = this.reachingDefinitions().before()[node];
+        List<CtElement> result = new ArrayList<>();
+        for (int definition = reaching.nextSetBit(0); definition >= 0; definition = reaching.nextSetBit(definition + 1)) {
+            if (this.definitionVariables[definition] == variable) {
+                result.add(this.accesses.writingElement(this.definitionNodes[definition], variable));
+            }
+        }
+
+        return result;
+    }
+
+    private synchronized BitVectorSolver.Solution liveVariables() {
+        if (this.liveVariables == null) {
+            int size = this.graph.size();
+            BitSet[] gen = new BitSet[size];
+            BitSet[] kill = new BitSet[size];
+            for (int node = 0; node < size; node++) {
+                gen[node] = this.accesses.reads(node);
+                // a variable is only dead before the node if it is always overwritten
+                kill[node] = this.accesses.definiteWrites(node);
+            }
+
+            this.liveVariables = BitVectorSolver.solve(this.graph, false, true, gen, kill, this.accesses.variableCount());
+        }
+
+        return this.liveVariables;
+    }
+
+    private synchronized BitVectorSolver.Solution definiteAssignment() {
+        if (this.definiteAssignment == null) {
+            int size = this.graph.size();
+            BitSet[] gen = new BitSet[size];
+            BitSet[] kill = new BitSet[size];
+            for (int node = 0; node < size; node++) {
+                gen[node] = this.accesses.definiteWrites(node);
+                kill[node] = new BitSet();
+            }
+
+            this.definiteAssignment = BitVectorSolver.solve(this.graph, true, false, gen, kill, this.accesses.variableCount());
+        }
+
+        return this.definiteAssignment;
+    }
+
+    private synchronized BitVectorSolver.Solution reachingDefinitions() {
+        if (this.reachingDefinitions == null) {
+            int size = this.graph.size();
+
+            // each write of a variable in a node is a definition
+            List<Integer> nodes = new ArrayList<>();
+            List<Integer> variables = new ArrayList<>();
+            // the definitions of each variable
+            List<BitSet> variableDefinitions = new ArrayList<>();
+            for (int variable = 0; variable < this.accesses.variableCount(); variable++) {
+                variableDefinitions.add(new BitSet());
+            }
+
+            BitSet[] gen = new BitSet[size];
+            for (int node = 0; node < size; node++) {
+                gen[node] = new BitSet();
+                BitSet writes = this.accesses.writes(node);
+                for (int variable = writes.nextSetBit(0); variable >= 0; variable = writes.nextSetBit(variable + 1)) {
+                    int definition = nodes.size();
+                    nodes.add(node);
+                    variables.add(variable);
+                    variableDefinitions.get(variable).set(definition);
+                    gen[node].set(definition);
+                }
+            }
+
+            BitSet[] kill = new BitSet[size];
+            for (int node = 0; node < size; node++) {
+                // a definite write replaces all other definitions of the variable
+                kill[node] = new BitSet();
+                BitSet definiteWrites = this.accesses.definiteWrites(node);
+                for (int variable = definiteWrites.nextSetBit(0); variable >= 0; variable = definiteWrites.nextSetBit(variable + 1)) {
+                    kill[node].or(variableDefinitions.get(variable));
+                }
+            }
+
+            this.definitionNodes = nodes.stream().mapToInt(Integer::intValue).toArray();
+            this.definitionVariables = variables.stream().mapToInt(Integer::intValue).toArray();
+            this.reachingDefinitions = BitVectorSolver.solve(this.graph, true, true, gen, kill, nodes.size());
+        }
+
+        return this.reachingDefinitions;
+    }
+}
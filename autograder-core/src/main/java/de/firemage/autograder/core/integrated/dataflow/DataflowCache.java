@@ -0,0 +1,35 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import spoon.reflect.declaration.CtExecutable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@link Dataflow} of the executables of a model that have been analyzed so far.
+ * <p>
+ * The cache is created empty by the {@link de.firemage.autograder.core.integrated.IndexRegistry} and
+ * can be used by multiple threads at the same time.
+ */
+public final class DataflowCache {
+    private final Map<CtExecutable<?>, Dataflow> dataflows;
+
+    public DataflowCache() {
+        this.dataflows = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    Dataflow get(CtExecutable<?> executable) {
+        Dataflow result = this.dataflows.get(executable);
+        if (result == null) {
+            // the graph is built outside the lock, if two threads analyze the same executable, the first result is kept
+            result = new Dataflow(executable);
+            Dataflow previous = this.dataflows.putIfAbsent(executable, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+
+        return result;
+    }
+}
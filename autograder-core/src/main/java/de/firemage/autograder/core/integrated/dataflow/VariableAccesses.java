@@ -0,0 +1,290 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import de.firemage.autograder.core.integrated.ElementUtil;
+import spoon.reflect.code.BinaryOperatorKind;
+import spoon.reflect.code.CtAssignment;
+import spoon.reflect.code.CtBinaryOperator;
+import spoon.reflect.code.CtCatchVariable;
+import spoon.reflect.code.CtConditional;
+import spoon.reflect.code.CtForEach;
+import spoon.reflect.code.CtLambda;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtOperatorAssignment;
+import spoon.reflect.code.CtSwitchExpression;
+import spoon.reflect.code.CtTypePattern;
+import spoon.reflect.code.CtUnaryOperator;
+import spoon.reflect.code.CtVariableRead;
+import spoon.reflect.code.CtVariableWrite;
+import spoon.reflect.code.UnaryOperatorKind;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtParameter;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtVariable;
+import spoon.reflect.path.CtRole;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The local variables and parameters that each node of a {@link ControlFlowGraph} reads and writes.
+ * <p>
+ * Only the variables that are declared in the executable of the graph are tracked, they are numbered in the
+ * order in which they are first accessed. A write is only a definite write if it is executed whenever the node is
+ * executed, writes in for example the second operand of {@code &&} or in a switch expression might not happen.
+ */
+final class VariableAccesses {
+    private static final Set<UnaryOperatorKind> INCREMENTS = Set.of(
+        UnaryOperatorKind.PREINC,
+        UnaryOperatorKind.POSTINC,
+        UnaryOperatorKind.PREDEC,
+        UnaryOperatorKind.POSTDEC
+    );
+
+    private final List<CtVariable<?>> variables;
+    private final Map<CtVariable<?>, Integer> variableIndexes;
+    // for each node, the variables it reads, the variables it always writes and the variables it might write
+    private final BitSet[] reads;
+    private final BitSet[] definiteWrites;
+    private final BitSet[] writes;
+    // for each node and written variable, the element that writes it
+    private final List<Map<Integer, CtElement>> writingElements;
+
+    private VariableAccesses(ControlFlowGraph graph) {
+        this.variables = new ArrayList<>();
+        this.variableIndexes = new IdentityHashMap<>();
+
+        int size = graph.size();
+        this.reads = new BitSet[size];
+        this.definiteWrites = new BitSet[size];
+        this.writes = new BitSet[size];
+        this.writingElements = new ArrayList<>(size);
+        for (int node = 0; node < size; node++) {
+            this.reads[node] = new BitSet();
+            this.definiteWrites[node] = new BitSet();
+            this.writes[node] = new BitSet();
+            this.writingElements.add(Map.of());
+        }
+    }
+
+    static VariableAccesses of(ControlFlowGraph graph) {
+        VariableAccesses result = new VariableAccesses(graph);
+
+        CtExecutable<?> executable = graph.getExecutable();
+        for (CtParameter<?> ctParameter : executable.getParameters()) {
+            result.addWrite(ControlFlowGraph.ENTRY, ctParameter, ctParameter, true);
+        }
+
+        for (int node = 0; node < graph.size(); node++) {
+            if (node == ControlFlowGraph.ENTRY) {
+                continue;
+            }
+
+            NodeScanner scanner = result.new NodeScanner(executable, node);
+            for (CtElement element : graph.getEvaluatedElements(node)) {
+                scanner.scan(element);
+            }
+        }
+
+        return result;
+    }
+
+    int variableCount() {
+        return this.variables.size();
+    }
+
+    CtVariable<?> getVariable(int index) {
+        return this.variables.get(index);
+    }
+
+    /**
+     * Returns the number of the variable.
+     *
+     * @param ctVariable the variable
+     * @return the number or -1 if the variable is not accessed in the executable
+     */
+    int indexOf(CtVariable<?> ctVariable) {
+        return this.variableIndexes.getOrDefault(ctVariable, -1);
+    }
+
+    BitSet reads(int node) {
+        return this.reads[node];
+    }
+
+    BitSet definiteWrites(int node) {
+        return this.definiteWrites[node];
+    }
+
+    BitSet writes(int node) {
+        return this.writes[node];
+    }
+
+    CtElement writingElement(int node, int variable) {
+        return this.writingElements.get(node).get(variable);
+    }
+
+    private int variableIndex(CtVariable<?> ctVariable) {
+        Integer index = this.variableIndexes.get(ctVariable);
+        if (index == null) {
+            index = this.variables.size();
+            this.variables.add(ctVariable);
+            this.variableIndexes.put(ctVariable, index);
+        }
+
+        return index;
+    }
+
+    private void addRead(int node, CtVariable<?> ctVariable) {
+        this.reads[node].set(this.variableIndex(ctVariable));
+    }
+
+    private void addWrite(int node, CtVariable<?> ctVariable, CtElement element, boolean isDefinite) {
+        int variable = this.variableIndex(ctVariable);
+        this.writes[node].set(variable);
+        if (isDefinite) {
+            this.definiteWrites[node].set(variable);
+        }
+
+        Map<Integer, CtElement> elements = this.writingElements.get(node);
+        if (elements.isEmpty()) {
+            elements = new HashMap<>();
+            this.writingElements.set(node, elements);
+        }
+        // if the node writes the variable multiple times, the last write is the one that is seen after the node
+        elements.put(variable, element);
+    }
+
+    private final class NodeScanner extends CtScanner {
+        private final CtExecutable<?> executable;
+        private final int node;
+        // the number of parents of the scanned element that might not evaluate it
+        private int conditionalDepth;
+
+        private NodeScanner(CtExecutable<?> executable, int node) {
+            this.executable = executable;
+            this.node = node;
+            this.conditionalDepth = 0;
+        }
+
+        private CtVariable<?> findLocalVariable(CtVariable<?> ctVariable) {
+            if (!(ctVariable instanceof CtLocalVariable<?>
+                || ctVariable instanceof CtCatchVariable<?>
+                || ctVariable instanceof CtParameter<?>)) {
+                return null;
+            }
+
+            // the variables of lambdas and classes in the executable are tracked by their own graphs
+            if (ElementUtil.getParent(ctVariable, CtExecutable.class) != this.executable) {
+                return null;
+            }
+
+            return ctVariable;
+        }
+
+        private static boolean isConditionallyEvaluated(CtRole role, CtElement element) {
+            if (element instanceof CtLambda<?> || element instanceof CtType<?> || element instanceof CtSwitchExpression<?, ?>) {
+                return true;
+            }
+
+            if (!element.isParentInitialized()) {
+                return false;
+            }
+
+            CtElement parent = element.getParent();
+            return parent instanceof CtConditional<?> && (role == CtRole.THEN || role == CtRole.ELSE)
+                || parent instanceof CtBinaryOperator<?> ctBinaryOperator
+                    && role == CtRole.RIGHT_OPERAND
+                    && (ctBinaryOperator.getKind() == BinaryOperatorKind.AND || ctBinaryOperator.getKind() == BinaryOperatorKind.OR);
+        }
+
+        @Override
+        public void scan(CtRole role, CtElement element) {
+            boolean isConditional = element != null && isConditionallyEvaluated(role, element);
+            if (isConditional) {
+                this.conditionalDepth++;
+            }
+
+            super.scan(role, element);
+
+            if (isConditional) {
+                this.conditionalDepth--;
+            }
+        }
+
+        @Override
+        public <T> void visitCtVariableRead(CtVariableRead<T> variableRead) {
+            CtVariable<?> ctVariable = this.findLocalVariable(variableRead.getVariable().getDeclaration());
+            if (ctVariable != null) {
+                addRead(this.node, ctVariable);
+            }
+
+            super.visitCtVariableRead(variableRead);
+        }
+
+        @Override
+        public <T> void visitCtVariableWrite(CtVariableWrite<T> variableWrite) {
+            CtVariable<?> ctVariable = this.findLocalVariable(variableWrite.getVariable().getDeclaration());
+            if (ctVariable != null) {
+                CtElement parent = variableWrite.getParent();
+                // a compound assignment or an increment reads the variable before it is written
+                if (parent instanceof CtOperatorAssignment<?, ?>
+                    || parent instanceof CtUnaryOperator<?> ctUnaryOperator && INCREMENTS.contains(ctUnaryOperator.getKind())) {
+                    addRead(this.node, ctVariable);
+                }
+
+                CtElement writingElement = parent instanceof CtAssignment<?, ?> || parent instanceof CtUnaryOperator<?> ? parent : variableWrite;
+                addWrite(this.node, ctVariable, writingElement, this.conditionalDepth == 0);
+            }
+
+            super.visitCtVariableWrite(variableWrite);
+        }
+
+        @Override
+        public <T> void visitCtUnaryOperator(CtUnaryOperator<T> operator) {
+            // the operand of an increment should be a write, but it is not guaranteed
+            if (INCREMENTS.contains(operator.getKind())
+                && operator.getOperand() instanceof CtVariableRead<?> ctVariableRead) {
+                CtVariable<?> ctVariable = this.findLocalVariable(ctVariableRead.getVariable().getDeclaration());
+                if (ctVariable != null) {
+                    addWrite(this.node, ctVariable, operator, this.conditionalDepth == 0);
+                }
+            }
+
+            super.visitCtUnaryOperator(operator);
+        }
+
+        @Override
+        public <T> void visitCtLocalVariable(CtLocalVariable<T> localVariable) {
+            // the variable of a for-each loop is assigned by the loop and the variable of a pattern by the pattern
+            if (localVariable.getDefaultExpression() != null
+                || localVariable.getParent() instanceof CtForEach
+                || localVariable.getParent() instanceof CtTypePattern) {
+                CtVariable<?> ctVariable = this.findLocalVariable(localVariable);
+                if (ctVariable != null) {
+                    // the default expression is evaluated before the variable is assigned
+                    this.scan(CtRole.DEFAULT_EXPRESSION, localVariable.getDefaultExpression());
+                    addWrite(this.node, ctVariable, localVariable, this.conditionalDepth == 0);
+                    return;
+                }
+            }
+
+            super.visitCtLocalVariable(localVariable);
+        }
+
+        @Override
+        public <T> void visitCtCatchVariable(CtCatchVariable<T> catchVariable) {
+            CtVariable<?> ctVariable = this.findLocalVariable(catchVariable);
+            if (ctVariable != null) {
+                addWrite(this.node, ctVariable, catchVariable, this.conditionalDepth == 0);
+            }
+
+            super.visitCtCatchVariable(catchVariable);
+        }
+    }
+}
@@ -71,7 +71,13 @@ public class Evaluator extends CtScanner implements PartialEvaluator {
 
         // To preserve the integrity of the model, where each element points to the correct parent,
         // we have to clone the result before replacing the original element.
-        CtElement replacement = result.clone();
+        //
+        // This is not necessary if the result is not part of any tree (like a newly created literal)
+        // or if it is part of the replaced element, which is discarded after the replacement.
+        CtElement replacement = result;
+        if (result.isParentInitialized() && !result.hasParent(ctElement)) {
+            replacement = result.clone();
+        }
 
         // to replace a node in the tree, the parent must be initialized
         //
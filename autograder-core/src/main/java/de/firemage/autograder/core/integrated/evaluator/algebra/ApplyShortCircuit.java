@@ -55,15 +55,18 @@ public final class ApplyShortCircuit implements Fold {
         if (ctExpression.isParentInitialized() && ctExpression.getParent() instanceof CtBinaryOperator<?> parentBinaryOperator
             && parentBinaryOperator.getRightHandOperand() == ctExpression) {
             // in that case, it is guaranteed that the left-hand side has already been evaluated
+            //
+            // the left-hand side is not modified while the right-hand side is evaluated,
+            // so it does not have to be copied
 
             // It's evaluation depends on the operator kind
             switch (parentBinaryOperator.getKind()) {
                 case OR -> {
                     // In a || b the a evaluates to false while b is evaluated, because if a were true, b would not be evaluated
-                    return new OperatorContext(parentBinaryOperator.getLeftHandOperand().clone(), false);
+                    return new OperatorContext(parentBinaryOperator.getLeftHandOperand(), false);
                 }
                 case AND -> {
-                    return new OperatorContext(parentBinaryOperator.getLeftHandOperand().clone(), true);
+                    return new OperatorContext(parentBinaryOperator.getLeftHandOperand(), true);
                 }
             }
         }
@@ -27,6 +27,13 @@ public final class DeduplicateOperatorApplication implements Fold {
     @Override
     @SuppressWarnings("unchecked")
     public <T> CtExpression<T> foldCtUnaryOperator(CtUnaryOperator<T> ctUnaryOperator) {
+        // the promotion does not change the kind of the operand, so the operator can only be optimized
+        // if it is applied twice
+        if (!(ctUnaryOperator.getOperand() instanceof CtUnaryOperator<?> ctOperand)
+            || ctOperand.getKind() != ctUnaryOperator.getKind()) {
+            return ctUnaryOperator;
+        }
+
         // the promoted result is only used if the operator can be optimized
         CtUnaryOperator<T> promotedResult = this.evaluator.evaluate(ctUnaryOperator);
         CtExpression<T> operand = (CtExpression<T>) promotedResult.getOperand();
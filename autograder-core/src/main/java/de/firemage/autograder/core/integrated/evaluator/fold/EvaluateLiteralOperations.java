@@ -39,6 +39,13 @@ public final class EvaluateLiteralOperations implements Fold {
     @Override
     @SuppressWarnings("unchecked")
     public <T> CtExpression<T> foldCtBinaryOperator(CtBinaryOperator<T> ctBinaryOperator) {
+        // the promotion only changes the casts of the operands, so it is not necessary to promote
+        // (and therefore clone) the operator if the operands are not literals
+        if (!(ctBinaryOperator.getLeftHandOperand() instanceof CtLiteral<?>)
+            || !(ctBinaryOperator.getRightHandOperand() instanceof CtLiteral<?>)) {
+            return ctBinaryOperator;
+        }
+
         CtBinaryOperator<T> promotedOperator = this.evaluator.evaluate(ctBinaryOperator);
 
         if (!(promotedOperator.getLeftHandOperand() instanceof CtLiteral<?> leftLiteral) ||
@@ -179,6 +186,10 @@ public final class EvaluateLiteralOperations implements Fold {
     @Override
     @SuppressWarnings("unchecked")
     public <T> CtExpression<T> foldCtUnaryOperator(CtUnaryOperator<T> ctUnaryOperator) {
+        if (!(ctUnaryOperator.getOperand() instanceof CtLiteral<?>)) {
+            return ctUnaryOperator;
+        }
+
         CtUnaryOperator<T> promotedOperator = this.evaluator.evaluate(ctUnaryOperator);
 
         CtExpression<?> operand = promotedOperator.getOperand();
@@ -25,6 +25,12 @@ public final class EvaluatePartialLiteralOperations implements Fold {
     @Override
     @SuppressWarnings("unchecked")
     public <T> CtExpression<T> foldCtBinaryOperator(CtBinaryOperator<T> ctBinaryOperator) {
+        // the casts are only applied on literals, so at least one operand has to be a literal already
+        if (!(ctBinaryOperator.getLeftHandOperand() instanceof CtLiteral<?>)
+            && !(ctBinaryOperator.getRightHandOperand() instanceof CtLiteral<?>)) {
+            return ctBinaryOperator;
+        }
+
         CtBinaryOperator<T> promotedOperator = (CtBinaryOperator<T>) this.operatorPromotion.fold(ctBinaryOperator.clone());
 
         // Apply the casts on both operands (if applicable)
@@ -1,15 +1,11 @@
 package de.firemage.autograder.core.integrated.evaluator.fold;
 
 import de.firemage.autograder.core.integrated.VariableUtil;
-import de.firemage.autograder.core.integrated.UsesFinder;
 import spoon.reflect.code.CtExpression;
-import spoon.reflect.code.CtLiteral;
 import spoon.reflect.code.CtLocalVariable;
 import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.declaration.CtVariable;
 
-import java.util.Optional;
-
 /**
  * Inline reads of constant variables with its value.
  */
@@ -37,15 +33,9 @@ public final class InlineVariableRead implements Fold {
             return ctVariableRead;
         }
 
-        Optional<CtExpression<T>> ctExpressionOptional = VariableUtil.getEffectivelyFinalExpression(ctVariable);
-
-        return ctExpressionOptional.flatMap(ctExpression -> {
-            // only inline literals:
-            if (ctExpression instanceof CtLiteral<?> ctLiteral) {
-                return Optional.of((CtExpression<T>) ctLiteral);
-            } else {
-                return Optional.empty();
-            }
-        }).orElse(ctVariableRead);
+        // only inline literals:
+        return VariableUtil.getConstantValue(ctVariable)
+            .map(ctLiteral -> (CtExpression<T>) ctLiteral)
+            .orElse(ctVariableRead);
     }
 }
@@ -1,38 +1,118 @@
 package de.firemage.autograder.core.integrated.structure;
 
+import de.firemage.autograder.core.integrated.IndexRegistry;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import spoon.reflect.CtModel;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtScanner;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 /**
  * A visitor that computes a hash code for a spoon element based on its structure.
  * <br>
  * The default hashCode implementation in spoon does not ignore comments or naming of things
  * and to be compatible with the {@link StructuralEqualsVisitor} a different hashCode implementation is needed.
  * The hash code visitor tries to be as generic as possible, but with a low number of collisions.
+ * <br>
+ * The hash code of an element is computed bottom-up from the hash codes of its children, so the hash codes of
+ * all elements in the model can be computed in a single pass with {@link #computeAll(CtModel)}.
  */
 public final class StructuralHashCodeVisitor extends CtScanner {
-    private final HashCodeBuilder builder;
+    // the hash codes that have been computed for the model, these are never modified
+    private final Map<CtElement, Integer> modelHashCodes;
+    private final Map<CtElement, Integer> hashCodes;
+    private final Deque<HashCodeBuilder> builders;
 
-    private StructuralHashCodeVisitor() {
-        this.builder = new HashCodeBuilder();
+    private StructuralHashCodeVisitor(Map<CtElement, Integer> modelHashCodes) {
+        this.modelHashCodes = modelHashCodes;
+        this.hashCodes = new IdentityHashMap<>();
+        this.builders = new ArrayDeque<>();
+    }
+
+    /**
+     * Computes the hash codes of all elements in the model. Once they are available as
+     * {@link ModelIndex#STRUCTURAL_HASH_CODES}, {@link #computeHashCode(CtElement)} does not have to visit
+     * the elements again.
+     *
+     * @param model the model to compute the hash codes for
+     * @return the hash codes of all elements in the model
+     */
+    public static Map<CtElement, Integer> computeAll(CtModel model) {
+        StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor(Map.of());
+        for (CtElement module : model.getAllModules()) {
+            visitor.scan(module);
+        }
+
+        return visitor.hashCodes;
+    }
+
+    private static Map<CtElement, Integer> getModelHashCodes(CtElement element) {
+        if (element.getFactory() == null) {
+            return Map.of();
+        }
+
+        // the hash codes are only used if something else needed them, computing them here would visit the whole model
+        IndexRegistry registry = IndexRegistry.findFor(element);
+        Map<CtElement, Integer> hashCodes = registry == null ? null : registry.find(ModelIndex.STRUCTURAL_HASH_CODES);
+        return hashCodes == null ? Map.of() : hashCodes;
     }
 
     public static int computeHashCode(CtElement element) {
-        StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor();
+        Map<CtElement, Integer> modelHashCodes = getModelHashCodes(element);
+        Integer hashCode = modelHashCodes.get(element);
+        if (hashCode != null) {
+            return hashCode;
+        }
+
+        // the element is not part of the model (e.g. a clone), but some of its children might be
+        StructuralHashCodeVisitor visitor = new StructuralHashCodeVisitor(modelHashCodes);
         visitor.scan(element);
-        return visitor.getHashCode();
+        return visitor.getKnownHashCode(element);
+    }
+
+    private Integer getKnownHashCode(CtElement element) {
+        Integer hashCode = this.modelHashCodes.get(element);
+        if (hashCode == null) {
+            hashCode = this.hashCodes.get(element);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public void scan(CtElement element) {
+        if (element == null) {
+            return;
+        }
+
+        Integer hashCode = this.getKnownHashCode(element);
+        if (hashCode == null) {
+            this.builders.push(new HashCodeBuilder());
+            super.scan(element);
+            hashCode = this.builders.pop().toHashCode();
+            this.hashCodes.put(element, hashCode);
+        }
+
+        // the hash code of a child is part of the hash code of its parent
+        if (!this.builders.isEmpty()) {
+            this.builders.peek().append(hashCode.intValue());
+        }
     }
 
     @Override
     public void enter(CtElement ctElement) {
+        HashCodeBuilder builder = this.builders.peek();
         if (ctElement instanceof CtTypeReference<?> ctTypeReference) {
-            this.builder.append(ctTypeReference.getSimpleName());
+            builder.append(ctTypeReference.getSimpleName());
         }
 
-        this.builder.append(ctElement.getClass().getSimpleName().hashCode());
+        builder.append(ctElement.getClass().getSimpleName().hashCode());
     }
 
     @Override
@@ -40,11 +120,8 @@ public final class StructuralHashCodeVisitor extends CtScanner {
         if (StructuralEqualsVisitor.shouldSkip(ctRole, element)) {
             return;
         }
-        this.builder.append(ctRole);
+        // the ordinal is used, so that the hash codes are the same in every run
+        this.builders.peek().append(ctRole == null ? -1 : ctRole.ordinal());
         super.scan(ctRole, element);
     }
-
-    public int getHashCode() {
-        return this.builder.toHashCode();
-    }
 }
@@ -5,13 +5,13 @@ import de.firemage.autograder.core.Problem;
 import java.util.List;
 import java.util.Objects;
 
-public record AnalysisResult(List<Problem> problems, Exception thrownException) {
+public record AnalysisResult(List<Problem> problems, Throwable thrownException) {
     public static AnalysisResult forSuccess(List<Problem> problems) {
         Objects.requireNonNull(problems);
         return new AnalysisResult(problems, null);
     }
 
-    public static AnalysisResult forFailure(Exception thrownException) {
+    public static AnalysisResult forFailure(Throwable thrownException) {
         Objects.requireNonNull(thrownException);
         return new AnalysisResult(null, thrownException);
     }
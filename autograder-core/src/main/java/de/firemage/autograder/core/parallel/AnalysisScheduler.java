@@ -10,16 +10,25 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Executes {@link AnalysisTask}s on a fixed number of threads.
+ * <p>
+ * The problems are collected per task, so the result of {@link #collectProblems()} does not depend on
+ * the number of threads or on the order in which the tasks happened to finish.
+ */
 public class AnalysisScheduler {
     private final ClassLoader classLoader;
     private final List<AnalysisThread> analysisThreads;
-    private final Queue<AnalysisTask> waitingTasks;
+    private final Queue<ScheduledTask> waitingTasks;
+    // the problems reported by each task, in the order in which the tasks were submitted
+    private final List<List<Problem>> reportedProblems;
     private volatile boolean completionAllowed;
     private final AtomicInteger waitingAndRunningTaskCount;
 
     public AnalysisScheduler(int threads, ClassLoader classLoader) {
         this.classLoader = classLoader;
         this.waitingTasks = new ArrayDeque<>();
+        this.reportedProblems = new ArrayList<>();
         this.completionAllowed = false;
         this.waitingAndRunningTaskCount = new AtomicInteger(0);
 
@@ -39,27 +48,38 @@ public class AnalysisScheduler {
 
     public void submitTask(AnalysisTask task) {
         synchronized (this.waitingTasks) {
-            this.waitingTasks.add(task);
+            List<Problem> problems = new ArrayList<>();
+            this.reportedProblems.add(problems);
+            this.waitingTasks.add(new ScheduledTask(task, collectInto(problems)));
             this.waitingAndRunningTaskCount.incrementAndGet();
             this.waitingTasks.notifyAll();
         }
     }
 
-    protected Optional<AnalysisTask> getTask() throws InterruptedException {
+    protected Optional<ScheduledTask> getTask() throws InterruptedException {
         synchronized (this.waitingTasks) {
             while (this.waitingTasks.isEmpty()) {
-                this.waitingTasks.wait(300);
-
                 if (this.completionAllowed && this.waitingAndRunningTaskCount.get() == 0) {
                     return Optional.empty();
                 }
+
+                this.waitingTasks.wait(300);
             }
             return Optional.of(this.waitingTasks.poll());
         }
     }
 
     protected boolean completeTask() {
-        return this.waitingAndRunningTaskCount.decrementAndGet() == 0 && this.completionAllowed;
+        if (this.waitingAndRunningTaskCount.decrementAndGet() != 0) {
+            return false;
+        }
+
+        // wake up the idle threads, so they notice that there is nothing left to do
+        synchronized (this.waitingTasks) {
+            this.waitingTasks.notifyAll();
+        }
+
+        return this.completionAllowed;
     }
 
     protected ClassLoader getClassLoader() {
@@ -69,6 +89,8 @@ public class AnalysisScheduler {
     /**
      * Collects all problems from all threads. This method is blocking!
      * Never add more tasks *outside already submitted tasks* after calling this method, because they may never be executed.
+     * <p>
+     * The problems are ordered by the task that reported them, in the order in which the tasks were submitted.
      */
     public AnalysisResult collectProblems() {
         if (this.analysisThreads.isEmpty()) {
@@ -79,50 +101,70 @@ public class AnalysisScheduler {
     }
 
     private AnalysisResult collectProblemsFromThreads() {
-        this.completionAllowed = true;
+        synchronized (this.waitingTasks) {
+            this.completionAllowed = true;
+            this.waitingTasks.notifyAll();
+        }
 
-        List<Problem> allProblems = new ArrayList<>();
+        Throwable thrownException = null;
         for (var thread : this.analysisThreads) {
             try {
-                var result = thread.join();
+                Optional<Throwable> exception = thread.join();
 
-                if (result.failed()) {
-                    return result;
+                if (exception.isPresent() && thrownException == null) {
+                    thrownException = exception.get();
                 }
-
-                allProblems.addAll(result.problems());
             } catch (InterruptedException e) {
                 throw new IllegalStateException(e);
             }
         }
 
-        return AnalysisResult.forSuccess(allProblems);
+        if (thrownException != null) {
+            return AnalysisResult.forFailure(thrownException);
+        }
+
+        return AnalysisResult.forSuccess(this.allReportedProblems());
     }
 
     private AnalysisResult executeChecksSingleThreaded() {
-        List<Problem> allProblems = new ArrayList<>();
+        while (!this.waitingTasks.isEmpty()) {
+            try {
+                var task = this.waitingTasks.poll();
+                task.run(this);
+            } catch (Exception e) {
+                return AnalysisResult.forFailure(e);
+            }
+        }
+
+        return AnalysisResult.forSuccess(this.allReportedProblems());
+    }
 
-        var reporter = new ProblemReporter() {
+    private List<Problem> allReportedProblems() {
+        synchronized (this.waitingTasks) {
+            return this.reportedProblems.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    private static ProblemReporter collectInto(List<Problem> problems) {
+        return new ProblemReporter() {
             @Override
             public void reportProblem(Problem problem) {
-                allProblems.add(problem);
+                problems.add(problem);
             }
 
             @Override
-            public void reportProblems(Collection<Problem> problems) {
-                allProblems.addAll(problems);
+            public void reportProblems(Collection<Problem> reported) {
+                problems.addAll(reported);
             }
         };
+    }
 
-        while (!this.waitingTasks.isEmpty()) {
-            try {
-                var task = this.waitingTasks.poll();
-                task.run(this, reporter);
-            } catch (Exception e) {
-                return AnalysisResult.forFailure(e);
-            }
+    /**
+     * A task waiting for execution together with the reporter that collects its problems.
+     */
+    record ScheduledTask(AnalysisTask task, ProblemReporter reporter) {
+        void run(AnalysisScheduler scheduler) throws Exception {
+            this.task.run(scheduler, this.reporter);
         }
-
-        return AnalysisResult.forSuccess(allProblems);
     }
 }
@@ -1,20 +1,14 @@
 package de.firemage.autograder.core.parallel;
 
-import de.firemage.autograder.core.Problem;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.Optional;
 
 public class AnalysisThread {
     private final AnalysisScheduler scheduler;
     private final Thread thread;
-    private final List<Problem> reportedProblems;
-    private Exception thrownException;
+    private Throwable thrownException;
 
     public AnalysisThread(AnalysisScheduler scheduler, int threadIndex) {
         this.scheduler = scheduler;
-        this.reportedProblems = new ArrayList<>();
         this.thread = new Thread(this::run, "Autograder-Analysis-Thread-" + threadIndex);
     }
 
@@ -22,26 +16,14 @@ public class AnalysisThread {
         if (this.scheduler.getClassLoader() != null) {
             Thread.currentThread().setContextClassLoader(this.scheduler.getClassLoader());
         }
-        
-        var reporter = new ProblemReporter() {
-            @Override
-            public void reportProblem(Problem problem) {
-                reportedProblems.add(problem);
-            }
-
-            @Override
-            public void reportProblems(Collection<Problem> problems) {
-                reportedProblems.addAll(problems);
-            }
-        };
 
         while (true) {
             try {
                 var task = this.scheduler.getTask();
                 if (task.isPresent()) {
                     try {
-                        task.get().run(this.scheduler, reporter);
-                    } catch (Exception ex) {
+                        task.get().run(this.scheduler);
+                    } catch (Exception | Error ex) {
                         // Report as completed to avoid a deadlock where everybody waits for the failed task
                         this.scheduler.completeTask();
                         this.thrownException = ex;
@@ -68,13 +50,15 @@ public class AnalysisThread {
         this.thread.start();
     }
 
-    public AnalysisResult join() throws InterruptedException {
+    /**
+     * Waits for the thread to finish.
+     *
+     * @return the exception or error that stopped the thread, if any
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public Optional<Throwable> join() throws InterruptedException {
         this.thread.join();
 
-        if (this.thrownException == null) {
-            return AnalysisResult.forSuccess(this.reportedProblems);
-        } else {
-            return AnalysisResult.forFailure(this.thrownException);
-        }
+        return Optional.ofNullable(this.thrownException);
     }
 }
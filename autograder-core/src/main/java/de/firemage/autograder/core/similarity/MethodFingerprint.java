@@ -0,0 +1,39 @@
+package de.firemage.autograder.core.similarity;
+
+import de.firemage.autograder.core.file.SourcePath;
+
+import java.io.Serializable;
+
+/**
+ * The MinHash signature of the structure of a single method.
+ *
+ * @param submission the name of the submission the method belongs to
+ * @param method the qualified name of the declaring type and the signature of the method
+ * @param file the file in which the method is declared, relative to the source root of the submission
+ * @param line the line on which the method starts
+ * @param statements the number of statements in the body of the method
+ * @param signature the MinHash signature of the statement shingles of the method
+ */
+public record MethodFingerprint(
+    String submission,
+    String method,
+    SourcePath file,
+    int line,
+    int statements,
+    int[] signature
+) implements Serializable {
+    /**
+     * Estimates the jaccard similarity of the statement shingles of this method and the other method.
+     *
+     * @param other the other method
+     * @return a value between 0 (nothing in common) and 1 (structurally equal)
+     */
+    public double estimateSimilarity(MethodFingerprint other) {
+        return MinHash.estimateSimilarity(this.signature, other.signature);
+    }
+
+    @Override
+    public String toString() {
+        return "%s:%s (%s:%d)".formatted(this.submission, this.method, this.file, this.line);
+    }
+}
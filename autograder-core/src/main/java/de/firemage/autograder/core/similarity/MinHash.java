@@ -0,0 +1,73 @@
+package de.firemage.autograder.core.similarity;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Computes MinHash signatures of sets of integers.
+ * <p>
+ * The fraction of positions in which the signatures of two sets agree is an estimate of the jaccard
+ * similarity of the sets. The hash functions are derived from a fixed seed, so signatures that have been
+ * persisted in an earlier run can be compared with new ones.
+ */
+final class MinHash {
+    static final int SIGNATURE_LENGTH = 128;
+    static final long SEED = 0x5EED_CAFEL;
+    private static final long[] SEEDS = new SplittableRandom(SEED).longs(SIGNATURE_LENGTH).toArray();
+
+    private MinHash() {
+    }
+
+    /**
+     * Combines each {@code size} consecutive tokens into a shingle.
+     *
+     * @param tokens the tokens
+     * @param size the number of tokens per shingle
+     * @return the distinct shingles, if there are less than {@code size} tokens, all tokens form a single shingle
+     */
+    static int[] shingles(int[] tokens, int size) {
+        int count = Math.max(tokens.length - size + 1, 1);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            int hash = 1;
+            for (int j = i; j < Math.min(i + size, tokens.length); j++) {
+                hash = 31 * hash + tokens[j];
+            }
+            result[i] = hash;
+        }
+
+        return Arrays.stream(result).distinct().toArray();
+    }
+
+    static int[] signatureOf(int[] values) {
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (int value : values) {
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                signature[i] = Math.min(signature[i], hash(value, SEEDS[i]));
+            }
+        }
+
+        return signature;
+    }
+
+    static double estimateSimilarity(int[] left, int[] right) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (left[i] == right[i]) {
+                equal++;
+            }
+        }
+
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    private static int hash(int value, long seed) {
+        // the finalizer of MurmurHash3, so that every bit of the value affects every bit of the hash
+        long z = value + seed;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (z ^ (z >>> 33));
+    }
+}
@@ -0,0 +1,11 @@
+package de.firemage.autograder.core.similarity;
+
+/**
+ * Two methods from different submissions that are structurally similar.
+ *
+ * @param left the method that has been in the index before
+ * @param right the method that has been added to the index
+ * @param similarity the estimated similarity of the two methods, between 0 and 1
+ */
+public record SimilarMethodPair(MethodFingerprint left, MethodFingerprint right, double similarity) {
+}
@@ -0,0 +1,311 @@
+package de.firemage.autograder.core.similarity;
+
+import de.firemage.autograder.core.CodePosition;
+import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.integrated.ElementIndex;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
+import spoon.processing.TraversalStrategy;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.code.CtStatementList;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtTypeMember;
+import spoon.reflect.path.CtRole;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * An index of the methods of many submissions, which finds structurally similar methods in different submissions.
+ * <p>
+ * Each method is turned into the sequence of the structural hash codes of its statements. Consecutive statements
+ * are combined into shingles and the set of shingles is summarized by a {@link MinHash} signature.
+ * The signatures are split into bands and only methods that agree in at least one band are compared
+ * (locality-sensitive hashing), so adding a submission does not compare it with every method in the index.
+ * <p>
+ * The index can be saved to a file and loaded again, so that later submissions can be compared with the
+ * submissions of earlier runs. The file records how the fingerprints have been computed and is rejected
+ * if this differs from the current computation, because the signatures would no longer be comparable.
+ */
+public final class SimilarityIndex {
+    static final int FORMAT_VERSION = 2;
+    // must be increased when the way the statements of a method are turned into tokens changes
+    private static final int FINGERPRINT_VERSION = 1;
+    private static final int SHINGLE_SIZE = 3;
+    // methods with fewer statements are similar to a lot of other methods by chance
+    private static final int MINIMUM_STATEMENTS = 5;
+    // with 32 bands of 4 rows, methods with a similarity of 0.5 are found with a probability of about 87%
+    private static final int BANDS = 32;
+    private static final int ROWS = MinHash.SIGNATURE_LENGTH / BANDS;
+    static final String ALGORITHM = describeAlgorithm();
+
+    private final List<MethodFingerprint> fingerprints;
+    // the positions in fingerprints by the band and the hash of the rows of the signature in that band
+    private final Map<Long, List<Integer>> buckets;
+
+    private SimilarityIndex(List<MethodFingerprint> fingerprints) {
+        this.fingerprints = new ArrayList<>();
+        this.buckets = new HashMap<>();
+        fingerprints.forEach(this::insert);
+    }
+
+    /**
+     * Creates an index that does not contain any methods.
+     *
+     * @return the new index
+     */
+    public static SimilarityIndex empty() {
+        return new SimilarityIndex(List.of());
+    }
+
+    /**
+     * Reads an index that has been written with {@link #save(Path)}.
+     *
+     * @param path the file to read, if it does not exist, an empty index is returned
+     * @return the index
+     * @throws IOException if the file could not be read or is not an index
+     */
+    public static SimilarityIndex load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return empty();
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int version = input.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported similarity index version %d in '%s'".formatted(version, path));
+            }
+
+            String algorithm = input.readUTF();
+            if (!algorithm.equals(ALGORITHM)) {
+                throw new IOException("The similarity index '%s' has been created with a different fingerprint algorithm".formatted(path));
+            }
+
+            List<MethodFingerprint> fingerprints = new ArrayList<>();
+            for (Object fingerprint : (List<?>) input.readObject()) {
+                fingerprints.add((MethodFingerprint) fingerprint);
+            }
+
+            return new SimilarityIndex(fingerprints);
+        } catch (ClassNotFoundException | ClassCastException exception) {
+            throw new IOException("'%s' is not a similarity index".formatted(path), exception);
+        }
+    }
+
+    /**
+     * Writes the index to the given file, replacing the file if it exists.
+     *
+     * @param path the file to write to
+     * @throws IOException if the file could not be written
+     */
+    public void save(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        // write to a temporary file first, so the old index is kept if writing fails
+        Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(ALGORITHM);
+                output.writeObject(new ArrayList<>(this.fingerprints));
+            }
+
+            Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Computes the fingerprints of all methods and constructors of the submission.
+     *
+     * @param submission the name under which the methods are stored in the index
+     * @param file the compiled submission
+     * @return the fingerprints of the methods that are large enough to be compared
+     */
+    public static List<MethodFingerprint> fingerprint(String submission, UploadedFile file) {
+        List<MethodFingerprint> result = new ArrayList<>();
+
+        List<CtElement> executables = ElementIndex.getFor(file.getModel().getModel())
+            .getElements(Set.of(CtExecutable.class, CtTypeMember.class), TraversalStrategy.PRE_ORDER);
+        for (CtElement element : executables) {
+            CtExecutable<?> ctExecutable = (CtExecutable<?>) element;
+            if (ctExecutable.isImplicit() || ctExecutable.getBody() == null || !ctExecutable.getPosition().isValidPosition()) {
+                continue;
+            }
+
+            int[] tokens = ctExecutable.getBody()
+                .getElements(new TypeFilter<>(CtStatement.class))
+                .stream()
+                .filter(SimilarityIndex::isRelevantStatement)
+                .mapToInt(StructuralHashCodeVisitor::computeHashCode)
+                .toArray();
+
+            if (tokens.length < MINIMUM_STATEMENTS) {
+                continue;
+            }
+
+            CodePosition position = CodePosition.fromSourcePosition(ctExecutable.getPosition(), ctExecutable, file.getSource());
+            result.add(new MethodFingerprint(
+                submission,
+                ((CtTypeMember) ctExecutable).getDeclaringType().getQualifiedName() + "#" + ctExecutable.getSignature(),
+                position.file(),
+                position.startLine(),
+                tokens.length,
+                MinHash.signatureOf(MinHash.shingles(tokens, SHINGLE_SIZE))
+            ));
+        }
+
+        return result;
+    }
+
+    private static boolean isRelevantStatement(CtStatement ctStatement) {
+        // the statements of a block are already part of the sequence
+        return !(ctStatement instanceof CtComment)
+            && !(ctStatement instanceof CtStatementList)
+            && !ctStatement.isImplicit();
+    }
+
+    /**
+     * Adds the methods of a submission to the index and returns the methods of other submissions
+     * that are similar to them.
+     * <p>
+     * If the submission is already in the index, its previous methods are replaced,
+     * even if it does not have any methods now.
+     *
+     * @param submission the name of the submission
+     * @param methods the fingerprints of the new methods, all of them must belong to the submission
+     * @param threshold the minimum estimated similarity of a reported pair, between 0 and 1
+     * @return the similar pairs in the order of the new methods
+     * @throws IllegalArgumentException if one of the methods belongs to a different submission
+     */
+    public List<SimilarMethodPair> add(String submission, Collection<MethodFingerprint> methods, double threshold) {
+        for (MethodFingerprint method : methods) {
+            if (!method.submission().equals(submission)) {
+                throw new IllegalArgumentException("The method '%s' does not belong to the submission '%s'".formatted(method, submission));
+            }
+        }
+
+        this.remove(submission);
+
+        List<SimilarMethodPair> result = new ArrayList<>();
+        for (MethodFingerprint method : methods) {
+            BitSet candidates = new BitSet(this.fingerprints.size());
+            for (int band = 0; band < BANDS; band++) {
+                for (int candidate : this.buckets.getOrDefault(bucketOf(method, band), List.of())) {
+                    candidates.set(candidate);
+                }
+            }
+
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                MethodFingerprint candidate = this.fingerprints.get(i);
+                if (candidate.submission().equals(submission)) {
+                    continue;
+                }
+
+                double similarity = candidate.estimateSimilarity(method);
+                if (similarity >= threshold) {
+                    result.add(new SimilarMethodPair(candidate, method, similarity));
+                }
+            }
+
+            this.insert(method);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of methods in the index.
+     *
+     * @return the number of methods
+     */
+    public int size() {
+        return this.fingerprints.size();
+    }
+
+    private void remove(String submission) {
+        if (this.fingerprints.stream().noneMatch(method -> method.submission().equals(submission))) {
+            return;
+        }
+
+        List<MethodFingerprint> remaining = this.fingerprints.stream()
+            .filter(method -> !method.submission().equals(submission))
+            .toList();
+        this.fingerprints.clear();
+        this.buckets.clear();
+        remaining.forEach(this::insert);
+    }
+
+    private void insert(MethodFingerprint method) {
+        int position = this.fingerprints.size();
+        this.fingerprints.add(method);
+        for (int band = 0; band < BANDS; band++) {
+            this.buckets.computeIfAbsent(bucketOf(method, band), key -> new ArrayList<>()).add(position);
+        }
+    }
+
+    private static long bucketOf(MethodFingerprint method, int band) {
+        int[] rows = Arrays.copyOfRange(method.signature(), band * ROWS, (band + 1) * ROWS);
+        return ((long) band << Integer.SIZE) | (Arrays.hashCode(rows) & 0xFFFFFFFFL);
+    }
+
+    private static String describeAlgorithm() {
+        // The structural hash codes depend on the ordinals of the roles and the names of the classes of spoon,
+        // which might change with every version of spoon.
+        String description = "fingerprint=%d;shingles=%d;statements=%d;minhash=%d,%d;spoon=%s;roles=%s".formatted(
+            FINGERPRINT_VERSION,
+            SHINGLE_SIZE,
+            MINIMUM_STATEMENTS,
+            MinHash.SIGNATURE_LENGTH,
+            MinHash.SEED,
+            spoonVersion(),
+            Arrays.toString(CtRole.values())
+        );
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException exception) {
+            // every java platform has to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static String spoonVersion() {
+        try (InputStream input = CtElement.class.getResourceAsStream("/META-INF/maven/fr.inria.gforge.spoon/spoon-core/pom.properties")) {
+            if (input == null) {
+                return "unknown";
+            }
+
+            Properties properties = new Properties();
+            properties.load(input);
+            return properties.getProperty("version", "unknown");
+        } catch (IOException exception) {
+            return "unknown";
+        }
+    }
+}
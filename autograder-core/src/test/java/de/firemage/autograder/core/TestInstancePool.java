@@ -0,0 +1,83 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.Reusable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestInstancePool {
+    private static final class Instance implements Reusable {
+        private final boolean isReusable;
+        private boolean hasState = true;
+
+        private Instance(boolean isReusable) {
+            this.isReusable = isReusable;
+        }
+
+        @Override
+        public boolean isReusable() {
+            return this.isReusable;
+        }
+
+        @Override
+        public void reset() {
+            this.hasState = false;
+        }
+    }
+
+    @Test
+    void testReleasedInstanceIsReused() {
+        List<Class<?>> created = new ArrayList<>();
+        InstancePool<Instance> pool = new InstancePool<>(type -> {
+            created.add(type);
+            return new Instance(true);
+        });
+
+        Instance first = pool.acquire(Instance.class);
+        // an acquired instance is not handed out again
+        Instance second = pool.acquire(Instance.class);
+        assertNotSame(first, second);
+
+        pool.release(first);
+        assertFalse(first.hasState);
+        assertSame(first, pool.acquire(Instance.class));
+        assertEquals(List.of(Instance.class, Instance.class), created);
+    }
+
+    @Test
+    void testInstanceThatIsNotReusableIsDropped() {
+        InstancePool<Instance> pool = new InstancePool<>(type -> new Instance(false));
+
+        Instance first = pool.acquire(Instance.class);
+        pool.release(first);
+
+        // the instance might still be referenced by the submission it was used for
+        assertTrue(first.hasState);
+        assertNotSame(first, pool.acquire(Instance.class));
+    }
+
+    @Test
+    void testFoundChecksAreNotShared() {
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US));
+
+        List<Check> first = linter.findChecksForProblemTypes(List.of(ProblemType.AVOID_LABELS));
+        List<Check> second = linter.findChecksForProblemTypes(List.of(ProblemType.AVOID_LABELS));
+
+        assertFalse(first.isEmpty());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i).getClass(), second.get(i).getClass());
+            assertNotSame(first.get(i), second.get(i));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.api.Metric;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestMetricsCollector {
+    @Test
+    void testFinishedStepsAreRecorded() {
+        MetricsCollector metrics = new MetricsCollector();
+
+        MetricsCollector.Measurement outer = metrics.start(Metric.Kind.LINTER, "outer");
+        MetricsCollector.Measurement inner = metrics.start(Metric.Kind.CHECK, "inner");
+        long[] allocated = new long[1 << 16];
+        Metric innerMetric = inner.finish(3);
+        Metric outerMetric = outer.finish(0);
+
+        // the metrics are in the order in which the steps finished
+        assertEquals(List.of(innerMetric, outerMetric), metrics.getMetrics());
+        assertEquals(Metric.Kind.CHECK, innerMetric.kind());
+        assertEquals("inner", innerMetric.name());
+        assertEquals(3, innerMetric.problemCount());
+
+        assertTrue(innerMetric.wallTimeNanos() >= 0);
+        assertTrue(outerMetric.wallTimeNanos() >= innerMetric.wallTimeNanos());
+        assertTrue(innerMetric.cpuTimeNanos() >= -1);
+        // the array has been allocated while the inner step was measured
+        if (innerMetric.allocatedBytes() != -1) {
+            assertTrue(innerMetric.allocatedBytes() >= (long) Long.BYTES * allocated.length, () -> String.valueOf(innerMetric));
+        }
+    }
+
+    @Test
+    void testStepsOnDifferentThreadsAreRecorded() throws Exception {
+        MetricsCollector metrics = new MetricsCollector();
+        int steps = 64;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<Metric>> futures = new ArrayList<>();
+            for (int i = 0; i < steps; i++) {
+                String name = "step-" + i;
+                futures.add(executor.submit(() -> metrics.start(Metric.Kind.CHECK, name).finish(0)));
+            }
+
+            for (Future<Metric> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(steps, metrics.getMetrics().size());
+        assertEquals(steps, metrics.getMetrics().stream().map(Metric::name).distinct().count());
+    }
+
+    private static List<String> lint(Path submission, List<Metric> metrics) throws LinterException, IOException {
+        AbstractLinter.Builder builder = AbstractLinter.builder(Locale.US).threads(1).tempLocation(TempLocation.random());
+        if (metrics != null) {
+            builder.metricsConsumer(metrics::add);
+        }
+
+        Linter linter = new Linter(builder);
+        return linter.checkFileFallible(
+                submission,
+                JavaVersion.JAVA_17,
+                CheckConfiguration.fromProblemTypes(List.of(ProblemType.values())),
+                status -> {},
+                FailureInformation.failFastConsumer()
+            )
+            .stream()
+            .map(problem -> "%s %s %s".formatted(problem.getCheckName(), problem.getProblemType(), problem.getPosition()))
+            .toList();
+    }
+
+    @Test
+    void testLinterReportsMetricsOfAllSteps() throws LinterException, IOException {
+        // the `System.getProperty("user.dir")` is the path to the autograder-core directory
+        Path submission = Path.of(System.getProperty("user.dir"), "..", "test_submissions", "A1", "code");
+
+        List<Metric> metrics = new ArrayList<>();
+        List<String> problems = lint(submission, metrics);
+
+        // collecting metrics does not change the result
+        assertEquals(lint(submission, null), problems);
+
+        Set<Metric.Kind> kinds = metrics.stream().map(Metric::kind).collect(Collectors.toCollection(() -> EnumSet.noneOf(Metric.Kind.class)));
+        assertEquals(EnumSet.allOf(Metric.Kind.class), kinds);
+        assertEquals(1, metrics.stream().filter(metric -> metric.kind() == Metric.Kind.COMPILATION).count());
+
+        // a check can not report more problems than have been measured for it
+        Map<String, Integer> measuredProblems = metrics.stream()
+            .filter(metric -> metric.kind() == Metric.Kind.CHECK)
+            .collect(Collectors.toMap(Metric::name, Metric::problemCount, Integer::sum));
+        assertFalse(measuredProblems.isEmpty());
+        Map<String, Long> reportedProblems = problems.stream()
+            .map(problem -> problem.substring(0, problem.indexOf(' ')))
+            .filter(measuredProblems::containsKey)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertFalse(reportedProblems.isEmpty());
+        reportedProblems.forEach((check, count) -> assertTrue(count <= measuredProblems.get(check), check));
+    }
+}
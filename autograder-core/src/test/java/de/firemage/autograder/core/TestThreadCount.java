@@ -0,0 +1,44 @@
+package de.firemage.autograder.core;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TestThreadCount {
+    private static List<String> lint(int threads, Path submission, CheckConfiguration checkConfiguration) throws LinterException, IOException {
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US).threads(threads).tempLocation(TempLocation.random()));
+        return linter.checkFileFallible(submission, JavaVersion.JAVA_17, checkConfiguration, status -> {}, FailureInformation.failFastConsumer())
+            .stream()
+            .map(problem -> "%s %s %s %s".formatted(
+                problem.getCheckName(),
+                problem.getProblemType(),
+                problem.getPosition(),
+                linter.translateMessage(problem.getExplanation())
+            ))
+            .toList();
+    }
+
+    @Test
+    void testProblemsDoNotDependOnThreadCount() throws LinterException, IOException {
+        // the `System.getProperty("user.dir")` is the path to the autograder-core directory
+        Path submission = Path.of(System.getProperty("user.dir"), "..", "test_submissions", "A1", "code");
+        CheckConfiguration checkConfiguration = CheckConfiguration.fromProblemTypes(List.of(ProblemType.values()));
+
+        List<String> expected = lint(1, submission, checkConfiguration);
+        assertFalse(expected.isEmpty());
+
+        assertEquals(expected, lint(4, submission, checkConfiguration));
+    }
+}
@@ -0,0 +1,131 @@
+package de.firemage.autograder.core.cache;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.CodePosition;
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.LocalizedMessage;
+import de.firemage.autograder.core.LocalizedMessageForProblem;
+import de.firemage.autograder.core.Problem;
+import de.firemage.autograder.core.ProblemType;
+import de.firemage.autograder.core.check.Check;
+import de.firemage.autograder.core.check.complexity.RedundantAssignment;
+import de.firemage.autograder.core.check.complexity.SelfAssignmentCheck;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestResultCache {
+    private static List<String> lint(Path submission, Path cacheDirectory) throws LinterException, IOException {
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .threads(1)
+            .tempLocation(TempLocation.random())
+            .cacheDirectory(cacheDirectory));
+
+        return linter.checkFileFallible(
+                submission,
+                JavaVersion.JAVA_17,
+                CheckConfiguration.fromProblemTypes(List.of(ProblemType.values())),
+                status -> {},
+                FailureInformation.failFastConsumer()
+            )
+            .stream()
+            .map(problem -> "%s %s %s %s".formatted(
+                problem.getCheckName(),
+                problem.getProblemType(),
+                problem.getPosition(),
+                linter.translateMessage(problem.getExplanation())
+            ))
+            .toList();
+    }
+
+    @Test
+    void testCachedProblemsAreTheSame(@TempDir Path cacheDirectory) throws LinterException, IOException {
+        // the `System.getProperty("user.dir")` is the path to the autograder-core directory
+        Path submission = Path.of(System.getProperty("user.dir"), "..", "test_submissions", "A1", "code");
+
+        List<String> expected = lint(submission, null);
+        assertFalse(expected.isEmpty());
+
+        // the first run stores the results, the second one reads them from the cache
+        assertEquals(expected, lint(submission, cacheDirectory));
+        assertEquals(expected, lint(submission, cacheDirectory));
+    }
+
+    @Test
+    void testConcurrentStoresAreKept(@TempDir Path cacheDirectory) throws Exception {
+        SourceInfo source = StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", "public class Test {}");
+        ResultCache cache = new ResultCache(cacheDirectory);
+        // both threads update the entry that has been loaded before any results were stored
+        ResultCache.Entry entry = cache.load(source);
+
+        Object element = new Object() {
+            @Override
+            public String toString() {
+                return "a = a";
+            }
+        };
+        List<Check> checks = List.of(new SelfAssignmentCheck(), new RedundantAssignment());
+        List<Problem> problems = new ArrayList<>();
+        for (Check check : checks) {
+            problems.add(new Problem(
+                check,
+                new CodePosition(source, source.compilationUnits().getFirst().path(), 1, 1, 1, 1),
+                new LocalizedMessageForProblem(
+                    new LocalizedMessage("self-assignment-exp", Map.of("lhs", element, "rhs", element)),
+                    ProblemType.REDUNDANT_SELF_ASSIGNMENT
+                ),
+                ProblemType.REDUNDANT_SELF_ASSIGNMENT
+            ) {
+            });
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(checks.size())) {
+            List<Future<?>> stores = new ArrayList<>();
+            for (int i = 0; i < checks.size(); i++) {
+                int index = i;
+                stores.add(executor.submit(() -> {
+                    cache.store(entry, List.of(checks.get(index)), List.of(problems.get(index)));
+                    return null;
+                }));
+            }
+
+            for (Future<?> store : stores) {
+                store.get();
+            }
+        }
+
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US));
+        ResultCache.Entry loaded = cache.load(source);
+        for (int i = 0; i < checks.size(); i++) {
+            assertTrue(loaded.contains(checks.get(i)));
+
+            List<ResultCache.OrderedProblem> cachedProblems = loaded.problemsOf(checks.get(i), source);
+            assertEquals(1, cachedProblems.size());
+            // the parameters are formatted like the parameters of the original problem
+            assertEquals(
+                linter.translateMessage(problems.get(i).getExplanation()),
+                linter.translateMessage(cachedProblems.getFirst().problem().getExplanation())
+            );
+        }
+    }
+}
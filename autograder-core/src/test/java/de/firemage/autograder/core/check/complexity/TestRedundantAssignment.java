@@ -92,4 +92,60 @@ class TestRedundantAssignment extends AbstractCheckTest {
 
         problems.assertExhausted();
     }
+
+    @Test
+    void testOverwrittenInBranch() throws IOException, LinterException {
+        ProblemIterator problems = this.checkIterator(StringSourceInfo.fromSourceString(
+            JavaVersion.JAVA_17,
+            "Test",
+            """
+                public class Test {
+                    public void test(boolean flag) {
+                        int a = 5;
+                        System.out.println(a);
+
+                        if (flag) {
+                            a = 3;
+                            a = 4;
+                        }
+
+                        System.out.println(a);
+                    }
+                }
+                """
+        ), PROBLEM_TYPES);
+
+        assertEqualsRedundant(problems.next(), "a");
+
+        problems.assertExhausted();
+    }
+
+    @Test
+    void testAssignmentInSwitchExpression() throws IOException, LinterException {
+        ProblemIterator problems = this.checkIterator(StringSourceInfo.fromSourceString(
+            JavaVersion.JAVA_17,
+            "Test",
+            """
+                public class Test {
+                    private static int f() {
+                        return 3;
+                    }
+
+                    public int test(int k) {
+                        int x = 0;
+                        int y = switch (k) {
+                            case 1 -> {
+                                x = f();
+                                yield x;
+                            }
+                            default -> 2;
+                        };
+                        return y;
+                    }
+                }
+                """
+        ), PROBLEM_TYPES);
+
+        problems.assertExhausted();
+    }
 }
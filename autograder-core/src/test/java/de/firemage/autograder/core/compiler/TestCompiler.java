@@ -0,0 +1,225 @@
+package de.firemage.autograder.core.compiler;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.core.file.CompilationUnit;
+import de.firemage.autograder.core.file.SourceInfo;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCompiler {
+    private static final String CODE = """
+        import java.util.ArrayList;
+        import java.util.List;
+
+        public class Test {
+            private final List<String> values = new ArrayList<>();
+
+            public Runnable printer() {
+                return new Runnable() {
+                    @Override
+                    public void run() {
+                        System.out.println(values);
+                    }
+                };
+            }
+
+            public static class Inner {
+                public int value() {
+                    return 42;
+                }
+            }
+        }
+        """;
+
+    private static final String SUPPRESSED_CODE = """
+        import java.util.ArrayList;
+        import java.util.List;
+
+        public class Test {
+            @SuppressWarnings({
+                "unchecked",
+                "rawtypes"
+            })
+            public List<String> test(Object value) {
+                List raw = new ArrayList();
+                raw.add(value);
+                return (List<String>) value;
+            }
+        }
+        """;
+
+    private static CompilationResult compile(SourceInfo source) throws IOException, CompilationFailureException {
+        return new Compiler(JavaVersion.JAVA_17).compileInMemory(source).orElseThrow();
+    }
+
+    /**
+     * Compiles the code with javac to a directory, like the compiler did before the classes were kept in memory.
+     */
+    private static Map<String, byte[]> compileToDirectory(SourceInfo source, Path directory) throws IOException {
+        JavaCompiler compiler = CompilerProvider.findSystemCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.US, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(directory.toFile()));
+
+            List<JavaFileObject> files = new ArrayList<>();
+            for (CompilationUnit compilationUnit : source.compilationUnits()) {
+                files.add(compilationUnit.toJavaFileObject());
+            }
+
+            assertTrue(compiler.getTask(
+                null,
+                fileManager,
+                null,
+                List.of("-Xlint:all", "-Xlint:-processing", "-Xlint:-serial", "--release=" + JavaVersion.JAVA_17.getVersionString()),
+                null,
+                files
+            ).call());
+        }
+
+        Map<String, byte[]> result = new TreeMap<>();
+        try (Stream<Path> classFiles = Files.walk(directory)) {
+            for (Path classFile : classFiles.filter(path -> path.toString().endsWith(".class")).toList()) {
+                String name = directory.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), ".");
+                result.put(name.substring(0, name.length() - ".class".length()), Files.readAllBytes(classFile));
+            }
+        }
+
+        return result;
+    }
+
+    private static void assertSameClasses(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    void testClassesAreTheSameAsOnDisk(@TempDir Path directory) throws IOException, CompilationFailureException {
+        SourceInfo source = StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", CODE);
+
+        CompilationResult result = compile(source);
+
+        assertEquals(Set.of("Test", "Test$1", "Test$Inner"), result.classes().keySet());
+        assertSameClasses(compileToDirectory(source, directory), result.classes());
+    }
+
+    @Test
+    void testClassesAreLoadedFromMemory() throws Exception {
+        CompilationResult result = compile(StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", CODE));
+        ClassLoader classLoader = result.createClassLoader(this.getClass().getClassLoader());
+
+        Class<?> inner = classLoader.loadClass("Test$Inner");
+        assertSame(classLoader, inner.getClassLoader());
+        assertEquals(42, inner.getMethod("value").invoke(inner.getConstructor().newInstance()));
+        // loading the class again returns the same class
+        assertSame(inner, classLoader.loadClass("Test$Inner"));
+
+        // spoon reads the bytecode of classes as resources
+        try (InputStream input = classLoader.getResourceAsStream("Test$Inner.class")) {
+            assertNotNull(input);
+            assertArrayEquals(result.classes().get("Test$Inner"), input.readAllBytes());
+        }
+
+        // classes of the parent are still loaded by the parent
+        assertSame(String.class, classLoader.loadClass("java.lang.String"));
+    }
+
+    private static List<String> describe(List<CompilationDiagnostic> diagnostics) {
+        return diagnostics.stream()
+            .map(diagnostic -> "%d:%d %s".formatted(diagnostic.line(), diagnostic.column(), diagnostic.code()))
+            .toList();
+    }
+
+    @Test
+    void testSuppressedWarningsAreReported(@TempDir Path directory) throws IOException, CompilationFailureException {
+        SourceInfo source = StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", SUPPRESSED_CODE);
+        // the same code without the annotation, the lines of the annotation are kept empty
+        SourceInfo unsuppressed = StringSourceInfo.fromSourceString(
+            JavaVersion.JAVA_17,
+            "Test",
+            SUPPRESSED_CODE.replaceAll("(?s)@SuppressWarnings\\(.+?\\)", "\n".repeat(3))
+        );
+
+        CompilationResult result = compile(source);
+        List<String> diagnostics = describe(result.diagnostics());
+
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> diagnostic.contains("unchecked")), diagnostics::toString);
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> diagnostic.contains("raw")), diagnostics::toString);
+        // the positions refer to the original code
+        assertEquals(describe(compile(unsuppressed).diagnostics()), diagnostics);
+
+        // the annotation is not part of the class files, so they are the same as for the original code
+        assertSameClasses(compileToDirectory(source, directory), result.classes());
+    }
+
+    @Test
+    void testOnlyAnnotationsAreRemoved() {
+        assertEquals(
+            "@SuppressWarnings({" + " ".repeat(9) + "}) int a;",
+            SuppressWarningsRemover.removeFrom("@SuppressWarnings(\"unchecked\") int a;")
+        );
+        assertEquals(
+            "@java.lang.SuppressWarnings (\n{ }) int a;",
+            SuppressWarningsRemover.removeFrom("@java.lang.SuppressWarnings (\n\"a\") int a;")
+        );
+
+        // a parenthesis in the arguments does not end them
+        assertEquals(
+            "@SuppressWarnings({" + " ".repeat(16) + "}) int a;",
+            SuppressWarningsRemover.removeFrom("@SuppressWarnings(value = (\")\" + \"\")) int a;")
+        );
+
+        // the annotation is not used in comments or literals
+        for (String code : List.of(
+            "String s = \"@SuppressWarnings(\\\"unchecked\\\")\";",
+            "String s = \"\"\"\n@SuppressWarnings(\"unchecked\")\"\"\";",
+            "// @SuppressWarnings(\"unchecked\")",
+            "/* @SuppressWarnings(\"unchecked\") */",
+            "char c = '\"'; String s = \"@SuppressWarnings(x)\";",
+            "@Override @SuppressWarningsFor(\"unchecked\") void a() {}"
+        )) {
+            assertEquals(code, SuppressWarningsRemover.removeFrom(code));
+        }
+    }
+
+    @Test
+    void testLiteralsAreNotModified(@TempDir Path directory) throws IOException, CompilationFailureException {
+        SourceInfo source = StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", """
+            public class Test {
+                // @SuppressWarnings("unchecked")
+                public static final String ANNOTATION = "@SuppressWarnings(\\"unchecked\\")";
+
+                @SuppressWarnings(value = { "unchecked", ANNOTATION + ")" })
+                public String test() {
+                    return ANNOTATION;
+                }
+            }
+            """);
+
+        // the constant is part of the class file
+        assertSameClasses(compileToDirectory(source, directory), compile(source).classes());
+    }
+}
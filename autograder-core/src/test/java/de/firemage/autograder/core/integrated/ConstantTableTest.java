@@ -0,0 +1,116 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtReturn;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ConstantTableTest {
+    protected final TempLocation tempLocation;
+
+    ConstantTableTest() {
+        tempLocation = TempLocation.random();
+    }
+
+    @Test
+    void testVariablesAreResolvedOnce() throws LinterException, IOException {
+        CtType<?> type = buildType("""
+            public class Test {
+                private static final int LIMIT = 5;
+                private int counter = 0;
+
+                public int test() {
+                    counter += 1;
+                    return LIMIT + 1;
+                }
+            }
+            """);
+
+        CtField<?> limit = type.getField("LIMIT");
+        CtField<?> counter = type.getField("counter");
+
+        assertTrue(VariableUtil.isEffectivelyFinal(limit));
+        assertFalse(VariableUtil.isEffectivelyFinal(counter));
+        assertSame(limit.getDefaultExpression(), VariableUtil.getConstantValue(limit).orElseThrow());
+        assertTrue(VariableUtil.getConstantValue(counter).isEmpty());
+
+        ConstantTable table = ConstantTable.getFor(limit);
+        assertSame(table, ConstantTable.getFor(counter));
+        assertTrue(table.getVariable(limit, variable -> fail("the variable should already be in the table")).isEffectivelyFinal());
+    }
+
+    @Test
+    void testResolvedConstantIsCopied() throws LinterException, IOException {
+        CtType<?> type = buildType("""
+            public class Test {
+                private static final int LIMIT = 5;
+
+                public int test() {
+                    return LIMIT;
+                }
+            }
+            """);
+
+        CtMethod<?> method = type.getMethodsByName("test").get(0);
+        CtExpression<?> expression = ((CtReturn<?>) method.getBody().getStatement(0)).getReturnedExpression();
+
+        CtExpression<?> first = ExpressionUtil.resolveConstant(expression);
+        CtExpression<?> second = ExpressionUtil.resolveConstant(expression);
+
+        assertInstanceOf(CtLiteral.class, first);
+        assertEquals(5, ((CtLiteral<?>) first).getValue());
+        // each caller gets its own copy that it can modify
+        assertNotSame(first, second);
+        assertEquals(first, second);
+
+        assertTrue(ExpressionUtil.isConstantExpression(expression));
+        ConstantTable table = ConstantTable.getFor(expression);
+        assertTrue(table.isConstantExpression(expression, e -> fail("the expression should already be in the table")));
+
+        // copies of the model are not kept in the table, because they might be modified
+        CtExpression<?> copy = expression.clone();
+        ExpressionUtil.resolveConstant(copy);
+        List<CtExpression<?>> computed = new ArrayList<>();
+        table.getResolvedConstant(copy, e -> {
+            computed.add(e);
+            return e.clone();
+        });
+        assertEquals(List.of(copy), computed);
+    }
+
+    private CtType<?> buildType(String code) throws LinterException, IOException {
+        UploadedFile file = UploadedFile.build(
+            StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", code),
+            this.tempLocation,
+            status -> {
+            },
+            null
+        );
+        assertNotNull(file, "Could not compile the code");
+
+        CodeModel model = file.getModel();
+        return model.getModel().getAllTypes().iterator().next();
+    }
+}
@@ -0,0 +1,189 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.processing.AbstractProcessor;
+import spoon.processing.TraversalStrategy;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtLambda;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.code.CtVariableRead;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeMember;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.modelobs.EmptyModelChangeListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static de.firemage.autograder.core.integrated.ModelFixture.assertSameElements;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElementIndexTest {
+    private static final List<Class<? extends CtElement>> TYPES = List.of(
+        CtElement.class,
+        CtStatement.class,
+        CtInvocation.class,
+        CtVariableRead.class,
+        CtTypeReference.class,
+        CtLambda.class,
+        CtComment.class
+    );
+
+    private static final String CODE = """
+        public class Test {
+            private int value;
+
+            public int test(int x) {
+                int y = x + this.value;
+                if (y > 2) {
+                    Runnable runnable = () -> System.out.println(y);
+                    runnable.run();
+                }
+                return y;
+            }
+        }
+        """;
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    private static final class CollectingProcessor<E extends CtElement> extends AbstractProcessor<E> {
+        private final TraversalStrategy strategy;
+        private final List<CtElement> processed = new ArrayList<>();
+
+        private CollectingProcessor(Class<E> type, TraversalStrategy strategy) {
+            this.strategy = strategy;
+            this.clearProcessedElementType();
+            this.addProcessedElementType(type);
+        }
+
+        @Override
+        public TraversalStrategy getTraversalStrategy() {
+            return this.strategy;
+        }
+
+        @Override
+        public void process(E element) {
+            this.processed.add(element);
+        }
+    }
+
+    @Test
+    void testElementsAreTheSameAsScanningTheModel() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        ElementIndex index = ElementIndex.getFor(model);
+
+        for (Class<? extends CtElement> type : TYPES) {
+            assertSameElements(model.getElements(new TypeFilter<>(type)), index.getElements(Set.of(type), TraversalStrategy.PRE_ORDER));
+
+            for (CtType<?> ctType : model.getAllTypes()) {
+                assertSameElements(ctType.getElements(new TypeFilter<>(type)), index.getElements(ctType, type));
+            }
+        }
+
+        // an element must be an instance of all types
+        List<CtElement> executables = index.getElements(Set.of(CtExecutable.class, CtTypeMember.class), TraversalStrategy.PRE_ORDER);
+        assertFalse(executables.isEmpty());
+        assertSameElements(
+            model.getElements(new TypeFilter<>(CtExecutable.class)).stream().filter(CtTypeMember.class::isInstance).toList(),
+            executables
+        );
+    }
+
+    @Test
+    void testProcessorsVisitTheSameElements() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        ElementIndex index = ElementIndex.getFor(model);
+
+        for (TraversalStrategy strategy : TraversalStrategy.values()) {
+            for (Class<? extends CtElement> type : TYPES) {
+                CollectingProcessor<? extends CtElement> expected = new CollectingProcessor<>(type, strategy);
+                model.processWith(expected);
+
+                CollectingProcessor<? extends CtElement> actual = new CollectingProcessor<>(type, strategy);
+                index.processWith(actual);
+
+                assertSameElements(expected.processed, actual.processed);
+            }
+        }
+    }
+
+    @Test
+    void testIndexIsBuiltAgainAfterModelChange() throws LinterException, IOException {
+        CtModel model = this.fixture.buildModel(CODE);
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        ElementIndex index = ElementIndex.getFor(model);
+        CtMethod<?> method = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst();
+
+        // changing a property does not add or remove elements
+        method.setSimpleName("renamed");
+        assertSame(index, registry.find(ModelIndex.ELEMENT_INDEX));
+
+        Factory factory = method.getFactory();
+        CtLocalVariable<Integer> variable = factory.Code().createLocalVariable(
+            factory.Type().integerPrimitiveType(),
+            "added",
+            factory.Code().createLiteral(1)
+        );
+        method.getBody().insertBegin(variable);
+        assertNull(registry.find(ModelIndex.ELEMENT_INDEX));
+
+        ElementIndex rebuilt = ElementIndex.getFor(model);
+        assertSameElements(
+            model.getElements(new TypeFilter<>(CtLocalVariable.class)),
+            rebuilt.getElements(Set.of(CtLocalVariable.class), TraversalStrategy.PRE_ORDER)
+        );
+        assertSameElements(List.of(variable.getDefaultExpression()), ElementUtil.getElements(variable, CtLiteral.class));
+    }
+
+    @Test
+    void testCopiesAreLookedUpInTheCopy() throws LinterException, IOException {
+        CtModel model = this.fixture.buildModel(CODE);
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        ElementIndex index = ElementIndex.getFor(model);
+
+        CtMethod<?> copy = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst().clone();
+        // the copy is not part of the model, so creating it does not change the model
+        assertSame(index, registry.find(ModelIndex.ELEMENT_INDEX));
+        assertNull(index.getElements(copy, CtStatement.class));
+
+        List<CtStatement> statements = ElementUtil.getElements(copy, CtStatement.class);
+        assertFalse(statements.isEmpty());
+        assertSameElements(copy.getElements(new TypeFilter<>(CtStatement.class)), statements);
+    }
+
+    @Test
+    void testOutdatedIndexIsDetected() throws LinterException, IOException {
+        CtModel model = this.fixture.buildModel(CODE);
+        ElementIndex.getFor(model);
+        CtMethod<?> method = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst();
+
+        // without a listener, the registry does not notice that the model changes
+        Factory factory = method.getFactory();
+        factory.getEnvironment().setModelChangeListener(new EmptyModelChangeListener());
+        CtLocalVariable<Integer> variable = factory.Code().createLocalVariable(
+            factory.Type().integerPrimitiveType(),
+            "added",
+            factory.Code().createLiteral(1)
+        );
+        method.getBody().insertBegin(variable);
+
+        assertTrue(CoreUtil.isInDebugMode());
+        assertThrows(IllegalStateException.class, () -> ElementUtil.getElements(variable, CtLiteral.class));
+    }
+}
@@ -0,0 +1,132 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtBlock;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.modelobs.EmptyModelChangeListener;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnclosingScopesTest {
+    private static final List<Class<? extends CtElement>> SCOPES = List.of(
+        CtType.class,
+        CtExecutable.class,
+        CtMethod.class,
+        CtStatement.class,
+        CtBlock.class
+    );
+
+    private static final String CODE = """
+        public class Test {
+            private int value;
+
+            public int test(int x) {
+                int y = x + this.value;
+                if (y > 2) {
+                    Runnable runnable = () -> System.out.println(y);
+                    runnable.run();
+                }
+                return y;
+            }
+        }
+        """;
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    private static CtModel buildScopes(CtModel model) {
+        IndexRegistry.getFor(model).require(List.of(ModelIndex.ENCLOSING_SCOPES));
+        return model;
+    }
+
+    private CtModel buildScopes(String code) throws LinterException, IOException {
+        return buildScopes(this.fixture.buildModel(code));
+    }
+
+    private static CtLocalVariable<Integer> createVariable(Factory factory) {
+        return factory.Code().createLocalVariable(
+            factory.Type().integerPrimitiveType(),
+            "added",
+            factory.Code().createLiteral(1)
+        );
+    }
+
+    @Test
+    void testScopesAreTheSameAsWalkingUpTheParents() throws LinterException, IOException {
+        CtModel model = buildScopes(this.fixture.buildSampleModel());
+        assertNotNull(IndexRegistry.getFor(model).find(ModelIndex.ENCLOSING_SCOPES));
+
+        for (CtElement element : model.getElements(new TypeFilter<>(CtElement.class))) {
+            for (Class<? extends CtElement> scope : SCOPES) {
+                assertSame(element.getParent(scope), ElementUtil.getParent(element, scope));
+            }
+        }
+    }
+
+    @Test
+    void testScopesAreDroppedAfterModelChange() throws LinterException, IOException {
+        CtModel model = this.buildScopes(CODE);
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        EnclosingScopes scopes = registry.find(ModelIndex.ENCLOSING_SCOPES);
+        CtMethod<?> method = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst();
+
+        // changing a property does not add or remove elements
+        method.setSimpleName("renamed");
+        assertSame(scopes, registry.find(ModelIndex.ENCLOSING_SCOPES));
+
+        CtLocalVariable<Integer> variable = createVariable(method.getFactory());
+        method.getBody().insertBegin(variable);
+        assertNull(registry.find(ModelIndex.ENCLOSING_SCOPES));
+
+        CtLiteral<?> literal = (CtLiteral<?>) variable.getDefaultExpression();
+        assertSame(method, ElementUtil.getParent(literal, CtMethod.class));
+        assertSame(variable, ElementUtil.getParent(literal, CtStatement.class));
+        assertSame(method.getBody(), ElementUtil.getParent(variable, CtBlock.class));
+    }
+
+    @Test
+    void testCopiesUseTheirOwnParents() throws LinterException, IOException {
+        CtModel model = this.buildScopes(CODE);
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        EnclosingScopes scopes = registry.find(ModelIndex.ENCLOSING_SCOPES);
+
+        CtMethod<?> copy = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst().clone();
+        assertSame(scopes, registry.find(ModelIndex.ENCLOSING_SCOPES));
+
+        for (CtStatement statement : copy.getElements(new TypeFilter<>(CtStatement.class))) {
+            assertSame(copy, ElementUtil.getParent(statement, CtMethod.class));
+            assertNull(ElementUtil.getParent(statement, CtType.class));
+        }
+    }
+
+    @Test
+    void testOutdatedScopesAreDetected() throws LinterException, IOException {
+        CtModel model = this.buildScopes(CODE);
+        CtMethod<?> method = model.getElements(new TypeFilter<>(CtMethod.class)).getFirst();
+
+        // without a listener, the registry does not notice that the model changes
+        Factory factory = method.getFactory();
+        factory.getEnvironment().setModelChangeListener(new EmptyModelChangeListener());
+        CtLocalVariable<Integer> variable = createVariable(factory);
+        method.getBody().insertBegin(variable);
+
+        assertTrue(CoreUtil.isInDebugMode());
+        assertThrows(IllegalStateException.class, () -> ElementUtil.getParent(variable, CtMethod.class));
+    }
+}
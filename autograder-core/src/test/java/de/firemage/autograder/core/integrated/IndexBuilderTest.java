@@ -0,0 +1,126 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeParameter;
+import spoon.reflect.declaration.CtVariable;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IndexBuilderTest {
+    private static final List<ModelIndex> FUSED_INDEXES = List.of(
+        ModelIndex.ELEMENT_INDEX,
+        ModelIndex.METHOD_HIERARCHY,
+        ModelIndex.USES,
+        ModelIndex.DUPLICATE_CODE
+    );
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    /**
+     * Describes the answers of the indexes to all queries, with the elements replaced by their position in the model.
+     */
+    private static final class Snapshot {
+        private final Map<CtElement, Integer> positions = new IdentityHashMap<>();
+        private final List<String> entries = new ArrayList<>();
+
+        private Snapshot(CtModel model) {
+            for (CtElement element : model.getElements(new TypeFilter<>(CtElement.class))) {
+                this.positions.put(element, this.positions.size());
+            }
+        }
+
+        private String describe(CtElement element) {
+            Integer position = this.positions.get(element);
+            // elements that are not part of the model, like shadow types, are the same for every index
+            return position == null ? "(%s)".formatted(element) : position.toString();
+        }
+
+        private String describe(Collection<? extends CtElement> elements) {
+            return elements.stream().map(this::describe).toList().toString();
+        }
+
+        private void add(String query, CtElement element, Collection<? extends CtElement> result) {
+            this.entries.add("%s %s = %s".formatted(query, this.describe(element), this.describe(result)));
+        }
+
+        private void addUnordered(String query, CtElement element, Collection<MethodHierarchy.MethodOrLambda<?>> result) {
+            // the order of the methods in the hierarchy is not specified
+            List<String> executables = result.stream()
+                .map(MethodHierarchy.MethodOrLambda::getExecutable)
+                .map(this::describe)
+                .sorted()
+                .toList();
+            this.entries.add("%s %s = %s".formatted(query, this.describe(element), executables));
+        }
+    }
+
+    private static List<String> queryAll(CtModel model) {
+        Snapshot snapshot = new Snapshot(model);
+
+        for (CtMethod<?> method : model.getElements(new TypeFilter<CtMethod<?>>(CtMethod.class))) {
+            snapshot.addUnordered("super", method, MethodHierarchy.getDirectSuperMethods(method));
+            snapshot.addUnordered("overriding", method, MethodHierarchy.getDirectOverridingMethods(method));
+        }
+
+        for (CtVariable<?> variable : model.getElements(new TypeFilter<CtVariable<?>>(CtVariable.class))) {
+            snapshot.add("variable", variable, UsesFinder.variableUses(variable).toList());
+        }
+
+        for (CtExecutable<?> executable : model.getElements(new TypeFilter<CtExecutable<?>>(CtExecutable.class))) {
+            snapshot.add("executable", executable, UsesFinder.executableUses(executable).toList());
+        }
+
+        for (CtType<?> type : model.getElements(new TypeFilter<CtType<?>>(CtType.class))) {
+            snapshot.add("type", type, UsesFinder.typeUses(type).toList());
+            snapshot.add("subtypes", type, UsesFinder.subtypesOf(type, false).toList());
+        }
+
+        for (CtTypeParameter typeParameter : model.getElements(new TypeFilter<>(CtTypeParameter.class))) {
+            snapshot.add("type parameter", typeParameter, UsesFinder.typeParameterUses(typeParameter).toList());
+        }
+
+        // with a minimum size of 1, every duplicate is found
+        for (DuplicateCodeFinder.DuplicateCode duplicate : DuplicateCodeFinder.findDuplicates(model, 1)) {
+            snapshot.add("duplicate", duplicate.left().get(0), duplicate.left());
+            snapshot.add("duplicate of", duplicate.left().get(0), duplicate.right());
+        }
+
+        return snapshot.entries;
+    }
+
+    @Test
+    void testFusedTraversalIsTheSameAsSeparateScans() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        IndexRegistry registry = IndexRegistry.getFor(model);
+
+        registry.buildAll(FUSED_INDEXES);
+        List<String> fused = queryAll(model);
+        assertFalse(fused.isEmpty());
+        assertFalse(fused.stream().noneMatch(entry -> entry.startsWith("duplicate ")));
+
+        // each index scans the model on its own
+        for (ModelIndex index : FUSED_INDEXES.reversed()) {
+            registry.build(index);
+        }
+        assertEquals(fused, queryAll(model));
+
+        // the order in which the builders see an element does not matter
+        registry.buildAll(FUSED_INDEXES.reversed());
+        assertEquals(fused, queryAll(model));
+    }
+}
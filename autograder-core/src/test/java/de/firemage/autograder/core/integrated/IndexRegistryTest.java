@@ -0,0 +1,178 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.AbstractLinter;
+import de.firemage.autograder.api.CheckConfiguration;
+import de.firemage.autograder.api.FailureInformation;
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.api.Metric;
+import de.firemage.autograder.core.Linter;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import de.firemage.autograder.core.integrated.dataflow.Dataflow;
+import de.firemage.autograder.core.integrated.structure.StructuralHashCodeVisitor;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IndexRegistryTest {
+    private final ModelFixture fixture = new ModelFixture();
+
+    private UploadedFile buildSample() throws LinterException, IOException {
+        UploadedFile file = this.fixture.buildSampleFile();
+        // the model is built on first access
+        file.getModel().getModel();
+        return file;
+    }
+
+    private static List<String> builtIndexes(UploadedFile file) {
+        return file.getMetrics()
+            .getMetrics()
+            .stream()
+            .filter(metric -> metric.kind() == Metric.Kind.INDEX)
+            .map(Metric::name)
+            .toList();
+    }
+
+    @Test
+    void testIndexesAreBuiltWhenNeeded() throws LinterException, IOException {
+        UploadedFile file = this.buildSample();
+        IndexRegistry registry = IndexRegistry.getFor(file.getModel().getModel());
+
+        for (ModelIndex index : ModelIndex.values()) {
+            assertNull(registry.find(index), index::name);
+        }
+        assertEquals(List.of(), builtIndexes(file));
+
+        Object index = registry.get(ModelIndex.METHOD_HIERARCHY);
+        assertSame(index, registry.get(ModelIndex.METHOD_HIERARCHY));
+        assertSame(index, registry.find(ModelIndex.METHOD_HIERARCHY));
+        assertEquals(List.of(ModelIndex.METHOD_HIERARCHY.getDisplayName()), builtIndexes(file));
+
+        // the other indexes are still not built
+        for (ModelIndex other : EnumSet.complementOf(EnumSet.of(ModelIndex.METHOD_HIERARCHY))) {
+            assertNull(registry.find(other), other::name);
+        }
+    }
+
+    @Test
+    void testRequiredIndexesShareAScan() throws LinterException, IOException {
+        UploadedFile file = this.buildSample();
+        IndexRegistry registry = IndexRegistry.getFor(file.getModel().getModel());
+
+        Object uses = registry.get(ModelIndex.USES);
+        List<String> before = builtIndexes(file);
+
+        registry.require(List.of(ModelIndex.INVOCATIONS, ModelIndex.USES, ModelIndex.ENCLOSING_SCOPES, ModelIndex.CONSTANTS));
+        registry.require(List.of(ModelIndex.INVOCATIONS, ModelIndex.ENCLOSING_SCOPES));
+
+        // the already built index is kept and the missing scanned indexes are built with a single scan
+        assertSame(uses, registry.find(ModelIndex.USES));
+        List<String> built = builtIndexes(file).subList(before.size(), builtIndexes(file).size());
+        assertEquals(
+            List.of(
+                ModelIndex.CONSTANTS.getDisplayName(),
+                ModelIndex.ENCLOSING_SCOPES.getDisplayName() + ", " + ModelIndex.INVOCATIONS.getDisplayName()
+            ),
+            built
+        );
+    }
+
+    @Test
+    void testIndexIsBuiltOnceByConcurrentThreads() throws Exception {
+        UploadedFile file = this.buildSample();
+        IndexRegistry registry = IndexRegistry.getFor(file.getModel().getModel());
+
+        List<Object> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> registry.get(ModelIndex.INVOCATIONS)));
+            }
+
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+        }
+
+        for (Object result : results) {
+            assertSame(results.getFirst(), result);
+        }
+        assertEquals(
+            1,
+            builtIndexes(file).stream().filter(name -> name.contains(ModelIndex.INVOCATIONS.getDisplayName())).count()
+        );
+    }
+
+    @Test
+    void testAllIndexesAreDroppedWhenTheModelChanges() throws LinterException, IOException {
+        CtModel model = this.buildSample().getModel().getModel();
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        CtMethod<?> method = model.getElements(new TypeFilter<CtMethod<?>>(CtMethod.class))
+            .stream()
+            .filter(ctMethod -> ctMethod.getBody() != null)
+            .findFirst()
+            .orElseThrow();
+
+        registry.require(List.of(ModelIndex.values()));
+        Dataflow dataflow = Dataflow.of(method);
+        int hashCode = StructuralHashCodeVisitor.computeHashCode(method.getBody());
+
+        // changing a property does not add or remove elements
+        method.setSimpleName("renamed");
+        for (ModelIndex index : ModelIndex.values()) {
+            assertNotNull(registry.find(index), index::name);
+        }
+
+        Factory factory = method.getFactory();
+        method.getBody().insertBegin(factory.Code().createLocalVariable(
+            factory.Type().integerPrimitiveType(),
+            "added",
+            factory.Code().createLiteral(1)
+        ));
+
+        // the indexes that are filled on demand are based on the model as well
+        for (ModelIndex index : ModelIndex.values()) {
+            assertNull(registry.find(index), index::name);
+        }
+        assertNotSame(dataflow, Dataflow.of(method));
+        assertNotEquals(hashCode, StructuralHashCodeVisitor.computeHashCode(method.getBody()));
+    }
+
+    @Test
+    void testNoIndexIsBuiltWithoutChecks() throws LinterException, IOException {
+        List<Metric> metrics = new ArrayList<>();
+        Linter linter = new Linter(AbstractLinter.builder(Locale.US)
+            .threads(1)
+            .tempLocation(TempLocation.random())
+            .metricsConsumer(metrics::add));
+
+        linter.checkFileFallible(
+            ModelFixture.SAMPLE_SUBMISSION,
+            JavaVersion.JAVA_17,
+            CheckConfiguration.fromProblemTypes(List.of()),
+            status -> {},
+            FailureInformation.failFastConsumer()
+        );
+
+        assertEquals(List.of(), metrics.stream().filter(metric -> metric.kind() == Metric.Kind.INDEX).toList());
+    }
+}
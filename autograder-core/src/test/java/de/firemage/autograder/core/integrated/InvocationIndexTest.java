@@ -0,0 +1,157 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtExecutableReferenceExpression;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvocationIndexTest {
+    private static final String CODE = """
+        import java.util.List;
+        import java.util.Map;
+        import java.util.function.Function;
+
+        public class Test {
+            private static int parse(String value) {
+                return Integer.parseInt(value);
+            }
+
+            private static <T> T first(List<T> values) {
+                return values.get(0);
+            }
+
+            public static void main(String[] args) {
+                String[] parts = "a,b".split(",");
+                Function<String, Integer> parser = Integer::parseInt;
+                Map<String, Integer> map = Map.of("a", parse(parts[0]));
+                System.out.println(map.get("a") + parser.apply(parts[1]));
+                System.out.println(first(List.of(args)).split(";").length);
+            }
+        }
+        """;
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    private static CtExecutableReference<?> getExecutable(CtElement element) {
+        return switch (element) {
+            case CtInvocation<?> invocation -> invocation.getExecutable();
+            case CtExecutableReferenceExpression<?, ?> expression -> expression.getExecutable();
+            default -> null;
+        };
+    }
+
+    private static Class<?> loadClass(CtTypeReference<?> ctTypeReference) {
+        // only classes that are not in the model can be looked up with a Class
+        try {
+            return ctTypeReference.getActualClass();
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    private record Query(Class<?> declaringType, String methodName, List<Class<?>> parameterTypes) {
+        private Class<?>[] parameters() {
+            return this.parameterTypes.toArray(Class<?>[]::new);
+        }
+
+        // how the invocations were found before, by checking the signature of every invocation in the model
+        private boolean matches(CtExecutableReference<?> ctExecutableReference) {
+            return MethodUtil.isSignatureEqualTo(ctExecutableReference, (Class<?>) null, this.methodName, this.parameters())
+                && (this.declaringType == null || TypeUtil.isTypeEqualTo(ctExecutableReference.getDeclaringType(), this.declaringType));
+        }
+    }
+
+    private static Query queryFor(CtExecutableReference<?> ctExecutableReference, boolean withDeclaringType) {
+        List<Class<?>> parameterTypes = new ArrayList<>();
+        for (CtTypeReference<?> parameter : ctExecutableReference.getParameters()) {
+            // the signature is compared with the erasure, but isSignatureEqualTo compares the whole type
+            if (parameter instanceof CtTypeParameterReference || !parameter.getActualTypeArguments().isEmpty()) {
+                return null;
+            }
+            parameterTypes.add(loadClass(parameter));
+        }
+
+        Class<?> declaringType = null;
+        if (withDeclaringType) {
+            CtTypeReference<?> declaringTypeReference = ctExecutableReference.getDeclaringType();
+            // the type of an array can not be compared with a Class, like for String[]::new
+            declaringType = declaringTypeReference == null || declaringTypeReference.isArray() ? null : loadClass(declaringTypeReference);
+            if (declaringType == null) {
+                return null;
+            }
+        }
+
+        if (parameterTypes.contains(null)) {
+            return null;
+        }
+
+        return new Query(declaringType, ctExecutableReference.getSimpleName(), parameterTypes);
+    }
+
+    private static void assertSameAsScanningTheModel(CtModel model) {
+        InvocationIndex index = InvocationIndex.getFor(model);
+        List<CtElement> invocations = model.getElements(new TypeFilter<>(CtElement.class))
+            .stream()
+            .filter(element -> getExecutable(element) != null)
+            .toList();
+
+        Map<Query, List<CtElement>> expected = new LinkedHashMap<>();
+        for (CtElement invocation : invocations) {
+            for (boolean withDeclaringType : new boolean[] { false, true }) {
+                Query query = queryFor(getExecutable(invocation), withDeclaringType);
+                if (query != null) {
+                    expected.computeIfAbsent(query, key -> invocations.stream().filter(element -> key.matches(getExecutable(element))).toList());
+                }
+            }
+        }
+
+        assertTrue(expected.keySet().stream().anyMatch(query -> query.declaringType() != null));
+        expected.forEach((query, elements) -> {
+            List<CtElement> actual = query.declaringType() == null
+                ? index.getInvocations(query.methodName(), query.parameters())
+                : index.getInvocations(query.declaringType(), query.methodName(), query.parameters());
+
+            assertFalse(elements.isEmpty(), query::toString);
+            assertEquals(elements.size(), actual.size(), query::toString);
+            for (int i = 0; i < elements.size(); i++) {
+                assertSame(elements.get(i), actual.get(i), query::toString);
+            }
+        });
+    }
+
+    @Test
+    void testInvocationsAreTheSameAsScanningTheModel() throws LinterException, IOException {
+        CtModel model = this.fixture.buildModel(CODE);
+        assertSameAsScanningTheModel(model);
+
+        InvocationIndex index = InvocationIndex.getFor(model);
+        // the call and the method reference
+        assertEquals(2, index.getInvocations(Integer.class, "parseInt", String.class).size());
+        assertEquals(2, index.getInvocations("split", String.class).size());
+        assertEquals(List.of(), index.getInvocations(Objects.class, "parseInt", String.class));
+        assertEquals(List.of(), index.getInvocations("parseInt", int.class));
+    }
+
+    @Test
+    void testInvocationsAreTheSameAsScanningTheSample() throws LinterException, IOException {
+        assertSameAsScanningTheModel(this.fixture.buildSampleModel());
+    }
+}
@@ -0,0 +1,70 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Builds the models on which the tests of the indexes compare the indexed answers with the ones from the model.
+ */
+public final class ModelFixture {
+    // the `System.getProperty("user.dir")` is the path to the autograder-core directory
+    public static final Path SAMPLE_SUBMISSION = Path.of(System.getProperty("user.dir"), "..", "test_submissions", "A1", "code");
+
+    private final TempLocation tempLocation = TempLocation.random();
+
+    private static UploadedFile requireCompiled(UploadedFile file) {
+        assertNotNull(file, "Could not compile the code");
+        return file;
+    }
+
+    /**
+     * Compiles the given code, which has to declare the class {@code Test}.
+     */
+    public UploadedFile buildFile(String code) throws LinterException, IOException {
+        return requireCompiled(UploadedFile.build(
+            StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", code),
+            this.tempLocation,
+            status -> {
+            },
+            null
+        ));
+    }
+
+    public UploadedFile buildSampleFile() throws LinterException, IOException {
+        return requireCompiled(UploadedFile.build(SAMPLE_SUBMISSION, JavaVersion.JAVA_17, this.tempLocation, status -> {
+        }, null));
+    }
+
+    public CtModel buildModel(String code) throws LinterException, IOException {
+        return this.buildFile(code).getModel().getModel();
+    }
+
+    public CtModel buildSampleModel() throws LinterException, IOException {
+        return this.buildSampleFile().getModel().getModel();
+    }
+
+    public static void assertSameElements(List<? extends CtElement> expected, List<? extends CtElement> actual) {
+        assertSameElements(expected, actual, () -> null);
+    }
+
+    public static void assertSameElements(List<? extends CtElement> expected, List<? extends CtElement> actual, Supplier<String> message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i), message);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.firemage.autograder.core.integrated;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuffixArrayTest {
+    private static int[] sortSuffixes(int[] tokens) {
+        // a suffix that is a prefix of another suffix is smaller
+        return IntStream.range(0, tokens.length)
+            .boxed()
+            .sorted((left, right) -> Arrays.compare(tokens, left, tokens.length, tokens, right, tokens.length))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private static int longestCommonPrefix(int[] tokens, int left, int right) {
+        int common = 0;
+        while (left + common < tokens.length && right + common < tokens.length && tokens[left + common] == tokens[right + common]) {
+            common++;
+        }
+
+        return common;
+    }
+
+    private static List<SuffixArray.MaximalPair> findMaximalPairs(int[] tokens) {
+        List<SuffixArray.MaximalPair> result = new ArrayList<>();
+        for (int left = 0; left < tokens.length; left++) {
+            for (int right = left + 1; right < tokens.length; right++) {
+                boolean isLeftMaximal = left == 0 || tokens[left - 1] != tokens[right - 1];
+                int length = longestCommonPrefix(tokens, left, right);
+                if (isLeftMaximal && length > 0) {
+                    result.add(new SuffixArray.MaximalPair(left, right, length));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static List<SuffixArray.MaximalPair> sorted(List<SuffixArray.MaximalPair> pairs) {
+        return pairs.stream()
+            .sorted(Comparator.comparingInt(SuffixArray.MaximalPair::left).thenComparingInt(SuffixArray.MaximalPair::right))
+            .toList();
+    }
+
+    private static void assertMatchesBruteForce(int[] tokens) {
+        SuffixArray suffixArray = new SuffixArray(tokens);
+
+        int[] expectedSuffixes = sortSuffixes(tokens);
+        int[] actualSuffixes = IntStream.range(0, tokens.length).map(suffixArray::getSuffix).toArray();
+        assertArrayEquals(expectedSuffixes, actualSuffixes, () -> Arrays.toString(tokens));
+
+        // each pair must be found exactly once
+        assertEquals(findMaximalPairs(tokens), sorted(suffixArray.findMaximalPairs()), () -> Arrays.toString(tokens));
+    }
+
+    @Test
+    void testSmallSequences() {
+        assertMatchesBruteForce(new int[0]);
+        assertMatchesBruteForce(new int[] { 7 });
+        assertMatchesBruteForce(new int[] { 1, 1, 1, 1, 1, 1, 1, 1 });
+        assertMatchesBruteForce(new int[] { 2, 1, 0 });
+        // "banana"
+        assertMatchesBruteForce(new int[] { 1, 0, 13, 0, 13, 0 });
+        // hash codes of statements can be negative
+        assertMatchesBruteForce(new int[] { Integer.MIN_VALUE, -1, Integer.MAX_VALUE, -1, Integer.MIN_VALUE, -1 });
+    }
+
+    @Test
+    void testRandomSequences() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int alphabet : new int[] { 1, 2, 3, 16, Integer.MAX_VALUE }) {
+            for (int i = 0; i < 50; i++) {
+                int[] tokens = random.ints(random.nextInt(1, 120), 0, alphabet).toArray();
+                assertMatchesBruteForce(tokens);
+            }
+        }
+    }
+
+    @Test
+    void testRepeatedBlocks() {
+        // repetitions need the most doubling steps until all suffixes have a different rank
+        int[] block = { 3, 1, 4, 1, 5 };
+        int[] tokens = IntStream.range(0, 200).map(i -> block[i % block.length]).toArray();
+        assertMatchesBruteForce(tokens);
+    }
+}
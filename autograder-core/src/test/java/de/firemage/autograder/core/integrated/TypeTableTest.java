@@ -0,0 +1,143 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeTableTest {
+    // Object is left out, because the subtypes of it are not consistent with spoon for interfaces
+    private static final List<Class<?>> CLASSES = List.of(
+        String.class,
+        CharSequence.class,
+        Integer.class,
+        Number.class,
+        Comparable.class,
+        Iterable.class,
+        Collection.class,
+        List.class,
+        Map.class,
+        Exception.class,
+        RuntimeException.class,
+        Enum.class,
+        Runnable.class,
+        int.class
+    );
+
+    private static final String CODE = """
+        import java.util.ArrayList;
+        import java.util.List;
+
+        public class Test<T extends List<String>> implements Comparable<Test<T>> {
+            enum Kind { A, B }
+
+            static class Failure extends IllegalStateException {}
+
+            private final List<T> values = new ArrayList<>();
+            private int count;
+            private Kind kind;
+            private Runnable runnable = () -> {};
+
+            @Override
+            public int compareTo(Test<T> other) {
+                Integer left = this.count;
+                Number right = other.count;
+                CharSequence name = this.kind.name();
+                return left.compareTo(right.intValue()) + name.length();
+            }
+        }
+        """;
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    // how the types were compared before they were looked up in the table
+    private static boolean isTypeEqualToWithoutTable(CtTypeReference<?> ctTypeReference, Class<?> expected) {
+        return ctTypeReference.equals(ctTypeReference.getFactory().Type().get(expected).getReference());
+    }
+
+    private static boolean isSubtypeOfWithoutTable(CtTypeReference<?> ctTypeReference, Class<?> expected) {
+        CtType<?> expectedType = ctTypeReference.getFactory().Type().get(expected);
+
+        if (ctTypeReference.getTypeDeclaration() == null || ctTypeReference instanceof CtTypeParameterReference) {
+            return ctTypeReference.isSubtypeOf(expectedType.getReference());
+        }
+
+        return UsesFinder.isSubtypeOf(ctTypeReference.getTypeDeclaration(), expectedType);
+    }
+
+    // spoon can not answer all queries (e.g. for some wildcards), then the same exception must be thrown
+    private static Object outcome(BooleanSupplier query) {
+        try {
+            return query.getAsBoolean();
+        } catch (RuntimeException exception) {
+            return exception.getClass();
+        }
+    }
+
+    private static void assertSameAsWithoutTable(CtModel model) {
+        List<CtTypeReference<?>> references = model.getElements(new TypeFilter<>(CtTypeReference.class));
+        assertFalse(references.isEmpty());
+
+        int equalTypes = 0;
+        int subtypes = 0;
+        for (CtTypeReference<?> reference : references) {
+            for (Class<?> expected : CLASSES) {
+                Object isTypeEqual = outcome(() -> isTypeEqualToWithoutTable(reference, expected));
+                Object isSubtype = outcome(() -> isSubtypeOfWithoutTable(reference, expected));
+                String description = "%s and %s".formatted(reference.getQualifiedName(), expected.getName());
+
+                // the second call is answered by the table
+                for (int i = 0; i < 2; i++) {
+                    assertEquals(isTypeEqual, outcome(() -> TypeUtil.isTypeEqualTo(reference, expected)), description);
+                    assertEquals(isSubtype, outcome(() -> TypeUtil.isSubtypeOf(reference, expected)), description);
+                }
+
+                equalTypes += Boolean.TRUE.equals(isTypeEqual) ? 1 : 0;
+                subtypes += Boolean.TRUE.equals(isSubtype) ? 1 : 0;
+            }
+
+            boolean isAnyTypeEqual = CLASSES.stream().anyMatch(expected -> isTypeEqualToWithoutTable(reference, expected));
+            assertEquals(isAnyTypeEqual, TypeUtil.isTypeEqualTo(reference, CLASSES), reference::getQualifiedName);
+        }
+
+        assertTrue(equalTypes > 0);
+        assertTrue(subtypes > equalTypes);
+    }
+
+    @Test
+    void testResultsAreTheSameAsWithoutTable() throws LinterException, IOException {
+        assertSameAsWithoutTable(this.fixture.buildModel(CODE));
+    }
+
+    @Test
+    void testResultsAreTheSameAsWithoutTableForSample() throws LinterException, IOException {
+        assertSameAsWithoutTable(this.fixture.buildSampleModel());
+    }
+
+    @Test
+    void testClassesAreResolvedOnce() throws LinterException, IOException {
+        CtModel model = this.fixture.buildModel(CODE);
+        TypeTable typeTable = IndexRegistry.getFor(model).get(ModelIndex.TYPE_TABLE);
+        CtType<?> test = model.getAllTypes().iterator().next();
+
+        assertSame(typeTable, TypeTable.getFor(test));
+        TypeTable.InternedType list = typeTable.get(test, List.class);
+        assertSame(list, typeTable.get(test.getReference(), List.class));
+        assertEquals("java.util.List", list.qualifiedName());
+        assertSame(test.getFactory().Type().get(List.class), list.type());
+    }
+}
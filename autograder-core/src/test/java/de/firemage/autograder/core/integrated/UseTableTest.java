@@ -0,0 +1,66 @@
+package de.firemage.autograder.core.integrated;
+
+import org.junit.jupiter.api.Test;
+import spoon.Launcher;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static de.firemage.autograder.core.integrated.ModelFixture.assertSameElements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UseTableTest {
+    private final Factory factory = new Launcher().getFactory();
+
+    private List<CtElement> createElements(int count) {
+        List<CtElement> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(this.factory.createLiteral(i));
+        }
+        return result;
+    }
+
+    @Test
+    void testUsesAreTheSameAsAListPerDeclaration() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<CtElement> declarations = this.createElements(50);
+        // the uses are spread over many rows and more than the initial capacity of the table
+        List<CtElement> uses = this.createElements(1000);
+
+        // this is how the uses were stored before
+        Map<CtElement, List<CtElement>> expected = new IdentityHashMap<>();
+        UseTable.Builder builder = new UseTable.Builder();
+        for (CtElement use : uses) {
+            CtElement declaration = declarations.get(random.nextInt(declarations.size() - 1));
+            expected.computeIfAbsent(declaration, key -> new ArrayList<>()).add(use);
+            builder.add(declaration, use);
+        }
+
+        UseTable table = builder.build();
+        for (CtElement declaration : declarations) {
+            assertSameElements(expected.getOrDefault(declaration, List.of()), table.get(declaration));
+        }
+
+        // the last declaration has never been used
+        assertEquals(List.of(), table.get(declarations.getLast()));
+    }
+
+    @Test
+    void testUsesCanNotBeModified() {
+        List<CtElement> elements = this.createElements(3);
+        UseTable.Builder builder = new UseTable.Builder();
+        builder.add(elements.get(0), elements.get(1));
+        builder.add(elements.get(0), elements.get(2));
+
+        UseTable table = builder.build();
+        assertSameElements(elements.subList(1, 3), table.get(elements.get(0)));
+        assertThrows(UnsupportedOperationException.class, () -> table.get(elements.get(0)).set(0, elements.get(0)));
+        assertEquals(List.of(), new UseTable.Builder().build().get(elements.get(0)));
+    }
+}
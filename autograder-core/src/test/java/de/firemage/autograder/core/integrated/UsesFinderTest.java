@@ -0,0 +1,117 @@
+package de.firemage.autograder.core.integrated;
+
+import de.firemage.autograder.api.LinterException;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtAbstractInvocation;
+import spoon.reflect.code.CtExecutableReferenceExpression;
+import spoon.reflect.code.CtVariableAccess;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeParameter;
+import spoon.reflect.declaration.CtVariable;
+import spoon.reflect.reference.CtArrayTypeReference;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtIntersectionTypeReference;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static de.firemage.autograder.core.integrated.ModelFixture.assertSameElements;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsesFinderTest {
+    private final ModelFixture fixture = new ModelFixture();
+
+    // the uses of each declaration by scanning the model for them, in the order in which they appear in the model
+    private static <E extends CtElement> Map<CtElement, List<CtElement>> scanUses(CtModel model, Class<E> type, Function<? super E, CtElement> declaration) {
+        Map<CtElement, List<CtElement>> result = new IdentityHashMap<>();
+        for (E element : model.getElements(new TypeFilter<>(type))) {
+            CtElement declared = declaration.apply(element);
+            if (declared != null) {
+                result.computeIfAbsent(declared, key -> new ArrayList<>()).add(element);
+            }
+        }
+        return result;
+    }
+
+    private static CtElement getExecutableDeclaration(CtElement element) {
+        CtExecutableReference<?> reference = switch (element) {
+            case CtAbstractInvocation<?> invocation -> invocation.getExecutable();
+            case CtExecutableReferenceExpression<?, ?> expression -> expression.getExecutable();
+            default -> null;
+        };
+
+        return reference == null ? null : reference.getExecutableDeclaration();
+    }
+
+    private static CtElement getTypeDeclaration(CtTypeReference<?> reference) {
+        // arrays, intersections and type parameters have their own visit methods, their components are visited on their own
+        if (CoreUtil.isInstanceOfAny(reference, CtArrayTypeReference.class, CtIntersectionTypeReference.class, CtTypeParameterReference.class)) {
+            return null;
+        }
+
+        return reference.getTypeDeclaration();
+    }
+
+    @Test
+    void testUsesAreTheSameAsScanningTheModel() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+
+        Map<CtElement, List<CtElement>> executableUses = scanUses(model, CtElement.class, UsesFinderTest::getExecutableDeclaration);
+        for (CtExecutable<?> executable : model.getElements(new TypeFilter<CtExecutable<?>>(CtExecutable.class))) {
+            assertSameElements(executableUses.getOrDefault(executable, List.of()), UsesFinder.executableUses(executable).toList(), executable::toString);
+        }
+
+        Map<CtElement, List<CtElement>> typeUses = scanUses(model, CtTypeReference.class, UsesFinderTest::getTypeDeclaration);
+        for (CtType<?> type : model.getElements(new TypeFilter<CtType<?>>(CtType.class))) {
+            assertSameElements(typeUses.getOrDefault(type, List.of()), UsesFinder.typeUses(type).toList(), type::toString);
+        }
+
+        Map<CtElement, List<CtElement>> typeParameterUses = scanUses(model, CtTypeParameterReference.class, CtTypeParameterReference::getDeclaration);
+        for (CtTypeParameter typeParameter : model.getElements(new TypeFilter<>(CtTypeParameter.class))) {
+            assertSameElements(typeParameterUses.getOrDefault(typeParameter, List.of()), UsesFinder.typeParameterUses(typeParameter).toList(), typeParameter::toString);
+        }
+    }
+
+    @Test
+    void testVariableUsesAreInTheOrderOfTheModel() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        Map<CtElement, Integer> positions = new IdentityHashMap<>();
+        for (CtElement element : model.getElements(new TypeFilter<>(CtElement.class))) {
+            positions.put(element, positions.size());
+        }
+
+        // the uses of a variable used to be a set without a defined order
+        Map<CtElement, List<CtElement>> scannedUses = scanUses(model, CtVariableAccess.class, access -> access.getVariable().getDeclaration());
+        int uses = 0;
+        for (CtVariable<?> variable : model.getElements(new TypeFilter<CtVariable<?>>(CtVariable.class))) {
+            List<CtVariableAccess<?>> accesses = UsesFinder.variableUses(variable).toList();
+
+            for (int i = 0; i < accesses.size(); i++) {
+                assertSame(variable, UsesFinder.getDeclaredVariable(accesses.get(i)));
+                if (i > 0) {
+                    assertTrue(positions.get(accesses.get(i - 1)) < positions.get(accesses.get(i)), variable::toString);
+                }
+            }
+
+            // some accesses can only be resolved while scanning, like the ones of pattern variables
+            for (CtElement access : scannedUses.getOrDefault(variable, List.of())) {
+                assertTrue(accesses.stream().anyMatch(use -> use == access), access::toString);
+            }
+
+            uses += accesses.size();
+        }
+
+        assertTrue(uses > 0);
+    }
+}
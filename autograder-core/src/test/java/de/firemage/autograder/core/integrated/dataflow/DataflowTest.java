@@ -0,0 +1,313 @@
+package de.firemage.autograder.core.integrated.dataflow;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.CodeModel;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.code.CtAssignment;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtReturn;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtVariable;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataflowTest {
+    protected final TempLocation tempLocation;
+
+    DataflowTest() {
+        tempLocation = TempLocation.random();
+    }
+
+    @Test
+    void testLiveInLoop() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public void test() {
+                    int a = 5;
+                    for (int i = 0; i < 5; i++) {
+                        System.out.println(a);
+                        a = i * 2;
+                    }
+                    a = 3;
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> a = variable(method, "a");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        // read in the next iteration
+        assertTrue(dataflow.isLiveAfter(assignments.get(0), a));
+        assertFalse(dataflow.isLiveAfter(assignments.get(1), a));
+        assertTrue(dataflow.isLiveAfter(a, a));
+    }
+
+    @Test
+    void testOverwrittenBeforeRead() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public void test(boolean b) {
+                    int a = 5;
+                    a = 3;
+                    if (b) {
+                        a = 4;
+                    }
+                    System.out.println(a);
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> a = variable(method, "a");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        assertFalse(dataflow.isLiveAfter(a, a));
+        assertTrue(dataflow.isLiveAfter(assignments.get(0), a));
+
+        CtInvocation<?> println = method.getElements(new TypeFilter<>(CtInvocation.class)).get(0);
+        assertEquals(List.of(assignments.get(0), assignments.get(1)), dataflow.getReachingDefinitions(println, a));
+    }
+
+    @Test
+    void testConditionalAssignmentDoesNotKill() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public int test(boolean b) {
+                    int a = 5;
+                    boolean c = b && (a = 3) > 2;
+                    return a;
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> a = variable(method, "a");
+        CtReturn<?> ctReturn = method.getElements(new TypeFilter<>(CtReturn.class)).get(0);
+
+        assertTrue(dataflow.isLiveAfter(a, a));
+        assertEquals(2, dataflow.getReachingDefinitions(ctReturn, a).size());
+    }
+
+    @Test
+    void testDefiniteAssignment() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public int test(int x) {
+                    int a;
+                    int b;
+                    switch (x) {
+                        case 1:
+                            a = 1;
+                        case 2:
+                            b = 2;
+                            break;
+                        default:
+                            a = 3;
+                            b = 4;
+                    }
+                    return b;
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtReturn<?> ctReturn = method.getElements(new TypeFilter<>(CtReturn.class)).get(0);
+
+        assertFalse(dataflow.isDefinitelyAssignedBefore(ctReturn, variable(method, "a")));
+        assertTrue(dataflow.isDefinitelyAssignedBefore(ctReturn, variable(method, "b")));
+        assertTrue(dataflow.isDefinitelyAssignedBefore(ctReturn, method.getParameters().get(0)));
+    }
+
+    @Test
+    void testLabelledBreakAndCatch() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public int test(int[][] values) {
+                    int a = 0;
+                    outer:
+                    for (int[] row : values) {
+                        for (int value : row) {
+                            if (value < 0) {
+                                a = 1;
+                                break outer;
+                            }
+                        }
+                    }
+
+                    try {
+                        a = Integer.parseInt("2");
+                    } catch (NumberFormatException e) {
+                        return a;
+                    }
+
+                    return 0;
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> a = variable(method, "a");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        // the value is read in the catch block if parseInt throws
+        assertTrue(dataflow.isLiveAfter(assignments.get(0), a));
+
+        CtReturn<?> ctReturn = method.getElements(new TypeFilter<>(CtReturn.class)).get(0);
+        assertEquals(3, dataflow.getReachingDefinitions(ctReturn, a).size());
+    }
+
+    @Test
+    void testBreakThroughFinally() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public void test(boolean c) {
+                    int x = 0;
+                    for (;;) {
+                        try {
+                            if (c) {
+                                break;
+                            }
+                        } finally {
+                            x = 5;
+                        }
+                    }
+                    System.out.println(x);
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> x = variable(method, "x");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        // the break continues after the finally block
+        assertTrue(dataflow.isLiveAfter(assignments.get(0), x));
+        assertFalse(dataflow.isLiveAfter(x, x));
+
+        CtInvocation<?> println = method.getElements(new TypeFilter<>(CtInvocation.class)).get(0);
+        assertEquals(List.of(assignments.get(0)), dataflow.getReachingDefinitions(println, x));
+    }
+
+    @Test
+    void testContinueThroughFinally() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public void test(boolean c) {
+                    int x = 0;
+                    for (int i = 0; i < 10; i++) {
+                        try {
+                            if (c) {
+                                continue;
+                            }
+                        } finally {
+                            x = i;
+                        }
+                        x = 0;
+                    }
+                    System.out.println(x);
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> x = variable(method, "x");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        // the continue skips the second assignment, so the value might be printed after the last iteration
+        assertTrue(dataflow.isLiveAfter(assignments.get(0), x));
+    }
+
+    @Test
+    void testReturnThroughFinally() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public int test(boolean c) {
+                    int x = 1;
+                    try {
+                        if (c) {
+                            return 0;
+                        }
+                        x = 2;
+                    } finally {
+                        System.out.println(x);
+                        x = 3;
+                    }
+                    return 1;
+                }
+            }
+            """);
+
+        Dataflow dataflow = Dataflow.of(method);
+        CtVariable<?> x = variable(method, "x");
+        List<CtAssignment<?, ?>> assignments = assignments(method);
+
+        // the return executes the finally block first
+        assertTrue(dataflow.isLiveAfter(x, x));
+        assertFalse(dataflow.isLiveAfter(assignments.get(1), x));
+
+        CtInvocation<?> println = method.getElements(new TypeFilter<>(CtInvocation.class)).get(0);
+        assertEquals(List.of(x, assignments.get(0)), dataflow.getReachingDefinitions(println, x));
+    }
+
+    @Test
+    void testCachedPerExecutable() throws LinterException, IOException {
+        CtMethod<?> method = buildMethod("""
+            public class Test {
+                public void test() {
+                    Runnable r = () -> {
+                        int a = 1;
+                        System.out.println(a);
+                    };
+                }
+            }
+            """);
+
+        assertSame(Dataflow.of(method), Dataflow.of(method));
+
+        // the variables of the lambda are not part of the method
+        CtVariable<?> a = variable(method, "a");
+        assertEquals(List.of(), Dataflow.of(method).getReachingDefinitions(a, a));
+    }
+
+    private static CtVariable<?> variable(CtMethod<?> method, String name) {
+        return method.getElements(new TypeFilter<CtLocalVariable<?>>(CtLocalVariable.class))
+            .stream()
+            .filter(ctLocalVariable -> ctLocalVariable.getSimpleName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static List<CtAssignment<?, ?>> assignments(CtMethod<?> method) {
+        return method.getElements(new TypeFilter<>(CtAssignment.class));
+    }
+
+    private CtMethod<?> buildMethod(String code) throws LinterException, IOException {
+        UploadedFile file = UploadedFile.build(
+            StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", code),
+            this.tempLocation,
+            status -> {
+            },
+            null
+        );
+        assertNotNull(file, "Could not compile the code");
+
+        CodeModel model = file.getModel();
+        return model.getModel()
+            .filterChildren(element -> element instanceof CtMethod<?> ctMethod && ctMethod.getSimpleName().equals("test"))
+            .first();
+    }
+}
@@ -1,7 +1,8 @@
 package de.firemage.autograder.core.integrated.evaluator;
 
+import de.firemage.autograder.core.MetricsCollector;
 import de.firemage.autograder.core.integrated.ExpressionUtil;
-import de.firemage.autograder.core.integrated.UsesFinder;
+import de.firemage.autograder.core.integrated.IndexRegistry;
 import de.firemage.autograder.core.integrated.evaluator.fold.ApplyCasts;
 import de.firemage.autograder.core.integrated.evaluator.fold.ChainedFold;
 import de.firemage.autograder.core.integrated.evaluator.fold.DeduplicateOperatorApplication;
@@ -33,6 +34,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestEvaluator {
     @SuppressWarnings("unchecked")
@@ -72,7 +75,7 @@ class TestEvaluator {
         environment.setIgnoreSyntaxErrors(false);
 
         CtModel ctModel = launcher.buildModel();
-        UsesFinder.buildFor(ctModel);
+        IndexRegistry.registerFor(ctModel, new MetricsCollector());
 
         CtMethod<?> ctMethod = new ArrayList<>(ctModel.getAllTypes()).get(0).getMethodsByName("t").get(0);
         CtAbstractInvocation<?> ctInvocation = (CtInvocation<?>) ctMethod.getBody().getStatements().get(0);
@@ -234,4 +237,34 @@ class TestEvaluator {
             RemoveRedundantCasts.create()
         ));
     }
+
+    @ParameterizedTest
+    @CsvSource(
+        delimiter = ';',
+        useHeadersInDisplayName = true,
+        value = {
+            " Expression                     ; Arguments             ; Expected              ",
+            " -(-(a)) + 0                    ; int a                 ; a                     ",
+            " true && (b || false)           ; boolean b             ; b                     ",
+            " !(!b) && (b || c)              ; boolean b, boolean c  ; b                     ",
+            " (a + 0) * (1 * a)              ; int a                 ; a * a                 ",
+        }
+    )
+    void testEvaluationDoesNotModifyModel(String expression, String arguments, String expected) {
+        // contract: the parts of the result are not shared with the model and the model is not modified
+        CtExpression<?> ctExpression = createExpression(expression, arguments);
+        String original = ctExpression.toString();
+
+        CtExpression<?> result = new Evaluator().evaluate(ctExpression);
+
+        assertEquals(expected, result.toString());
+        assertEquals(original, ctExpression.toString());
+        assertFalse(result.isParentInitialized());
+        for (CtElement ctElement : result.getElements(element -> element != result)) {
+            assertFalse(ctElement.hasParent(ctExpression.getParent()));
+        }
+        for (CtElement ctElement : ctExpression.getElements(element -> element != ctExpression)) {
+            assertTrue(ctElement.hasParent(ctExpression));
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package de.firemage.autograder.core.integrated.structure;
+
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.integrated.IndexRegistry;
+import de.firemage.autograder.core.integrated.ModelFixture;
+import de.firemage.autograder.core.integrated.ModelIndex;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.path.CtRole;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TestStructuralHashCodeVisitor {
+    /**
+     * Hashes the whole subtree of an element on every call, like the visitor did before the hash codes were
+     * computed bottom-up.
+     */
+    private static final class ReferenceHashCodeVisitor extends CtScanner {
+        private final HashCodeBuilder builder = new HashCodeBuilder();
+
+        private static int computeHashCode(CtElement element) {
+            ReferenceHashCodeVisitor visitor = new ReferenceHashCodeVisitor();
+            visitor.scan(element);
+            return visitor.builder.toHashCode();
+        }
+
+        @Override
+        public void enter(CtElement ctElement) {
+            if (ctElement instanceof CtTypeReference<?> ctTypeReference) {
+                this.builder.append(ctTypeReference.getSimpleName());
+            }
+
+            this.builder.append(ctElement.getClass().getSimpleName().hashCode());
+        }
+
+        @Override
+        public void scan(CtRole ctRole, CtElement element) {
+            if (StructuralEqualsVisitor.shouldSkip(ctRole, element)) {
+                return;
+            }
+            this.builder.append(ctRole);
+            super.scan(ctRole, element);
+        }
+    }
+
+    private final ModelFixture fixture = new ModelFixture();
+
+    private static <T extends CtElement> Set<Set<T>> partition(List<T> elements, ToIntFunction<? super T> hashCode) {
+        Map<Integer, Set<T>> groups = new HashMap<>();
+        for (T element : elements) {
+            groups.computeIfAbsent(hashCode.applyAsInt(element), key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(element);
+        }
+        return new HashSet<>(groups.values());
+    }
+
+    private static List<CtElement> allElements(CtModel model) {
+        return model.getElements(new TypeFilter<>(CtElement.class));
+    }
+
+    @Test
+    void testModelHashCodesAreTheSameAsComputingThemPerElement() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        IndexRegistry registry = IndexRegistry.getFor(model);
+        List<CtElement> elements = allElements(model);
+
+        // without the index every element is visited on its own
+        List<Integer> expected = elements.stream().map(StructuralHashCodeVisitor::computeHashCode).toList();
+        assertNull(registry.find(ModelIndex.STRUCTURAL_HASH_CODES));
+
+        Map<CtElement, Integer> hashCodes = registry.get(ModelIndex.STRUCTURAL_HASH_CODES);
+        for (int i = 0; i < elements.size(); i++) {
+            CtElement element = elements.get(i);
+            // skipped elements like comments are only hashed on request
+            if (hashCodes.containsKey(element)) {
+                assertEquals(expected.get(i), hashCodes.get(element), element::toString);
+            }
+            assertEquals(expected.get(i), StructuralHashCodeVisitor.computeHashCode(element), element::toString);
+        }
+    }
+
+    @Test
+    void testCopiesHaveTheSameHashCodeAsBefore() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        IndexRegistry.getFor(model).get(ModelIndex.STRUCTURAL_HASH_CODES);
+
+        List<CtMethod<?>> methods = model.getElements(new TypeFilter<>(CtMethod.class));
+        assertFalse(methods.isEmpty());
+        for (CtMethod<?> method : methods) {
+            CtMethod<?> copy = method.clone();
+            // the copy and its children are not part of the model, so they have to be visited
+            assertEquals(
+                ReferenceHashCodeVisitor.computeHashCode(method) == ReferenceHashCodeVisitor.computeHashCode(copy),
+                StructuralHashCodeVisitor.computeHashCode(method) == StructuralHashCodeVisitor.computeHashCode(copy),
+                method::getSignature
+            );
+        }
+    }
+
+    @Test
+    void testEqualHashCodesAreTheSameAsBefore() throws LinterException, IOException {
+        CtModel model = this.fixture.buildSampleModel();
+        IndexRegistry.getFor(model).get(ModelIndex.STRUCTURAL_HASH_CODES);
+
+        // the values are different, but the same elements must share a hash code
+        List<CtStatement> statements = model.getElements(new TypeFilter<>(CtStatement.class));
+        assertEquals(
+            partition(statements, ReferenceHashCodeVisitor::computeHashCode),
+            partition(statements, StructuralHashCodeVisitor::computeHashCode)
+        );
+    }
+
+    @Test
+    void testHashCodesAreTheSameInEveryModel() throws LinterException, IOException {
+        List<CtElement> left = allElements(this.fixture.buildSampleModel());
+        List<CtElement> right = allElements(this.fixture.buildSampleModel());
+
+        assertEquals(left.size(), right.size());
+        assertEquals(
+            left.stream().map(StructuralHashCodeVisitor::computeHashCode).toList(),
+            right.stream().map(StructuralHashCodeVisitor::computeHashCode).toList()
+        );
+    }
+}
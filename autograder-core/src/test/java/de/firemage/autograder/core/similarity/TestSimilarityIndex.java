@@ -0,0 +1,177 @@
+package de.firemage.autograder.core.similarity;
+
+import de.firemage.autograder.api.JavaVersion;
+import de.firemage.autograder.api.LinterException;
+import de.firemage.autograder.core.file.SourcePath;
+import de.firemage.autograder.core.file.StringSourceInfo;
+import de.firemage.autograder.core.file.TempLocation;
+import de.firemage.autograder.core.file.UploadedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestSimilarityIndex {
+    private static final double THRESHOLD = 0.8;
+
+    private final TempLocation tempLocation = TempLocation.random();
+
+    private static MethodFingerprint method(String submission, int from, int to) {
+        int[] values = IntStream.range(from, to).toArray();
+        return new MethodFingerprint(submission, "Test#test()", SourcePath.of("Test.java"), 1, values.length, MinHash.signatureOf(values));
+    }
+
+    private List<MethodFingerprint> fingerprint(String submission, String code) throws LinterException, IOException {
+        try (UploadedFile file = UploadedFile.build(
+            StringSourceInfo.fromSourceString(JavaVersion.JAVA_17, "Test", code),
+            this.tempLocation,
+            status -> {
+            },
+            null
+        )) {
+            assertNotNull(file, "Could not compile the code");
+            return SimilarityIndex.fingerprint(submission, file);
+        }
+    }
+
+    @Test
+    void testShingles() {
+        assertArrayEquals(
+            new int[] { MinHash.shingles(new int[] { 1, 2, 3 }, 3)[0], MinHash.shingles(new int[] { 2, 3, 1 }, 3)[0], MinHash.shingles(new int[] { 3, 1, 2 }, 3)[0] },
+            // the last shingle is the same as the first one
+            MinHash.shingles(new int[] { 1, 2, 3, 1, 2, 3 }, 3)
+        );
+
+        // fewer tokens than the size of a shingle form a single shingle
+        assertEquals(1, MinHash.shingles(new int[] { 1, 2 }, 3).length);
+    }
+
+    @Test
+    void testSignatureEstimatesJaccardSimilarity() {
+        int[] left = MinHash.signatureOf(IntStream.range(0, 100).toArray());
+        int[] right = MinHash.signatureOf(IntStream.range(50, 150).toArray());
+
+        assertEquals(1.0, MinHash.estimateSimilarity(left, left));
+        // the sets share 50 of 150 values
+        assertEquals(1.0 / 3.0, MinHash.estimateSimilarity(left, right), 0.15);
+        // the signature is computed with fixed hash functions
+        assertArrayEquals(left, MinHash.signatureOf(IntStream.range(0, 100).toArray()));
+    }
+
+    @Test
+    void testOnlySimilarMethodsAreReported() {
+        SimilarityIndex index = SimilarityIndex.empty();
+        assertEquals(List.of(), index.add("a", List.of(method("a", 0, 100)), THRESHOLD));
+        assertEquals(List.of(), index.add("b", List.of(method("b", 1000, 1100)), THRESHOLD));
+
+        MethodFingerprint similar = method("c", 0, 96);
+        List<SimilarMethodPair> pairs = index.add("c", List.of(similar), THRESHOLD);
+
+        assertEquals(1, pairs.size());
+        assertEquals("a", pairs.getFirst().left().submission());
+        assertEquals(similar, pairs.getFirst().right());
+        assertTrue(pairs.getFirst().similarity() >= THRESHOLD);
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testMethodsOfTheSameSubmissionAreNotReported() {
+        SimilarityIndex index = SimilarityIndex.empty();
+
+        assertEquals(List.of(), index.add("a", List.of(method("a", 0, 100), method("a", 0, 100)), THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> index.add("a", List.of(method("b", 0, 100)), THRESHOLD));
+    }
+
+    @Test
+    void testReAddedSubmissionReplacesItsMethods() {
+        SimilarityIndex index = SimilarityIndex.empty();
+        index.add("a", List.of(method("a", 0, 100)), THRESHOLD);
+
+        // the submission no longer has methods that are large enough to be compared
+        assertEquals(List.of(), index.add("a", List.of(), THRESHOLD));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.add("b", List.of(method("b", 0, 100)), THRESHOLD));
+    }
+
+    @Test
+    void testSavedIndexCanBeLoaded(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("index.bin");
+        assertEquals(0, SimilarityIndex.load(path).size());
+
+        SimilarityIndex index = SimilarityIndex.empty();
+        index.add("a", List.of(method("a", 0, 100)), THRESHOLD);
+        index.save(path);
+
+        SimilarityIndex loaded = SimilarityIndex.load(path);
+        assertEquals(1, loaded.size());
+        assertEquals(1, loaded.add("b", List.of(method("b", 0, 100)), THRESHOLD).size());
+    }
+
+    @Test
+    void testIndexOfDifferentAlgorithmIsRejected(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("index.bin");
+        try (ObjectOutputStream output = new ObjectOutputStream(Files.newOutputStream(path))) {
+            output.writeInt(SimilarityIndex.FORMAT_VERSION);
+            output.writeUTF("a different algorithm");
+            output.writeObject(new ArrayList<>(List.of(method("a", 0, 100))));
+        }
+
+        assertThrows(IOException.class, () -> SimilarityIndex.load(path));
+    }
+
+    @Test
+    void testRenamedCodeIsSimilar() throws LinterException, IOException {
+        List<MethodFingerprint> left = this.fingerprint("a", """
+            public class Test {
+                public int sum(int[] values) {
+                    int result = 0;
+                    for (int value : values) {
+                        if (value > 0) {
+                            result += value;
+                        }
+                    }
+                    System.out.println(result);
+                    return result;
+                }
+
+                public void small() {
+                    System.out.println("too small to be compared");
+                }
+            }
+            """);
+        List<MethodFingerprint> right = this.fingerprint("b", """
+            public class Test {
+                public int total(int[] numbers) {
+                    int total = 0;
+                    for (int number : numbers) {
+                        if (number > 0) {
+                            total += number;
+                        }
+                    }
+                    System.out.println(total);
+                    return total;
+                }
+            }
+            """);
+
+        assertEquals(List.of("Test#sum(int[])"), left.stream().map(MethodFingerprint::method).toList());
+
+        SimilarityIndex index = SimilarityIndex.empty();
+        index.add("a", left, THRESHOLD);
+        List<SimilarMethodPair> pairs = index.add("b", right, THRESHOLD);
+        assertEquals(1, pairs.size());
+        assertEquals(1.0, pairs.getFirst().similarity());
+    }
+}
@@ -17,8 +17,13 @@ import spoon.reflect.code.CtJavaDocTag;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 @ExecutableCheck(reportedProblems = {ProblemType.INVALID_COMMENT_LANGUAGE, ProblemType.INCONSISTENT_COMMENT_LANGUAGE})
 public class CommentLanguageCheck extends IntegratedCheck {
@@ -27,8 +32,10 @@ public class CommentLanguageCheck extends IntegratedCheck {
     //
     // Not all languages are needed for this check, so here is a list of supported languages and in
     // the maven pom.xml we exclude all other languages.
-    private static final List<Language> SUPPORTED_LANGUAGES = List.of(Language.ENGLISH, Language.GERMAN, Language.CHINESE);
-    private final LanguageDetector detector;
+    private static final Set<Language> SUPPORTED_LANGUAGES = Set.of(Language.ENGLISH, Language.GERMAN, Language.CHINESE);
+    // The detectors are shared by all instances of the check, so a detector is only built once per threshold.
+    private static final Map<DetectorSettings, LanguageDetector> DETECTORS = new ConcurrentHashMap<>();
+    private final double threshold;
 
     public CommentLanguageCheck() {
         this(0.075);
@@ -36,32 +43,54 @@ public class CommentLanguageCheck extends IntegratedCheck {
 
     public CommentLanguageCheck(double threshold) {
         super();
-        this.detector = LanguageDetectorBuilder.fromLanguages(SUPPORTED_LANGUAGES.toArray(new Language[0]))
-            .withMinimumRelativeDistance(threshold)
-            .build();
+        this.threshold = threshold;
+    }
+
+    private static LanguageDetector getDetector(Set<Language> languages, double threshold) {
+        return DETECTORS.computeIfAbsent(
+            new DetectorSettings(languages, threshold),
+            settings -> LanguageDetectorBuilder.fromLanguages(settings.languages().toArray(new Language[0]))
+                .withMinimumRelativeDistance(settings.threshold())
+                .build()
+        );
     }
 
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
-        List<CommentLanguageResult> englishComments = new ArrayList<>();
-        List<CommentLanguageResult> germanComments = new ArrayList<>();
-
+        List<CtComment> comments = new ArrayList<>();
         staticAnalysis.processWith(new AbstractProcessor<CtComment>() {
             @Override
             public void process(CtComment comment) {
-                var language = CommentLanguageResult.detect(comment, detector);
+                comments.add(comment);
+            }
+        });
 
-                switch (language.language) {
-                    case ENGLISH -> englishComments.add(language);
-                    case GERMAN -> germanComments.add(language);
-                    case UNKNOWN -> {
-                    }
-                    default -> addLocalProblem(comment,
-                        new LocalizedMessage("comment-language-exp-invalid", Map.of("lang", language.language.name())),
-                        ProblemType.INVALID_COMMENT_LANGUAGE);
+        // The texts are extracted from the model first, then only the texts are needed for the detection,
+        // which takes most of the time. The comments are detected in parallel, unless the linter is limited
+        // to a single thread, like it is for each submission of a batch.
+        List<String> contents = comments.stream().map(CommentLanguageResult::getContent).toList();
+        LanguageDetector detector = getDetector(SUPPORTED_LANGUAGES, this.threshold);
+        IntStream indices = IntStream.range(0, comments.size());
+        if (staticAnalysis.getThreads() != 1) {
+            indices = indices.parallel();
+        }
+        List<CommentLanguageResult> results = indices
+            .mapToObj(i -> CommentLanguageResult.detect(comments.get(i), contents.get(i), detector, this.threshold))
+            .toList();
+
+        List<CommentLanguageResult> englishComments = new ArrayList<>();
+        List<CommentLanguageResult> germanComments = new ArrayList<>();
+        for (CommentLanguageResult result : results) {
+            switch (result.language) {
+                case ENGLISH -> englishComments.add(result);
+                case GERMAN -> germanComments.add(result);
+                case UNKNOWN -> {
                 }
+                default -> addLocalProblem(result.comment,
+                    new LocalizedMessage("comment-language-exp-invalid", Map.of("lang", result.language.name())),
+                    ProblemType.INVALID_COMMENT_LANGUAGE);
             }
-        });
+        }
 
         if (!englishComments.isEmpty() && !germanComments.isEmpty()) {
             CtComment bestEnglish = englishComments.stream()
@@ -88,9 +117,12 @@ public class CommentLanguageCheck extends IntegratedCheck {
         }
     }
 
+    private record DetectorSettings(Set<Language> languages, double threshold) {
+    }
+
     private record CommentLanguageResult(CtComment comment, Language language, double confidence) {
 
-        public static CommentLanguageResult detect(CtComment comment, LanguageDetector detector) {
+        public static String getContent(CtComment comment) {
             // Remove @see because it is always in English
             StringBuilder content = new StringBuilder(comment.getContent().replace("@see", ""));
 
@@ -104,16 +136,53 @@ public class CommentLanguageCheck extends IntegratedCheck {
                 }
             }
 
-            if (content.toString().split(" +").length <= 3) {
+            return content.toString();
+        }
+
+        public static CommentLanguageResult detect(CtComment comment, String content, LanguageDetector detector, double threshold) {
+            if (content.split(" +").length <= 3) {
                 // The string contains too few words
                 return new CommentLanguageResult(comment, Language.UNKNOWN, 0);
+            } else if (isCodeLike(content)) {
+                // Commented out code is not written in a natural language
+                return new CommentLanguageResult(comment, Language.UNKNOWN, 0);
             } else {
-                Language language = detector.detectLanguageOf(content.toString());
-                var confidences = detector.computeLanguageConfidenceValues(content.toString());
+                var confidences = detector.computeLanguageConfidenceValues(content);
+                Language language = mostLikelyLanguage(confidences, threshold);
                 double englishConfidence = confidences.getOrDefault(Language.ENGLISH, 0.0);
                 double germanConfidence = confidences.getOrDefault(Language.GERMAN, 0.0);
                 return new CommentLanguageResult(comment, language, Math.abs(englishConfidence - germanConfidence));
             }
         }
+
+        private static boolean isCodeLike(String content) {
+            // most lines of code end with one of these, while sentences rarely do
+            List<String> lines = content.lines().map(String::strip).filter(line -> !line.isEmpty()).toList();
+            long codeLines = lines.stream()
+                .filter(line -> line.endsWith(";") || line.endsWith("{") || line.equals("}"))
+                .count();
+            return codeLines * 2 > lines.size();
+        }
+
+        // This is the same as LanguageDetector#detectLanguageOf, which would compute the confidence values again.
+        private static Language mostLikelyLanguage(SortedMap<Language, Double> confidences, double minimumRelativeDistance) {
+            if (confidences.isEmpty()) {
+                return Language.UNKNOWN;
+            }
+
+            Iterator<Map.Entry<Language, Double>> iterator = confidences.entrySet().iterator();
+            Map.Entry<Language, Double> mostLikely = iterator.next();
+            if (!iterator.hasNext()) {
+                return mostLikely.getKey();
+            }
+
+            Double secondMostLikelyConfidence = iterator.next().getValue();
+            if (mostLikely.getValue().equals(secondMostLikelyConfidence)
+                || mostLikely.getValue() - secondMostLikelyConfidence < minimumRelativeDistance) {
+                return Language.UNKNOWN;
+            }
+
+            return mostLikely.getKey();
+        }
     }
 }
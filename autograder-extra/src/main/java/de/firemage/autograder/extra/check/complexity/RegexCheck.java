@@ -4,9 +4,10 @@ import de.firemage.autograder.core.LocalizedMessage;
 import de.firemage.autograder.core.ProblemType;
 import de.firemage.autograder.core.check.ExecutableCheck;
 import de.firemage.autograder.core.integrated.IntegratedCheck;
+import de.firemage.autograder.core.integrated.InvocationIndex;
+import de.firemage.autograder.core.integrated.ModelIndex;
 import de.firemage.autograder.core.integrated.VariableUtil;
 import de.firemage.autograder.core.integrated.StaticAnalysis;
-import de.firemage.autograder.core.integrated.MethodUtil;
 import de.firemage.autograder.core.integrated.TypeUtil;
 import de.firemage.autograder.core.integrated.UsesFinder;
 import de.firemage.autograder.treeg.InvalidRegExSyntaxException;
@@ -33,8 +34,11 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtVariable;
 import spoon.reflect.reference.CtExecutableReference;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ExecutableCheck(reportedProblems = {ProblemType.COMPLEX_REGEX})
 public class RegexCheck extends IntegratedCheck {
@@ -53,7 +57,17 @@ public class RegexCheck extends IntegratedCheck {
         return REGEX_HINTS.stream().filter(value::contains).count() >= MIN_REGEX_HINTS;
     }
 
-    private static boolean isRegexInvocation(CtInvocation<?> ctInvocation) {
+    private static Set<CtElement> findStringRegexInvocations(InvocationIndex invocationIndex) {
+        Set<CtElement> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        result.addAll(invocationIndex.getInvocations(String.class, "matches", String.class));
+        result.addAll(invocationIndex.getInvocations(String.class, "replaceAll", String.class, String.class));
+        result.addAll(invocationIndex.getInvocations(String.class, "replaceFirst", String.class, String.class));
+        result.addAll(invocationIndex.getInvocations(String.class, "split", String.class));
+        result.addAll(invocationIndex.getInvocations(String.class, "split", String.class, int.class));
+        return result;
+    }
+
+    private static boolean isRegexInvocation(CtInvocation<?> ctInvocation, Set<CtElement> stringRegexInvocations) {
         CtExecutableReference<?> ctExecutable = ctInvocation.getExecutable();
 
         // for super invocations the target is null
@@ -65,34 +79,29 @@ public class RegexCheck extends IntegratedCheck {
             && TypeUtil.isTypeEqualTo(ctTypeAccess.getAccessedType(), java.util.regex.Pattern.class)
             && List.of("matches", "compile").contains(ctExecutable.getSimpleName())
             || TypeUtil.isTypeEqualTo(ctInvocation.getTarget().getType(), java.lang.String.class)
-            && (
-            MethodUtil.isSignatureEqualTo(ctExecutable, boolean.class, "matches", String.class)
-                || MethodUtil.isSignatureEqualTo(ctExecutable, String.class, "replaceAll", String.class, String.class)
-                || MethodUtil.isSignatureEqualTo(ctExecutable, String.class, "replaceFirst", String.class, String.class)
-                || MethodUtil.isSignatureEqualTo(ctExecutable, String[].class, "split", String.class)
-                || MethodUtil.isSignatureEqualTo(ctExecutable, String[].class, "split", String.class, int.class)
-        );
+            && stringRegexInvocations.contains(ctInvocation);
     }
 
-    private static boolean isInAllowedContext(CtLiteral<?> ctLiteral) {
+    private static boolean isInAllowedContext(CtLiteral<?> ctLiteral, Set<CtElement> stringRegexInvocations) {
         CtElement parent = ctLiteral.getParent();
         if (parent instanceof CtVariable<?> ctVariable
             && VariableUtil.isEffectivelyFinal(ctVariable)) {
             // Check if the variable is only used in a regex invocation (e.g. Pattern.compile)
             return UsesFinder.variableUses(ctVariable)
                 .hasAnyAndAllMatch(ctVariableAccess -> ctVariableAccess.getParent() instanceof CtInvocation<?> ctInvocation
-                    && isRegexInvocation(ctInvocation));
+                    && isRegexInvocation(ctInvocation, stringRegexInvocations));
         }
 
-        return parent instanceof CtInvocation<?> ctInvocation && isRegexInvocation(ctInvocation);
+        return parent instanceof CtInvocation<?> ctInvocation && isRegexInvocation(ctInvocation, stringRegexInvocations);
     }
 
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
+        Set<CtElement> stringRegexInvocations = findStringRegexInvocations(InvocationIndex.getFor(staticAnalysis.getModel()));
         staticAnalysis.processWith(new AbstractProcessor<CtLiteral<String>>() {
             @Override
             public void process(CtLiteral<String> literal) {
-                if (!TypeUtil.isString(literal.getType()) || !isInAllowedContext(literal)) {
+                if (!TypeUtil.isString(literal.getType()) || !isInAllowedContext(literal, stringRegexInvocations)) {
                     return;
                 }
 
@@ -241,4 +250,9 @@ public class RegexCheck extends IntegratedCheck {
             case TIMES, OPEN_RANGE, RANGE -> 5.0;
         } * scoreNode(quantifier.child());
     }
+
+    @Override
+    public Set<ModelIndex> requiredIndexes() {
+        return Set.of(ModelIndex.USES, ModelIndex.INVOCATIONS);
+    }
 }
@@ -267,6 +267,12 @@ public class VariablesHaveDescriptiveNamesCheck extends IntegratedCheck {
         );
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        this.similarIdentifier.clear();
+    }
+
     @Override
     protected void check(StaticAnalysis staticAnalysis) {
         staticAnalysis.processWith(new AbstractProcessor<CtVariable<?>>() {
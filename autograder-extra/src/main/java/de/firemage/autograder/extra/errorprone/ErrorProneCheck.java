@@ -23,4 +23,9 @@ public interface ErrorProneCheck extends Check {
     default Translatable getLinter() {
         return new LocalizedMessage("linter-error-prone");
     }
+
+    @Override
+    default boolean isReusable() {
+        return true;
+    }
 }
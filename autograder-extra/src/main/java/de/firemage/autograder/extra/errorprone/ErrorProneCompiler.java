@@ -49,20 +49,13 @@ record ErrorProneCompiler(JavaVersion javaVersion, AbstractTempLocation tempLoca
         // inherits the exports from the JVM it is running in. Autograder will obviously
         // not have these flags set, so instead of requiring them (would be annoying for
         // all contributors and IDE setup), a new JVM is launched with the flags set.
-        VMLauncher vmLauncher = VMLauncher.fromDefault(this.tempLocation);
+        //
+        // Starting that JVM and warming up the compiler takes longer than most compilations,
+        // so the JVMs are kept alive and reused for other submissions.
 
         // use explicit type, so it is serializable
-        ArrayList<ErrorProneDiagnostic> diagnostics;
-        try {
-            diagnostics = vmLauncher
-                .runInNewJVM(() -> new ArrayList<>(this.internalCompile(input)))
-                // wait for the compiler to finish
-                .join();
-        } catch (InterruptedException exception) {
-            // not sure how to handle InterruptedException, so just do something and hope it never happens
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("unreachable");
-        }
+        ArrayList<ErrorProneDiagnostic> diagnostics = ErrorProneWorkerPool.getInstance()
+            .run(() -> new ArrayList<>(this.internalCompile(input)));
 
         return diagnostics;
     }
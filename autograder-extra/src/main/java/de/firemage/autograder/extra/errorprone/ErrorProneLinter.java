@@ -19,6 +19,11 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class ErrorProneLinter implements CodeLinter<ErrorProneCheck> {
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     @Override
     public Class<ErrorProneCheck> supportedCheckType() {
         return ErrorProneCheck.class;
@@ -29,6 +34,7 @@ public class ErrorProneLinter implements CodeLinter<ErrorProneCheck> {
         UploadedFile submission,
         AbstractTempLocation tempLocation,
         ClassLoader classLoader,
+        int threads,
         List<? extends ErrorProneCheck> checks,
         Consumer<? super Translatable> statusConsumer,
         Consumer<? super FailureInformation> failureConsumer
@@ -0,0 +1,103 @@
+package de.firemage.autograder.extra.errorprone;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the JVMs in which error-prone runs alive between compilations.
+ * <p>
+ * A worker is only used by one compilation at a time. If multiple submissions are compiled at the same time,
+ * additional workers are started. After a worker has been used a number of times, it is replaced by a new one,
+ * so that anything the compiler accumulates over time is released again.
+ * <p>
+ * The workers exit on their own when this JVM exits, because their stdin is closed.
+ */
+final class ErrorProneWorkerPool implements AutoCloseable {
+    private static final int MAX_RUNS_PER_WORKER = 64;
+    private static final ErrorProneWorkerPool INSTANCE = new ErrorProneWorkerPool(
+        Math.max(Runtime.getRuntime().availableProcessors() / 2, 1)
+    );
+
+    private final int maxIdleWorkers;
+    private final Deque<VMLauncher.VMWorker> idleWorkers;
+
+    ErrorProneWorkerPool(int maxIdleWorkers) {
+        this.maxIdleWorkers = maxIdleWorkers;
+        this.idleWorkers = new ArrayDeque<>();
+    }
+
+    static ErrorProneWorkerPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs the given lambda in one of the workers.
+     *
+     * @param supplier the code to run in the worker
+     * @param <T> the type of the result returned by the lambda
+     * @return the result of the lambda
+     * @throws IOException if no worker could be started or the communication with it failed
+     */
+    <T extends Serializable> T run(SerializableSupplier<T> supplier) throws IOException {
+        VMLauncher.VMWorker worker = this.acquire();
+        try {
+            return worker.run(supplier);
+        } finally {
+            this.release(worker);
+        }
+    }
+
+    private VMLauncher.VMWorker acquire() throws IOException {
+        while (true) {
+            VMLauncher.VMWorker worker;
+            synchronized (this.idleWorkers) {
+                worker = this.idleWorkers.pollFirst();
+            }
+
+            if (worker == null) {
+                return VMLauncher.fromDefault().startWorker();
+            }
+
+            // the worker might have crashed while it was idle
+            if (worker.isUsable()) {
+                return worker;
+            }
+
+            worker.close();
+        }
+    }
+
+    private void release(VMLauncher.VMWorker worker) {
+        if (worker.isUsable() && worker.completedRuns() < MAX_RUNS_PER_WORKER) {
+            synchronized (this.idleWorkers) {
+                if (this.idleWorkers.size() < this.maxIdleWorkers) {
+                    // the most recently used worker is reused first, because it is the most warmed up
+                    this.idleWorkers.addFirst(worker);
+                    return;
+                }
+            }
+        }
+
+        worker.close();
+    }
+
+    /**
+     * Stops the workers that are currently not in use.
+     * <p>
+     * Workers that are still running a lambda are stopped when they are released.
+     */
+    @Override
+    public void close() {
+        List<VMLauncher.VMWorker> workers;
+        synchronized (this.idleWorkers) {
+            workers = new ArrayList<>(this.idleWorkers);
+            this.idleWorkers.clear();
+        }
+
+        workers.forEach(VMLauncher.VMWorker::close);
+    }
+}
@@ -1,32 +1,29 @@
 package de.firemage.autograder.extra.errorprone;
 
-import de.firemage.autograder.api.AbstractTempLocation;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInput;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.io.Serializable;
+import java.io.StringWriter;
 import java.lang.management.ManagementFactory;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class that can be used to run code in a new JVM.
  *
- * @param jvmArgs      arguments to pass to the new JVM (those are that java -... flags)
- * @param tempLocation a location where the result of the code can be written to (used for inter-process communication)
+ * @param jvmArgs arguments to pass to the new JVM (those are that java -... flags)
  */
-public record VMLauncher(List<String> jvmArgs, AbstractTempLocation tempLocation, Optional<String> mainClassName) {
-    public static VMLauncher fromDefault(AbstractTempLocation tmpLocation) throws IOException {
+public record VMLauncher(List<String> jvmArgs, Optional<String> mainClassName) {
+    public static VMLauncher fromDefault() {
         Optional<String> mainClassName = Optional.empty();
         {
             String potentialName = System.getProperty("sun.java.command");
@@ -53,46 +50,23 @@ public record VMLauncher(List<String> jvmArgs, AbstractTempLocation tempLocation
                 "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED",
                 "--add-exports=jdk.compiler/com.sun.source.tree=ALL-UNNAMED"
             ),
-            tmpLocation.createTempDirectory("vm"),
             mainClassName
         );
     }
 
-    private static String serialize(Serializable serializable) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        try (ObjectOutput objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
-            objectOutputStream.writeObject(serializable);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to serialize object", e);
-        }
-
-        return Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T extends Serializable> T deserialize(String string) {
-        byte[] data = Base64.getDecoder().decode(string);
-        try (ObjectInput objectInput = new ObjectInputStream(new ByteArrayInputStream(data))) {
-            return (T) objectInput.readObject();
-        } catch (ClassNotFoundException | IOException e) {
-            throw new IllegalArgumentException("Failed to deserialize object", e);
-        }
-    }
-
     /**
-     * Runs the given lambda in a new JVM.
+     * Starts a new JVM that stays alive and runs the lambdas it is sent one after another.
      * <p>
-     * Note that the IDEs debugger will most likely not attach to code called in this lambda.
-     * Therefore, it is recommended to run as little code as possible in this lambda.
+     * The JVM only has to start once and the code that is run repeatedly will be warmed up after a few runs.
      *
-     * @param supplier the code to run in the new JVM
-     * @param <T>      the type of the result returned by the lambda
-     * @return a handle to the launched code
-     * @throws IOException if it failed to serialize the lambda
+     * @return a handle to the started JVM, which must be closed when it is no longer needed
+     * @throws IOException if the JVM could not be started
      */
-    // https://stackoverflow.com/a/65129876/7766117
-    // NOTE: do not weaken the type to Serializable, it will not work!
-    public <T extends Serializable> VMHandle<T> runInNewJVM(SerializableSupplier<T> supplier) throws IOException {
+    public VMWorker startWorker() throws IOException {
+        return new VMWorker(new ProcessBuilder(this.commandLineFor(WorkerMain.class)));
+    }
+
+    private List<String> commandLineFor(Class<?> mainClass) {
         ProcessHandle.Info currentProcessInfo = ProcessHandle.current().info();
         List<String> newProcessCommandLine = new ArrayList<>();
         newProcessCommandLine.add(currentProcessInfo.command().orElseThrow());
@@ -100,79 +74,158 @@ public record VMLauncher(List<String> jvmArgs, AbstractTempLocation tempLocation
         newProcessCommandLine.add("-classpath");
         newProcessCommandLine.add(ManagementFactory.getRuntimeMXBean().getClassPath());
 
-
-        // the result is written to a temporary file, because I could not find a way to do
-        // inter-process communication (e.g. a channel to send back the result before exiting)
-        Path resultFileLocation = this.tempLocation.createTempFile("result.txt");
-
         // inject custom jvm arguments:
         newProcessCommandLine.addAll(this.jvmArgs);
         // signal that it should launch our target class:
-        newProcessCommandLine.add(TargetMain.class.getName());
-        // provide the code that it should execute:
-        newProcessCommandLine.add(serialize(supplier));
-        // the result will be written to the file:
-        newProcessCommandLine.add(resultFileLocation.toString());
+        newProcessCommandLine.add(mainClass.getName());
 
-        return new VMHandle<>(new ProcessBuilder(newProcessCommandLine), resultFileLocation);
+        return newProcessCommandLine;
     }
 
     /**
-     * Represents a reference to the launched VM.
-     *
-     * @param <T> the type of the result returned by the launched lambda.
+     * Represents a reference to a JVM started with {@link #startWorker()}.
+     * <p>
+     * The lambdas are sent through the stdin of the worker and the results are sent back through its stdout.
+     * A worker can only run one lambda at a time, so it must not be shared between threads without synchronization.
      */
-    public static final class VMHandle<T extends Serializable> {
+    public static final class VMWorker implements AutoCloseable {
         private final Process process;
-        private final Path resultFileLocation;
-        private T value;
+        private final ObjectOutputStream requests;
+        private final ObjectInputStream responses;
+        private int completedRuns;
+        private boolean isBroken;
 
-        private VMHandle(
-            ProcessBuilder processBuilder,
-            Path resultFileLocation
-        ) throws IOException {
+        private VMWorker(ProcessBuilder processBuilder) throws IOException {
             this.process = processBuilder
-                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
                 .redirectError(ProcessBuilder.Redirect.INHERIT)
                 .start();
 
-            this.value = null;
-            this.resultFileLocation = resultFileLocation;
+            try {
+                this.requests = new ObjectOutputStream(new BufferedOutputStream(this.process.getOutputStream()));
+                this.requests.flush();
+                // this blocks until the worker has started and written the stream header
+                this.responses = new ObjectInputStream(new BufferedInputStream(this.process.getInputStream()));
+            } catch (IOException exception) {
+                this.process.destroyForcibly();
+                throw exception;
+            }
+
+            this.completedRuns = 0;
+            this.isBroken = false;
         }
 
-        private T getValue() throws IOException {
-            if (this.value == null) {
-                this.value = deserialize(Files.readString(this.resultFileLocation));
+        /**
+         * Runs the given lambda in the worker and waits for its result.
+         *
+         * @param supplier the code to run in the worker
+         * @param <T>      the type of the result returned by the lambda
+         * @return the result of the lambda
+         * @throws IOException if the communication with the worker failed, the worker can not be used afterward
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Serializable> T run(SerializableSupplier<T> supplier) throws IOException {
+            WorkerResponse response;
+            try {
+                this.requests.writeObject(supplier);
+                // forget the already written objects, otherwise the stream would keep them alive forever
+                this.requests.reset();
+                this.requests.flush();
+
+                response = (WorkerResponse) this.responses.readObject();
+            } catch (IOException | ClassNotFoundException | ClassCastException exception) {
+                this.isBroken = true;
+                throw new IOException("Failed to communicate with the worker", exception);
+            }
+
+            this.completedRuns += 1;
+
+            if (response.error() != null) {
+                throw new IllegalStateException("The code failed in the worker: " + response.error());
             }
 
-            return this.value;
+            return (T) response.value();
+        }
+
+        /**
+         * Returns how many lambdas have been run by this worker.
+         *
+         * @return the number of completed runs
+         */
+        public int completedRuns() {
+            return this.completedRuns;
         }
 
-        public T join() throws InterruptedException, IOException {
-            int exitCode = this.process.waitFor();
-            if (exitCode != 0) {
-                throw new IllegalStateException("Process exited with non-zero exit code: " + exitCode);
+        /**
+         * Checks whether the worker can still be used.
+         *
+         * @return true if the worker is running and the communication did not fail
+         */
+        public boolean isUsable() {
+            return !this.isBroken && this.process.isAlive();
+        }
+
+        @Override
+        public void close() {
+            try {
+                // the worker stops when its stdin is closed
+                this.requests.close();
+            } catch (IOException exception) {
+                // the worker is already gone
             }
 
-            return this.getValue();
+            try {
+                if (!this.process.waitFor(5, TimeUnit.SECONDS)) {
+                    this.process.destroyForcibly();
+                }
+            } catch (InterruptedException exception) {
+                this.process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
-    private static final class TargetMain {
-        private static void run(String[] args) {
-            SerializableSupplier<? extends Serializable> supplier = deserialize(args[0]);
+    private record WorkerResponse(Serializable value, String error) implements Serializable {
+    }
 
-            try {
-                Serializable value = supplier.get();
-                Files.writeString(Path.of(args[1]), serialize(value));
-            } catch (Exception e) {
-                throw new IllegalStateException("Failed to serialize supplier result", e);
+    private static final class WorkerMain {
+        @SuppressWarnings("unchecked")
+        private static void run(PrintStream channel) throws IOException, ClassNotFoundException {
+            ObjectOutputStream responses = new ObjectOutputStream(new BufferedOutputStream(channel));
+            responses.flush();
+            ObjectInputStream requests = new ObjectInputStream(new BufferedInputStream(System.in));
+
+            while (true) {
+                SerializableSupplier<? extends Serializable> supplier;
+                try {
+                    supplier = (SerializableSupplier<? extends Serializable>) requests.readObject();
+                } catch (EOFException exception) {
+                    // the parent closed the stream, so there is nothing left to do
+                    return;
+                }
+
+                WorkerResponse response;
+                try {
+                    response = new WorkerResponse(supplier.get(), null);
+                } catch (Exception exception) {
+                    StringWriter stackTrace = new StringWriter();
+                    exception.printStackTrace(new PrintWriter(stackTrace));
+                    response = new WorkerResponse(null, stackTrace.toString());
+                }
+
+                responses.writeObject(response);
+                responses.reset();
+                responses.flush();
             }
         }
 
         public static void main(String[] args) {
+            // stdout is used to send back the results, so anything else that would be printed
+            // there (e.g. by the compiler) must go to stderr instead
+            PrintStream channel = System.out;
+            System.setOut(System.err);
+
             try {
-                run(args);
+                run(channel);
 
                 System.exit(0);
             } catch (Exception exception) {
@@ -47,6 +47,12 @@ public abstract class PMDCheck implements Check {
         return new LocalizedMessage("linter-pmd");
     }
 
+    @Override
+    public boolean isReusable() {
+        // the rules are renamed by the linter for each run, they do not keep any other state
+        return true;
+    }
+
     public List<Rule> getRules() {
         return new ArrayList<>(rules);
     }
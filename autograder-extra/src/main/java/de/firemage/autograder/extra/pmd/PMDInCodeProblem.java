@@ -28,7 +28,7 @@ public class PMDInCodeProblem extends Problem {
     @Override
     public String toString() {
         return "PMDInCodeProblem[check=%s, position=%s, explanation=%s, problemType=%s]".formatted(
-                this.getCheck(),
+                this.getCheckName(),
                 this.getPosition(),
                 this.getExplanation(),
                 this.getProblemType()
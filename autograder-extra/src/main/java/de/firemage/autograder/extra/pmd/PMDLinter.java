@@ -32,6 +32,11 @@ import java.util.stream.Collectors;
 public class PMDLinter implements CodeLinter<PMDCheck> {
     private static final Language JAVA_LANGUAGE = LanguageRegistry.PMD.getLanguageById("java");
 
+    @Override
+    public boolean isReusable() {
+        return true;
+    }
+
     @Override
     public Class<PMDCheck> supportedCheckType() {
         return PMDCheck.class;
@@ -42,6 +47,7 @@ public class PMDLinter implements CodeLinter<PMDCheck> {
         UploadedFile submission,
         AbstractTempLocation tempLocation,
         ClassLoader classLoader,
+        int threads,
         List<? extends PMDCheck> checks,
         Consumer<? super Translatable> statusConsumer,
         Consumer<? super FailureInformation> failureConsumer
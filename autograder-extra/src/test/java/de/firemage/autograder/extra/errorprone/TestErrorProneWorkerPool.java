@@ -0,0 +1,47 @@
+package de.firemage.autograder.extra.errorprone;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TestErrorProneWorkerPool {
+    private static long currentProcess() {
+        return ProcessHandle.current().pid();
+    }
+
+    @Test
+    void testWorkerIsReused() throws IOException {
+        try (ErrorProneWorkerPool pool = new ErrorProneWorkerPool(1)) {
+            long worker = pool.run(TestErrorProneWorkerPool::currentProcess);
+
+            assertNotEquals(currentProcess(), worker);
+            assertEquals(worker, pool.run(TestErrorProneWorkerPool::currentProcess));
+
+            // an exception in the code does not affect the worker
+            assertThrows(IllegalStateException.class, () -> pool.run(() -> {
+                throw new IllegalArgumentException("failed");
+            }));
+            assertEquals(worker, pool.run(TestErrorProneWorkerPool::currentProcess));
+        }
+    }
+
+    @Test
+    void testCrashedWorkerIsReplaced() throws IOException {
+        try (ErrorProneWorkerPool pool = new ErrorProneWorkerPool(1)) {
+            long worker = pool.run(TestErrorProneWorkerPool::currentProcess);
+
+            assertThrows(IOException.class, () -> pool.run(() -> {
+                Runtime.getRuntime().halt(1);
+                return 0L;
+            }));
+
+            long replacement = pool.run(TestErrorProneWorkerPool::currentProcess);
+            assertNotEquals(worker, replacement);
+            assertEquals(replacement, pool.run(TestErrorProneWorkerPool::currentProcess));
+        }
+    }
+}